@@ -0,0 +1,266 @@
+/**
+ * JmxCircuitBreaker.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.api;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * 按 Broker JMX 地址（host:port）维护的熔断器，取代每次 JMX 调用前的 telnet 探测。
+ * 状态由真实的 JMX 连接与调用结果驱动：
+ * <ul>
+ *   <li>CLOSED：正常放行，连续失败达到阈值后进入 OPEN；</li>
+ *   <li>OPEN：直接拒绝，不产生任何网络请求，冷却期（指数增长）结束后进入 HALF_OPEN；</li>
+ *   <li>HALF_OPEN：只放行一次试探请求，成功则 CLOSED，失败则重新 OPEN。</li>
+ * </ul>
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/17 18:12:36
+ * @version 5.0.0
+ */
+@Slf4j
+public final class JmxCircuitBreaker {
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /** 连续失败多少次后熔断 */
+    private static final int FAILURE_THRESHOLD = 2;
+
+    /** 熔断冷却时间基数与上限 */
+    private static final long OPEN_BASE_MS = 5_000L;
+    private static final long OPEN_MAX_MS = Duration.ofMinutes(2).toMillis();
+
+    private static final ConcurrentHashMap<String, Breaker> BREAKERS = new ConcurrentHashMap<>();
+
+    private static final LongAdder REJECTS = new LongAdder();
+    private static final LongAdder TRIPS = new LongAdder();
+
+    /** 时钟，测试时可替换 */
+    private static volatile LongSupplier clock = System::currentTimeMillis;
+
+    private JmxCircuitBreaker() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 替换时钟（仅用于测试），传入 null 恢复系统时钟
+     */
+    static void setClock(LongSupplier testClock) {
+        clock = testClock != null ? testClock : System::currentTimeMillis;
+    }
+
+    /**
+     * 申请一次调用许可，熔断中直接抛出 {@link OpenException}。
+     * 获得许可后必须调用 {@link #onSuccess} 或 {@link #onFailure} 之一反馈结果。
+     */
+    public static void acquire(String host, int port) throws OpenException {
+        Breaker breaker = BREAKERS.computeIfAbsent(endpoint(host, port), Breaker::new);
+        long retryInMs = breaker.tryAcquire(clock.getAsLong());
+        if (retryInMs >= 0) {
+            REJECTS.increment();
+            throw new OpenException(breaker.endpoint, retryInMs);
+        }
+    }
+
+    /**
+     * 反馈成功：Broker 可达（包括 MBean 不存在等业务异常）
+     */
+    public static void onSuccess(String host, int port) {
+        Breaker breaker = BREAKERS.get(endpoint(host, port));
+        if (breaker != null) {
+            breaker.success();
+        }
+    }
+
+    /**
+     * 反馈失败：建连失败或连接层 IO 异常
+     */
+    public static void onFailure(String host, int port, Throwable cause) {
+        Breaker breaker = BREAKERS.computeIfAbsent(endpoint(host, port), Breaker::new);
+        if (breaker.failure(clock.getAsLong(), cause)) {
+            TRIPS.increment();
+            log.warn("JMX 地址 {} 已熔断，{} ms 内跳过采集: {}", breaker.endpoint,
+                    breaker.remainingOpenMs(clock.getAsLong()), cause != null ? cause.getMessage() : "");
+        }
+    }
+
+    /**
+     * 获取 JMX 地址当前的熔断状态，未记录过的地址视为 CLOSED
+     */
+    public static State stateOf(String host, int port) {
+        Breaker breaker = BREAKERS.get(endpoint(host, port));
+        return breaker == null ? State.CLOSED : breaker.state(clock.getAsLong());
+    }
+
+    /**
+     * 重置指定 JMX 地址的熔断器（如 Broker 配置变更后）
+     */
+    public static void reset(String host, int port) {
+        BREAKERS.remove(endpoint(host, port));
+    }
+
+    /**
+     * 获取所有 JMX 地址的熔断状态明细
+     */
+    public static List<Map<String, Object>> getStates() {
+        long now = clock.getAsLong();
+        List<Map<String, Object>> states = new ArrayList<>();
+        BREAKERS.values().stream()
+                .sorted(Comparator.comparing(b -> b.endpoint))
+                .forEach(breaker -> states.add(breaker.snapshot(now)));
+        return states;
+    }
+
+    /**
+     * 获取熔断器汇总指标
+     */
+    public static Map<String, Object> getMetrics() {
+        long now = clock.getAsLong();
+        int open = 0;
+        int halfOpen = 0;
+        for (Breaker breaker : BREAKERS.values()) {
+            State state = breaker.state(now);
+            if (state == State.OPEN) {
+                open++;
+            } else if (state == State.HALF_OPEN) {
+                halfOpen++;
+            }
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("endpoints", BREAKERS.size());
+        metrics.put("open", open);
+        metrics.put("halfOpen", halfOpen);
+        metrics.put("trips", TRIPS.sum());
+        metrics.put("rejects", REJECTS.sum());
+        return metrics;
+    }
+
+    private static String endpoint(String host, int port) {
+        return host + ":" + port;
+    }
+
+    /**
+     * 单个 JMX 地址的熔断器
+     */
+    private static final class Breaker {
+        private final String endpoint;
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private int openCount;
+        private long openUntil;
+        private boolean trialInFlight;
+        private long lastFailureAt;
+        private String lastError;
+
+        private Breaker(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * 放行返回 -1，拒绝时返回距离下次试探的毫秒数
+         */
+        synchronized long tryAcquire(long now) {
+            switch (state) {
+                case OPEN:
+                    if (now < openUntil) {
+                        return openUntil - now;
+                    }
+                    state = State.HALF_OPEN;
+                    trialInFlight = true;
+                    return -1;
+                case HALF_OPEN:
+                    if (trialInFlight) {
+                        return 0;
+                    }
+                    trialInFlight = true;
+                    return -1;
+                default:
+                    return -1;
+            }
+        }
+
+        synchronized void success() {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            openCount = 0;
+            trialInFlight = false;
+        }
+
+        /**
+         * 记录失败，本次失败导致熔断时返回 true
+         */
+        synchronized boolean failure(long now, Throwable cause) {
+            consecutiveFailures++;
+            lastFailureAt = now;
+            lastError = cause != null ? cause.getMessage() : null;
+            trialInFlight = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD)) {
+                openCount++;
+                openUntil = now + Math.min(OPEN_MAX_MS, OPEN_BASE_MS << Math.min(openCount - 1, 16));
+                state = State.OPEN;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized State state(long now) {
+            // 冷却期已过但尚未有请求试探时，对外展示为 HALF_OPEN
+            return state == State.OPEN && now >= openUntil ? State.HALF_OPEN : state;
+        }
+
+        synchronized long remainingOpenMs(long now) {
+            return Math.max(0L, openUntil - now);
+        }
+
+        synchronized Map<String, Object> snapshot(long now) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("endpoint", endpoint);
+            snapshot.put("state", state(now).name());
+            snapshot.put("consecutiveFailures", consecutiveFailures);
+            snapshot.put("retryInMs", state == State.OPEN ? Math.max(0L, openUntil - now) : 0L);
+            snapshot.put("lastFailureTime", lastFailureAt > 0
+                    ? LocalDateTime.ofInstant(Instant.ofEpochMilli(lastFailureAt), ZoneId.systemDefault()).toString() : null);
+            snapshot.put("lastError", lastError);
+            return snapshot;
+        }
+    }
+
+    /**
+     * 熔断中拒绝调用时抛出的异常
+     */
+    public static class OpenException extends IOException {
+        public OpenException(String endpoint, long retryInMs) {
+            super("JMX 地址 " + endpoint + " 已熔断，" + retryInMs + " ms 后重试");
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.security.KeyStore;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -49,69 +50,95 @@ public class JmxConnectionManager {
 
     private static final ThreadFactory DAEMON_THREAD_FACTORY = new DaemonThreadFactory();
 
+    /** 同时进行中的JMX建连上限 */
+    private static final int MAX_CONCURRENT_CONNECTS = 16;
+
+    /** 共享的建连线程池，替代每次调用新建单线程执行器 */
+    private static final ExecutorService CONNECT_EXECUTOR = new ThreadPoolExecutor(
+            0, MAX_CONCURRENT_CONNECTS, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), DAEMON_THREAD_FACTORY);
+
     private JmxConnectionManager() {
         // 工具类，防止实例化
     }
 
     /**
      * 建立带有超时机制的JMX连接。
+     * 连接在共享的有界线程池中发起，超时后放弃等待；迟到建立的连接会被自动关闭，避免泄漏。
      *
      * @param initializeInfo JMX初始化配置
      * @return JMXConnector 如果成功则返回，否则返回null
      */
     public static JMXConnector connectWithTimeout(JMXInitializeInfo initializeInfo) {
-        final BlockingQueue<Object> blockQueue = new ArrayBlockingQueue<>(1);
-        ExecutorService executor = Executors.newSingleThreadExecutor(DAEMON_THREAD_FACTORY);
-
-        executor.submit(() -> {
-            try {
-                JMXConnector connector;
-                if (initializeInfo.isAcl()) {
-                    Map<String, Object> envs = new HashMap<>();
-                    String[] credentials = {initializeInfo.getJmxUser(), initializeInfo.getJmxPass()};
-                    envs.put(JMXConnector.CREDENTIALS, credentials);
-
-                    if (initializeInfo.isSsl()) {
-                        envs.put(Context.SECURITY_PROTOCOL, "ssl");
-                        envs.put(RMIConnectorServer.RMI_CLIENT_SOCKET_FACTORY_ATTRIBUTE, new SslRMIClientSocketFactory());
-
-                        TrustManager[] tms = getTrustManagers(
-                                initializeInfo.getKeyStorePath(),
-                                initializeInfo.getKeyStorePassword()
-                        );
-                        SSLContext sslContext = SSLContext.getInstance("TLS");
-                        sslContext.init(null, tms, null);
-                        SSLContext.setDefault(sslContext);
-                        envs.put("com.sun.jndi.rmi.factory.socket", new SslRMIClientSocketFactory());
-                    }
-                    connector = JMXConnectorFactory.connect(initializeInfo.getUrl(), envs);
-                } else {
-                    connector = JMXConnectorFactory.connect(initializeInfo.getUrl());
+        CompletableFuture<JMXConnector> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return connect(initializeInfo);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
                 }
+            }, CONNECT_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            log.error("JMX连接线程池已满，放弃连接 {}:{}", initializeInfo.getHost(), initializeInfo.getPort());
+            return null;
+        }
 
-                if (!blockQueue.offer(connector)) {
-                    connector.close();
-                }
-            } catch (Exception e) {
-                if (!blockQueue.offer(e)) {
-                    log.error("JMX阻塞队列已满, 错误: {}", e.getMessage(), e);
-                }
+        try {
+            return future.get(initializeInfo.getTimeout(), initializeInfo.getTimeUnit());
+        } catch (TimeoutException e) {
+            log.error("连接JMX {}:{} 超时（{} {}）", initializeInfo.getHost(), initializeInfo.getPort(),
+                    initializeInfo.getTimeout(), initializeInfo.getTimeUnit());
+            future.thenAccept(JmxConnectionManager::closeQuietly);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.thenAccept(JmxConnectionManager::closeQuietly);
+        } catch (ExecutionException e) {
+            log.error("建立JMX连接 {}:{} 失败: {}", initializeInfo.getHost(), initializeInfo.getPort(),
+                    e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 实际建立JMX连接（阻塞）。
+     */
+    private static JMXConnector connect(JMXInitializeInfo initializeInfo) throws IOException, GeneralSecurityException {
+        if (initializeInfo.isAcl()) {
+            Map<String, Object> envs = new HashMap<>();
+            String[] credentials = {initializeInfo.getJmxUser(), initializeInfo.getJmxPass()};
+            envs.put(JMXConnector.CREDENTIALS, credentials);
+
+            if (initializeInfo.isSsl()) {
+                envs.put(Context.SECURITY_PROTOCOL, "ssl");
+                envs.put(RMIConnectorServer.RMI_CLIENT_SOCKET_FACTORY_ATTRIBUTE, new SslRMIClientSocketFactory());
+
+                TrustManager[] tms = getTrustManagers(
+                        initializeInfo.getKeyStorePath(),
+                        initializeInfo.getKeyStorePassword()
+                );
+                SSLContext sslContext = SSLContext.getInstance("TLS");
+                sslContext.init(null, tms, null);
+                SSLContext.setDefault(sslContext);
+                envs.put("com.sun.jndi.rmi.factory.socket", new SslRMIClientSocketFactory());
             }
-        });
+            return JMXConnectorFactory.connect(initializeInfo.getUrl(), envs);
+        }
+        return JMXConnectorFactory.connect(initializeInfo.getUrl());
+    }
 
-        Object result = null;
+    /**
+     * 静默关闭JMX连接。
+     */
+    static void closeQuietly(JMXConnector connector) {
+        if (connector == null) {
+            return;
+        }
         try {
-            result = blockQueue.poll(initializeInfo.getTimeout(), initializeInfo.getTimeUnit());
-            if (result == null) {
-                result = blockQueue.take();
-            }
+            connector.close();
         } catch (Exception e) {
-            log.error("从队列中检索JMX连接器时出错: {}", e.getMessage(), e);
-        } finally {
-            executor.shutdown();
+            log.warn("关闭JMX连接失败: {}", e.getMessage());
         }
-
-        return (result instanceof JMXConnector) ? (JMXConnector) result : null;
     }
 
     /**
@@ -139,9 +166,11 @@ public class JmxConnectionManager {
      * 为执行器服务创建守护线程。
      */
     private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
         @Override
         public Thread newThread(Runnable r) {
-            Thread t = Executors.defaultThreadFactory().newThread(r);
+            Thread t = new Thread(r, "efak-jmx-connect-" + threadNumber.getAndIncrement());
             t.setDaemon(true);
             return t;
         }
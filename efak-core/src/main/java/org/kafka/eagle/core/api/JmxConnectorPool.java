@@ -0,0 +1,335 @@
+/**
+ * JmxConnectorPool.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kafka.eagle.dto.jmx.JMXInitializeInfo;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 按 Broker host:port 缓存长连接的 JMXConnector。
+ * MBeanServerConnection 支持并发调用，因此同一 Broker 的所有采集共享一个连接；
+ * 后台线程定期做健康检查并回收空闲连接；Broker 可达性由 {@link JmxCircuitBreaker} 根据连接结果跟踪，
+ * 熔断中的 Broker 直接跳过，不再在每次调用前做 telnet 探测。
+ * </p>
+ * 使用示例：
+ * <pre>
+ *   Object value = JmxConnectorPool.execute(initializeInfo,
+ *           connection -&gt; connection.getAttribute(objectName, "Value"));
+ * </pre>
+ * @author Mr.SmartLoli
+ * @since 2025/10/17 09:41:25
+ * @version 5.0.0
+ */
+@Slf4j
+public final class JmxConnectorPool {
+
+    /** 空闲连接回收阈值 */
+    private static final long IDLE_TIMEOUT_MS = Duration.ofMinutes(5).toMillis();
+
+    /** 健康检查周期（秒） */
+    private static final long HEALTH_CHECK_INTERVAL_SECONDS = 30;
+
+    private static final String DEFAULT_URI = "service:jmx:rmi:///jndi/rmi://%s/jmxrmi";
+
+    private static final ConcurrentHashMap<String, PooledConnector> CONNECTORS = new ConcurrentHashMap<>();
+
+    private static final LongAdder REQUESTS = new LongAdder();
+    private static final LongAdder CONNECTS = new LongAdder();
+    private static final LongAdder CONNECT_FAILURES = new LongAdder();
+    private static final LongAdder STALE_DISCARDS = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    private static final ScheduledExecutorService MAINTAINER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "efak-jmx-pool-maintainer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        MAINTAINER.scheduleWithFixedDelay(JmxConnectorPool::maintain,
+                HEALTH_CHECK_INTERVAL_SECONDS, HEALTH_CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private JmxConnectorPool() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 使用池化连接执行 JMX 操作。连接失效（IOException）时丢弃并用新连接重试一次。
+     * Broker 处于熔断状态时立即抛出 {@link JmxCircuitBreaker.OpenException}。
+     *
+     * @param initializeInfo JMX 初始化配置（host、port、认证信息、超时）
+     * @param call           JMX 操作
+     * @return 操作结果
+     */
+    public static <T> T execute(JMXInitializeInfo initializeInfo, JmxCall<T> call) throws Exception {
+        REQUESTS.increment();
+        String host = initializeInfo.getHost();
+        int port = initializeInfo.getPort();
+        JmxCircuitBreaker.acquire(host, port);
+
+        // 只有连接层的 IO 异常计入熔断，MBean 不存在等异常说明 Broker 可达
+        boolean reachable = true;
+        Throwable failure = null;
+        try {
+            return invoke(buildKey(initializeInfo), initializeInfo, call);
+        } catch (IOException | Error e) {
+            reachable = false;
+            failure = e;
+            throw e;
+        } finally {
+            if (reachable) {
+                JmxCircuitBreaker.onSuccess(host, port);
+            } else {
+                JmxCircuitBreaker.onFailure(host, port, failure);
+            }
+        }
+    }
+
+    private static <T> T invoke(String key, JMXInitializeInfo initializeInfo, JmxCall<T> call) throws Exception {
+        PooledConnector pooled = lease(key);
+        try {
+            MBeanServerConnection connection = pooled.connection(initializeInfo);
+            try {
+                return call.execute(connection);
+            } catch (IOException e) {
+                // 复用的连接可能已被 Broker 端断开，丢弃后重试一次；已回收的连接改用新的池化连接重试
+                STALE_DISCARDS.increment();
+                pooled.discard(connection);
+                if (pooled.isRetired()) {
+                    pooled.release();
+                    pooled = lease(key);
+                }
+                return call.execute(pooled.connection(initializeInfo));
+            }
+        } finally {
+            pooled.release();
+        }
+    }
+
+    /**
+     * 获取并占用池化连接，遇到已回收的连接时从池中移除并重新获取
+     */
+    private static PooledConnector lease(String key) {
+        while (true) {
+            PooledConnector pooled = CONNECTORS.computeIfAbsent(key, PooledConnector::new);
+            if (pooled.acquire()) {
+                return pooled;
+            }
+            CONNECTORS.remove(key, pooled);
+        }
+    }
+
+    /**
+     * 关闭并移除指定 Broker 的缓存连接，并重置其熔断状态。
+     */
+    public static void invalidate(String host, int port) {
+        JmxCircuitBreaker.reset(host, port);
+        String prefix = host + ":" + port;
+        CONNECTORS.forEach((key, pooled) -> {
+            if ((key.equals(prefix) || key.startsWith(prefix + "#")) && CONNECTORS.remove(key, pooled)) {
+                pooled.retire();
+            }
+        });
+    }
+
+    /**
+     * 获取 JMX 连接池运行指标快照。
+     */
+    public static Map<String, Object> getMetrics() {
+        int connected = 0;
+        for (PooledConnector pooled : CONNECTORS.values()) {
+            if (pooled.isConnected()) {
+                connected++;
+            }
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requests", REQUESTS.sum());
+        metrics.put("connects", CONNECTS.sum());
+        metrics.put("connectFailures", CONNECT_FAILURES.sum());
+        metrics.put("staleDiscards", STALE_DISCARDS.sum());
+        metrics.put("evictions", EVICTIONS.sum());
+        metrics.put("brokers", CONNECTORS.size());
+        metrics.put("connected", connected);
+        return metrics;
+    }
+
+    /**
+     * 缓存键：host:port，开启认证时附加用户名，避免不同凭据共用连接。
+     */
+    private static String buildKey(JMXInitializeInfo initializeInfo) {
+        String key = initializeInfo.getHost() + ":" + initializeInfo.getPort();
+        return initializeInfo.isAcl() ? key + "#" + initializeInfo.getJmxUser() : key;
+    }
+
+    /**
+     * 健康检查与空闲回收。正在使用的连接只标记为已回收，由最后一个使用者释放时关闭。
+     */
+    private static void maintain() {
+        long now = System.currentTimeMillis();
+        CONNECTORS.forEach((key, pooled) -> {
+            try {
+                if (pooled.isIdleSince(now - IDLE_TIMEOUT_MS)) {
+                    if (CONNECTORS.remove(key, pooled)) {
+                        EVICTIONS.increment();
+                        pooled.retire();
+                        log.debug("回收空闲 JMX 连接: {}", key);
+                    }
+                } else {
+                    pooled.healthCheck();
+                }
+            } catch (Exception e) {
+                log.warn("维护 JMX 连接 {} 失败: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 单个 Broker 的池化连接。
+     */
+    private static final class PooledConnector {
+        private final String key;
+        private JMXConnector connector;
+        private volatile MBeanServerConnection connection;
+        private volatile long lastUsed = System.currentTimeMillis();
+        /** 正在使用该连接的调用数 */
+        private int users;
+        /** 已从池中移除，最后一个使用者释放时关闭 */
+        private boolean retired;
+
+        private PooledConnector(String key) {
+            this.key = key;
+        }
+
+        synchronized boolean acquire() {
+            if (retired) {
+                return false;
+            }
+            users++;
+            lastUsed = System.currentTimeMillis();
+            return true;
+        }
+
+        synchronized void release() {
+            users--;
+            if (retired && users == 0) {
+                close();
+            }
+        }
+
+        synchronized void retire() {
+            retired = true;
+            if (users == 0) {
+                close();
+            }
+        }
+
+        synchronized boolean isRetired() {
+            return retired;
+        }
+
+        MBeanServerConnection connection(JMXInitializeInfo initializeInfo) throws IOException {
+            lastUsed = System.currentTimeMillis();
+            MBeanServerConnection current = connection;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                if (connection != null) {
+                    return connection;
+                }
+                if (initializeInfo.getUri() == null) {
+                    initializeInfo.setUri(DEFAULT_URI);
+                }
+                initializeInfo.setUrl(new JMXServiceURL(String.format(initializeInfo.getUri(),
+                        initializeInfo.getHost() + ":" + initializeInfo.getPort())));
+
+                CONNECTS.increment();
+                JMXConnector created = JmxConnectionManager.connectWithTimeout(initializeInfo);
+                if (created == null) {
+                    CONNECT_FAILURES.increment();
+                    throw new IOException("无法建立 JMX 连接 " + key);
+                }
+                try {
+                    connection = created.getMBeanServerConnection();
+                } catch (IOException e) {
+                    JmxConnectionManager.closeQuietly(created);
+                    CONNECT_FAILURES.increment();
+                    throw e;
+                }
+                connector = created;
+                return connection;
+            }
+        }
+
+        synchronized void discard(MBeanServerConnection stale) {
+            if (connection == stale) {
+                close();
+            }
+        }
+
+        void healthCheck() {
+            MBeanServerConnection current = connection;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.getMBeanCount();
+            } catch (Exception e) {
+                log.warn("JMX 连接 {} 健康检查失败，关闭连接: {}", key, e.getMessage());
+                discard(current);
+            }
+        }
+
+        synchronized void close() {
+            JmxConnectionManager.closeQuietly(connector);
+            connector = null;
+            connection = null;
+        }
+
+        boolean isConnected() {
+            return connection != null;
+        }
+
+        synchronized boolean isIdleSince(long threshold) {
+            return users == 0 && lastUsed < threshold;
+        }
+    }
+
+    /**
+     * JMX 操作。
+     */
+    @FunctionalInterface
+    public interface JmxCall<T> {
+        T execute(MBeanServerConnection connection) throws Exception;
+    }
+}
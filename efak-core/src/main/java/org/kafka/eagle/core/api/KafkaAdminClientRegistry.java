@@ -0,0 +1,307 @@
+/**
+ * KafkaAdminClientRegistry.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.kafka.eagle.dto.cluster.KafkaClientInfo;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 按集群ID与安全配置缓存长连接的 AdminClient，采用引用计数管理生命周期。
+ * 集群或 Broker 配置变化时调用 {@link #invalidate(String)} 使旧连接退役，
+ * 退役连接在最后一个租约归还后才真正关闭，空闲连接由后台线程定期回收。
+ * </p>
+ * 使用示例：
+ * <pre>
+ *   try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+ *       lease.admin().describeCluster().nodes().get();
+ *   }
+ * </pre>
+ * @author Mr.SmartLoli
+ * @since 2025/10/16 10:12:36
+ * @version 5.0.0
+ */
+@Slf4j
+public final class KafkaAdminClientRegistry {
+
+    /** 空闲连接回收阈值 */
+    private static final long IDLE_TIMEOUT_MS = Duration.ofMinutes(10).toMillis();
+
+    /** 空闲回收检查周期（秒） */
+    private static final long EVICT_INTERVAL_SECONDS = 60;
+
+    private static final String CLIENT_ID_PREFIX = "efak-admin-";
+
+    private static final ConcurrentHashMap<String, PooledAdmin> CLIENTS = new ConcurrentHashMap<>();
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder CREATE_FAILURES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+    private static final LongAdder INVALIDATIONS = new LongAdder();
+    private static final AtomicLong CREATE_NANOS_TOTAL = new AtomicLong();
+    private static final AtomicLong CREATE_NANOS_MAX = new AtomicLong();
+
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "efak-admin-evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        EVICTOR.scheduleWithFixedDelay(KafkaAdminClientRegistry::evictIdle,
+                EVICT_INTERVAL_SECONDS, EVICT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private KafkaAdminClientRegistry() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 借用指定集群的 AdminClient，使用完毕后必须关闭租约。
+     *
+     * @param plugin     用于构建客户端配置的存储插件
+     * @param clientInfo 集群连接信息
+     * @return AdminClient 租约
+     */
+    public static Lease acquire(KafkaStoragePlugin plugin, KafkaClientInfo clientInfo) {
+        String key = clientKey(clientInfo);
+        while (true) {
+            boolean[] created = {false};
+            PooledAdmin pooled = CLIENTS.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return create(k, plugin, clientInfo);
+            });
+            if (pooled.retain()) {
+                (created[0] ? MISSES : HITS).increment();
+                return new Lease(pooled);
+            }
+            // 并发退役，移除后重试
+            CLIENTS.remove(key, pooled);
+        }
+    }
+
+    /**
+     * 使指定集群的所有缓存连接退役（ke_cluster / ke_broker_info 变更时调用）。
+     *
+     * @param clusterId 集群ID
+     */
+    public static void invalidate(String clusterId) {
+        if (clusterId == null) {
+            return;
+        }
+        for (Map.Entry<String, PooledAdmin> entry : CLIENTS.entrySet()) {
+            PooledAdmin pooled = entry.getValue();
+            if (clusterId.equals(pooled.clusterId) && CLIENTS.remove(entry.getKey(), pooled)) {
+                INVALIDATIONS.increment();
+                pooled.retire();
+                log.info("集群 {} 的 AdminClient 已失效，等待租约归还后关闭", clusterId);
+            }
+        }
+    }
+
+    /**
+     * 关闭全部缓存连接。
+     */
+    public static void invalidateAll() {
+        for (Map.Entry<String, PooledAdmin> entry : CLIENTS.entrySet()) {
+            if (CLIENTS.remove(entry.getKey(), entry.getValue())) {
+                INVALIDATIONS.increment();
+                entry.getValue().retire();
+            }
+        }
+    }
+
+    /**
+     * 获取连接池运行指标快照。
+     *
+     * @return 命中率、存活连接数、创建耗时等指标
+     */
+    public static Map<String, Object> getMetrics() {
+        long hits = HITS.sum();
+        long misses = MISSES.sum();
+        long total = hits + misses;
+        int leased = 0;
+        Map<String, Integer> clientsPerCluster = new TreeMap<>();
+        for (PooledAdmin pooled : CLIENTS.values()) {
+            if (pooled.refCount() > 0) {
+                leased++;
+            }
+            clientsPerCluster.merge(pooled.clusterId, 1, Integer::sum);
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits);
+        metrics.put("misses", misses);
+        metrics.put("hitRate", total == 0 ? 0.0 : Math.round(hits * 10000.0 / total) / 100.0);
+        metrics.put("liveClients", CLIENTS.size());
+        metrics.put("leasedClients", leased);
+        metrics.put("createFailures", CREATE_FAILURES.sum());
+        metrics.put("evictions", EVICTIONS.sum());
+        metrics.put("invalidations", INVALIDATIONS.sum());
+        metrics.put("avgCreateMillis", misses == 0 ? 0.0 : Math.round(CREATE_NANOS_TOTAL.get() / 1000.0 / misses) / 1000.0);
+        metrics.put("maxCreateMillis", CREATE_NANOS_MAX.get() / 1_000_000.0);
+        metrics.put("clientsPerCluster", clientsPerCluster);
+        return metrics;
+    }
+
+    /**
+     * 生成缓存键：集群ID + 连接与安全配置指纹，任何认证参数变化都会得到新的连接。
+     */
+    static String clientKey(KafkaClientInfo clientInfo) {
+        int fingerprint = Objects.hash(
+                clientInfo.getBrokerServer(),
+                clientInfo.isSasl(), clientInfo.getSaslProtocol(), clientInfo.getSaslMechanism(),
+                clientInfo.getSaslClientId(), clientInfo.getSaslJaasConfig(),
+                clientInfo.isSsl(), clientInfo.getSslProtocol(), clientInfo.getSslTruststoreLocation(),
+                clientInfo.getSslTruststorePassword(), clientInfo.getSslKeystoreLocation(),
+                clientInfo.getSslKeystorePassword(), clientInfo.getSslKeyPassword(), clientInfo.getSslAlgorithm());
+        return clientInfo.getClusterId() + "#" + Integer.toHexString(fingerprint);
+    }
+
+    private static PooledAdmin create(String key, KafkaStoragePlugin plugin, KafkaClientInfo clientInfo) {
+        long start = System.nanoTime();
+        try {
+            Properties props = new Properties();
+            props.putAll(plugin.buildAdminClientProps(clientInfo));
+            props.putIfAbsent(CommonClientConfigs.CLIENT_ID_CONFIG, CLIENT_ID_PREFIX + clientInfo.getClusterId());
+            AdminClient client = AdminClient.create(props);
+
+            long elapsed = System.nanoTime() - start;
+            CREATE_NANOS_TOTAL.addAndGet(elapsed);
+            CREATE_NANOS_MAX.accumulateAndGet(elapsed, Math::max);
+            log.debug("为集群 {} 创建 AdminClient，耗时 {} ms", clientInfo.getClusterId(), elapsed / 1_000_000);
+            return new PooledAdmin(key, clientInfo.getClusterId(), client);
+        } catch (RuntimeException e) {
+            CREATE_FAILURES.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * 回收超过空闲阈值且没有租约的连接。
+     */
+    private static void evictIdle() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, PooledAdmin> entry : CLIENTS.entrySet()) {
+                PooledAdmin pooled = entry.getValue();
+                if (pooled.isIdleSince(now - IDLE_TIMEOUT_MS) && CLIENTS.remove(entry.getKey(), pooled)) {
+                    EVICTIONS.increment();
+                    pooled.retire();
+                    log.debug("回收空闲 AdminClient: {}", entry.getKey());
+                }
+            }
+        } catch (Exception e) {
+            log.error("回收空闲 AdminClient 失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 带引用计数的缓存连接。
+     */
+    private static final class PooledAdmin {
+        private final String key;
+        private final String clusterId;
+        private final AdminClient client;
+        private int refs;
+        private boolean retired;
+        private long lastAccess = System.currentTimeMillis();
+
+        private PooledAdmin(String key, String clusterId, AdminClient client) {
+            this.key = key;
+            this.clusterId = clusterId;
+            this.client = client;
+        }
+
+        synchronized boolean retain() {
+            if (retired) {
+                return false;
+            }
+            refs++;
+            lastAccess = System.currentTimeMillis();
+            return true;
+        }
+
+        synchronized void release() {
+            refs--;
+            lastAccess = System.currentTimeMillis();
+            if (retired && refs == 0) {
+                closeClient();
+            }
+        }
+
+        synchronized void retire() {
+            if (retired) {
+                return;
+            }
+            retired = true;
+            if (refs == 0) {
+                closeClient();
+            }
+        }
+
+        synchronized int refCount() {
+            return refs;
+        }
+
+        synchronized boolean isIdleSince(long threshold) {
+            return refs == 0 && lastAccess < threshold;
+        }
+
+        private void closeClient() {
+            try {
+                client.close(Duration.ofSeconds(5));
+            } catch (Exception e) {
+                log.error("关闭 AdminClient {} 失败: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * AdminClient 租约，关闭时归还引用而不是关闭底层连接。
+     */
+    public static final class Lease implements AutoCloseable {
+        private final PooledAdmin pooled;
+        private boolean released;
+
+        private Lease(PooledAdmin pooled) {
+            this.pooled = pooled;
+        }
+
+        public AdminClient admin() {
+            return pooled.client;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                pooled.release();
+            }
+        }
+    }
+}
@@ -19,24 +19,22 @@ package org.kafka.eagle.core.api;
 
 import lombok.extern.slf4j.Slf4j;
 import org.kafka.eagle.core.constant.JmxMetricsConst;
-import org.kafka.eagle.core.util.NetUtils;
+import org.kafka.eagle.core.dto.TopicMetricTable;
 import org.kafka.eagle.core.util.StrUtils;
 import org.kafka.eagle.dto.broker.BrokerInfo;
 import org.kafka.eagle.dto.jmx.JMXInitializeInfo;
 
+import javax.management.Attribute;
+import javax.management.InstanceNotFoundException;
 import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
-import javax.management.remote.JMXConnector;
-import javax.management.remote.JMXServiceURL;
-import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
-import java.util.StringJoiner;
+import java.util.*;
 
 /**
  * <p>
@@ -131,29 +129,105 @@ public class KafkaClusterFetcher {
     }
 
     /**
-     * 安全地执行 JMX 操作并自动管理连接与资源关闭。
+     * 按指标名 queryNames 获取 Broker 上需要的主题级 BrokerTopicMetrics，并逐个 MBean 批量读取属性，
+     * 返回按列存储的主题指标表。
+     *
+     * @param initializeInfo JMX 初始化配置
+     * @param metricNames    需要的指标名（如 BytesInPerSec），为空表示全部
+     * @param attributes     需要读取的属性（如 OneMinuteRate）
      */
-    private static void executeJmxOperation(JMXInitializeInfo initializeInfo, JMXOperation operation) {
-        if (!NetUtils.telnet(initializeInfo.getHost(), initializeInfo.getPort())) {
-            return;
+    public static TopicMetricTable fetchBrokerTopicMetrics(JMXInitializeInfo initializeInfo, Collection<String> metricNames, String... attributes) {
+        TopicMetricTable table = new TopicMetricTable();
+        executeJmxOperation(initializeInfo, mbeanConnection -> readBrokerTopicMetrics(mbeanConnection, table, metricNames, attributes));
+        return table;
+    }
+
+    /**
+     * 与 {@link #fetchBrokerTopicMetrics} 相同，但连接或读取失败时抛出异常，便于调用方区分“无数据”与“未响应”。
+     */
+    static TopicMetricTable fetchBrokerTopicMetricsOrThrow(JMXInitializeInfo initializeInfo, Collection<String> metricNames, String... attributes) throws Exception {
+        TopicMetricTable table = new TopicMetricTable();
+        JmxConnectorPool.execute(initializeInfo, mbeanConnection -> {
+            readBrokerTopicMetrics(mbeanConnection, table, metricNames, attributes);
+            return null;
+        });
+        return table;
+    }
+
+    /**
+     * 读取 Broker 上的主题级指标并写入指标表。
+     * 指定指标名时按指标名分别 queryNames，只匹配需要的 MBean；远程 JMX 不支持跨 MBean 批量读取，
+     * 每个匹配的 MBean 仍需一次 getAttributes（一次读取全部所需属性）。
+     */
+    private static void readBrokerTopicMetrics(MBeanServerConnection mbeanConnection, TopicMetricTable table,
+                                               Collection<String> metricNames, String... attributes) throws Exception {
+        List<ObjectName> patterns = new ArrayList<>();
+        if (metricNames == null || metricNames.isEmpty()) {
+            patterns.add(new ObjectName(JmxMetricsConst.Server.BROKER_TOPIC_METRICS_ALL_TOPICS.key()));
+        } else {
+            for (String metricName : new LinkedHashSet<>(metricNames)) {
+                patterns.add(new ObjectName(String.format(JmxMetricsConst.Server.BROKER_TOPIC_METRICS_BY_NAME.key(), metricName)));
+            }
+        }
+        for (ObjectName pattern : patterns) {
+            for (ObjectName objectName : mbeanConnection.queryNames(pattern, null)) {
+                String topic = objectName.getKeyProperty("topic");
+                if (topic == null) {
+                    continue;
+                }
+                try {
+                    for (Attribute attribute : mbeanConnection.getAttributes(objectName, attributes).asList()) {
+                        if (attribute.getValue() instanceof Number) {
+                            table.put(topic, objectName.getKeyProperty("name"), attribute.getName(),
+                                    ((Number) attribute.getValue()).doubleValue());
+                        }
+                    }
+                } catch (InstanceNotFoundException e) {
+                    // 主题在查询期间被删除或指标已过期
+                }
+            }
         }
+    }
 
-        JMXConnector connector = null;
-        try {
-            JMXServiceURL jmxUrl = new JMXServiceURL(String.format(initializeInfo.getUri(), initializeInfo.getHost() + ":" + initializeInfo.getPort()));
-            initializeInfo.setUrl(jmxUrl);
-            connector = JmxConnectionManager.connectWithTimeout(initializeInfo);
-            operation.execute(connector.getMBeanServerConnection());
-        } catch (Exception e) {
-            log.error("执行 JMX 操作出错：{}", initializeInfo, e);
-        } finally {
-            if (connector != null) {
+    /**
+     * 在同一个 JMX 连接上批量读取多个 MBean 的属性。
+     *
+     * @param initializeInfo   JMX 初始化配置
+     * @param objectAttributes 对象名 -> 属性列表
+     * @return 对象名 -> (属性名 -> 属性值)，读取失败的对象不包含在结果中
+     */
+    public static Map<String, Map<String, Object>> fetchAttributes(JMXInitializeInfo initializeInfo, Map<String, String[]> objectAttributes) {
+        Map<String, Map<String, Object>> values = new HashMap<>();
+        executeJmxOperation(initializeInfo, mbeanConnection -> {
+            for (Map.Entry<String, String[]> entry : objectAttributes.entrySet()) {
                 try {
-                    connector.close();
-                } catch (IOException e) {
-                    log.error("关闭 JMX 连接器失败：{}", e.getMessage());
+                    Map<String, Object> attributeValues = new HashMap<>();
+                    for (Attribute attribute : mbeanConnection.getAttributes(new ObjectName(entry.getKey()), entry.getValue()).asList()) {
+                        attributeValues.put(attribute.getName(), attribute.getValue());
+                    }
+                    values.put(entry.getKey(), attributeValues);
+                } catch (InstanceNotFoundException e) {
+                    log.debug("JMX 对象不存在：{}", entry.getKey());
                 }
             }
+        });
+        return values;
+    }
+
+    /**
+     * 安全地执行 JMX 操作，连接由 {@link JmxConnectorPool} 按 Broker 复用，
+     * 不可达的 Broker 由 {@link JmxCircuitBreaker} 熔断后直接跳过。
+     */
+    private static void executeJmxOperation(JMXInitializeInfo initializeInfo, JMXOperation operation) {
+        try {
+            JmxConnectorPool.execute(initializeInfo, connection -> {
+                operation.execute(connection);
+                return null;
+            });
+        } catch (JmxCircuitBreaker.OpenException e) {
+            log.debug(e.getMessage());
+        } catch (Exception e) {
+            log.error("执行 JMX 操作出错：{}", initializeInfo, e);
         }
     }
 
@@ -0,0 +1,286 @@
+/**
+ * KafkaConsumerPool.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.kafka.eagle.dto.cluster.KafkaClientInfo;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 按集群缓存仅用于 assign 的 KafkaConsumer（不设置 group.id），用于查询位移与拉取少量消息。
+ * 每个集群最多同时借出 {@link #MAX_CONSUMERS_PER_CLUSTER} 个实例，超出时等待归还；
+ * 归还时清空分配关系后放回空闲队列，发生异常的实例直接关闭不再复用。
+ * </p>
+ * 使用示例：
+ * <pre>
+ *   try (KafkaConsumerPool.Lease lease = KafkaConsumerPool.borrow(plugin, clientInfo)) {
+ *       lease.consumer().endOffsets(partitions);
+ *   }
+ * </pre>
+ * @author Mr.SmartLoli
+ * @since 2025/10/16 14:05:18
+ * @version 5.0.0
+ */
+@Slf4j
+public final class KafkaConsumerPool {
+
+    /** 每个集群允许同时借出的最大实例数 */
+    private static final int MAX_CONSUMERS_PER_CLUSTER = 4;
+
+    /** 等待可用实例的最长时间（秒） */
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+
+    /** 空闲实例回收阈值 */
+    private static final long IDLE_TIMEOUT_MS = Duration.ofMinutes(10).toMillis();
+
+    private static final String CLIENT_ID_PREFIX = "efak-offset-reader-";
+
+    private static final ConcurrentHashMap<String, ClusterPool> POOLS = new ConcurrentHashMap<>();
+
+    private static final LongAdder BORROWS = new LongAdder();
+    private static final LongAdder CREATIONS = new LongAdder();
+    private static final LongAdder DISCARDS = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+    private static final LongAdder BORROW_TIMEOUTS = new LongAdder();
+    private static final LongAdder WAIT_NANOS_TOTAL = new LongAdder();
+
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "efak-consumer-pool-evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        EVICTOR.scheduleWithFixedDelay(KafkaConsumerPool::evictIdle, 60, 60, TimeUnit.SECONDS);
+    }
+
+    private KafkaConsumerPool() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 借用指定集群的 assign-only 消费者，使用完毕后必须关闭租约。
+     *
+     * @param plugin     用于构建客户端配置的存储插件
+     * @param clientInfo 集群连接信息
+     * @return 消费者租约
+     * @throws TimeoutException 等待可用实例超时
+     */
+    public static Lease borrow(KafkaStoragePlugin plugin, KafkaClientInfo clientInfo)
+            throws InterruptedException, TimeoutException {
+        String key = KafkaAdminClientRegistry.clientKey(clientInfo)
+                + "#" + clientInfo.getKeyDeserializer() + "#" + clientInfo.getValueDeserializer();
+        ClusterPool pool = POOLS.computeIfAbsent(key, k -> new ClusterPool(clientInfo.getClusterId()));
+
+        long start = System.nanoTime();
+        if (!pool.permits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            BORROW_TIMEOUTS.increment();
+            throw new TimeoutException("等待集群 " + clientInfo.getClusterId() + " 的消费者实例超时");
+        }
+        WAIT_NANOS_TOTAL.add(System.nanoTime() - start);
+        BORROWS.increment();
+
+        PooledConsumer pooled = pool.idle.pollFirst();
+        while (pooled != null && pooled.generation != pool.generation.get()) {
+            pooled.close();
+            pooled = pool.idle.pollFirst();
+        }
+        if (pooled == null) {
+            try {
+                pooled = create(plugin, clientInfo, pool);
+            } catch (RuntimeException e) {
+                pool.permits.release();
+                throw e;
+            }
+        }
+        return new Lease(pool, pooled);
+    }
+
+    /**
+     * 使指定集群的缓存消费者失效（ke_cluster / ke_broker_info 变更时调用）。
+     *
+     * @param clusterId 集群ID
+     */
+    public static void invalidate(String clusterId) {
+        if (clusterId == null) {
+            return;
+        }
+        for (ClusterPool pool : POOLS.values()) {
+            if (clusterId.equals(pool.clusterId)) {
+                pool.generation.incrementAndGet();
+                PooledConsumer pooled;
+                while ((pooled = pool.idle.pollFirst()) != null) {
+                    pooled.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取消费者池运行指标快照。
+     *
+     * @return 借用次数、创建次数、空闲/借出数量等指标
+     */
+    public static Map<String, Object> getMetrics() {
+        int idle = 0;
+        int leased = 0;
+        for (ClusterPool pool : POOLS.values()) {
+            idle += pool.idle.size();
+            leased += MAX_CONSUMERS_PER_CLUSTER - pool.permits.availablePermits();
+        }
+        long borrows = BORROWS.sum();
+        long creations = CREATIONS.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("borrows", borrows);
+        metrics.put("creations", creations);
+        metrics.put("reuseRate", borrows == 0 ? 0.0 : Math.round((borrows - creations) * 10000.0 / borrows) / 100.0);
+        metrics.put("idleConsumers", idle);
+        metrics.put("leasedConsumers", leased);
+        metrics.put("maxPerCluster", MAX_CONSUMERS_PER_CLUSTER);
+        metrics.put("discards", DISCARDS.sum());
+        metrics.put("evictions", EVICTIONS.sum());
+        metrics.put("borrowTimeouts", BORROW_TIMEOUTS.sum());
+        metrics.put("avgWaitMillis", borrows == 0 ? 0.0 : Math.round(WAIT_NANOS_TOTAL.sum() / 1000.0 / borrows) / 1000.0);
+        return metrics;
+    }
+
+    private static PooledConsumer create(KafkaStoragePlugin plugin, KafkaClientInfo clientInfo, ClusterPool pool) {
+        Properties props = plugin.buildAssignOnlyConsumerProps(clientInfo);
+        props.put(CommonClientConfigs.CLIENT_ID_CONFIG,
+                CLIENT_ID_PREFIX + clientInfo.getClusterId() + "-" + pool.sequence.incrementAndGet());
+        KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props);
+        CREATIONS.increment();
+        return new PooledConsumer(consumer, pool.generation.get());
+    }
+
+    /**
+     * 回收超过空闲阈值的实例。
+     */
+    private static void evictIdle() {
+        try {
+            long threshold = System.currentTimeMillis() - IDLE_TIMEOUT_MS;
+            for (ClusterPool pool : POOLS.values()) {
+                Iterator<PooledConsumer> it = pool.idle.iterator();
+                while (it.hasNext()) {
+                    PooledConsumer pooled = it.next();
+                    if (pooled.lastReturn < threshold && pool.idle.removeFirstOccurrence(pooled)) {
+                        EVICTIONS.increment();
+                        pooled.close();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("回收空闲消费者失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 单个集群（及相同安全配置）的消费者池。
+     */
+    private static final class ClusterPool {
+        private final String clusterId;
+        private final Semaphore permits = new Semaphore(MAX_CONSUMERS_PER_CLUSTER, true);
+        private final ConcurrentLinkedDeque<PooledConsumer> idle = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger generation = new AtomicInteger();
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private ClusterPool(String clusterId) {
+            this.clusterId = clusterId;
+        }
+    }
+
+    /**
+     * 池化的消费者实例。
+     */
+    private static final class PooledConsumer {
+        private final KafkaConsumer<String, String> consumer;
+        private final int generation;
+        private volatile long lastReturn = System.currentTimeMillis();
+
+        private PooledConsumer(KafkaConsumer<String, String> consumer, int generation) {
+            this.consumer = consumer;
+            this.generation = generation;
+        }
+
+        private void close() {
+            try {
+                consumer.close(Duration.ofSeconds(5));
+            } catch (Exception e) {
+                log.warn("关闭池化消费者失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 消费者租约。同一租约只能由一个线程使用；关闭时归还实例。
+     */
+    public static final class Lease implements AutoCloseable {
+        private final ClusterPool pool;
+        private final PooledConsumer pooled;
+        private boolean broken;
+        private boolean released;
+
+        private Lease(ClusterPool pool, PooledConsumer pooled) {
+            this.pool = pool;
+            this.pooled = pooled;
+        }
+
+        public KafkaConsumer<String, String> consumer() {
+            return pooled.consumer;
+        }
+
+        /**
+         * 标记实例不可复用（例如发生网络或认证异常），归还时直接关闭。
+         */
+        public void markBroken() {
+            this.broken = true;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            try {
+                if (!broken && pooled.generation == pool.generation.get()) {
+                    pooled.consumer.unsubscribe();
+                    pooled.lastReturn = System.currentTimeMillis();
+                    pool.idle.offerFirst(pooled);
+                } else {
+                    DISCARDS.increment();
+                    pooled.close();
+                }
+            } catch (Exception e) {
+                DISCARDS.increment();
+                pooled.close();
+            } finally {
+                pool.permits.release();
+            }
+        }
+    }
+}
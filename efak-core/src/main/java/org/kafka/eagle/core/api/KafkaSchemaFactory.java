@@ -28,7 +28,9 @@ import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
 import org.apache.kafka.common.config.ConfigResource;
@@ -37,8 +39,10 @@ import org.kafka.eagle.core.constant.ClusterMetricsConst;
 import org.kafka.eagle.core.constant.ConsumerGroupConst;
 import org.kafka.eagle.core.constant.JmxMetricsConst;
 import org.kafka.eagle.core.dto.ConsumerGroupDescInfo;
+import org.kafka.eagle.core.dto.ConsumerLagTable;
+import org.kafka.eagle.core.dto.PartitionOffsetTable;
+import org.kafka.eagle.core.dto.TopicCapacityTable;
 import org.kafka.eagle.core.util.MathUtils;
-import org.kafka.eagle.core.util.NetUtils;
 import org.kafka.eagle.core.util.StrUtils;
 import org.kafka.eagle.dto.broker.BrokerInfo;
 import org.kafka.eagle.dto.cluster.KafkaClientInfo;
@@ -50,6 +54,7 @@ import org.kafka.eagle.dto.topic.*;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -115,7 +120,8 @@ public class KafkaSchemaFactory {
      */
     public Map<String, String> getTopicConfig(KafkaClientInfo clientInfo, String topic) {
         Map<String, String> configMap = new HashMap<>();
-        try (AdminClient admin = AdminClient.create(plugin.buildAdminClientProps(clientInfo))) {
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient admin = lease.admin();
             ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topic);
             DescribeConfigsResult result = admin.describeConfigs(Collections.singleton(resource));
             Config config = result.all().get().get(resource);
@@ -150,6 +156,44 @@ public class KafkaSchemaFactory {
         return topics;
     }
 
+    /**
+     * 列出所有主题（排除内部偏移量主题）及其元数据指纹：主题ID + 分区数 + 各分区 Leader 与副本分布的摘要。
+     * 只需一次 ListTopics 与一次元数据请求，不查询主题配置；指纹变化说明主题被重建、扩分区或副本/Leader 发生迁移。
+     *
+     * @return 主题名称 -> 指纹，获取失败时返回 null
+     */
+    public Map<String, String> listTopicFingerprints(KafkaClientInfo clientInfo) {
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient admin = lease.admin();
+            Map<String, TopicListing> listings = admin.listTopics(new ListTopicsOptions().listInternal(true))
+                    .namesToListings().get();
+            listings.remove(ClusterMetricsConst.Cluster.CONSUMER_OFFSET_TOPIC.key());
+            if (listings.isEmpty()) {
+                return new HashMap<>();
+            }
+
+            Map<String, TopicDescription> descriptions = admin.describeTopics(listings.keySet()).allTopicNames().get();
+            Map<String, String> fingerprints = new HashMap<>(descriptions.size() * 2);
+            for (Map.Entry<String, TopicDescription> entry : descriptions.entrySet()) {
+                TopicDescription description = entry.getValue();
+                int layoutHash = 1;
+                for (TopicPartitionInfo partition : description.partitions()) {
+                    layoutHash = 31 * layoutHash + partition.partition();
+                    layoutHash = 31 * layoutHash + (partition.leader() != null ? partition.leader().id() : -1);
+                    for (Node replica : partition.replicas()) {
+                        layoutHash = 31 * layoutHash + replica.id();
+                    }
+                }
+                fingerprints.put(entry.getKey(), description.topicId() + ":" + description.partitions().size()
+                        + ":" + Integer.toHexString(layoutHash));
+            }
+            return fingerprints;
+        } catch (Exception e) {
+            log.error("列出 '{}' 的主题元数据指纹失败：", clientInfo, e);
+            return null;
+        }
+    }
+
     /* ======================= TOPIC PARTITIONS ======================= */
 
     /**
@@ -157,7 +201,8 @@ public class KafkaSchemaFactory {
      */
     public Set<Integer> listTopicPartitions(KafkaClientInfo clientInfo, String topic) {
         Set<Integer> partitions = new HashSet<>();
-        try (AdminClient admin = AdminClient.create(plugin.buildAdminClientProps(clientInfo))) {
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient admin = lease.admin();
             DescribeTopicsResult result = admin.describeTopics(Collections.singleton(topic));
             result.allTopicNames().get().get(topic).partitions().forEach(tp -> partitions.add(tp.partition()));
         } catch (Exception e) {
@@ -179,16 +224,32 @@ public class KafkaSchemaFactory {
      * 获取单个分区的日志大小
      */
     public long getPartitionLogSize(KafkaClientInfo clientInfo, String topic, int partitionId) {
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(plugin.buildConsumerProps(clientInfo))) {
-            TopicPartition tp = new TopicPartition(topic, partitionId);
-            consumer.assign(Collections.singleton(tp));
-            long start = consumer.beginningOffsets(Collections.singleton(tp)).get(tp);
-            long end = consumer.endOffsets(Collections.singleton(tp)).get(tp);
-            return end - start;
+        TopicPartition tp = new TopicPartition(topic, partitionId);
+        return getPartitionLogSizes(clientInfo, Collections.singleton(tp)).getOrDefault(tp, 0L);
+    }
+
+    /**
+     * 批量获取多个分区的日志大小（一次借用消费者完成）
+     */
+    public Map<TopicPartition, Long> getPartitionLogSizes(KafkaClientInfo clientInfo, Collection<TopicPartition> tps) {
+        Map<TopicPartition, Long> logSizes = new HashMap<>();
+        if (tps == null || tps.isEmpty()) {
+            return logSizes;
+        }
+        try {
+            withConsumer(clientInfo, consumer -> {
+                consumer.assign(tps);
+                Map<TopicPartition, Long> startOffsets = consumer.beginningOffsets(tps);
+                Map<TopicPartition, Long> endOffsets = consumer.endOffsets(tps);
+                for (TopicPartition tp : tps) {
+                    logSizes.put(tp, endOffsets.getOrDefault(tp, 0L) - startOffsets.getOrDefault(tp, 0L));
+                }
+                return null;
+            });
         } catch (Exception e) {
-            log.error("获取主题 '{}' 分区 {} 的日志大小失败：", topic, partitionId, e);
-            return 0L;
+            log.error("批量获取集群 '{}' 分区日志大小失败：", clientInfo.getClusterId(), e);
         }
+        return logSizes;
     }
 
     /**
@@ -196,16 +257,8 @@ public class KafkaSchemaFactory {
      */
     public long getTotalTopicLogSize(KafkaClientInfo clientInfo, String topic) {
         long total = 0;
-        Set<Integer> partitions = listTopicPartitions(clientInfo, topic);
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(plugin.buildConsumerProps(clientInfo))) {
-            Set<TopicPartition> tps = partitions.stream().map(p -> new TopicPartition(topic, p)).collect(Collectors.toSet());
-            consumer.assign(tps);
-            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(tps);
-            for (TopicPartition tp : tps) {
-                total += endOffsets.get(tp);
-            }
-        } catch (Exception e) {
-            log.error("获取主题 '{}' 的日志总大小失败：", topic, e);
+        for (Long offset : getEndOffsets(clientInfo, topic).values()) {
+            total += offset;
         }
         return total;
     }
@@ -214,20 +267,22 @@ public class KafkaSchemaFactory {
      * 获取主题的实际日志大小（消息总数）
      */
     public long getTotalActualTopicLogSize(KafkaClientInfo clientInfo, String topic) {
-        long total = 0;
-        Set<Integer> partitions = listTopicPartitions(clientInfo, topic);
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(plugin.buildConsumerProps(clientInfo))) {
-            Set<TopicPartition> tps = partitions.stream().map(p -> new TopicPartition(topic, p)).collect(Collectors.toSet());
-            consumer.assign(tps);
-            Map<TopicPartition, Long> startOffsets = consumer.beginningOffsets(tps);
-            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(tps);
-            for (TopicPartition tp : tps) {
-                total += endOffsets.get(tp) - startOffsets.get(tp);
-            }
+        try {
+            return withConsumer(clientInfo, consumer -> {
+                List<TopicPartition> tps = topicPartitions(consumer, topic);
+                consumer.assign(tps);
+                Map<TopicPartition, Long> startOffsets = consumer.beginningOffsets(tps);
+                Map<TopicPartition, Long> endOffsets = consumer.endOffsets(tps);
+                long total = 0;
+                for (TopicPartition tp : tps) {
+                    total += endOffsets.get(tp) - startOffsets.get(tp);
+                }
+                return total;
+            });
         } catch (Exception e) {
             log.error("获取主题 '{}' 的实际日志大小失败：", topic, e);
+            return 0L;
         }
-        return total;
     }
 
 
@@ -236,17 +291,33 @@ public class KafkaSchemaFactory {
      */
     public Map<TopicPartition, Long> getEndOffsets(KafkaClientInfo clientInfo, String topic) {
         Map<TopicPartition, Long> offsets = new HashMap<>();
-        Set<Integer> partitions = listTopicPartitions(clientInfo, topic);
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(plugin.buildConsumerProps(clientInfo))) {
-            Set<TopicPartition> tps = partitions.stream().map(p -> new TopicPartition(topic, p)).collect(Collectors.toSet());
-            consumer.assign(tps);
-            offsets.putAll(consumer.endOffsets(tps));
+        try {
+            withConsumer(clientInfo, consumer -> {
+                List<TopicPartition> tps = topicPartitions(consumer, topic);
+                consumer.assign(tps);
+                offsets.putAll(consumer.endOffsets(tps));
+                return null;
+            });
         } catch (Exception e) {
             log.error("获取主题 '{}' 的末端位移失败：", topic, e);
         }
         return offsets;
     }
 
+    /**
+     * 通过消费者元数据获取主题的全部分区，避免额外创建 AdminClient 请求
+     */
+    private List<TopicPartition> topicPartitions(KafkaConsumer<String, String> consumer, String topic) {
+        List<TopicPartition> tps = new ArrayList<>();
+        List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic);
+        if (partitionInfos != null) {
+            for (PartitionInfo partitionInfo : partitionInfos) {
+                tps.add(new TopicPartition(topic, partitionInfo.partition()));
+            }
+        }
+        return tps;
+    }
+
     /* ======================= MESSAGE OPERATIONS ======================= */
 
     /**
@@ -267,39 +338,236 @@ public class KafkaSchemaFactory {
      */
     public String fetchLatestMessages(KafkaClientInfo clientInfo, String topic, int partitionId) {
         JSONArray results = new JSONArray();
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(plugin.buildConsumerProps(clientInfo))) {
-            TopicPartition tp = new TopicPartition(topic, partitionId);
-            consumer.assign(Collections.singleton(tp));
-            long end = consumer.endOffsets(Collections.singleton(tp)).get(tp);
-            long start = Math.max(0, end - 10);
-            consumer.seek(tp, start);
-
-            boolean polling = true;
-            while (polling) {
-                ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(100));
-                for (ConsumerRecord<String, String> record : records) {
-                    JSONObject obj = new JSONObject();
-                    obj.put("partition", record.partition());
-                    obj.put("offset", record.offset());
-                    obj.put("value", record.value());
-                    obj.put("timestamp", record.timestamp());
-                    results.add(obj);
+        try {
+            withConsumer(clientInfo, consumer -> {
+                TopicPartition tp = new TopicPartition(topic, partitionId);
+                consumer.assign(Collections.singleton(tp));
+                long end = consumer.endOffsets(Collections.singleton(tp)).get(tp);
+                long start = Math.max(0, end - 10);
+                consumer.seek(tp, start);
+
+                boolean polling = true;
+                while (polling) {
+                    ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(100));
+                    for (ConsumerRecord<String, String> record : records) {
+                        JSONObject obj = new JSONObject();
+                        obj.put("partition", record.partition());
+                        obj.put("offset", record.offset());
+                        obj.put("value", record.value());
+                        obj.put("timestamp", record.timestamp());
+                        results.add(obj);
+                    }
+                    if (records.isEmpty()) polling = false;
                 }
-                if (records.isEmpty()) polling = false;
-            }
+                return null;
+            });
         } catch (Exception e) {
             log.error("获取主题 '{}' 的最新消息失败：", topic, e);
         }
         return results.toJSONString();
     }
 
+    /* ======================= BATCH OFFSETS ======================= */
+
+    /**
+     * 批量查询任意分区集合的最早/最新位移（一次 ListOffsets 请求）
+     */
+    public PartitionOffsetTable listOffsets(KafkaClientInfo clientInfo, Collection<TopicPartition> tps) {
+        if (tps == null || tps.isEmpty()) {
+            return new PartitionOffsetTable();
+        }
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            return listOffsets(lease.admin(), tps, true);
+        } catch (Exception e) {
+            log.error("批量查询集群 '{}' 的分区位移失败：", clientInfo.getClusterId(), e);
+            return new PartitionOffsetTable();
+        }
+    }
+
+    /**
+     * 批量查询多个主题全部分区的最早/最新位移
+     */
+    public PartitionOffsetTable listTopicOffsets(KafkaClientInfo clientInfo, Collection<String> topics) {
+        if (topics == null || topics.isEmpty()) {
+            return new PartitionOffsetTable();
+        }
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient adminClient = lease.admin();
+            return listOffsets(adminClient, describePartitions(adminClient, topics), true);
+        } catch (Exception e) {
+            log.error("批量查询集群 '{}' 中主题 {} 的位移失败：", clientInfo.getClusterId(), topics, e);
+            return new PartitionOffsetTable();
+        }
+    }
+
+    /**
+     * 批量计算消费者组在指定主题上的积压（groupId -> topic -> lag）
+     */
+    public Map<String, Map<String, Long>> getConsumerGroupTopicLags(KafkaClientInfo clientInfo, Map<String, Set<String>> groupTopics) {
+        Map<String, Map<String, Long>> lags = new HashMap<>();
+        if (groupTopics == null || groupTopics.isEmpty()) {
+            return lags;
+        }
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient adminClient = lease.admin();
+            ConsumerLagTable lagTable = listCommittedOffsets(adminClient, groupTopics.keySet(), groupTopics::get);
+            lagTable.setEndOffsets(listOffsets(adminClient, committedPartitions(lagTable), false));
+            for (String groupId : lagTable.groups()) {
+                Map<String, Long> topicLags = lags.computeIfAbsent(groupId, k -> new HashMap<>());
+                for (String topic : lagTable.topics(groupId)) {
+                    topicLags.put(topic, lagTable.topicLag(groupId, topic));
+                }
+            }
+        } catch (Exception e) {
+            log.error("批量计算集群 '{}' 消费者组积压失败：", clientInfo.getClusterId(), e);
+        }
+        return lags;
+    }
+
+    /**
+     * 获取消费者组的分区级积压表（一次多消费者组位移查询 + 一次批量 ListOffsets），可按需展开分区明细
+     *
+     * @param clientInfo Kafka client configuration
+     * @param groupIds   消费者组ID
+     * @param topics     只保留这些主题，为 null 时保留全部已提交主题
+     */
+    public ConsumerLagTable getConsumerLagTable(KafkaClientInfo clientInfo, Collection<String> groupIds, Set<String> topics) {
+        if (groupIds == null || groupIds.isEmpty()) {
+            return new ConsumerLagTable();
+        }
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient adminClient = lease.admin();
+            ConsumerLagTable lagTable = listCommittedOffsets(adminClient, groupIds, groupId -> topics);
+            lagTable.setEndOffsets(listOffsets(adminClient, describePartitions(adminClient, lagTable.allTopics()), false));
+            return lagTable;
+        } catch (Exception e) {
+            log.error("获取集群 '{}' 消费者组 {} 分区积压失败：", clientInfo.getClusterId(), groupIds, e);
+            return new ConsumerLagTable();
+        }
+    }
+
+    /**
+     * 一次 ListConsumerGroupOffsets 请求查询多个消费者组的已提交位移，单个消费者组失败不影响其它消费者组
+     *
+     * @param topicFilter 消费者组ID -> 保留的主题，返回 null 时保留全部主题
+     */
+    private ConsumerLagTable listCommittedOffsets(AdminClient adminClient, Collection<String> groupIds,
+                                                  Function<String, Set<String>> topicFilter) throws InterruptedException {
+        ConsumerLagTable lagTable = new ConsumerLagTable();
+        Map<String, ListConsumerGroupOffsetsSpec> specs = new LinkedHashMap<>();
+        for (String groupId : groupIds) {
+            specs.put(groupId, new ListConsumerGroupOffsetsSpec());
+        }
+        ListConsumerGroupOffsetsResult result = adminClient.listConsumerGroupOffsets(specs);
+        for (String groupId : specs.keySet()) {
+            Map<TopicPartition, OffsetAndMetadata> offsets;
+            try {
+                offsets = result.partitionsToOffsetAndMetadata(groupId).get();
+            } catch (ExecutionException e) {
+                log.warn("查询消费者组 '{}' 已提交位移失败: {}", groupId, e.getMessage());
+                continue;
+            }
+            Set<String> topics = topicFilter.apply(groupId);
+            for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : offsets.entrySet()) {
+                TopicPartition tp = entry.getKey();
+                if (entry.getValue() == null || (topics != null && !topics.contains(tp.topic()))) {
+                    continue;
+                }
+                lagTable.putCommitted(groupId, tp.topic(), tp.partition(), entry.getValue().offset());
+            }
+        }
+        return lagTable;
+    }
+
+    /**
+     * 积压表中全部已提交位移的分区
+     */
+    private static Set<TopicPartition> committedPartitions(ConsumerLagTable lagTable) {
+        Set<TopicPartition> tps = new HashSet<>();
+        for (String groupId : lagTable.groups()) {
+            for (String topic : lagTable.topics(groupId)) {
+                int slots = lagTable.partitionSlots(groupId, topic);
+                for (int p = 0; p < slots; p++) {
+                    if (lagTable.committed(groupId, topic, p) != ConsumerLagTable.UNKNOWN) {
+                        tps.add(new TopicPartition(topic, p));
+                    }
+                }
+            }
+        }
+        return tps;
+    }
+
+    /**
+     * 描述主题并展开为分区列表
+     */
+    private List<TopicPartition> describePartitions(AdminClient adminClient, Collection<String> topics) throws Exception {
+        List<TopicPartition> tps = new ArrayList<>();
+        Map<String, KafkaFuture<TopicDescription>> futures = adminClient.describeTopics(topics).topicNameValues();
+        for (Map.Entry<String, KafkaFuture<TopicDescription>> entry : futures.entrySet()) {
+            try {
+                for (TopicPartitionInfo partitionInfo : entry.getValue().get().partitions()) {
+                    tps.add(new TopicPartition(entry.getKey(), partitionInfo.partition()));
+                }
+            } catch (ExecutionException e) {
+                log.warn("描述主题 '{}' 失败: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return tps;
+    }
+
+    /**
+     * 同时发出 earliest/latest 两个 ListOffsets 请求，逐分区收集结果，单个分区失败不影响其它分区
+     */
+    private PartitionOffsetTable listOffsets(AdminClient adminClient, Collection<TopicPartition> tps, boolean includeEarliest)
+            throws InterruptedException {
+        PartitionOffsetTable table = new PartitionOffsetTable();
+        if (tps.isEmpty()) {
+            return table;
+        }
+
+        Map<String, Integer> partitionCounts = new HashMap<>();
+        Map<TopicPartition, OffsetSpec> latestSpecs = new HashMap<>();
+        Map<TopicPartition, OffsetSpec> earliestSpecs = new HashMap<>();
+        for (TopicPartition tp : tps) {
+            partitionCounts.merge(tp.topic(), tp.partition() + 1, Math::max);
+            latestSpecs.put(tp, OffsetSpec.latest());
+            if (includeEarliest) {
+                earliestSpecs.put(tp, OffsetSpec.earliest());
+            }
+        }
+        // 按分区数预分配，查询失败的分区保持未知，调用方据此判断主题位移是否完整
+        for (Map.Entry<String, Integer> entry : partitionCounts.entrySet()) {
+            if (includeEarliest) {
+                table.reserve(entry.getKey(), entry.getValue());
+            } else {
+                table.reserveLatest(entry.getKey(), entry.getValue());
+            }
+        }
+
+        ListOffsetsResult latestResult = adminClient.listOffsets(latestSpecs);
+        ListOffsetsResult earliestResult = includeEarliest ? adminClient.listOffsets(earliestSpecs) : null;
+
+        for (TopicPartition tp : tps) {
+            try {
+                table.putLatest(tp.topic(), tp.partition(), latestResult.partitionResult(tp).get().offset());
+                if (earliestResult != null) {
+                    table.putEarliest(tp.topic(), tp.partition(), earliestResult.partitionResult(tp).get().offset());
+                }
+            } catch (ExecutionException e) {
+                log.warn("查询分区 {} 位移失败: {}", tp, e.getMessage());
+            }
+        }
+        return table;
+    }
+
     /* ======================= ADMIN CLIENT HELPER ======================= */
 
     /**
      * 执行 AdminClient 操作（带错误处理）
      */
     private boolean executeAdmin(KafkaClientInfo clientInfo, AdminAction action, String actionDesc) {
-        try (AdminClient admin = AdminClient.create(plugin.buildAdminClientProps(clientInfo))) {
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient admin = lease.admin();
             action.execute(admin);
             return true;
         } catch (Exception e) {
@@ -315,7 +583,8 @@ public class KafkaSchemaFactory {
      * @return List<BrokerInfo> Broker 详情列表（brokerId、host、port）
      */
     public List<BrokerInfo> getClusterBrokers(KafkaClientInfo clientInfo) {
-        try (AdminClient adminClient = AdminClient.create(plugin.buildAdminClientProps(clientInfo))) {
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo)) {
+            AdminClient adminClient = lease.admin();
             DescribeClusterResult clusterResult = adminClient.describeCluster();
             Collection<Node> nodes = clusterResult.nodes().get();
 
@@ -349,9 +618,10 @@ public class KafkaSchemaFactory {
             return topicMetas;
         }
 
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(clientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo);
+            AdminClient adminClient = lease.admin();
 
             // 1. Get topics description
             DescribeTopicsResult describeTopicsResult = adminClient.describeTopics(topics);
@@ -396,8 +666,8 @@ public class KafkaSchemaFactory {
         } catch (Exception e) {
             log.error("获取集群 '{}' 中主题 '{}' 的元数据失败: ", clientInfo.getClusterId(), topics, e);
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
 
@@ -521,7 +791,65 @@ public class KafkaSchemaFactory {
     }
 
     /**
-     * Get topic record capacity count by summing up all partition sizes
+     * 通过 DescribeLogDirs 获取集群全部 Broker 上所有副本的日志大小（每个 Broker 一次请求）。
+     * 单个 Broker 失败不影响其它 Broker 的结果，失败的 Broker 记录在结果表中。
+     *
+     * @param kafkaClientInfo Kafka client configuration
+     * @param topics          需要的主题，为空表示全部主题
+     * @return 主题容量表
+     */
+    public TopicCapacityTable getTopicCapacities(KafkaClientInfo kafkaClientInfo, Collection<String> topics) {
+        TopicCapacityTable table = new TopicCapacityTable();
+        Set<String> topicFilter = topics == null || topics.isEmpty() ? null : new HashSet<>(topics);
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo)) {
+            AdminClient adminClient = lease.admin();
+            List<Integer> brokerIds = adminClient.describeCluster().nodes().get().stream()
+                    .map(Node::id)
+                    .collect(Collectors.toList());
+            if (brokerIds.isEmpty()) {
+                return table;
+            }
+
+            DescribeLogDirsResult result = adminClient.describeLogDirs(brokerIds);
+            for (Map.Entry<Integer, KafkaFuture<Map<String, LogDirDescription>>> entry : result.descriptions().entrySet()) {
+                int brokerId = entry.getKey();
+                try {
+                    for (Map.Entry<String, LogDirDescription> logDirEntry : entry.getValue().get().entrySet()) {
+                        LogDirDescription logDir = logDirEntry.getValue();
+                        if (logDir.error() != null) {
+                            // 离线的日志目录上的副本没有大小信息，结果表标记为不完整
+                            table.brokerFailed(brokerId, "日志目录 " + logDirEntry.getKey() + " 不可用: " + logDir.error().getMessage());
+                            continue;
+                        }
+                        for (Map.Entry<TopicPartition, ReplicaInfo> replica : logDir.replicaInfos().entrySet()) {
+                            TopicPartition tp = replica.getKey();
+                            // 迁移中的 future 副本不计入容量
+                            if (replica.getValue().isFuture() || (topicFilter != null && !topicFilter.contains(tp.topic()))) {
+                                continue;
+                            }
+                            table.record(tp.topic(), tp.partition(), replica.getValue().size());
+                        }
+                    }
+                    table.brokerResponded(brokerId);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    table.brokerFailed(brokerId, cause.getMessage());
+                    log.warn("获取 Broker {} 日志目录失败: {}", brokerId, cause.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("获取 '{}' 主题容量被中断", kafkaClientInfo.getClusterId());
+        } catch (Exception e) {
+            log.error("通过 DescribeLogDirs 获取 '{}' 主题容量失败: ", kafkaClientInfo.getClusterId(), e);
+        }
+        return table;
+    }
+
+    /**
+     * Get topic record capacity count by summing up the JMX Log Size of each partition leader.
+     * Monitors should read capacities from {@link #getTopicCapacities} (one DescribeLogDirs per broker for
+     * the whole cluster) instead of calling this per topic.
      *
      * @param kafkaClientInfo Kafka client configuration
      * @param brokerInfos     List of broker information for JMX connections
@@ -530,14 +858,19 @@ public class KafkaSchemaFactory {
      */
     public Long getTopicRecordCapacityNum(KafkaClientInfo kafkaClientInfo, List<BrokerInfo> brokerInfos, String topic) {
         Long capacity = 0L;
+        if (brokerInfos == null || brokerInfos.isEmpty()) {
+            return capacity;
+        }
         try {
             List<MetadataInfo> metadataInfos = getTopicPartitionMetadata(kafkaClientInfo, topic);
             for (MetadataInfo metadataInfo : metadataInfos) {
                 JMXInitializeInfo initializeInfo = getBrokerJmxRmiOfLeaderId(brokerInfos, metadataInfo.getLeader());
-                if (NetUtils.telnet(initializeInfo.getHost(), initializeInfo.getPort())) {
-                    initializeInfo.setObjectName(String.format(JmxMetricsConst.Log.SIZE.key(), topic, metadataInfo.getPartitionId()));
-                    capacity += KafkaClusterFetcher.fetchTopicRecordCount(initializeInfo);
+                if (initializeInfo.getHost() == null) {
+                    continue;
                 }
+                // 不可达的 Broker 由 JMX 熔断器直接跳过
+                initializeInfo.setObjectName(String.format(JmxMetricsConst.Log.SIZE.key(), topic, metadataInfo.getPartitionId()));
+                capacity += KafkaClusterFetcher.fetchTopicRecordCount(initializeInfo);
             }
         } catch (Exception e) {
             log.error("获取主题 '{}' 的记录容量失败: ", topic, e);
@@ -555,11 +888,17 @@ public class KafkaSchemaFactory {
     public List<MetadataInfo> getTopicPartitionMetadata(KafkaClientInfo kafkaClientInfo, String topic) {
         List<MetadataInfo> metadataInfos = new ArrayList<>();
 
-        try (AdminClient adminClient = AdminClient.create(plugin.buildAdminClientProps(kafkaClientInfo))) {
+        try (KafkaAdminClientRegistry.Lease lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo)) {
+            AdminClient adminClient = lease.admin();
             DescribeTopicsResult describeTopicsResult = adminClient.describeTopics(Collections.singleton(topic));
             TopicDescription description = describeTopicsResult.allTopicNames().get().get(topic);
 
             if (description != null) {
+                List<TopicPartition> tps = description.partitions().stream()
+                        .map(p -> new TopicPartition(topic, p.partition()))
+                        .collect(Collectors.toList());
+                Map<TopicPartition, Long> logSizes = getPartitionLogSizes(kafkaClientInfo, tps);
+
                 for (TopicPartitionInfo partitionInfo : description.partitions()) {
                     MetadataInfo metadataInfo = new MetadataInfo();
                     metadataInfo.setPartitionId(partitionInfo.partition());
@@ -578,7 +917,7 @@ public class KafkaSchemaFactory {
                     metadataInfo.setIsr(isr);
 
                     // Get log size for this partition
-                    long logSize = getPartitionLogSize(kafkaClientInfo, topic, partitionInfo.partition());
+                    long logSize = logSizes.getOrDefault(new TopicPartition(topic, partitionInfo.partition()), 0L);
                     metadataInfo.setLogSize(logSize);
 
                     metadataInfos.add(metadataInfo);
@@ -621,10 +960,11 @@ public class KafkaSchemaFactory {
      */
     public TopicPartitionPageResult getTopicPartitionPage(KafkaClientInfo kafkaClientInfo, String topic, Map<String, Object> params) {
         TopicPartitionPageResult result = new TopicPartitionPageResult();
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
 
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(kafkaClientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo);
+            AdminClient adminClient = lease.admin();
             DescribeTopicsResult describeTopicsResult = adminClient.describeTopics(Collections.singleton(topic));
 
             Map<String, TopicDescription> topicDescriptions = describeTopicsResult.allTopicNames().get();
@@ -649,9 +989,16 @@ public class KafkaSchemaFactory {
             int endIndex = Math.min(start + length, partitions.size());
             List<TopicPartitionInfo> pagePartitions = partitions.subList(start, endIndex);
 
+            // Fetch log sizes of the whole page with a single consumer checkout
+            List<TopicPartition> pageTps = pagePartitions.stream()
+                    .map(p -> new TopicPartition(topic, p.partition()))
+                    .collect(Collectors.toList());
+            Map<TopicPartition, Long> logSizes = getPartitionLogSizes(kafkaClientInfo, pageTps);
+
             // Build partition records with detailed information
             for (TopicPartitionInfo partitionInfo : pagePartitions) {
-                TopicRecordInfo recordInfo = buildTopicRecordInfo(kafkaClientInfo, topic, partitionInfo);
+                long logSize = logSizes.getOrDefault(new TopicPartition(topic, partitionInfo.partition()), 0L);
+                TopicRecordInfo recordInfo = buildTopicRecordInfo(topic, partitionInfo, logSize);
                 result.getRecords().add(recordInfo);
             }
 
@@ -662,8 +1009,8 @@ public class KafkaSchemaFactory {
             log.error("获取集群 '{}' 中主题 '{}' 的分区页面失败: ", kafkaClientInfo.getClusterId(), topic, e);
             result.setTotal(0);
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
 
@@ -673,12 +1020,12 @@ public class KafkaSchemaFactory {
     /**
      * Build detailed TopicRecordInfo for a single partition
      *
-     * @param kafkaClientInfo Kafka client configuration
-     * @param topic           Topic name
-     * @param partitionInfo   Partition information from Kafka
+     * @param topic         Topic name
+     * @param partitionInfo Partition information from Kafka
+     * @param logSize       Pre-fetched log size (message count) of the partition
      * @return TopicRecordInfo with complete partition details
      */
-    private TopicRecordInfo buildTopicRecordInfo(KafkaClientInfo kafkaClientInfo, String topic, TopicPartitionInfo partitionInfo) {
+    private TopicRecordInfo buildTopicRecordInfo(String topic, TopicPartitionInfo partitionInfo, long logSize) {
         TopicRecordInfo recordInfo = new TopicRecordInfo();
 
         // Basic partition information
@@ -718,13 +1065,7 @@ public class KafkaSchemaFactory {
         recordInfo.setPreferredLeader(preferredLeader);
 
         // Log size (message count) for this partition
-        try {
-            long logSize = getPartitionLogSize(kafkaClientInfo, topic, partitionInfo.partition());
-            recordInfo.setLogSize(logSize);
-        } catch (Exception e) {
-            log.warn("获取主题 '{}' 分区 {} 的日志大小失败: {}", topic, partitionInfo.partition(), e.getMessage());
-            recordInfo.setLogSize(0L);
-        }
+        recordInfo.setLogSize(logSize);
 
         return recordInfo;
     }
@@ -738,10 +1079,11 @@ public class KafkaSchemaFactory {
      * @return ConsumerGroupDescInfo containing consumer group IDs and descriptions
      */
     public ConsumerGroupDescInfo getKafkaConsumerGroups(KafkaClientInfo kafkaClientInfo) {
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         ConsumerGroupDescInfo consumerGroupDescInfo = new ConsumerGroupDescInfo();
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(kafkaClientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo);
+            AdminClient adminClient = lease.admin();
             for (ConsumerGroupListing consumerGroupListing : adminClient.listConsumerGroups().all().get()) {
                 String groupId = consumerGroupListing.groupId();
                 if (!groupId.equals(ClusterMetricsConst.Cluster.EFAK_SYSTEM_GROUP.key())) {
@@ -753,8 +1095,8 @@ public class KafkaSchemaFactory {
         } catch (Exception e) {
             log.error("获取数据库 '{}' 的消费者组对象失败: ", kafkaClientInfo, e);
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
 
@@ -769,32 +1111,51 @@ public class KafkaSchemaFactory {
      * @return List of ConsumerGroupTopicInfo containing offset and lag data
      */
     public List<ConsumerGroupTopicInfo> getKafkaConsumerGroupTopic(KafkaClientInfo kafkaClientInfo, Set<String> groupIds) {
+        return getKafkaConsumerGroupTopic(kafkaClientInfo, groupIds, null);
+    }
+
+    /**
+     * 获取消费者组主题偏移量，主题末端位移可由调用方提供（例如复用同一监控周期的位移快照）
+     *
+     * @param kafkaClientInfo Kafka client configuration
+     * @param groupIds        Consumer group IDs
+     * @param offsetResolver  主题集合 -> 位移表；为 null 时通过一次批量 ListOffsets 获取
+     */
+    public List<ConsumerGroupTopicInfo> getKafkaConsumerGroupTopic(KafkaClientInfo kafkaClientInfo, Set<String> groupIds,
+                                                                   Function<Set<String>, PartitionOffsetTable> offsetResolver) {
         List<ConsumerGroupTopicInfo> consumerGroupTopicInfos = new ArrayList<>();
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(kafkaClientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo);
+            AdminClient adminClient = lease.admin();
 
             // 批量获取消费者组状态，减少API请求次数
             Map<String, ConsumerGroupDescription> descConsumerGroup = adminClient.describeConsumerGroups(groupIds).all().get();
 
-            for (String groupId : groupIds) {
-                Map<String, Long> topicOffsetsMap = new HashMap<>();
-                ListConsumerGroupOffsetsResult offsetsResult = adminClient.listConsumerGroupOffsets(groupId);
-                Map<TopicPartition, OffsetAndMetadata> offsets = offsetsResult.partitionsToOffsetAndMetadata().get();
-                if (offsets != null && !offsets.isEmpty()) {
-                    for (Map.Entry<TopicPartition, OffsetAndMetadata> entry : offsets.entrySet()) {
-                        if (topicOffsetsMap.containsKey(entry.getKey().topic())) {
-                            topicOffsetsMap.put(entry.getKey().topic(), topicOffsetsMap.get(entry.getKey().topic()) + entry.getValue().offset());
-                        } else {
-                            topicOffsetsMap.put(entry.getKey().topic(), entry.getValue().offset());
-                        }
-                    }
+            // 一次请求获取所有消费者组的已提交位移
+            ConsumerLagTable lagTable = listCommittedOffsets(adminClient, groupIds, groupId -> null);
+            Set<String> consumedTopics = lagTable.allTopics();
+
+            // 所有消费主题的末端位移通过一次批量 ListOffsets 获取
+            lagTable.setEndOffsets(offsetResolver != null
+                    ? offsetResolver.apply(consumedTopics)
+                    : listOffsets(adminClient, describePartitions(adminClient, consumedTopics), false));
+
+            // 有分区末端位移查询失败的主题，logsize 改为逐主题查询，不使用部分分区之和
+            Map<String, Long> logSizes = new HashMap<>();
+            for (String topic : consumedTopics) {
+                if (!lagTable.isLogEndComplete(topic)) {
+                    log.warn("主题 '{}' 部分分区末端位移查询失败，logsize 改为逐主题查询", topic);
+                    logSizes.put(topic, getTotalTopicLogSize(kafkaClientInfo, topic));
                 }
-                for (Map.Entry<String, Long> entry : topicOffsetsMap.entrySet()) {
+            }
+
+            for (String groupId : lagTable.groups()) {
+                for (String topic : lagTable.topics(groupId)) {
                     ConsumerGroupTopicInfo consumerGroupTopicInfo = new ConsumerGroupTopicInfo();
                     consumerGroupTopicInfo.setClusterId(kafkaClientInfo.getClusterId());
                     consumerGroupTopicInfo.setGroupId(groupId);
-                    consumerGroupTopicInfo.setTopicName(entry.getKey());
+                    consumerGroupTopicInfo.setTopicName(topic);
 
                     // 使用批量获取的消费者组状态
                     if (descConsumerGroup.containsKey(groupId)) {
@@ -803,12 +1164,10 @@ public class KafkaSchemaFactory {
                         consumerGroupTopicInfo.setState("UNKNOWN");
                     }
 
-                    Long logsizeValue = getTotalTopicLogSize(kafkaClientInfo, entry.getKey());
-                    Long offsetValue = entry.getValue();
-                    consumerGroupTopicInfo.setOffsets(offsetValue);
-                    consumerGroupTopicInfo.setLogsize(logsizeValue);
-                    // Calculate lag
-                    consumerGroupTopicInfo.setLags(Math.abs(logsizeValue - offsetValue));
+                    consumerGroupTopicInfo.setOffsets(lagTable.committedSum(groupId, topic));
+                    consumerGroupTopicInfo.setLogsize(logSizes.getOrDefault(topic, lagTable.logEndSum(topic)));
+                    // 逐分区计算积压后汇总，未提交位移的分区不计入
+                    consumerGroupTopicInfo.setLags(lagTable.topicLag(groupId, topic));
 
                     // Set collection time and date
                     java.time.LocalDateTime now = java.time.LocalDateTime.now();
@@ -822,8 +1181,8 @@ public class KafkaSchemaFactory {
         } catch (Exception e) {
             log.error("获取消费者组主题偏移量时出错，数据库 {}: ", kafkaClientInfo, e);
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
         return consumerGroupTopicInfos;
@@ -833,10 +1192,11 @@ public class KafkaSchemaFactory {
      * 获取消费者组ID列表
      */
     public Set<String> getConsumerGroupIds(KafkaClientInfo kafkaClientInfo) {
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         Set<String> groupIdSets = new HashSet<>();
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(kafkaClientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo);
+            AdminClient adminClient = lease.admin();
 
             for (ConsumerGroupListing consumerGroupListing : adminClient.listConsumerGroups().all().get()) {
                 String groupId = consumerGroupListing.groupId();
@@ -848,8 +1208,8 @@ public class KafkaSchemaFactory {
         } catch (Exception e) {
             log.error("加载数据库 '{}' 的 Kafka 客户端失败: ", kafkaClientInfo, e);
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
         return groupIdSets;
@@ -862,11 +1222,12 @@ public class KafkaSchemaFactory {
      * @return List of ConsumerGroupDetailInfo containing detailed consumer group information
      */
     public List<ConsumerGroupDetailInfo> getConsumerGroups(KafkaClientInfo kafkaClientInfo) {
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         List<ConsumerGroupDetailInfo> consumerGroupInfos = new ArrayList<>();
 
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(kafkaClientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo);
+            AdminClient adminClient = lease.admin();
             Iterator<ConsumerGroupListing> itors = adminClient.listConsumerGroups().all().get().iterator();
             Set<String> groupIdSets = new HashSet<>();
             while (itors.hasNext()) {
@@ -921,8 +1282,8 @@ public class KafkaSchemaFactory {
         } catch (Exception e) {
             log.error("加载数据库 '{}' 的 Kafka 客户端失败: ", kafkaClientInfo, e);
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
 
@@ -937,11 +1298,12 @@ public class KafkaSchemaFactory {
      * @return List of ConsumerGroupDetailInfo containing detailed consumer group information
      */
     public List<ConsumerGroupDetailInfo> getConsumerGroups(KafkaClientInfo kafkaClientInfo, Set<String> groupIds) {
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         List<ConsumerGroupDetailInfo> consumerGroupInfos = new ArrayList<>();
 
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(kafkaClientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, kafkaClientInfo);
+            AdminClient adminClient = lease.admin();
 
             Map<String, ConsumerGroupDescription> descConsumerGroup = adminClient.describeConsumerGroups(groupIds).all().get();
             for (String groupId : groupIds) {
@@ -989,8 +1351,8 @@ public class KafkaSchemaFactory {
         } catch (Exception e) {
             log.error("Failure while loading kafka client for database '{}': ", kafkaClientInfo, e);
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
 
@@ -1002,6 +1364,25 @@ public class KafkaSchemaFactory {
         void execute(AdminClient admin) throws ExecutionException, InterruptedException;
     }
 
+    /**
+     * 借用池化的 assign-only 消费者执行操作，异常时丢弃该实例
+     */
+    private <T> T withConsumer(KafkaClientInfo clientInfo, ConsumerAction<T> action) throws Exception {
+        try (KafkaConsumerPool.Lease lease = KafkaConsumerPool.borrow(plugin, clientInfo)) {
+            try {
+                return action.execute(lease.consumer());
+            } catch (Exception e) {
+                lease.markBroken();
+                throw e;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConsumerAction<T> {
+        T execute(KafkaConsumer<String, String> consumer) throws Exception;
+    }
+
     /* ======================= CONSUMER GROUP OFFSET MANAGEMENT ======================= */
 
     /**
@@ -1018,9 +1399,10 @@ public class KafkaSchemaFactory {
      */
     public boolean resetConsumerGroupOffsets(KafkaClientInfo clientInfo, String groupId,
                                            String topic, String mode, Long value) {
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(clientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo);
+            AdminClient adminClient = lease.admin();
 
             // 1. 获取 topic 的分区信息
             DescribeTopicsResult describeTopicsResult = adminClient.describeTopics(Collections.singleton(topic));
@@ -1105,8 +1487,8 @@ public class KafkaSchemaFactory {
                     groupId, topic, mode, e);
             return false;
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
     }
@@ -1124,9 +1506,10 @@ public class KafkaSchemaFactory {
      */
     public boolean resetConsumerGroupOffsetsForAllTopics(KafkaClientInfo clientInfo, String groupId,
                                                         String mode, Long value) {
-        AdminClient adminClient = null;
+        KafkaAdminClientRegistry.Lease lease = null;
         try {
-            adminClient = AdminClient.create(plugin.buildAdminClientProps(clientInfo));
+            lease = KafkaAdminClientRegistry.acquire(plugin, clientInfo);
+            AdminClient adminClient = lease.admin();
 
             // 1. 获取消费者组消费的所有 topic 和分区
             ListConsumerGroupOffsetsResult offsetsResult = adminClient.listConsumerGroupOffsets(groupId);
@@ -1220,8 +1603,8 @@ public class KafkaSchemaFactory {
                     groupId, mode, e);
             return false;
         } finally {
-            if (adminClient != null) {
-                plugin.registerResourceForClose(adminClient);
+            if (lease != null) {
+                lease.close();
             }
         }
     }
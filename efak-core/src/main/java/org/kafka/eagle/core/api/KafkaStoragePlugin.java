@@ -86,6 +86,15 @@ public class KafkaStoragePlugin {
         return props;
     }
 
+    /** 获取仅用于 assign 的 Kafka Consumer 配置（不加入消费者组，不提交位移） */
+    public Properties buildAssignOnlyConsumerProps(KafkaClientInfo clientInfo) {
+        Properties assignProps = new Properties();
+        assignProps.putAll(buildConsumerProps(clientInfo));
+        assignProps.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        assignProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        return assignProps;
+    }
+
     /** 获取 Kafka Producer 配置 */
     public Properties buildProducerProps(KafkaClientInfo clientInfo) {
         props.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, clientInfo.getBrokerServer());
@@ -0,0 +1,159 @@
+/**
+ * TopicRateCollector.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.api;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kafka.eagle.core.dto.TopicMetricTable;
+import org.kafka.eagle.dto.jmx.JMXInitializeInfo;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * 主题速率采集器：并发向集群内所有 Broker 拉取主题级 BrokerTopicMetrics，
+ * 按主题累加得到集群级 BytesIn/BytesOut，并报告超时或失败的 Broker。
+ * 主题流量分布在各分区 Leader 所在的 Broker 上，只读取单个 Broker 会低估集群速率。
+ * </p>
+ * 使用示例：
+ * <pre>
+ *   TopicRateCollector.Result result = TopicRateCollector.collect(brokers, metricNames, 10_000L, "OneMinuteRate");
+ *   double bytesIn = result.getTable().get("topic-a", "BytesInPerSec", "OneMinuteRate");
+ * </pre>
+ * @author Mr.SmartLoli
+ * @since 2025/10/17 14:26:03
+ * @version 5.0.0
+ */
+@Slf4j
+public final class TopicRateCollector {
+
+    /** 并发采集线程上限 */
+    private static final int MAX_THREADS = 16;
+
+    /**
+     * 队列已满时拒绝提交，被拒绝的 Broker 记为未响应；不在调用线程中执行，避免 JMX 查询不受截止时间约束地阻塞调用方
+     */
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(
+            0, MAX_THREADS, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(256), new CollectorThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private TopicRateCollector() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 并发采集所有 Broker 的主题指标并按主题汇总。
+     *
+     * @param brokers          Broker 的 JMX 连接信息
+     * @param metricNames      需要的指标名（如 BytesInPerSec），为空表示全部
+     * @param brokerTimeoutMs  单个 Broker 的超时时间（毫秒），所有 Broker 共享同一截止时间
+     * @param attributes       需要读取的属性（如 OneMinuteRate）
+     * @return 汇总结果与未响应的 Broker
+     */
+    public static Result collect(List<JMXInitializeInfo> brokers, Collection<String> metricNames,
+                                 long brokerTimeoutMs, String... attributes) {
+        Result result = new Result();
+        if (brokers == null || brokers.isEmpty()) {
+            return result;
+        }
+
+        Map<JMXInitializeInfo, Future<TopicMetricTable>> futures = new LinkedHashMap<>();
+        for (JMXInitializeInfo broker : brokers) {
+            try {
+                futures.put(broker, EXECUTOR.submit(
+                        () -> KafkaClusterFetcher.fetchBrokerTopicMetricsOrThrow(broker, metricNames, attributes)));
+            } catch (RejectedExecutionException e) {
+                result.missingBrokers.put(describe(broker), "rejected: collector queue is full");
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(brokerTimeoutMs);
+        for (Map.Entry<JMXInitializeInfo, Future<TopicMetricTable>> entry : futures.entrySet()) {
+            String broker = describe(entry.getKey());
+            try {
+                long remaining = Math.max(0L, deadline - System.nanoTime());
+                result.table.add(entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+                result.respondedBrokers.add(broker);
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                result.missingBrokers.put(broker, "timeout after " + brokerTimeoutMs + " ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entry.getValue().cancel(true);
+                result.missingBrokers.put(broker, "interrupted");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                result.missingBrokers.put(broker, cause.getClass().getSimpleName() + ": " + cause.getMessage());
+            }
+        }
+
+        if (!result.missingBrokers.isEmpty()) {
+            log.warn("主题速率采集有 {} / {} 个 Broker 未响应: {}",
+                    result.missingBrokers.size(), brokers.size(), result.missingBrokers);
+        }
+        return result;
+    }
+
+    private static String describe(JMXInitializeInfo broker) {
+        String address = broker.getHost() + ":" + broker.getPort();
+        return broker.getBrokerId() != null ? broker.getBrokerId() + "@" + address : address;
+    }
+
+    /**
+     * 采集结果：按主题汇总的指标表、已响应与未响应的 Broker。
+     */
+    public static final class Result {
+        private final TopicMetricTable table = new TopicMetricTable();
+        private final List<String> respondedBrokers = new ArrayList<>();
+        private final Map<String, String> missingBrokers = new LinkedHashMap<>();
+
+        public TopicMetricTable getTable() {
+            return table;
+        }
+
+        public List<String> getRespondedBrokers() {
+            return respondedBrokers;
+        }
+
+        /**
+         * 未响应的 Broker（brokerId@host:port -> 原因）
+         */
+        public Map<String, String> getMissingBrokers() {
+            return missingBrokers;
+        }
+
+        public boolean isComplete() {
+            return missingBrokers.isEmpty();
+        }
+    }
+
+    /**
+     * 采集线程工厂。
+     */
+    private static class CollectorThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "efak-topic-rate-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -72,6 +72,8 @@ public class JmxMetricsConst {
         TOTAL_PRODUCE_REQUESTS_PER_SEC("kafka.server:type=BrokerTopicMetrics,name=TotalProduceRequestsPerSec"),
         BYTES_IN_PER_SEC_TOPIC("kafka.server:type=BrokerTopicMetrics,name=BytesInPerSec,topic=%s"),
         BYTES_OUT_PER_SEC_TOPIC("kafka.server:type=BrokerTopicMetrics,name=BytesOutPerSec,topic=%s"),
+        BROKER_TOPIC_METRICS_ALL_TOPICS("kafka.server:type=BrokerTopicMetrics,name=*,topic=*"),
+        BROKER_TOPIC_METRICS_BY_NAME("kafka.server:type=BrokerTopicMetrics,name=%s,topic=*"),
         REQUEST_TIME_MS_PRODUCE("kafka.network:type=RequestMetrics,name=TotalTimeMs,request=Produce"),
         REQUEST_TIME_MS_OFFSET_FETCH("kafka.network:type=RequestMetrics,name=TotalTimeMs,request=OffsetFetch"),
 
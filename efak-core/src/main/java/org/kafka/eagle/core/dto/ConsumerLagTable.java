@@ -0,0 +1,192 @@
+/**
+ * ConsumerLagTable.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.dto;
+
+import java.util.*;
+
+/**
+ * <p>
+ * 消费者组分区积压表：按 消费者组 -> 主题 存放以分区号为下标的已提交位移数组，
+ * 结合同一批次查询的末端位移表（{@link PartitionOffsetTable}）逐分区计算积压。
+ * 主题积压为已提交分区的 max(0, 末端位移 - 已提交位移) 之和，未提交位移或末端位移未知的分区不参与汇总，
+ * 避免只提交了部分分区时用主题末端位移总和减去已提交位移总和得到错误的积压。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/22 10:36:18
+ * @version 5.0.0
+ */
+public class ConsumerLagTable {
+
+    /** 未知位移或积压 */
+    public static final long UNKNOWN = PartitionOffsetTable.UNKNOWN;
+
+    private final Map<String, Map<String, long[]>> committed = new LinkedHashMap<>();
+    private PartitionOffsetTable endOffsets = new PartitionOffsetTable();
+
+    /**
+     * 记录消费者组在分区上的已提交位移
+     */
+    public void putCommitted(String groupId, String topic, int partition, long offset) {
+        Map<String, long[]> topics = committed.computeIfAbsent(groupId, k -> new LinkedHashMap<>());
+        long[] offsets = topics.get(topic);
+        if (offsets == null || partition >= offsets.length) {
+            int size = Math.max(partition + 1, offsets == null ? 0 : offsets.length * 2);
+            long[] grown = new long[size];
+            Arrays.fill(grown, UNKNOWN);
+            if (offsets != null) {
+                System.arraycopy(offsets, 0, grown, 0, offsets.length);
+            }
+            offsets = grown;
+            topics.put(topic, offsets);
+        }
+        offsets[partition] = offset;
+    }
+
+    /**
+     * 设置末端位移表
+     */
+    public void setEndOffsets(PartitionOffsetTable endOffsets) {
+        this.endOffsets = endOffsets != null ? endOffsets : new PartitionOffsetTable();
+    }
+
+    public PartitionOffsetTable getEndOffsets() {
+        return endOffsets;
+    }
+
+    /**
+     * 有已提交位移的消费者组
+     */
+    public Set<String> groups() {
+        return committed.keySet();
+    }
+
+    /**
+     * 消费者组有已提交位移的主题
+     */
+    public Set<String> topics(String groupId) {
+        Map<String, long[]> topics = committed.get(groupId);
+        return topics == null ? Collections.emptySet() : topics.keySet();
+    }
+
+    /**
+     * 全部消费者组有已提交位移的主题
+     */
+    public Set<String> allTopics() {
+        Set<String> topics = new HashSet<>();
+        for (Map<String, long[]> groupTopics : committed.values()) {
+            topics.addAll(groupTopics.keySet());
+        }
+        return topics;
+    }
+
+    /**
+     * 消费者组在主题上的已提交位移数组长度（最大已提交分区号 + 1）
+     */
+    public int partitionSlots(String groupId, String topic) {
+        long[] offsets = committedOffsets(groupId, topic);
+        return offsets == null ? 0 : offsets.length;
+    }
+
+    /**
+     * 获取分区已提交位移，未提交时返回 {@link #UNKNOWN}
+     */
+    public long committed(String groupId, String topic, int partition) {
+        long[] offsets = committedOffsets(groupId, topic);
+        if (offsets == null || partition < 0 || partition >= offsets.length) {
+            return UNKNOWN;
+        }
+        return offsets[partition];
+    }
+
+    /**
+     * 获取分区积压，已提交位移或末端位移未知时返回 {@link #UNKNOWN}
+     */
+    public long lag(String groupId, String topic, int partition) {
+        long offset = committed(groupId, topic, partition);
+        long end = endOffsets.latest(topic, partition);
+        if (offset == UNKNOWN || end == UNKNOWN) {
+            return UNKNOWN;
+        }
+        return Math.max(0L, end - offset);
+    }
+
+    /**
+     * 按需展开主题的分区积压，下标为分区号，数组长度覆盖已提交分区与末端位移表中的分区
+     */
+    public long[] partitionLags(String groupId, String topic) {
+        long[] offsets = committedOffsets(groupId, topic);
+        int slots = Math.max(offsets == null ? 0 : offsets.length, endOffsets.partitionSlots(topic));
+        long[] lags = new long[slots];
+        for (int p = 0; p < slots; p++) {
+            lags[p] = lag(groupId, topic, p);
+        }
+        return lags;
+    }
+
+    /**
+     * 主题积压：已提交分区的积压之和
+     */
+    public long topicLag(String groupId, String topic) {
+        long[] offsets = committedOffsets(groupId, topic);
+        long total = 0;
+        if (offsets != null) {
+            for (int p = 0; p < offsets.length; p++) {
+                long end = endOffsets.latest(topic, p);
+                if (offsets[p] != UNKNOWN && end != UNKNOWN) {
+                    total += Math.max(0L, end - offsets[p]);
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 主题已提交位移之和
+     */
+    public long committedSum(String groupId, String topic) {
+        long[] offsets = committedOffsets(groupId, topic);
+        long total = 0;
+        if (offsets != null) {
+            for (long offset : offsets) {
+                if (offset != UNKNOWN) {
+                    total += offset;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 主题全部分区的末端位移之和，{@link #isLogEndComplete(String)} 为 false 时只是部分分区之和
+     */
+    public long logEndSum(String topic) {
+        return endOffsets.latestSum(topic);
+    }
+
+    /**
+     * 主题全部分区的末端位移是否都已查询到
+     */
+    public boolean isLogEndComplete(String topic) {
+        return endOffsets.isLatestComplete(topic);
+    }
+
+    private long[] committedOffsets(String groupId, String topic) {
+        Map<String, long[]> topics = committed.get(groupId);
+        return topics == null ? null : topics.get(topic);
+    }
+}
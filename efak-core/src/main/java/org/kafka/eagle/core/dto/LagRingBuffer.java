@@ -0,0 +1,219 @@
+/**
+ * LagRingBuffer.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.dto;
+
+/**
+ * <p>
+ * 消费者组主题积压的定长环形缓冲区：采样时间、末端位移之和、已提交位移之和与积压分别存放在预分配的 long 数组中，
+ * 写满后覆盖最旧的采样，内存占用固定为 容量 * 4 * 8 字节，不随采样次数增长，也不产生装箱对象。
+ * 写入与读取均在缓冲区上同步，读取返回按时间升序拷贝出的 {@link Window}，调用方可以在锁外使用。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/24 15:18:40
+ * @version 5.0.0
+ */
+public class LagRingBuffer {
+
+    /** 缓冲区为空时的采样时间 */
+    public static final long UNKNOWN = PartitionOffsetTable.UNKNOWN;
+
+    private final long[] timestamps;
+    private final long[] logsizes;
+    private final long[] offsets;
+    private final long[] lags;
+
+    /** 下一次写入的位置 */
+    private int head;
+    private int size;
+
+    public LagRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.timestamps = new long[capacity];
+        this.logsizes = new long[capacity];
+        this.offsets = new long[capacity];
+        this.lags = new long[capacity];
+    }
+
+    /**
+     * 追加一次采样，采样时间早于或等于最新采样时忽略
+     *
+     * @return 是否写入
+     */
+    public synchronized boolean add(long timestamp, long logsize, long offset, long lag) {
+        if (size > 0 && timestamp <= timestamps[index(size - 1)]) {
+            return false;
+        }
+        timestamps[head] = timestamp;
+        logsizes[head] = logsize;
+        offsets[head] = offset;
+        lags[head] = lag;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+        return true;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 最早一次采样的时间，缓冲区为空时返回 {@link #UNKNOWN}
+     */
+    public synchronized long oldestTimestamp() {
+        return size == 0 ? UNKNOWN : timestamps[index(0)];
+    }
+
+    /**
+     * 最新一次采样的时间，缓冲区为空时返回 {@link #UNKNOWN}
+     */
+    public synchronized long latestTimestamp() {
+        return size == 0 ? UNKNOWN : timestamps[index(size - 1)];
+    }
+
+    /**
+     * 拷贝采样时间在 (fromExclusive, toInclusive] 内的采样
+     */
+    public synchronized Window window(long fromExclusive, long toInclusive) {
+        // 采样时间单调递增，二分查找起止位置
+        int start = upperBound(fromExclusive);
+        int end = upperBound(toInclusive);
+        return copy(start, Math.max(start, end));
+    }
+
+    /**
+     * 拷贝最近 n 次采样
+     */
+    public synchronized Window latest(int n) {
+        return copy(Math.max(0, size - n), size);
+    }
+
+    /**
+     * 逻辑下标（0 为最早的采样）转换为数组下标
+     */
+    private int index(int logical) {
+        return (head - size + logical + timestamps.length) % timestamps.length;
+    }
+
+    /**
+     * 第一个采样时间大于 timestamp 的逻辑下标
+     */
+    private int upperBound(long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[index(mid)] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Window copy(int start, int end) {
+        int n = end - start;
+        Window window = new Window(n);
+        for (int i = 0; i < n; i++) {
+            int j = index(start + i);
+            window.timestamps[i] = timestamps[j];
+            window.logsizes[i] = logsizes[j];
+            window.offsets[i] = offsets[j];
+            window.lags[i] = lags[j];
+        }
+        return window;
+    }
+
+    /**
+     * 按时间升序拷贝出的一段采样
+     */
+    public static final class Window {
+        private final long[] timestamps;
+        private final long[] logsizes;
+        private final long[] offsets;
+        private final long[] lags;
+
+        private Window(int size) {
+            this.timestamps = new long[size];
+            this.logsizes = new long[size];
+            this.offsets = new long[size];
+            this.lags = new long[size];
+        }
+
+        public int size() {
+            return timestamps.length;
+        }
+
+        public boolean isEmpty() {
+            return timestamps.length == 0;
+        }
+
+        public long timestamp(int i) {
+            return timestamps[i];
+        }
+
+        public long logsize(int i) {
+            return logsizes[i];
+        }
+
+        public long offset(int i) {
+            return offsets[i];
+        }
+
+        public long lag(int i) {
+            return lags[i];
+        }
+
+        /**
+         * 采样时间数组（只读使用）
+         */
+        public long[] timestamps() {
+            return timestamps;
+        }
+
+        /**
+         * 积压数组（只读使用）
+         */
+        public long[] lags() {
+            return lags;
+        }
+
+        /**
+         * 按下标（升序）选出子窗口
+         */
+        public Window select(int[] indexes) {
+            Window selected = new Window(indexes.length);
+            for (int i = 0; i < indexes.length; i++) {
+                int j = indexes[i];
+                selected.timestamps[i] = timestamps[j];
+                selected.logsizes[i] = logsizes[j];
+                selected.offsets[i] = offsets[j];
+                selected.lags[i] = lags[j];
+            }
+            return selected;
+        }
+    }
+}
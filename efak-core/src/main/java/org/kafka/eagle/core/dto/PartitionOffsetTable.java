@@ -0,0 +1,200 @@
+/**
+ * PartitionOffsetTable.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.dto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * 批量 ListOffsets 的结果表：按主题存放以分区号为下标的最早/最新位移数组，
+ * 避免为每个分区创建 TopicPartition 与 Long 装箱对象。未查询到的分区位移为 {@link #UNKNOWN}。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/16 16:20:41
+ * @version 5.0.0
+ */
+public class PartitionOffsetTable {
+
+    /** 未知位移 */
+    public static final long UNKNOWN = -1L;
+
+    private final Map<String, long[]> earliest = new HashMap<>();
+    private final Map<String, long[]> latest = new HashMap<>();
+
+    /**
+     * 按分区数预分配主题的位移数组
+     */
+    public void reserve(String topic, int partitionCount) {
+        if (partitionCount > 0) {
+            slot(earliest, topic, partitionCount - 1);
+            slot(latest, topic, partitionCount - 1);
+        }
+    }
+
+    /**
+     * 按分区数只预分配主题的最新位移数组，合并时不覆盖已有的最早位移
+     */
+    public void reserveLatest(String topic, int partitionCount) {
+        if (partitionCount > 0) {
+            slot(latest, topic, partitionCount - 1);
+        }
+    }
+
+    /**
+     * 记录分区最早位移
+     */
+    public void putEarliest(String topic, int partition, long offset) {
+        slot(earliest, topic, partition)[partition] = offset;
+    }
+
+    /**
+     * 记录分区最新位移
+     */
+    public void putLatest(String topic, int partition, long offset) {
+        slot(latest, topic, partition)[partition] = offset;
+    }
+
+    /**
+     * 获取分区最早位移，未知时返回 {@link #UNKNOWN}
+     */
+    public long earliest(String topic, int partition) {
+        return get(earliest, topic, partition);
+    }
+
+    /**
+     * 获取分区最新位移，未知时返回 {@link #UNKNOWN}
+     */
+    public long latest(String topic, int partition) {
+        return get(latest, topic, partition);
+    }
+
+    /**
+     * 主题最新位移之和（与 getTotalTopicLogSize 口径一致）
+     */
+    public long latestSum(String topic) {
+        long total = 0;
+        long[] ends = latest.get(topic);
+        if (ends != null) {
+            for (long end : ends) {
+                if (end > 0) {
+                    total += end;
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 主题实际消息数：各分区 (最新位移 - 最早位移) 之和（与 getTotalActualTopicLogSize 口径一致）
+     */
+    public long logSize(String topic) {
+        long total = 0;
+        long[] ends = latest.get(topic);
+        long[] starts = earliest.get(topic);
+        if (ends == null) {
+            return 0L;
+        }
+        for (int p = 0; p < ends.length; p++) {
+            if (ends[p] == UNKNOWN) {
+                continue;
+            }
+            long start = starts != null && p < starts.length && starts[p] != UNKNOWN ? starts[p] : 0L;
+            total += Math.max(0L, ends[p] - start);
+        }
+        return total;
+    }
+
+    /**
+     * 主题在结果表中的分区数组长度（最大分区号 + 1）
+     */
+    public int partitionSlots(String topic) {
+        long[] ends = latest.get(topic);
+        return ends == null ? 0 : ends.length;
+    }
+
+    /**
+     * 合并另一张结果表（按主题整体覆盖）
+     */
+    public void merge(PartitionOffsetTable other) {
+        if (other != null) {
+            earliest.putAll(other.earliest);
+            latest.putAll(other.latest);
+        }
+    }
+
+    public boolean contains(String topic) {
+        return latest.containsKey(topic) || earliest.containsKey(topic);
+    }
+
+    /**
+     * 主题全部分区的最新位移是否都已查询到。分区数组在查询前按分区数预分配，
+     * 查询失败的分区保持 {@link #UNKNOWN}，此时 {@link #latestSum(String)} 只是部分分区之和
+     */
+    public boolean isLatestComplete(String topic) {
+        return isComplete(latest.get(topic));
+    }
+
+    /**
+     * 主题全部分区的最早与最新位移是否都已查询到，为 false 时 {@link #logSize(String)} 不可信
+     */
+    public boolean isComplete(String topic) {
+        return isComplete(latest.get(topic)) && isComplete(earliest.get(topic));
+    }
+
+    public Set<String> topics() {
+        return latest.keySet();
+    }
+
+    private static boolean isComplete(long[] offsets) {
+        if (offsets == null || offsets.length == 0) {
+            return false;
+        }
+        for (long offset : offsets) {
+            if (offset == UNKNOWN) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long get(Map<String, long[]> table, String topic, int partition) {
+        long[] offsets = table.get(topic);
+        if (offsets == null || partition < 0 || partition >= offsets.length) {
+            return UNKNOWN;
+        }
+        return offsets[partition];
+    }
+
+    private static long[] slot(Map<String, long[]> table, String topic, int partition) {
+        long[] offsets = table.get(topic);
+        if (offsets == null || partition >= offsets.length) {
+            int size = Math.max(partition + 1, offsets == null ? 0 : offsets.length * 2);
+            long[] grown = new long[size];
+            Arrays.fill(grown, UNKNOWN);
+            if (offsets != null) {
+                System.arraycopy(offsets, 0, grown, 0, offsets.length);
+            }
+            offsets = grown;
+            table.put(topic, offsets);
+        }
+        return offsets;
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * TopicCapacityTable.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.dto;
+
+import java.util.*;
+
+/**
+ * <p>
+ * DescribeLogDirs 的主题容量结果表：按主题存放以分区号为下标的副本最大日志大小数组，
+ * 以及全部副本的日志大小之和。
+ * 主题容量取每个分区各副本中的最大值之和，与按 Leader 读取 kafka.log:type=Log,name=Size 的口径一致；
+ * 副本总容量为所有副本日志大小之和，即主题实际占用的磁盘空间。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/18 10:21:47
+ * @version 5.0.0
+ */
+public class TopicCapacityTable {
+
+    private final Map<String, long[]> partitionSizes = new HashMap<>();
+    private final Map<String, Long> replicatedSizes = new HashMap<>();
+    private final List<Integer> respondedBrokers = new ArrayList<>();
+    private final Map<Integer, String> failedBrokers = new LinkedHashMap<>();
+
+    /**
+     * 记录一个副本的日志大小
+     */
+    public void record(String topic, int partition, long size) {
+        long[] sizes = partitionSizes.get(topic);
+        if (sizes == null || partition >= sizes.length) {
+            long[] grown = new long[Math.max(partition + 1, sizes == null ? 0 : sizes.length * 2)];
+            if (sizes != null) {
+                System.arraycopy(sizes, 0, grown, 0, sizes.length);
+            }
+            sizes = grown;
+            partitionSizes.put(topic, sizes);
+        }
+        if (size > sizes[partition]) {
+            sizes[partition] = size;
+        }
+        replicatedSizes.merge(topic, Math.max(0L, size), Long::sum);
+    }
+
+    /**
+     * 主题容量：各分区副本最大日志大小之和（字节）
+     */
+    public long capacity(String topic) {
+        long[] sizes = partitionSizes.get(topic);
+        if (sizes == null) {
+            return 0L;
+        }
+        long total = 0L;
+        for (long size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    /**
+     * 主题全部副本的日志大小之和（字节）
+     */
+    public long replicatedCapacity(String topic) {
+        return replicatedSizes.getOrDefault(topic, 0L);
+    }
+
+    public boolean contains(String topic) {
+        return partitionSizes.containsKey(topic);
+    }
+
+    public Set<String> topics() {
+        return Collections.unmodifiableSet(partitionSizes.keySet());
+    }
+
+    /**
+     * 主题容量，没有可用数据时返回 null：主题不在结果中，且查询失败或有 Broker 未返回日志目录信息。
+     * 所有 Broker 都已返回而主题仍不在结果中时返回 0
+     */
+    public Long findCapacity(String topic) {
+        if (partitionSizes.containsKey(topic)) {
+            return capacity(topic);
+        }
+        return isComplete() && !isFailed() ? 0L : null;
+    }
+
+    public void brokerResponded(int brokerId) {
+        respondedBrokers.add(brokerId);
+    }
+
+    public void brokerFailed(int brokerId, String reason) {
+        failedBrokers.put(brokerId, reason);
+    }
+
+    public List<Integer> getRespondedBrokers() {
+        return respondedBrokers;
+    }
+
+    /**
+     * 未返回日志目录信息的 Broker（brokerId -> 原因）
+     */
+    public Map<Integer, String> getFailedBrokers() {
+        return failedBrokers;
+    }
+
+    /**
+     * 是否所有 Broker 都返回了日志目录信息
+     */
+    public boolean isComplete() {
+        return failedBrokers.isEmpty();
+    }
+
+    /**
+     * 是否没有任何 Broker 返回日志目录信息（查询失败、超时或无权限）
+     */
+    public boolean isFailed() {
+        return respondedBrokers.isEmpty();
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * TopicMetricTable.java
+ * <p>
+ * Copyright 2025 smartloli
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kafka.eagle.core.dto;
+
+import java.util.*;
+
+/**
+ * <p>
+ * 按列存储的主题级 JMX 指标表：每一列对应一个 "指标名.属性"（如 BytesInPerSec.OneMinuteRate），
+ * 列内为以主题下标索引的 double 数组。由一次 queryNames + 批量 getAttributes 填充，
+ * 多个 Broker 的结果可通过 {@link #add(TopicMetricTable)} 累加。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/17 11:05:52
+ * @version 5.0.0
+ */
+public class TopicMetricTable {
+
+    private final Map<String, Integer> topicIndex = new HashMap<>();
+    private final List<String> topics = new ArrayList<>();
+    private final Map<String, double[]> columns = new LinkedHashMap<>();
+
+    /**
+     * 写入（覆盖）指标值
+     */
+    public void put(String topic, String metric, String attribute, double value) {
+        int index = indexOf(topic);
+        column(metric, attribute)[index] = value;
+    }
+
+    /**
+     * 累加指标值
+     */
+    public void accumulate(String topic, String metric, String attribute, double value) {
+        int index = indexOf(topic);
+        column(metric, attribute)[index] += value;
+    }
+
+    /**
+     * 读取指标值，不存在时返回 0
+     */
+    public double get(String topic, String metric, String attribute) {
+        Integer index = topicIndex.get(topic);
+        double[] values = columns.get(columnKey(metric, attribute));
+        if (index == null || values == null || index >= values.length) {
+            return 0D;
+        }
+        return values[index];
+    }
+
+    /**
+     * 是否包含主题的任何指标
+     */
+    public boolean contains(String topic) {
+        return topicIndex.containsKey(topic);
+    }
+
+    /**
+     * 将另一张表的所有列按主题累加到当前表（用于多 Broker 汇总）
+     */
+    public void add(TopicMetricTable other) {
+        if (other == null) {
+            return;
+        }
+        for (Map.Entry<String, double[]> entry : other.columns.entrySet()) {
+            double[] values = entry.getValue();
+            for (int i = 0; i < other.topics.size() && i < values.length; i++) {
+                int index = indexOf(other.topics.get(i));
+                columnByKey(entry.getKey())[index] += values[i];
+            }
+        }
+    }
+
+    public List<String> topics() {
+        return Collections.unmodifiableList(topics);
+    }
+
+    public Set<String> columnKeys() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    public int size() {
+        return topics.size();
+    }
+
+    /**
+     * 从 JMX 对象名中提取 name 属性，例如
+     * kafka.server:type=BrokerTopicMetrics,name=BytesInPerSec -> BytesInPerSec
+     */
+    public static String metricNameOf(String objectName) {
+        for (String part : objectName.substring(objectName.indexOf(':') + 1).split(",")) {
+            if (part.startsWith("name=")) {
+                return part.substring("name=".length());
+            }
+        }
+        return objectName;
+    }
+
+    private static String columnKey(String metric, String attribute) {
+        return metric + "." + attribute;
+    }
+
+    private int indexOf(String topic) {
+        Integer index = topicIndex.get(topic);
+        if (index == null) {
+            index = topics.size();
+            topicIndex.put(topic, index);
+            topics.add(topic);
+        }
+        return index;
+    }
+
+    private double[] column(String metric, String attribute) {
+        return columnByKey(columnKey(metric, attribute));
+    }
+
+    private double[] columnByKey(String key) {
+        double[] values = columns.get(key);
+        int required = Math.max(topics.size(), 1);
+        if (values == null || values.length < required) {
+            double[] grown = new double[Math.max(required, values == null ? 16 : values.length * 2)];
+            if (values != null) {
+                System.arraycopy(values, 0, grown, 0, values.length);
+            }
+            columns.put(key, grown);
+            values = grown;
+        }
+        return values;
+    }
+}
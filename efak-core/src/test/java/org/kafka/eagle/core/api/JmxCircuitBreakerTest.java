@@ -0,0 +1,102 @@
+package org.kafka.eagle.core.api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JmxCircuitBreaker测试类
+ */
+public class JmxCircuitBreakerTest {
+
+    private static final String HOST = "10.0.0.1";
+    private static final int PORT = 9999;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @BeforeEach
+    public void setUp() {
+        JmxCircuitBreaker.setClock(now::get);
+        JmxCircuitBreaker.reset(HOST, PORT);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JmxCircuitBreaker.reset(HOST, PORT);
+        JmxCircuitBreaker.setClock(null);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            JmxCircuitBreaker.onFailure(HOST, PORT, new IOException("connection refused"));
+        }
+    }
+
+    @Test
+    public void testOpensAfterConsecutiveFailures() throws Exception {
+        JmxCircuitBreaker.acquire(HOST, PORT);
+        fail(1);
+        // 一次失败不熔断
+        assertEquals(JmxCircuitBreaker.State.CLOSED, JmxCircuitBreaker.stateOf(HOST, PORT));
+        JmxCircuitBreaker.acquire(HOST, PORT);
+
+        fail(1);
+        assertEquals(JmxCircuitBreaker.State.OPEN, JmxCircuitBreaker.stateOf(HOST, PORT));
+        assertThrows(JmxCircuitBreaker.OpenException.class, () -> JmxCircuitBreaker.acquire(HOST, PORT));
+    }
+
+    @Test
+    public void testSuccessResetsFailureCount() throws Exception {
+        fail(1);
+        JmxCircuitBreaker.onSuccess(HOST, PORT);
+        fail(1);
+        assertEquals(JmxCircuitBreaker.State.CLOSED, JmxCircuitBreaker.stateOf(HOST, PORT));
+        JmxCircuitBreaker.acquire(HOST, PORT);
+    }
+
+    @Test
+    public void testHalfOpenAllowsSingleTrialAndClosesOnSuccess() throws Exception {
+        fail(2);
+        now.addAndGet(4_999L);
+        assertThrows(JmxCircuitBreaker.OpenException.class, () -> JmxCircuitBreaker.acquire(HOST, PORT));
+
+        // 冷却期结束后进入 HALF_OPEN，只放行一次试探
+        now.addAndGet(1L);
+        assertEquals(JmxCircuitBreaker.State.HALF_OPEN, JmxCircuitBreaker.stateOf(HOST, PORT));
+        JmxCircuitBreaker.acquire(HOST, PORT);
+        assertThrows(JmxCircuitBreaker.OpenException.class, () -> JmxCircuitBreaker.acquire(HOST, PORT));
+
+        JmxCircuitBreaker.onSuccess(HOST, PORT);
+        assertEquals(JmxCircuitBreaker.State.CLOSED, JmxCircuitBreaker.stateOf(HOST, PORT));
+        JmxCircuitBreaker.acquire(HOST, PORT);
+        JmxCircuitBreaker.acquire(HOST, PORT);
+    }
+
+    @Test
+    public void testFailedTrialReopensWithLongerCooldown() throws Exception {
+        fail(2);
+        now.addAndGet(5_000L);
+        JmxCircuitBreaker.acquire(HOST, PORT);
+
+        // 试探失败立即重新熔断，冷却时间翻倍
+        fail(1);
+        assertEquals(JmxCircuitBreaker.State.OPEN, JmxCircuitBreaker.stateOf(HOST, PORT));
+        now.addAndGet(9_999L);
+        assertThrows(JmxCircuitBreaker.OpenException.class, () -> JmxCircuitBreaker.acquire(HOST, PORT));
+        now.addAndGet(1L);
+        assertEquals(JmxCircuitBreaker.State.HALF_OPEN, JmxCircuitBreaker.stateOf(HOST, PORT));
+        JmxCircuitBreaker.acquire(HOST, PORT);
+    }
+
+    @Test
+    public void testResetClosesBreaker() {
+        fail(2);
+        JmxCircuitBreaker.reset(HOST, PORT);
+        assertEquals(JmxCircuitBreaker.State.CLOSED, JmxCircuitBreaker.stateOf(HOST, PORT));
+    }
+}
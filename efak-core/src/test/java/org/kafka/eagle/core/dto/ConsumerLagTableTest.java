@@ -0,0 +1,136 @@
+package org.kafka.eagle.core.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConsumerLagTable测试类
+ */
+public class ConsumerLagTableTest {
+
+    private static PartitionOffsetTable endOffsets(String topic, long... ends) {
+        PartitionOffsetTable table = new PartitionOffsetTable();
+        // 与 listOffsets 一致，先按分区数预分配
+        table.reserveLatest(topic, ends.length);
+        for (int p = 0; p < ends.length; p++) {
+            table.putLatest(topic, p, ends[p]);
+        }
+        return table;
+    }
+
+    @Test
+    public void testPartitionSlotsGrowWithCommittedPartitions() {
+        ConsumerLagTable table = new ConsumerLagTable();
+        table.putCommitted("g1", "orders", 0, 10L);
+        assertEquals(1, table.partitionSlots("g1", "orders"));
+
+        // 超出长度时至少翻倍，并覆盖新的分区号
+        table.putCommitted("g1", "orders", 1, 20L);
+        assertEquals(2, table.partitionSlots("g1", "orders"));
+        table.putCommitted("g1", "orders", 6, 70L);
+        assertEquals(7, table.partitionSlots("g1", "orders"));
+        table.putCommitted("g1", "orders", 7, 80L);
+        assertEquals(14, table.partitionSlots("g1", "orders"));
+
+        // 扩容保留已写入的位移，中间未提交的分区为未知
+        assertEquals(10L, table.committed("g1", "orders", 0));
+        assertEquals(20L, table.committed("g1", "orders", 1));
+        assertEquals(70L, table.committed("g1", "orders", 6));
+        assertEquals(ConsumerLagTable.UNKNOWN, table.committed("g1", "orders", 3));
+        assertEquals(ConsumerLagTable.UNKNOWN, table.committed("g1", "orders", 100));
+        assertEquals(0, table.partitionSlots("g1", "payments"));
+        assertEquals(0, table.partitionSlots("g2", "orders"));
+    }
+
+    @Test
+    public void testUnknownCommittedOffsetIsExcludedFromLag() {
+        ConsumerLagTable table = new ConsumerLagTable();
+        table.putCommitted("g1", "orders", 0, 90L);
+        table.putCommitted("g1", "orders", 2, 250L);
+        table.setEndOffsets(endOffsets("orders", 100L, 200L, 300L));
+
+        assertEquals(10L, table.lag("g1", "orders", 0));
+        assertEquals(ConsumerLagTable.UNKNOWN, table.lag("g1", "orders", 1));
+        assertEquals(50L, table.lag("g1", "orders", 2));
+        assertArrayEquals(new long[]{10L, ConsumerLagTable.UNKNOWN, 50L},
+                table.partitionLags("g1", "orders"));
+
+        // 只汇总已提交的分区，不用末端位移总和减去已提交位移总和（600 - 340）
+        assertEquals(60L, table.topicLag("g1", "orders"));
+        assertEquals(340L, table.committedSum("g1", "orders"));
+        assertEquals(600L, table.logEndSum("orders"));
+        assertTrue(table.isLogEndComplete("orders"));
+    }
+
+    @Test
+    public void testReservedButUnresolvedPartitionMarksTopicIncomplete() {
+        PartitionOffsetTable ends = new PartitionOffsetTable();
+        ends.reserveLatest("orders", 3);
+        ends.putLatest("orders", 0, 100L);
+        ends.putLatest("orders", 2, 300L);
+
+        ConsumerLagTable table = new ConsumerLagTable();
+        table.setEndOffsets(ends);
+
+        // 分区 1 查询失败，末端位移之和只是部分分区之和
+        assertTrue(ends.contains("orders"));
+        assertFalse(ends.isLatestComplete("orders"));
+        assertFalse(table.isLogEndComplete("orders"));
+        assertEquals(400L, table.logEndSum("orders"));
+
+        ends.putLatest("orders", 1, 200L);
+        assertTrue(table.isLogEndComplete("orders"));
+        // 只预分配了最新位移，最早位移缺失时主题位移仍不完整
+        assertFalse(ends.isComplete("orders"));
+        assertFalse(table.isLogEndComplete("payments"));
+    }
+
+    @Test
+    public void testUnknownEndOffsetIsExcludedFromLag() {
+        ConsumerLagTable table = new ConsumerLagTable();
+        table.putCommitted("g1", "orders", 0, 90L);
+        table.putCommitted("g1", "orders", 3, 10L);
+        table.setEndOffsets(endOffsets("orders", 100L));
+
+        assertEquals(ConsumerLagTable.UNKNOWN, table.lag("g1", "orders", 3));
+        assertEquals(10L, table.topicLag("g1", "orders"));
+
+        // 已提交位移大于末端位移时积压为 0
+        table.setEndOffsets(endOffsets("orders", 80L, 0L, 0L, 5L));
+        assertEquals(0L, table.topicLag("g1", "orders"));
+
+        table.setEndOffsets(null);
+        assertEquals(0L, table.topicLag("g1", "orders"));
+        assertEquals(0L, table.logEndSum("orders"));
+    }
+
+    @Test
+    public void testSumsArePerGroupAndTopic() {
+        ConsumerLagTable table = new ConsumerLagTable();
+        table.putCommitted("g1", "orders", 0, 100L);
+        table.putCommitted("g1", "orders", 1, 150L);
+        table.putCommitted("g1", "payments", 0, 5L);
+        table.putCommitted("g2", "orders", 1, 120L);
+
+        PartitionOffsetTable ends = endOffsets("orders", 110L, 200L);
+        ends.merge(endOffsets("payments", 40L));
+        table.setEndOffsets(ends);
+
+        assertEquals(60L, table.topicLag("g1", "orders"));
+        assertEquals(250L, table.committedSum("g1", "orders"));
+        assertEquals(35L, table.topicLag("g1", "payments"));
+        assertEquals(5L, table.committedSum("g1", "payments"));
+        assertEquals(80L, table.topicLag("g2", "orders"));
+        assertEquals(120L, table.committedSum("g2", "orders"));
+        assertEquals(0L, table.topicLag("g2", "payments"));
+        assertEquals(0L, table.committedSum("g2", "payments"));
+        assertEquals(310L, table.logEndSum("orders"));
+
+        assertEquals(2, table.groups().size());
+        assertEquals(2, table.topics("g1").size());
+        assertEquals(1, table.topics("g2").size());
+        assertTrue(table.topics("g3").isEmpty());
+        assertEquals(2, table.allTopics().size());
+    }
+}
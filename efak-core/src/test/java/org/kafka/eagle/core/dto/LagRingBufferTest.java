@@ -0,0 +1,84 @@
+package org.kafka.eagle.core.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LagRingBuffer测试类
+ */
+public class LagRingBufferTest {
+
+    private static LagRingBuffer filled(int capacity, long... timestamps) {
+        LagRingBuffer buffer = new LagRingBuffer(capacity);
+        for (long timestamp : timestamps) {
+            assertTrue(buffer.add(timestamp, timestamp * 10, timestamp * 10 - timestamp, timestamp));
+        }
+        return buffer;
+    }
+
+    @Test
+    public void testOverwritesOldestAfterCapacity() {
+        LagRingBuffer buffer = filled(3, 1000L, 2000L, 3000L, 4000L, 5000L);
+
+        assertEquals(3, buffer.capacity());
+        assertEquals(3, buffer.size());
+        assertEquals(3000L, buffer.oldestTimestamp());
+        assertEquals(5000L, buffer.latestTimestamp());
+
+        LagRingBuffer.Window all = buffer.window(Long.MIN_VALUE, Long.MAX_VALUE);
+        assertArrayEquals(new long[]{3000L, 4000L, 5000L}, all.timestamps());
+        assertArrayEquals(new long[]{3000L, 4000L, 5000L}, all.lags());
+        assertEquals(40000L, all.logsize(1));
+        assertEquals(36000L, all.offset(1));
+    }
+
+    @Test
+    public void testOutOfOrderTimestampsAreRejected() {
+        LagRingBuffer buffer = filled(4, 1000L, 2000L);
+
+        assertFalse(buffer.add(2000L, 0L, 0L, 99L));
+        assertFalse(buffer.add(1500L, 0L, 0L, 99L));
+        assertEquals(2, buffer.size());
+        assertEquals(2000L, buffer.latestTimestamp());
+        assertArrayEquals(new long[]{1000L, 2000L}, buffer.latest(4).lags());
+
+        assertTrue(buffer.add(2001L, 0L, 0L, 7L));
+        assertEquals(2001L, buffer.latestTimestamp());
+    }
+
+    @Test
+    public void testWindowBoundsAreExclusiveInclusive() {
+        LagRingBuffer buffer = filled(4, 1000L, 2000L, 3000L, 4000L, 5000L, 6000L);
+
+        // 环形数组已回绕，区间为 (from, to]
+        assertArrayEquals(new long[]{4000L, 5000L}, buffer.window(3000L, 5000L).timestamps());
+        assertArrayEquals(new long[]{4000L, 5000L}, buffer.window(3500L, 5500L).timestamps());
+        assertArrayEquals(new long[]{3000L, 4000L, 5000L, 6000L}, buffer.window(Long.MIN_VALUE, 6000L).timestamps());
+        assertTrue(buffer.window(6000L, Long.MAX_VALUE).isEmpty());
+        assertTrue(buffer.window(1000L, 2000L).isEmpty());
+        assertTrue(buffer.window(5000L, 4000L).isEmpty());
+    }
+
+    @Test
+    public void testLatestReturnsNewestInAscendingOrder() {
+        LagRingBuffer buffer = filled(3, 1000L, 2000L, 3000L, 4000L);
+
+        assertArrayEquals(new long[]{4000L}, buffer.latest(1).timestamps());
+        assertArrayEquals(new long[]{3000L, 4000L}, buffer.latest(2).timestamps());
+        assertArrayEquals(new long[]{2000L, 3000L, 4000L}, buffer.latest(10).timestamps());
+        assertTrue(buffer.latest(0).isEmpty());
+    }
+
+    @Test
+    public void testEmptyBuffer() {
+        LagRingBuffer buffer = new LagRingBuffer(2);
+
+        assertEquals(0, buffer.size());
+        assertEquals(LagRingBuffer.UNKNOWN, buffer.oldestTimestamp());
+        assertEquals(LagRingBuffer.UNKNOWN, buffer.latestTimestamp());
+        assertTrue(buffer.latest(1).isEmpty());
+        assertTrue(buffer.window(Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new LagRingBuffer(0));
+    }
+}
@@ -24,7 +24,7 @@ public class DistributedTaskConfig {
     private int offlineTimeout = 120;
 
     /**
-     * 分片结果等待时间（秒）
+     * 分片结果最长等待时间（秒），本轮次所有节点完成后立即汇总
      */
     private int shardResultWaitTime = 30;
 
@@ -32,4 +32,34 @@ public class DistributedTaskConfig {
      * 分片结果过期时间（分钟）
      */
     private int shardResultExpireMinutes = 10;
+
+    /**
+     * 当前节点的分片权重，权重越大分到的分片越多
+     */
+    private int nodeWeight = 1;
+
+    /**
+     * 权重为 1 的节点在一致性哈希环上的虚拟节点数
+     */
+    private int virtualNodes = 160;
+
+    /**
+     * 主题监控与消费者监控是否按估算成本（分区数、成员数、上次采集耗时）均衡分片
+     */
+    private boolean costBalanceEnabled = true;
+
+    /**
+     * 成本均衡分片方案的有效期（秒），到期后按最新成本重新计算
+     */
+    private int rebalanceIntervalSeconds = 300;
+
+    /**
+     * 任务执行线程数
+     */
+    private int workerThreads = 8;
+
+    /**
+     * 任务执行等待队列容量，队列满时拒绝新的任务轮次
+     */
+    private int workerQueueCapacity = 16;
 }
\ No newline at end of file
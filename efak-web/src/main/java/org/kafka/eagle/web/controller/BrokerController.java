@@ -212,5 +212,13 @@ public class BrokerController {
         return ResponseEntity.ok(overview);
     }
 
+    /**
+     * 获取Broker JMX 熔断状态
+     */
+    @GetMapping("/jmx-breakers")
+    public ResponseEntity<List<Map<String, Object>>> getJmxBreakerStates(@RequestParam(required = false) String clusterId) {
+        return ResponseEntity.ok(brokerService.getJmxBreakerStates(clusterId));
+    }
+
 
 }
\ No newline at end of file
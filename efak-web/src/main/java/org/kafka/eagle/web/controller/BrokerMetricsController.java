@@ -40,7 +40,8 @@ public class BrokerMetricsController {
     public ResponseEntity<Map<String, Object>> getTrendData(
             @RequestParam String metricType,
             @RequestParam(defaultValue = "1h") String timeRange,
-            @RequestParam(required = false) String clusterId) {
+            @RequestParam(required = false) String clusterId,
+            @RequestParam(required = false) Integer maxPoints) {
         try {
             // 验证指标类型
             if (!"cpu".equalsIgnoreCase(metricType) && !"memory".equalsIgnoreCase(metricType)) {
@@ -50,7 +51,7 @@ public class BrokerMetricsController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
 
-            Map<String, Object> trendData = brokerMetricsService.getTrendData(metricType, timeRange, clusterId);
+            Map<String, Object> trendData = brokerMetricsService.getTrendData(metricType, timeRange, clusterId, maxPoints);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -80,7 +81,7 @@ public class BrokerMetricsController {
             @RequestParam(defaultValue = "1h") String timeRange,
             @RequestParam(required = false) String clusterId) {
         try {
-            Map<String, Object> cpuTrendData = brokerMetricsService.getTrendData("cpu", timeRange, clusterId);
+            Map<String, Object> cpuTrendData = brokerMetricsService.getTrendData("cpu", timeRange, clusterId, null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -109,7 +110,7 @@ public class BrokerMetricsController {
             @RequestParam(defaultValue = "1h") String timeRange,
             @RequestParam(required = false) String clusterId) {
         try {
-            Map<String, Object> memoryTrendData = brokerMetricsService.getTrendData("memory", timeRange, clusterId);
+            Map<String, Object> memoryTrendData = brokerMetricsService.getTrendData("memory", timeRange, clusterId, null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -79,12 +79,14 @@ public class ConsumerController {
      *
      * @param clusterId 集群ID
      * @param timeRange 时间范围，默认1d（最近24小时）
+     * @param maxPoints 最多返回的点数，可选
      * @return 趋势数据响应
      */
     @GetMapping("/api/idle-groups-trend")
     @ResponseBody
     public ResponseEntity<Map<String, Object>> getIdleGroupsTrend(@RequestParam("cid") String clusterId,
-                                                                  @RequestParam(value = "timeRange", defaultValue = "1d") String timeRange) {
+                                                                  @RequestParam(value = "timeRange", defaultValue = "1d") String timeRange,
+                                                                  @RequestParam(value = "maxPoints", required = false) Integer maxPoints) {
         Map<String, Object> response = new HashMap<>();
 
         try {
@@ -95,7 +97,7 @@ public class ConsumerController {
             }
 
             // 获取趋势数据
-            List<Map<String, Object>> trendData = consumerGroupTopicService.getIdleGroupsTrend(clusterId, timeRange);
+            List<Map<String, Object>> trendData = consumerGroupTopicService.getIdleGroupsTrend(clusterId, timeRange, maxPoints);
 
             response.put("success", true);
             response.put("data", trendData);
@@ -244,6 +246,7 @@ public class ConsumerController {
      * @param groupId   消费者组ID
      * @param topic     主题名称
      * @param timeRange 时间范围
+     * @param maxPoints 最多返回的点数，可选
      * @return 延迟趋势数据
      */
     @GetMapping("/api/lag-trend")
@@ -251,7 +254,8 @@ public class ConsumerController {
     public ResponseEntity<Map<String, Object>> getConsumerGroupLagTrend(@RequestParam("cid") String clusterId,
                                                                         @RequestParam("groupId") String groupId,
                                                                         @RequestParam("topic") String topic,
-                                                                        @RequestParam(value = "timeRange", defaultValue = "1d") String timeRange) {
+                                                                        @RequestParam(value = "timeRange", defaultValue = "1d") String timeRange,
+                                                                        @RequestParam(value = "maxPoints", required = false) Integer maxPoints) {
         Map<String, Object> response = new HashMap<>();
 
         try {
@@ -264,7 +268,7 @@ public class ConsumerController {
             }
 
             // 获取消费者组延迟趋势数据
-            List<Map<String, Object>> lagTrendData = consumerGroupTopicService.getConsumerGroupLagTrend(clusterId, groupId, topic, timeRange);
+            List<Map<String, Object>> lagTrendData = consumerGroupTopicService.getConsumerGroupLagTrend(clusterId, groupId, topic, timeRange, maxPoints);
 
             response.put("success", true);
             response.put("data", lagTrendData);
@@ -54,14 +54,16 @@ public class DashboardController {
      *
      * @param cid cluster ID
      * @param period time period (1h, 24h, 3d, 7d)
+     * @param maxPoints max points to return (optional)
      * @return performance trend data
      */
     @GetMapping("/performance-trend")
     public ResponseEntity<DashboardResponse<Object>> getPerformanceTrend(
             @RequestParam("cid") String cid,
-            @RequestParam("period") String period) {
+            @RequestParam("period") String period,
+            @RequestParam(value = "maxPoints", required = false) Integer maxPoints) {
         try {
-            Object performanceData = dashboardService.getPerformanceTrend(cid, period);
+            Object performanceData = dashboardService.getPerformanceTrend(cid, period, maxPoints);
             return ResponseEntity.ok(DashboardResponse.success(performanceData));
         } catch (Exception e) {
             log.error("Failed to get performance trend data for cluster: {}, period: {}", cid, period, e);
@@ -2,7 +2,11 @@ package org.kafka.eagle.web.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.kafka.eagle.web.scheduler.DistributedTaskCoordinator;
+import org.kafka.eagle.web.scheduler.UnifiedDistributedScheduler;
+import org.kafka.eagle.web.service.ConsumerLagSampler;
 import org.kafka.eagle.web.service.ShardResultAggregationService;
+import org.kafka.eagle.web.service.TopicMetadataTracker;
+import org.kafka.eagle.web.service.TopicMonitorPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -27,6 +31,18 @@ public class DistributedTaskController {
     @Autowired
     private ShardResultAggregationService shardResultAggregationService;
 
+    @Autowired
+    private UnifiedDistributedScheduler unifiedScheduler;
+
+    @Autowired
+    private TopicMonitorPipeline topicMonitorPipeline;
+
+    @Autowired
+    private TopicMetadataTracker topicMetadataTracker;
+
+    @Autowired
+    private ConsumerLagSampler consumerLagSampler;
+
     /**
      * 获取在线服务列表
      */
@@ -208,6 +224,50 @@ public class DistributedTaskController {
         return result;
     }
 
+    /**
+     * 查看分片键在一致性哈希环上的归属节点（调试用）
+     */
+    @GetMapping("/shards/ownership")
+    public Map<String, Object> getShardOwnership(
+            @RequestParam(defaultValue = "topic") String type,
+            @RequestParam(defaultValue = "") List<String> keys) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            List<String> shardKeys = keys.stream()
+                    .map(String::trim)
+                    .filter(key -> !key.isEmpty())
+                    .collect(java.util.stream.Collectors.toList());
+            result.put("success", true);
+            result.put("data", taskCoordinator.describeShardOwnership(type, shardKeys));
+            result.put("timestamp", new Date());
+        } catch (Exception e) {
+            log.error("获取分片归属信息失败: {}", type, e);
+            result.put("success", false);
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 获取任务轮次的完成进度（不指定轮次时为最近一次）
+     */
+    @GetMapping("/epochs/{taskType}")
+    public Map<String, Object> getTaskEpochProgress(
+            @PathVariable String taskType,
+            @RequestParam(required = false) Long epoch) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.put("success", true);
+            result.put("data", taskCoordinator.getTaskEpochProgress(taskType, epoch));
+            result.put("timestamp", new Date());
+        } catch (Exception e) {
+            log.error("获取任务轮次进度失败: {}", taskType, e);
+            result.put("success", false);
+            result.put("error", e.getMessage());
+        }
+        return result;
+    }
+
     /**
      * 获取分片任务结果
      */
@@ -334,6 +394,10 @@ public class DistributedTaskController {
             stats.put("topicMonitorShardCount", topicResults.size());
             stats.put("consumerMonitorShardCount", consumerResults.size());
             stats.put("totalShardCount", clusterResults.size() + topicResults.size() + consumerResults.size());
+            stats.put("executors", unifiedScheduler.getExecutorStats());
+            stats.put("topicPipeline", topicMonitorPipeline.getMetrics());
+            stats.put("topicMetadata", topicMetadataTracker.getStats());
+            stats.put("lagSampling", consumerLagSampler.getStats());
             
             result.put("success", true);
             result.put("data", stats);
@@ -18,6 +18,10 @@
 package org.kafka.eagle.web.controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.kafka.eagle.core.api.JmxCircuitBreaker;
+import org.kafka.eagle.core.api.JmxConnectorPool;
+import org.kafka.eagle.core.api.KafkaAdminClientRegistry;
+import org.kafka.eagle.core.api.KafkaConsumerPool;
 import org.kafka.eagle.tool.constant.KeConst;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -112,6 +116,27 @@ public class HealthController {
         }
     }
 
+    /**
+     * Kafka 客户端连接池指标接口
+     *
+     * @return 连接池指标响应
+     */
+    @GetMapping("/kafka-clients")
+    public ResponseEntity<Map<String, Object>> kafkaClientMetrics() {
+        try {
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("adminClients", KafkaAdminClientRegistry.getMetrics());
+            metrics.put("consumers", KafkaConsumerPool.getMetrics());
+            metrics.put("jmxConnectors", JmxConnectorPool.getMetrics());
+            metrics.put("jmxCircuitBreakers", JmxCircuitBreaker.getMetrics());
+            metrics.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return ResponseEntity.ok(metrics);
+        } catch (Exception e) {
+            log.error("获取Kafka客户端连接池指标失败", e);
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * 获取系统信息
      *
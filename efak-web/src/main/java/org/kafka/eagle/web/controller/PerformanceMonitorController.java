@@ -137,17 +137,18 @@ public class PerformanceMonitorController {
             @PathVariable String clusterId,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
-            @RequestParam(required = false) String timeRange) {
+            @RequestParam(required = false) String timeRange,
+            @RequestParam(required = false) Integer maxPoints) {
         Map<String, Object> response = new HashMap<>();
         try {
             Map<String, Object> trendData;
 
             // 如果提供了timeRange，则根据timeRange计算起始和结束时间
             if (timeRange != null && !timeRange.isEmpty()) {
-                trendData = performanceMonitorService.getPerformanceTrendDataByTimeRange(clusterId, timeRange);
+                trendData = performanceMonitorService.getPerformanceTrendDataByTimeRange(clusterId, timeRange, maxPoints);
             } else {
                 // 使用传统的startDate和endDate参数
-                trendData = performanceMonitorService.getPerformanceTrendData(clusterId, startDate, endDate);
+                trendData = performanceMonitorService.getPerformanceTrendData(clusterId, startDate, endDate, maxPoints);
             }
 
             response.put("success", true);
@@ -302,12 +302,13 @@ public class TopicController {
     public ResponseEntity<Map<String, Object>> getTopicMessageFlow(
             @PathVariable String topicName,
             @RequestParam(value = "clusterId", required = false) String clusterId,
-            @RequestParam(value = "timeRange", required = false, defaultValue = "1d") String timeRange) {
+            @RequestParam(value = "timeRange", required = false, defaultValue = "1d") String timeRange,
+            @RequestParam(value = "maxPoints", required = false) Integer maxPoints) {
         Map<String, Object> result = new HashMap<>();
         try {
 
             // 调用服务层获取消息流量趋势数据
-            List<Map<String, Object>> flowData = topicMetricsService.getTopicMessageFlowTrend(clusterId, topicName, timeRange);
+            List<Map<String, Object>> flowData = topicMetricsService.getTopicMessageFlowTrend(clusterId, topicName, timeRange, maxPoints);
 
             result.put("success", true);
             result.put("data", flowData);
@@ -580,7 +581,8 @@ public class TopicController {
             @RequestParam(value = "startDate", required = false) String startDate,
             @RequestParam(value = "endDate", required = false) String endDate,
             @RequestParam(value = "topics", required = false) String topics,
-            @RequestParam(value = "clusterId", required = false) String clusterId) {
+            @RequestParam(value = "clusterId", required = false) String clusterId,
+            @RequestParam(value = "maxPoints", required = false) Integer maxPoints) {
 
         Map<String, Object> result = new HashMap<>();
         try {
@@ -592,7 +594,7 @@ public class TopicController {
 
             // 调用服务层获取趋势数据
             Map<String, Object> trendData = topicMetricsService.getTopicTrendData(
-                    dimension, startDate, endDate, topicList, clusterId);
+                    dimension, startDate, endDate, topicList, clusterId, maxPoints);
 
             result.put("success", true);
             result.put("data", trendData);
@@ -449,7 +449,7 @@ public interface AlertMapper {
                         "  <choose>" +
                         "    <when test=\"target == 'all'\">SELECT 1</when>" +
                         "    <when test=\"topicName != null and topicName != '' and groupId != null and groupId != ''\">" +
-                        "      SELECT 1 FROM ke_consumer_group_topic WHERE group_id = #{groupId} AND topic_name = #{topicName}" +
+                        "      SELECT 1 FROM ke_consumer_group_latest WHERE group_id = #{groupId} AND topic_name = #{topicName}" +
                         "      <if test=\"clusterId != null and clusterId != ''\">" +
                         "        AND cluster_id = #{clusterId}" +
                         "      </if>" +
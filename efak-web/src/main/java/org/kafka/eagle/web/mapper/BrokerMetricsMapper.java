@@ -183,6 +183,37 @@ public interface BrokerMetricsMapper {
                         @Param("endTime") LocalDateTime endTime,
                         @Param("aggregationType") String aggregationType);
 
+        /**
+         * 按时间桶聚合的趋势数据查询，每个Broker在每个桶内只返回一个平均值，桶时间取桶起点以便各Broker对齐
+         */
+        @Select("<script>" +
+                        "SELECT " +
+                        "  broker_id as brokerId, " +
+                        "  host_ip as hostIp, " +
+                        "  DATE_FORMAT(FROM_UNIXTIME(FLOOR(MIN(UNIX_TIMESTAMP(collect_time)) / #{bucketSeconds}) * #{bucketSeconds}), '%Y-%m-%d %H:%i:%s') as collectTime, " +
+                        "  <choose>" +
+                        "    <when test='metricType == \"cpu\"'>" +
+                        "      AVG(cpu_usage) as value, " +
+                        "    </when>" +
+                        "    <otherwise>" +
+                        "      AVG(memory_usage) as value, " +
+                        "    </otherwise>" +
+                        "  </choose>" +
+                        "  COUNT(*) as sampleCount " +
+                        "FROM ke_broker_metrics " +
+                        "WHERE collect_time BETWEEN #{startTime} AND #{endTime} " +
+                        "<if test='clusterId != null and clusterId != \"\"'>" +
+                        "  AND cluster_id = #{clusterId} " +
+                        "</if>" +
+                        "GROUP BY broker_id, host_ip, FLOOR(UNIX_TIMESTAMP(collect_time) / #{bucketSeconds}) " +
+                        "ORDER BY collectTime ASC" +
+                        "</script>")
+        List<Map<String, Object>> queryTrendDataByBucket(@Param("metricType") String metricType,
+                        @Param("clusterId") String clusterId,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime,
+                        @Param("bucketSeconds") long bucketSeconds);
+
         /**
          * 根据集群ID查询所有Broker监控指标
          */
@@ -6,6 +6,7 @@ import org.kafka.eagle.dto.consumer.ConsumerGroupTopicInfo;
 import org.kafka.eagle.dto.consumer.ConsumerGroupTopicQueryRequest;
 import org.kafka.eagle.dto.consumer.ConsumerGroupTopicInsertRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -142,6 +143,63 @@ public interface ConsumerGroupTopicMapper {
             "</script>")
     int batchInsertConsumerGroupTopic(@Param("requests") List<ConsumerGroupTopicInsertRequest> requests);
 
+    /**
+     * 批量更新消费者组主题最新状态（每个集群/消费者组/主题一行）
+     * 更新前的 logsize、offsets、collect_time 保留到 prev_* 字段，用于计算最近一次采集间隔的速率。
+     * 只有采集时间更新的记录才覆盖已有行（乱序或重复写入时保留原值）；MySQL 按从左到右的顺序赋值，
+     * 每个赋值都要与尚未更新的 collect_time 比较，因此 collect_time 放在最后赋值
+     *
+     * @param requests 插入请求列表
+     * @return 影响行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO ke_consumer_group_latest (cluster_id, group_id, topic_name, state, logsize, " +
+            "offsets, lags, collect_time, collect_date) VALUES " +
+            "<foreach collection='requests' item='item' separator=','>" +
+            "(#{item.clusterId}, #{item.groupId}, #{item.topicName}, #{item.state}, #{item.logsize}, " +
+            "#{item.offsets}, #{item.lags}, #{item.collectTime}, #{item.collectDate})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE " +
+            "prev_logsize = IF(VALUES(collect_time) > collect_time, logsize, prev_logsize), " +
+            "prev_offsets = IF(VALUES(collect_time) > collect_time, offsets, prev_offsets), " +
+            "prev_collect_time = IF(VALUES(collect_time) > collect_time, collect_time, prev_collect_time), " +
+            "state = IF(VALUES(collect_time) > collect_time, VALUES(state), state), " +
+            "logsize = IF(VALUES(collect_time) > collect_time, VALUES(logsize), logsize), " +
+            "offsets = IF(VALUES(collect_time) > collect_time, VALUES(offsets), offsets), " +
+            "lags = IF(VALUES(collect_time) > collect_time, VALUES(lags), lags), " +
+            "collect_date = IF(VALUES(collect_time) > collect_time, VALUES(collect_date), collect_date), " +
+            "collect_time = IF(VALUES(collect_time) > collect_time, VALUES(collect_time), collect_time)" +
+            "</script>")
+    int batchUpsertConsumerGroupLatest(@Param("requests") List<ConsumerGroupTopicInsertRequest> requests);
+
+    /**
+     * 获取指定消费者组和主题的最新状态记录
+     *
+     * @param clusterId 集群ID
+     * @param groupId 消费者组ID
+     * @param topic 主题名称
+     * @return 最新状态记录
+     */
+    @Select("SELECT id, cluster_id, group_id, topic_name, state, logsize, offsets, lags, " +
+            "collect_time, collect_date " +
+            "FROM ke_consumer_group_latest " +
+            "WHERE cluster_id = #{clusterId} AND group_id = #{groupId} AND topic_name = #{topic}")
+    @Results({
+            @Result(column = "id", property = "id", jdbcType = JdbcType.BIGINT),
+            @Result(column = "cluster_id", property = "clusterId", jdbcType = JdbcType.VARCHAR),
+            @Result(column = "group_id", property = "groupId", jdbcType = JdbcType.VARCHAR),
+            @Result(column = "topic_name", property = "topicName", jdbcType = JdbcType.VARCHAR),
+            @Result(column = "state", property = "state", jdbcType = JdbcType.VARCHAR),
+            @Result(column = "logsize", property = "logsize", jdbcType = JdbcType.BIGINT),
+            @Result(column = "offsets", property = "offsets", jdbcType = JdbcType.BIGINT),
+            @Result(column = "lags", property = "lags", jdbcType = JdbcType.BIGINT),
+            @Result(column = "collect_time", property = "collectTime", jdbcType = JdbcType.TIMESTAMP),
+            @Result(column = "collect_date", property = "collectDate", jdbcType = JdbcType.DATE)
+    })
+    ConsumerGroupTopicInfo selectLatestConsumerGroupTopic(@Param("clusterId") String clusterId,
+                                                          @Param("groupId") String groupId,
+                                                          @Param("topic") String topic);
+
     /**
      * 根据ID查询消费者组主题数据
      *
@@ -174,6 +232,15 @@ public interface ConsumerGroupTopicMapper {
     @Delete("DELETE FROM ke_consumer_group_topic WHERE collect_date < #{beforeDate}")
     int deleteDataBeforeDate(@Param("beforeDate") String beforeDate);
 
+    /**
+     * 删除指定日期之前未再更新的最新状态记录（已删除或不再消费的消费者组）
+     *
+     * @param beforeDate 指定日期 (格式: YYYY-MM-DD)
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM ke_consumer_group_latest WHERE collect_date < #{beforeDate}")
+    int deleteLatestBeforeDate(@Param("beforeDate") String beforeDate);
+
     /**
      * 根据集群ID删除数据
      *
@@ -183,6 +250,15 @@ public interface ConsumerGroupTopicMapper {
     @Delete("DELETE FROM ke_consumer_group_topic WHERE cluster_id = #{clusterId}")
     int deleteByClusterId(@Param("clusterId") String clusterId);
 
+    /**
+     * 根据集群ID删除最新状态记录
+     *
+     * @param clusterId 集群ID
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM ke_consumer_group_latest WHERE cluster_id = #{clusterId}")
+    int deleteLatestByClusterId(@Param("clusterId") String clusterId);
+
     /**
      * 根据消费者组状态删除数据
      *
@@ -212,34 +288,37 @@ public interface ConsumerGroupTopicMapper {
     /**
      * 获取消费者组总数
      */
-    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_topic WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate}")
+    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_latest WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate}")
     Integer getTotalGroups(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate);
 
     /**
      * 获取活跃消费者组数（状态为STABLE）
      */
-    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_topic WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} AND state = 'STABLE'")
+    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_latest WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} AND state = 'STABLE'")
     Integer getActiveGroups(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate);
 
     /**
      * 获取空闲消费者组数（状态为EMPTY）
      */
-    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_topic WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} AND state = 'EMPTY'")
+    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_latest WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} AND state = 'EMPTY'")
     Integer getInactiveGroups(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate);
 
     /**
-     * 获取最新的lags和logsize总和（用于计算平均延迟率）
+     * 获取最近一次采集窗口内的lags和logsize总和（用于计算平均延迟率），
+     * 只统计采集时间距当天最新采集时间不超过 windowSeconds 的记录
      */
     @Select("SELECT " +
             "COALESCE(SUM(lags), 0) as totalLags, " +
             "COALESCE(SUM(logsize), 0) as totalLogsize " +
-            "FROM ke_consumer_group_topic " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} " +
-            "AND collect_time = (SELECT MAX(collect_time) FROM ke_consumer_group_topic WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate})")
-    Map<String, Object> getLatestLagsAndLogsize(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate);
+            "AND collect_time >= (SELECT DATE_SUB(MAX(collect_time), INTERVAL #{windowSeconds} SECOND) " +
+            "FROM ke_consumer_group_latest WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate})")
+    Map<String, Object> getLatestLagsAndLogsize(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate,
+                                                @Param("windowSeconds") int windowSeconds);
 
     /**
-     * 获取按group_id和topic分组的延迟率统计（用于分类慢速和延迟消费者组）
+     * 获取最近一次采集窗口内按group_id和topic分组的延迟率统计（用于分类慢速和延迟消费者组）
      */
     @Select("SELECT " +
             "group_id, " +
@@ -248,71 +327,75 @@ public interface ConsumerGroupTopicMapper {
             "  WHEN logsize = 0 THEN 0 " +
             "  ELSE ROUND(lags * 100.0 / logsize, 2) " +
             "END as lag_rate " +
-            "FROM ke_consumer_group_topic " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} " +
-            "AND collect_time = (SELECT MAX(collect_time) FROM ke_consumer_group_topic WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate})")
-    List<Map<String, Object>> getGroupTopicLagRates(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate);
+            "AND collect_time >= (SELECT DATE_SUB(MAX(collect_time), INTERVAL #{windowSeconds} SECOND) " +
+            "FROM ke_consumer_group_latest WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate})")
+    List<Map<String, Object>> getGroupTopicLagRates(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate,
+                                                    @Param("windowSeconds") int windowSeconds);
 
     /**
-     * 获取最近两个时间点的所有offset数据（用于计算消费速度）
-     * 兼容所有MySQL版本的查询方式
+     * 获取每个消费者组主题最近两次采集的offset数据（用于计算消费速度）
      */
     @Select("SELECT " +
             "group_id, " +
             "topic_name as topic, " +
             "collect_time, " +
-            "offsets " +
-            "FROM ke_consumer_group_topic " +
+            "offsets, " +
+            "prev_collect_time, " +
+            "prev_offsets " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} " +
-            "ORDER BY collect_time DESC, group_id, topic_name " +
-            "LIMIT 1000")
+            "AND prev_collect_time IS NOT NULL")
     List<Map<String, Object>> getOffsetsForConsumerRate(@Param("clusterId") String clusterId, @Param("collectDate") String collectDate);
 
     /**
-     * 获取最近24小时消费者组趋势数据
+     * 获取消费者组趋势数据，按时间桶在数据库端聚合
+     *
+     * @param clusterId 集群ID
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（包含）
+     * @param bucketSeconds 时间桶长度（秒）
+     * @return 每个时间桶一行：桶内最后采集时间、活跃与空闲消费者组数
      */
     @Select("SELECT " +
-            "  DATE_FORMAT(collect_time, '%Y-%m-%d %H:%i') as time_point, " +
+            "  MAX(collect_time) as bucket_time, " +
             "  COUNT(DISTINCT CASE WHEN state = 'STABLE' THEN group_id END) as active_groups, " +
-            "  COUNT(DISTINCT CASE WHEN state = 'EMPTY' THEN group_id END) as idle_groups, " +
-            "  collect_time " +
+            "  COUNT(DISTINCT CASE WHEN state = 'EMPTY' THEN group_id END) as idle_groups " +
             "FROM ke_consumer_group_topic " +
             "WHERE cluster_id = #{clusterId} " +
-            "  AND collect_time >= DATE_SUB(NOW(), INTERVAL #{hours} HOUR) " +
-            "  AND (state = 'STABLE' OR state = 'EMPTY') " +
-            "GROUP BY DATE_FORMAT(collect_time, '%Y-%m-%d %H:%i'), collect_time " +
-            "ORDER BY collect_time")
-    List<Map<String, Object>> getIdleGroupsTrend(@Param("clusterId") String clusterId, @Param("hours") int hours);
+            "  AND collect_time >= #{startTime} AND collect_time <= #{endTime} " +
+            "  AND state IN ('STABLE', 'EMPTY') " +
+            "GROUP BY FLOOR(UNIX_TIMESTAMP(collect_time) / #{bucketSeconds}) " +
+            "ORDER BY bucket_time")
+    List<Map<String, Object>> getIdleGroupsTrend(@Param("clusterId") String clusterId,
+                                                 @Param("startTime") LocalDateTime startTime,
+                                                 @Param("endTime") LocalDateTime endTime,
+                                                 @Param("bucketSeconds") long bucketSeconds);
 
     // ==================== 消费者组列表查询方法 ====================
 
     /**
-     * 获取消费者组列表（去重，获取最新数据）
+     * 获取消费者组列表（最新状态表每个消费者组主题一行）
      */
     @Select("<script>" +
             "SELECT " +
-            "  t1.group_id, " +
-            "  t1.topic_name, " +
-            "  t1.state, " +
-            "  t1.lags as total_lag, " +
-            "  t1.logsize, " +
+            "  group_id, " +
+            "  topic_name, " +
+            "  state, " +
+            "  lags as total_lag, " +
+            "  logsize, " +
             "  CASE " +
-            "    WHEN t1.logsize = 0 THEN 0.00 " +
-            "    ELSE ROUND((t1.lags * 100.0 / t1.logsize), 2) " +
+            "    WHEN logsize = 0 THEN 0.00 " +
+            "    ELSE ROUND((lags * 100.0 / logsize), 2) " +
             "  END as lag_rate, " +
-            "  t1.collect_time " +
-            "FROM ke_consumer_group_topic t1 " +
-            "INNER JOIN ( " +
-            "  SELECT group_id, topic_name, MAX(collect_time) as max_time " +
-            "  FROM ke_consumer_group_topic " +
-            "  WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} " +
-            "  <if test='search != null and search != \"\"'>" +
-            "    AND (group_id LIKE CONCAT('%', #{search}, '%') OR topic_name LIKE CONCAT('%', #{search}, '%'))" +
-            "  </if>" +
-            "  GROUP BY group_id, topic_name " +
-            ") t2 ON t1.group_id = t2.group_id AND t1.topic_name = t2.topic_name AND t1.collect_time = t2.max_time " +
-            "WHERE t1.cluster_id = #{clusterId} AND t1.collect_date = #{collectDate} " +
-            "ORDER BY t1.group_id, t1.topic_name " +
+            "  collect_time " +
+            "FROM ke_consumer_group_latest " +
+            "WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} " +
+            "<if test='search != null and search != \"\"'>" +
+            "  AND (group_id LIKE CONCAT('%', #{search}, '%') OR topic_name LIKE CONCAT('%', #{search}, '%'))" +
+            "</if>" +
+            "ORDER BY group_id, topic_name " +
             "LIMIT #{offset}, #{limit}" +
             "</script>")
     List<Map<String, Object>> getConsumerGroupsList(@Param("clusterId") String clusterId,
@@ -322,17 +405,14 @@ public interface ConsumerGroupTopicMapper {
                                                     @Param("limit") int limit);
 
     /**
-     * 统计消费者组列表总数（去重）
+     * 统计消费者组列表总数
      */
     @Select("<script>" +
-            "SELECT COUNT(*) FROM ( " +
-            "  SELECT DISTINCT group_id, topic_name " +
-            "  FROM ke_consumer_group_topic " +
-            "  WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} " +
-            "  <if test='search != null and search != \"\"'>" +
-            "    AND (group_id LIKE CONCAT('%', #{search}, '%') OR topic_name LIKE CONCAT('%', #{search}, '%'))" +
-            "  </if>" +
-            ") as temp" +
+            "SELECT COUNT(*) FROM ke_consumer_group_latest " +
+            "WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate} " +
+            "<if test='search != null and search != \"\"'>" +
+            "  AND (group_id LIKE CONCAT('%', #{search}, '%') OR topic_name LIKE CONCAT('%', #{search}, '%'))" +
+            "</if>" +
             "</script>")
     Long countConsumerGroups(@Param("clusterId") String clusterId,
                             @Param("collectDate") String collectDate,
@@ -389,65 +469,70 @@ public interface ConsumerGroupTopicMapper {
 
     /**
      * 获取消费者组延迟趋势数据
-     * 根据时间戳范围查询指定消费者组和主题的延迟数据
+     * 按采集时间范围查询，并按时间桶在数据库端聚合，每个时间桶保留最大延迟
      *
      * @param clusterId 集群ID
      * @param groupId 消费者组ID
      * @param topic 主题名称
-     * @param startTimestamp 开始时间戳（毫秒）
-     * @param endTimestamp 结束时间戳（毫秒）
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（包含）
+     * @param bucketSeconds 时间桶长度（秒）
      * @return 延迟趋势数据
      */
     @Select("SELECT " +
-            "collect_time, " +
-            "lags " +
+            "MAX(collect_time) as bucket_time, " +
+            "MAX(lags) as lags " +
             "FROM ke_consumer_group_topic " +
             "WHERE cluster_id = #{clusterId} " +
             "AND group_id = #{groupId} " +
             "AND topic_name = #{topic} " +
-            "AND UNIX_TIMESTAMP(collect_time) * 1000 >= #{startTimestamp} " +
-            "AND UNIX_TIMESTAMP(collect_time) * 1000 <= #{endTimestamp} " +
-            "ORDER BY collect_time ASC")
+            "AND collect_date >= DATE(#{startTime}) AND collect_date <= DATE(#{endTime}) " +
+            "AND collect_time >= #{startTime} AND collect_time <= #{endTime} " +
+            "GROUP BY FLOOR(UNIX_TIMESTAMP(collect_time) / #{bucketSeconds}) " +
+            "ORDER BY bucket_time ASC")
     List<Map<String, Object>> getConsumerGroupLagTrend(@Param("clusterId") String clusterId,
                                                        @Param("groupId") String groupId,
                                                        @Param("topic") String topic,
-                                                       @Param("startTimestamp") long startTimestamp,
-                                                       @Param("endTimestamp") long endTimestamp);
+                                                       @Param("startTime") LocalDateTime startTime,
+                                                       @Param("endTime") LocalDateTime endTime,
+                                                       @Param("bucketSeconds") long bucketSeconds);
 
     /**
-     * 获取指定消费者组和主题的最新2条记录（用于计算读写速度）
+     * 获取指定消费者组和主题最近一个采集间隔的速度窗口（用于计算读写速度）
+     * 最新状态表中的一行同时保存最近一次采集（collect_time、logsize、offsets）与上一次采集（prev_* 字段）
      *
      * @param clusterId 集群ID
      * @param groupId 消费者组ID
      * @param topic 主题名称
-     * @return 最新的2条记录数据
+     * @return 单行记录，尚未采集时返回 null；只采集过一次时 prev_* 字段为 null
      */
     @Select("SELECT " +
             "collect_time, " +
             "logsize, " +
-            "offsets " +
-            "FROM ke_consumer_group_topic " +
+            "offsets, " +
+            "prev_collect_time, " +
+            "prev_logsize, " +
+            "prev_offsets " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} " +
             "AND group_id = #{groupId} " +
-            "AND topic_name = #{topic} " +
-            "ORDER BY collect_time DESC " +
-            "LIMIT 2")
-    List<Map<String, Object>> getLatestTwoRecordsForSpeed(@Param("clusterId") String clusterId,
-                                                          @Param("groupId") String groupId,
-                                                          @Param("topic") String topic);
+            "AND topic_name = #{topic}")
+    Map<String, Object> getLatestSpeedWindow(@Param("clusterId") String clusterId,
+                                             @Param("groupId") String groupId,
+                                             @Param("topic") String topic);
 
     /**
-     * 获取指定消费者组和主题当天的所有记录（用于计算详细指标）
+     * 获取指定消费者组和主题在时间范围内的记录（用于计算详细指标）
      *
      * @param clusterId 集群ID
      * @param groupId 消费者组ID
      * @param topic 主题名称
-     * @param collectDate 采集日期（格式：YYYYMMDD）
-     * @return 当天的所有记录数据
+     * @param startTime 开始时间（包含）
+     * @param endTime 结束时间（包含）
+     * @return 时间范围内的记录，按采集时间升序
      */
     @Select("SELECT " +
             "collect_time, " +
-            "state, " +
             "logsize, " +
             "offsets, " +
             "lags " +
@@ -455,12 +540,14 @@ public interface ConsumerGroupTopicMapper {
             "WHERE cluster_id = #{clusterId} " +
             "AND group_id = #{groupId} " +
             "AND topic_name = #{topic} " +
-            "AND collect_date = #{collectDate} " +
+            "AND collect_date >= DATE(#{startTime}) AND collect_date <= DATE(#{endTime}) " +
+            "AND collect_time >= #{startTime} AND collect_time <= #{endTime} " +
             "ORDER BY collect_time ASC")
-    List<Map<String, Object>> getTodayRecordsForDetail(@Param("clusterId") String clusterId,
-                                                       @Param("groupId") String groupId,
-                                                       @Param("topic") String topic,
-                                                       @Param("collectDate") String collectDate);
+    List<Map<String, Object>> getRecordsForDetail(@Param("clusterId") String clusterId,
+                                                  @Param("groupId") String groupId,
+                                                  @Param("topic") String topic,
+                                                  @Param("startTime") LocalDateTime startTime,
+                                                  @Param("endTime") LocalDateTime endTime);
 
     /**
      * 获取指定消费者组和主题的最新状态
@@ -472,13 +559,12 @@ public interface ConsumerGroupTopicMapper {
      */
     @Select("SELECT " +
             "state, " +
+            "lags, " +
             "collect_time " +
-            "FROM ke_consumer_group_topic " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} " +
             "AND group_id = #{groupId} " +
-            "AND topic_name = #{topic} " +
-            "ORDER BY collect_time DESC " +
-            "LIMIT 1")
+            "AND topic_name = #{topic}")
     Map<String, Object> getLatestStateForDetail(@Param("clusterId") String clusterId,
                                                @Param("groupId") String groupId,
                                                @Param("topic") String topic);
@@ -490,7 +576,7 @@ public interface ConsumerGroupTopicMapper {
      * @param collectDate 采集日期（格式：yyyy-MM-dd）
      * @return 消费者组数量
      */
-    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_topic " +
+    @Select("SELECT COUNT(DISTINCT group_id) FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} AND collect_date = #{collectDate}")
     Long countDistinctGroupsByClusterIdAndDate(@Param("clusterId") String clusterId,
                                                @Param("collectDate") String collectDate);
@@ -506,22 +592,16 @@ public interface ConsumerGroupTopicMapper {
      * @return 消费者组信息列表
      */
     @Select("SELECT " +
-            "t1.group_id, " +
-            "t1.topic_name, " +
-            "t1.state, " +
-            "t1.logsize, " +
-            "t1.offsets, " +
-            "t1.lags, " +
-            "t1.collect_time " +
-            "FROM ke_consumer_group_topic t1 " +
-            "INNER JOIN ( " +
-            "  SELECT group_id, MAX(collect_time) as max_time " +
-            "  FROM ke_consumer_group_topic " +
-            "  WHERE cluster_id = #{clusterId} AND topic_name = #{topicName} " +
-            "  GROUP BY group_id " +
-            ") t2 ON t1.group_id = t2.group_id AND t1.collect_time = t2.max_time " +
-            "WHERE t1.cluster_id = #{clusterId} AND t1.topic_name = #{topicName} " +
-            "ORDER BY t1.group_id " +
+            "group_id, " +
+            "topic_name, " +
+            "state, " +
+            "logsize, " +
+            "offsets, " +
+            "lags, " +
+            "collect_time " +
+            "FROM ke_consumer_group_latest " +
+            "WHERE cluster_id = #{clusterId} AND topic_name = #{topicName} " +
+            "ORDER BY group_id " +
             "LIMIT #{offset}, #{limit}")
     List<Map<String, Object>> getConsumerGroupsByTopicForDetail(@Param("clusterId") String clusterId,
                                                                @Param("topicName") String topicName,
@@ -535,8 +615,8 @@ public interface ConsumerGroupTopicMapper {
      * @param topicName topic name
      * @return 消费者组总数
      */
-    @Select("SELECT COUNT(DISTINCT group_id) " +
-            "FROM ke_consumer_group_topic " +
+    @Select("SELECT COUNT(*) " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} AND topic_name = #{topicName}")
     Long countConsumerGroupsByTopicForDetail(@Param("clusterId") String clusterId,
                                            @Param("topicName") String topicName);
@@ -545,7 +625,7 @@ public interface ConsumerGroupTopicMapper {
      * 根据集群ID获取消费者组列表（用于告警配置下拉框）
      */
     @Select("SELECT DISTINCT group_id as groupId " +
-            "FROM ke_consumer_group_topic " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} " +
             "AND collect_date = CURDATE() " +
             "ORDER BY group_id ASC")
@@ -555,7 +635,7 @@ public interface ConsumerGroupTopicMapper {
      * 根据消费者组ID获取Topic列表（用于告警配置下拉框）
      */
     @Select("SELECT DISTINCT topic_name as topic " +
-            "FROM ke_consumer_group_topic " +
+            "FROM ke_consumer_group_latest " +
             "WHERE cluster_id = #{clusterId} " +
             "AND group_id = #{groupId} " +
             "AND collect_date = CURDATE() " +
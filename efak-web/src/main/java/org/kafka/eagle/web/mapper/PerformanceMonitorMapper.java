@@ -211,10 +211,11 @@ public interface PerformanceMonitorMapper {
      * @param clusterId cluster ID
      * @param startTime start datetime
      * @param endTime end datetime
-     * @return trend data aggregated by time
+     * @param bucketSeconds bucket length in seconds (60 aggregates by minute)
+     * @return trend data aggregated by time bucket, collectTime is the bucket start
      */
     @Select("SELECT " +
-            "DATE_FORMAT(collect_time, '%Y-%m-%d %H:%i:00') as collectTime, " +
+            "DATE_FORMAT(FROM_UNIXTIME(FLOOR(MIN(UNIX_TIMESTAMP(collect_time)) / #{bucketSeconds}) * #{bucketSeconds}), '%Y-%m-%d %H:%i:%s') as collectTime, " +
             "AVG(message_in) as avgMessageIn, " +
             "AVG(byte_in) as avgByteIn, " +
             "AVG(byte_out) as avgByteOut, " +
@@ -226,11 +227,12 @@ public interface PerformanceMonitorMapper {
             "WHERE cluster_id = #{clusterId} " +
             "AND collect_time >= #{startTime} " +
             "AND collect_time <= #{endTime} " +
-            "GROUP BY DATE_FORMAT(collect_time, '%Y-%m-%d %H:%i:00') " +
+            "GROUP BY FLOOR(UNIX_TIMESTAMP(collect_time) / #{bucketSeconds}) " +
             "ORDER BY collectTime ASC")
     List<Map<String, Object>> getPerformanceTrendDataByTime(@Param("clusterId") String clusterId,
                                                            @Param("startTime") java.time.LocalDateTime startTime,
-                                                           @Param("endTime") java.time.LocalDateTime endTime);
+                                                           @Param("endTime") java.time.LocalDateTime endTime,
+                                                           @Param("bucketSeconds") long bucketSeconds);
 
     /**
      * Get performance trend data for chart display (original method)
@@ -59,6 +59,13 @@ public interface TaskExecutionHistoryMapper {
                         "updated_time = NOW() WHERE id = #{id}")
         int updateTaskExecutionHistory(Map<String, Object> history);
 
+        /**
+         * 更新任务执行历史的输出结果（分片汇总结果）
+         */
+        @Update("UPDATE ke_task_execution_history SET output_result = #{outputResult}, " +
+                        "updated_time = NOW() WHERE id = #{id}")
+        int updateTaskExecutionOutput(Map<String, Object> history);
+
         /**
          * 根据ID查询执行历史详情
          */
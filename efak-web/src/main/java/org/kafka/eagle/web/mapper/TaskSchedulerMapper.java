@@ -148,6 +148,27 @@ public interface TaskSchedulerMapper {
                         int successIncrement, int failIncrement, String lastExecuteResult, String lastErrorMessage,
                         String updateTime);
 
+        /**
+         * 按防护令牌更新任务执行结果：只有令牌不小于已写入的令牌时才更新，持有旧令牌的执行返回 0
+         */
+        @Update("UPDATE ke_task_scheduler SET last_execute_time = #{lastExecuteTime}, " +
+                        "next_execute_time = #{nextExecuteTime}, execute_count = execute_count + 1, " +
+                        "success_count = success_count + #{successIncrement}, " +
+                        "fail_count = fail_count + #{failIncrement}, " +
+                        "last_execute_result = #{lastExecuteResult}, " +
+                        "error_message = #{lastErrorMessage}, " +
+                        "fence_token = #{fenceToken}, " +
+                        "update_time = #{updateTime} WHERE id = #{id} AND fence_token <= #{fenceToken}")
+        int updateTaskExecuteResultFenced(Long id, String lastExecuteTime, String nextExecuteTime,
+                        int successIncrement, int failIncrement, String lastExecuteResult, String lastErrorMessage,
+                        String updateTime, long fenceToken);
+
+        /**
+         * 查询任务已写入的防护令牌，用于 Redis 令牌计数器丢失后重新对齐
+         */
+        @Select("SELECT COALESCE(fence_token, 0) FROM ke_task_scheduler WHERE id = #{id}")
+        Long selectFenceToken(Long id);
+
         /**
          * 更新任务的下次执行时间
          */
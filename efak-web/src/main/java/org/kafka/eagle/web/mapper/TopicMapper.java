@@ -257,4 +257,17 @@ public interface TopicMapper {
      */
     @Select("SELECT COALESCE(SUM(partitions), 0) FROM ke_topic_info WHERE cluster_id = #{clusterId}")
     Integer sumPartitionsByClusterId(@Param("clusterId") String clusterId);
+
+    /**
+     * 获取所有主题的分区数（用于估算主题监控分片成本）
+     *
+     * @return 主题列表（仅包含集群ID、主题名称与分区数）
+     */
+    @Select("SELECT cluster_id, topic_name, partitions FROM ke_topic_info")
+    @Results({
+            @Result(column = "cluster_id", property = "clusterId", jdbcType = JdbcType.VARCHAR),
+            @Result(column = "topic_name", property = "topicName", jdbcType = JdbcType.VARCHAR),
+            @Result(column = "partitions", property = "partitions", jdbcType = JdbcType.INTEGER)
+    })
+    List<TopicInfo> selectTopicPartitionCounts();
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package org.kafka.eagle.web.mapper;
 
 import org.apache.ibatis.annotations.*;
 import org.kafka.eagle.dto.topic.TopicMetrics;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -225,7 +228,7 @@ public interface TopicMetricsMapper {
             "</otherwise>" +
             "</choose>" +
             " FROM ke_topics_metrics " +
-            "WHERE DATE(collect_time) BETWEEN #{startDate} AND #{endDate} " +
+            "WHERE collect_time >= #{startDate} AND collect_time &lt; DATE_ADD(#{endDate}, INTERVAL 1 DAY) " +
             "<if test=\"clusterId != null and clusterId != ''\">" +
             "AND cluster_id = #{clusterId} " +
             "</if>" +
@@ -268,29 +271,60 @@ public interface TopicMetricsMapper {
     TopicMetrics selectLatestTopicMetricsByClusterAndTopic(@Param("clusterId") String clusterId,
                                                           @Param("topicName") String topicName);
 
+    /**
+     * Get latest topic metrics for a batch of topics in the cluster
+     * 一次查询集群内多个主题各自最新的一条指标记录（按 idx_cid_topic_time_desc 取每个主题的最大采集时间）
+     *
+     * @param clusterId cluster ID
+     * @param topics topic names
+     * @return latest topic metrics, at most one per topic unless two rows share the latest collect time
+     */
+    @Select("<script>" +
+            "SELECT m.id, m.cluster_id as clusterId, m.topic_name as topicName, m.record_count as recordCount, " +
+            "m.capacity, m.write_speed as writeSpeed, m.read_speed as readSpeed, " +
+            "m.record_count_diff as recordCountDiff, m.capacity_diff as capacityDiff, " +
+            "m.collect_time as collectTime, m.create_time as createTime " +
+            "FROM ke_topics_metrics m " +
+            "INNER JOIN (" +
+            "SELECT topic_name, MAX(collect_time) AS max_collect_time FROM ke_topics_metrics " +
+            "WHERE cluster_id = #{clusterId} AND topic_name IN " +
+            "<foreach collection='topics' item='topic' open='(' separator=',' close=')'>" +
+            "#{topic}" +
+            "</foreach> " +
+            "GROUP BY topic_name" +
+            ") latest ON m.topic_name = latest.topic_name AND m.collect_time = latest.max_collect_time " +
+            "WHERE m.cluster_id = #{clusterId} " +
+            "ORDER BY m.id DESC" +
+            "</script>")
+    List<TopicMetrics> selectLatestTopicMetricsByClusterAndTopics(@Param("clusterId") String clusterId,
+                                                                  @Param("topics") Collection<String> topics);
+
     /**
      * Get topic message flow trend data for chart display
-     * 根据时间范围查询消息流量趋势数据（用于生产消息流量趋势图表）
+     * 根据时间范围查询消息流量趋势数据（用于生产消息流量趋势图表），按时间桶汇总记录数增量
      *
      * @param clusterId 集群ID
      * @param topicName 主题名称
-     * @param startTime 开始时间戳（毫秒）
-     * @param endTime 结束时间戳（毫秒）
-     * @return 消息流量趋势数据
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param bucketSeconds 时间桶长度（秒）
+     * @return 消息流量趋势数据，timestamp 为桶内最后一次采集时间（毫秒）
      */
     @Select("SELECT " +
-            "UNIX_TIMESTAMP(collect_time) * 1000 as timestamp, " +
-            "record_count_diff as produced " +
+            "UNIX_TIMESTAMP(MAX(collect_time)) * 1000 as timestamp, " +
+            "SUM(record_count_diff) as produced " +
             "FROM ke_topics_metrics " +
             "WHERE cluster_id = #{clusterId} " +
             "AND topic_name = #{topicName} " +
-            "AND UNIX_TIMESTAMP(collect_time) * 1000 >= #{startTime} " +
-            "AND UNIX_TIMESTAMP(collect_time) * 1000 <= #{endTime} " +
-            "ORDER BY collect_time ASC")
+            "AND collect_time >= #{startTime} " +
+            "AND collect_time <= #{endTime} " +
+            "GROUP BY FLOOR(UNIX_TIMESTAMP(collect_time) / #{bucketSeconds}) " +
+            "ORDER BY timestamp ASC")
     List<Map<String, Object>> getTopicMessageFlowTrend(@Param("clusterId") String clusterId,
                                                        @Param("topicName") String topicName,
-                                                       @Param("startTime") Long startTime,
-                                                       @Param("endTime") Long endTime);
+                                                       @Param("startTime") LocalDateTime startTime,
+                                                       @Param("endTime") LocalDateTime endTime,
+                                                       @Param("bucketSeconds") long bucketSeconds);
 
     /**
      * Delete topic metrics by topic name and cluster ID
@@ -0,0 +1,98 @@
+package org.kafka.eagle.web.scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * <p>
+ * 带虚拟节点与权重的一致性哈希环，用于分布式任务分片。
+ * 每个服务节点按 权重 × 基础虚拟节点数 在环上放置虚拟节点，分片键顺时针归属第一个虚拟节点。
+ * 节点加入或离开时只有约 1/N 的分片键改变归属，其余键保持在原节点上，
+ * 使各节点的连接缓存与增量状态保持有效。哈希使用与 JVM 无关的 64 位算法，保证所有节点计算结果一致。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/18 14:05:12
+ * @version 5.0.0
+ */
+public final class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+    private final Map<String, Integer> weights;
+    private final int virtualNodes;
+
+    /**
+     * @param nodeWeights  节点标识 -> 权重（小于 1 按 1 处理）
+     * @param virtualNodes 权重为 1 的节点对应的虚拟节点数
+     */
+    public ConsistentHashRing(Map<String, Integer> nodeWeights, int virtualNodes) {
+        this.virtualNodes = Math.max(1, virtualNodes);
+        this.weights = new TreeMap<>();
+        for (Map.Entry<String, Integer> entry : nodeWeights.entrySet()) {
+            int weight = entry.getValue() == null ? 1 : Math.max(1, entry.getValue());
+            weights.put(entry.getKey(), weight);
+            int replicas = this.virtualNodes * weight;
+            for (int i = 0; i < replicas; i++) {
+                long point = hash(entry.getKey() + "#" + i);
+                // 哈希冲突时按节点标识取较小者，保证所有节点结果一致
+                ring.merge(point, entry.getKey(), (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    /**
+     * 获取分片键的归属节点，环为空时返回 null
+     */
+    public String nodeFor(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 按归属节点对分片键分组
+     */
+    public Map<String, List<String>> assign(Collection<String> keys) {
+        Map<String, List<String>> assignment = new TreeMap<>();
+        for (String node : weights.keySet()) {
+            assignment.put(node, new ArrayList<>());
+        }
+        for (String key : keys) {
+            String node = nodeFor(key);
+            if (node != null) {
+                assignment.get(node).add(key);
+            }
+        }
+        return assignment;
+    }
+
+    public Map<String, Integer> getWeights() {
+        return Collections.unmodifiableMap(weights);
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public int size() {
+        return weights.size();
+    }
+
+    /**
+     * 64 位 FNV-1a 哈希，再经 MurmurHash3 fmix64 打散，保证虚拟节点在环上均匀分布
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -3,15 +3,25 @@ package org.kafka.eagle.web.scheduler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.kafka.eagle.core.util.NetUtils;
+import org.kafka.eagle.dto.topic.TopicInfo;
 import org.kafka.eagle.web.config.DistributedTaskConfig;
+import org.kafka.eagle.web.mapper.TaskSchedulerMapper;
+import org.kafka.eagle.web.mapper.TopicMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * <p>
@@ -34,21 +44,60 @@ public class DistributedTaskCoordinator {
     @Autowired
     private DistributedTaskConfig taskConfig;
 
+    @Autowired
+    private TopicMapper topicMapper;
+
+    @Autowired
+    private TaskSchedulerMapper taskSchedulerMapper;
+
     @Value("${server.port:8080}")
     private int serverPort;
 
     // Redis键前缀
     private static final String SERVICE_REGISTRY_KEY = "efak:services:registry";
     private static final String SERVICE_HEARTBEAT_KEY = "efak:services:heartbeat:";
+    private static final String SERVICE_ALIVE_KEY = "efak:services:alive";
     private static final String TASK_SHARD_LOCK_KEY = "efak:task:shard:lock:";
-    private static final String SHARD_RESULT_KEY = "efak:task:shard:result:";
     private static final String TASK_SHARD_RESULT_KEY = "efak:task:shard:result:";
+    private static final String SHARD_COST_KEY = "efak:task:shard:cost:";
+    private static final String SHARD_PLAN_KEY = "efak:task:shard:plan:";
+    private static final String TASK_EPOCH_SEQ_KEY = "efak:task:epoch:seq:";
+    private static final String TASK_EPOCH_KEY = "efak:task:epoch:";
+    private static final String TASK_FIRE_KEY = "efak:task:fire:";
+    private static final String TASK_FENCE_KEY = "efak:task:fence:";
+
+    // 防护令牌计数器不低于数据库中已写入的令牌：Redis 数据清空后从数据库令牌继续递增，避免令牌回退导致条件更新永远不命中
+    private static final DefaultRedisScript<Long> TASK_FENCE_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+                    "local floor = tonumber(ARGV[1]) " +
+                    "if current == nil or current < floor then redis.call('SET', KEYS[1], floor) end " +
+                    "return redis.call('INCR', KEYS[1])", Long.class);
+
+    // 任务触发时刻认领记录保留时间（分钟），只需覆盖各节点时钟偏差与触发延迟
+    private static final long TASK_FIRE_CLAIM_MINUTES = 10;
+
+    // 分片成本记录保留时间（小时），长期未采集的分片键自动过期
+    private static final long SHARD_COST_EXPIRE_HOURS = 24;
     
     // 服务心跳超时时间（秒）
     private static final long HEARTBEAT_TIMEOUT = 180;
     
+    // 分片类型，作为一致性哈希的键前缀
+    public static final String SHARD_TYPE_BROKER = "broker";
+    public static final String SHARD_TYPE_TOPIC = "topic";
+    public static final String SHARD_TYPE_CONSUMER_GROUP = "consumer_group";
+    public static final String SHARD_TYPE_ALERT_CONFIG = "alert_config";
+    public static final String SHARD_TYPE_TABLE = "table";
+
     // 当前节点ID
     private String currentNodeId;
+
+    // 最近一次构建的分片哈希环及其成员签名
+    private volatile ConsistentHashRing hashRing;
+    private volatile String hashRingSignature;
+
+    // 当前线程正在执行的任务轮次，写入分片结果用于区分不同轮次
+    private static final ThreadLocal<Long> CURRENT_EPOCH = new ThreadLocal<>();
     
     /**
      * 初始化当前节点
@@ -96,6 +145,7 @@ public class DistributedTaskCoordinator {
             serviceInfo.put("pid", ProcessHandle.current().pid());
             serviceInfo.put("startTime", LocalDateTime.now().toString());
             serviceInfo.put("lastHeartbeat", LocalDateTime.now().toString());
+            serviceInfo.put("weight", Math.max(1, taskConfig.getNodeWeight()));
             
             // 注册到服务列表
             redisTemplate.opsForHash().put(SERVICE_REGISTRY_KEY, currentNodeId, serviceInfo);
@@ -113,43 +163,57 @@ public class DistributedTaskCoordinator {
      */
     public void updateHeartbeat() {
         try {
+            // 心跳时间作为有序集合的分值，在线节点按分值范围查询
+            redisTemplate.opsForZSet().add(SERVICE_ALIVE_KEY, currentNodeId, System.currentTimeMillis());
+
+            // 保留单节点心跳键，兼容仍按心跳键判断在线状态的旧版本节点
             String heartbeatKey = SERVICE_HEARTBEAT_KEY + currentNodeId;
-            long timeoutSeconds = taskConfig.getOfflineTimeout() + 30; // 增加缓冲时间
             redisTemplate.opsForValue().set(heartbeatKey, LocalDateTime.now().toString(), 
-                    timeoutSeconds, TimeUnit.SECONDS);
-            
-            // 同时更新注册表中的心跳时间
-            redisTemplate.opsForHash().put(SERVICE_REGISTRY_KEY, currentNodeId + ":lastHeartbeat", 
-                    LocalDateTime.now().toString());
+                    getHeartbeatTimeoutSeconds(), TimeUnit.SECONDS);
         } catch (Exception e) {
             log.error("更新心跳失败", e);
         }
     }
     
+    /**
+     * 心跳超时时间（秒），超过该时间没有心跳的节点视为离线
+     */
+    private long getHeartbeatTimeoutSeconds() {
+        return taskConfig.getOfflineTimeout() + 30; // 增加缓冲时间
+    }
+
+    /**
+     * 按心跳时间从新到旧获取在线节点（节点ID -> 最后心跳时间戳）
+     */
+    private Map<String, Long> getAliveNodes() {
+        long threshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(getHeartbeatTimeoutSeconds());
+        Set<ZSetOperations.TypedTuple<Object>> alive = redisTemplate.opsForZSet()
+                .reverseRangeByScoreWithScores(SERVICE_ALIVE_KEY, threshold, Double.POSITIVE_INFINITY);
+        Map<String, Long> aliveNodes = new LinkedHashMap<>();
+        if (alive != null) {
+            for (ZSetOperations.TypedTuple<Object> tuple : alive) {
+                if (tuple.getValue() != null && tuple.getScore() != null) {
+                    aliveNodes.put(tuple.getValue().toString(), tuple.getScore().longValue());
+                }
+            }
+        }
+        return aliveNodes;
+    }
+    
     /**
      * 获取在线服务列表
-     * 按IP地址去重，确保同一台服务器只被识别为一个在线服务
+     * 按IP地址去重，确保同一台服务器只被识别为一个在线服务；同一服务有多个进程记录时取心跳最新的进程
      */
     public List<String> getOnlineServices() {
         try {
-            Set<Object> allServices = redisTemplate.opsForHash().keys(SERVICE_REGISTRY_KEY);
             Set<String> uniqueServices = new HashSet<>(); // 用于IP地址去重
             List<String> onlineServices = new ArrayList<>();
             
-            for (Object serviceKey : allServices) {
-                String nodeId = serviceKey.toString();
-                if (nodeId.contains(":")) {
-                    continue; // 跳过心跳时间等附加信息
-                }
-                
-                String heartbeatKey = SERVICE_HEARTBEAT_KEY + nodeId;
-                if (redisTemplate.hasKey(heartbeatKey)) {
-                    // 获取服务的唯一标识（基于IP地址）
-                    String serviceUniqueId = getServiceUniqueId(nodeId);
-                    if (serviceUniqueId != null && !uniqueServices.contains(serviceUniqueId)) {
-                        uniqueServices.add(serviceUniqueId);
-                        onlineServices.add(nodeId); // 保留完整的nodeId用于后续处理
-                    }
+            for (String nodeId : getAliveNodes().keySet()) {
+                // 获取服务的唯一标识（基于IP地址）
+                String serviceUniqueId = getServiceUniqueId(nodeId);
+                if (serviceUniqueId != null && uniqueServices.add(serviceUniqueId)) {
+                    onlineServices.add(nodeId); // 保留完整的nodeId用于后续处理
                 }
             }
 
@@ -166,26 +230,14 @@ public class DistributedTaskCoordinator {
      */
     public int getUniqueOnlineServiceCount() {
         try {
-            Set<Object> allServices = redisTemplate.opsForHash().keys(SERVICE_REGISTRY_KEY);
             Set<String> uniqueServiceInstances = new HashSet<>();
-            
-            for (Object serviceKey : allServices) {
-                String nodeId = serviceKey.toString();
-                if (nodeId.contains(":")) {
-                    continue; // 跳过心跳时间等附加信息
-                }
-                
-                String heartbeatKey = SERVICE_HEARTBEAT_KEY + nodeId;
-                if (redisTemplate.hasKey(heartbeatKey)) {
-                    String serviceUniqueId = getServiceUniqueId(nodeId);
-                    if (serviceUniqueId != null) {
-                        uniqueServiceInstances.add(serviceUniqueId);
-                    }
+            for (String nodeId : getAliveNodes().keySet()) {
+                String serviceUniqueId = getServiceUniqueId(nodeId);
+                if (serviceUniqueId != null) {
+                    uniqueServiceInstances.add(serviceUniqueId);
                 }
             }
-            
-            int uniqueCount = uniqueServiceInstances.size();
-            return uniqueCount;
+            return uniqueServiceInstances.size();
         } catch (Exception e) {
             log.error("获取唯一在线服务数量失败", e);
             return 1; // 降级处理，返回1
@@ -198,39 +250,20 @@ public class DistributedTaskCoordinator {
     public List<Map<String, Object>> getServiceDetails() {
         List<Map<String, Object>> serviceDetails = new ArrayList<>();
         try {
-            Set<Object> allServices = redisTemplate.opsForHash().keys(SERVICE_REGISTRY_KEY);
-            
-            for (Object serviceKey : allServices) {
-                String nodeId = serviceKey.toString();
-                if (nodeId.contains(":")) {
-                    continue; // 跳过心跳时间等附加信息
-                }
-                
-                String heartbeatKey = SERVICE_HEARTBEAT_KEY + nodeId;
-                if (redisTemplate.hasKey(heartbeatKey)) {
+            for (Map.Entry<String, Long> entry : getAliveNodes().entrySet()) {
+                String nodeId = entry.getKey();
+
+                // 解析节点ID获取IP和端口
+                String[] parts = nodeId.split("-");
+                if (parts.length >= 2) {
                     Map<String, Object> serviceInfo = new HashMap<>();
-                    
-                    // 解析节点ID获取IP和端口
-                    String[] parts = nodeId.split("-");
-                    if (parts.length >= 2) {
-                        String ipAddress = parts[0];
-                        String pid = parts[1];
-                        
-                        serviceInfo.put("nodeId", nodeId);
-                        serviceInfo.put("ipAddress", ipAddress);
-                        serviceInfo.put("pid", pid);
-                        serviceInfo.put("status", "ONLINE");
-                        
-                        // 获取最后心跳时间
-                        Object heartbeatTime = redisTemplate.opsForValue().get(heartbeatKey);
-                        if (heartbeatTime != null) {
-                            serviceInfo.put("lastHeartbeat", heartbeatTime.toString());
-                        } else {
-                            serviceInfo.put("lastHeartbeat", "未知");
-                        }
-                        
-                        serviceDetails.add(serviceInfo);
-                    }
+                    serviceInfo.put("nodeId", nodeId);
+                    serviceInfo.put("ipAddress", parts[0]);
+                    serviceInfo.put("pid", parts[1]);
+                    serviceInfo.put("status", "ONLINE");
+                    serviceInfo.put("lastHeartbeat", LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(entry.getValue()), ZoneId.systemDefault()).toString());
+                    serviceDetails.add(serviceInfo);
                 }
             }
             
@@ -243,25 +276,22 @@ public class DistributedTaskCoordinator {
     
     /**
      * 清理离线服务
-     * 清理没有心跳的服务节点
+     * 清理心跳超时的服务节点
      */
     public void cleanupOfflineServices() {
         try {
-            Set<Object> allServices = redisTemplate.opsForHash().keys(SERVICE_REGISTRY_KEY);
-            
-            for (Object serviceKey : allServices) {
-                String nodeId = serviceKey.toString();
-                if (nodeId.contains(":")) {
-                    continue; // 跳过心跳时间等附加信息
-                }
-                
-                String heartbeatKey = SERVICE_HEARTBEAT_KEY + nodeId;
-                if (!redisTemplate.hasKey(heartbeatKey)) {
-                    // 服务已离线，从注册表中移除
-                    redisTemplate.opsForHash().delete(SERVICE_REGISTRY_KEY, nodeId);
-                    String serviceUniqueId = getServiceUniqueId(nodeId);
-                    log.info("清理离线服务: {} (IP: {})", nodeId, serviceUniqueId);
+            long threshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(getHeartbeatTimeoutSeconds());
+            Set<Object> offlineNodes = redisTemplate.opsForZSet().rangeByScore(SERVICE_ALIVE_KEY, 0, threshold);
+            if (offlineNodes != null && !offlineNodes.isEmpty()) {
+                List<Object> fields = new ArrayList<>();
+                for (Object nodeId : offlineNodes) {
+                    fields.add(nodeId);
+                    fields.add(nodeId + ":lastHeartbeat");
+                    log.info("清理离线服务: {} (IP: {})", nodeId, getServiceUniqueId(nodeId.toString()));
                 }
+                // 服务已离线，从注册表与在线集合中移除
+                redisTemplate.opsForHash().delete(SERVICE_REGISTRY_KEY, fields.toArray());
+                redisTemplate.opsForZSet().removeRangeByScore(SERVICE_ALIVE_KEY, 0, threshold);
             }
         } catch (Exception e) {
             log.error("清理离线服务失败", e);
@@ -274,218 +304,374 @@ public class DistributedTaskCoordinator {
      * @return 分配给当前节点的broker ID列表
      */
     public List<Integer> shardBrokers(List<Integer> brokerIds) {
-        if (brokerIds == null || brokerIds.isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        List<String> onlineServices = getOnlineServices();
-        if (onlineServices.isEmpty()) {
-            log.warn("没有在线服务，当前节点处理所有broker");
-            return brokerIds;
-        }
-        
-        // 使用唯一在线服务数量判断是否需要分片
-        int uniqueServiceCount = getUniqueOnlineServiceCount();
-        if (uniqueServiceCount == 1) {
-            return brokerIds;
-        }
-        
-        // 对服务列表排序，确保所有节点的分片结果一致
-        Collections.sort(onlineServices);
-        
-        int currentNodeIndex = onlineServices.indexOf(currentNodeId);
-        if (currentNodeIndex == -1) {
-            log.warn("当前节点不在在线服务列表中，处理所有broker");
-            return brokerIds;
-        }
-        
-        // 计算分片
-        List<Integer> assignedBrokers = new ArrayList<>();
-        int serviceCount = onlineServices.size();
-        
-        for (int i = 0; i < brokerIds.size(); i++) {
-            if (i % serviceCount == currentNodeIndex) {
-                assignedBrokers.add(brokerIds.get(i));
-            }
-        }
-        
-        return assignedBrokers;
+        return shardByRing(brokerIds, SHARD_TYPE_BROKER, String::valueOf, "broker");
     }
-    
+
     /**
      * 对主题列表进行分片
      * @param topicNames 所有主题名称列表
      * @return 分配给当前节点的主题名称列表
      */
     public List<String> shardTopics(List<String> topicNames) {
-        if (topicNames == null || topicNames.isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        List<String> onlineServices = getOnlineServices();
-        if (onlineServices.isEmpty()) {
-            log.warn("没有在线服务，当前节点处理所有主题");
-            return topicNames;
-        }
-        
-        // 使用唯一在线服务数量判断是否需要分片
-        int uniqueServiceCount = getUniqueOnlineServiceCount();
-        if (uniqueServiceCount == 1) {
-            return topicNames;
-        }
-        
-        // 对服务列表排序，确保所有节点的分片结果一致
-        Collections.sort(onlineServices);
-        
-        int currentNodeIndex = onlineServices.indexOf(currentNodeId);
-        if (currentNodeIndex == -1) {
-            log.warn("当前节点不在在线服务列表中，处理所有主题");
-            return topicNames;
-        }
-        
-        // 计算分片
-        List<String> assignedTopics = new ArrayList<>();
-        int serviceCount = onlineServices.size();
-        
-        for (int i = 0; i < topicNames.size(); i++) {
-            if (i % serviceCount == currentNodeIndex) {
-                assignedTopics.add(topicNames.get(i));
-            }
-        }
-        
-        return assignedTopics;
+        return shardByRing(topicNames, SHARD_TYPE_TOPIC, Function.identity(), "主题");
     }
-    
+
     /**
      * 对消费者组列表进行分片
      * @param consumerGroups 所有消费者组列表
      * @return 分配给当前节点的消费者组列表
      */
     public List<String> shardConsumerGroups(List<String> consumerGroups) {
-        if (consumerGroups == null || consumerGroups.isEmpty()) {
+        return shardByRing(consumerGroups, SHARD_TYPE_CONSUMER_GROUP, Function.identity(), "消费者组");
+    }
+
+    /**
+     * 对告警配置列表进行分片
+     * @param alertConfigIds 所有告警配置ID列表
+     * @return 分配给当前节点的告警配置ID列表
+     */
+    public List<Long> shardAlertConfigs(List<Long> alertConfigIds) {
+        return shardByRing(alertConfigIds, SHARD_TYPE_ALERT_CONFIG, String::valueOf, "告警配置");
+    }
+
+    /**
+     * 对数据表列表进行分片
+     * @param tableNames 所有需要清理的表名列表
+     * @return 分配给当前节点的表名列表
+     */
+    public List<String> shardTables(List<String> tableNames) {
+        return shardByRing(tableNames, SHARD_TYPE_TABLE, Function.identity(), "数据表");
+    }
+
+    /**
+     * 按一致性哈希环分片：分片键归属环上顺时针第一个虚拟节点，节点变化时只迁移约 1/N 的键
+     * @param keys      所有分片键
+     * @param shardType 分片类型（作为哈希前缀，避免不同类型的相同键集中到同一节点）
+     * @param keyFunc   分片键转字符串
+     * @param keyName   日志中的分片对象名称
+     * @return 分配给当前节点的分片键
+     */
+    private <K> List<K> shardByRing(List<K> keys, String shardType, Function<K, String> keyFunc, String keyName) {
+        if (keys == null || keys.isEmpty()) {
             return Collections.emptyList();
         }
-        
+
         List<String> onlineServices = getOnlineServices();
         if (onlineServices.isEmpty()) {
-            log.warn("没有在线服务，当前节点处理所有消费者组");
-            return consumerGroups;
+            log.warn("没有在线服务，当前节点处理所有{}", keyName);
+            return keys;
         }
-        
+
         // 使用唯一在线服务数量判断是否需要分片
         int uniqueServiceCount = getUniqueOnlineServiceCount();
         if (uniqueServiceCount == 1) {
-            return consumerGroups;
+            return keys;
         }
-        
-        // 对服务列表排序，确保所有节点的分片结果一致
-        Collections.sort(onlineServices);
-        
-        int currentNodeIndex = onlineServices.indexOf(currentNodeId);
-        if (currentNodeIndex == -1) {
-            log.warn("当前节点不在在线服务列表中，处理所有消费者组");
-            return consumerGroups;
+
+        ConsistentHashRing ring = getHashRing(onlineServices);
+        String currentServiceId = getServiceUniqueId(currentNodeId);
+        if (!ring.getWeights().containsKey(currentServiceId)) {
+            log.warn("当前节点不在在线服务列表中，处理所有{}", keyName);
+            return keys;
         }
-        
-        // 计算分片
-        List<String> assignedGroups = new ArrayList<>();
-        int serviceCount = onlineServices.size();
-        
-        for (int i = 0; i < consumerGroups.size(); i++) {
-            if (i % serviceCount == currentNodeIndex) {
-                assignedGroups.add(consumerGroups.get(i));
+
+        Map<String, String> plannedOwners = isCostBalanced(shardType)
+                ? getCostPlanOwners(shardType, ring, keys.stream().map(keyFunc).toList(), true) : null;
+
+        List<K> assigned = new ArrayList<>();
+        for (K key : keys) {
+            if (currentServiceId.equals(resolveOwner(plannedOwners, ring, shardType, keyFunc.apply(key)))) {
+                assigned.add(key);
             }
         }
-        
-        return assignedGroups;
+        return assigned;
     }
 
     /**
-     * 对告警配置列表进行分片
-     * @param alertConfigIds 所有告警配置ID列表
-     * @return 分配给当前节点的告警配置ID列表
+     * 主题监控与消费者监控的单个分片成本差异很大（分区数、成员数不同），按估算成本均衡分片
      */
-    public List<Long> shardAlertConfigs(List<Long> alertConfigIds) {
-        if (alertConfigIds == null || alertConfigIds.isEmpty()) {
-            return Collections.emptyList();
-        }
+    private boolean isCostBalanced(String shardType) {
+        return taskConfig.isCostBalanceEnabled()
+                && (SHARD_TYPE_TOPIC.equals(shardType) || SHARD_TYPE_CONSUMER_GROUP.equals(shardType));
+    }
 
-        List<String> onlineServices = getOnlineServices();
-        if (onlineServices.isEmpty()) {
-            log.warn("没有在线服务，当前节点处理所有告警配置");
-            return alertConfigIds;
+    /**
+     * 分片键归属：优先使用成本均衡方案，方案中没有的新分片键按一致性哈希环归属
+     */
+    private String resolveOwner(Map<String, String> plannedOwners, ConsistentHashRing ring, String shardType, String key) {
+        if (plannedOwners != null) {
+            String owner = plannedOwners.get(key);
+            if (owner != null && ring.getWeights().containsKey(owner)) {
+                return owner;
+            }
         }
+        return ring.nodeFor(shardType + ":" + key);
+    }
 
-        // 使用唯一在线服务数量判断是否需要分片
-        int uniqueServiceCount = getUniqueOnlineServiceCount();
-        if (uniqueServiceCount == 1) {
-            return alertConfigIds;
+    /**
+     * 获取当前在线节点的成本均衡分片方案（分片键 -> 节点标识）。
+     * 方案按 在线节点与权重签名 + 分片键集合 保存在 Redis 中，第一个计算出方案的节点写入，其余节点直接复用，
+     * 到期或节点、分片键变化后按最新成本重新计算；任务轮次内第一次使用的方案再按轮次固定，
+     * 方案在轮次中途到期也不会重新计算，保证同一轮次的所有节点使用同一份分配结果。
+     * 计算或读取失败时返回 null，退回一致性哈希分片。
+     * @param createIfAbsent 没有有效方案时是否按 keys 计算新方案（仅查看归属时不创建，读取最近一次使用的方案）
+     */
+    private Map<String, String> getCostPlanOwners(String shardType, ConsistentHashRing ring, Collection<String> keys,
+                                                  boolean createIfAbsent) {
+        try {
+            String membership = Long.toHexString(ConsistentHashRing.hash(ring.getWeights() + "@" + ring.getVirtualNodes()));
+            String latestKey = SHARD_PLAN_KEY + shardType + ":" + membership + ":latest";
+            if (!createIfAbsent) {
+                Object latestPlanKey = redisTemplate.opsForValue().get(latestKey);
+                return latestPlanKey != null ? parsePlanOwners(redisTemplate.opsForValue().get(String.valueOf(latestPlanKey))) : null;
+            }
+
+            String planKey = SHARD_PLAN_KEY + shardType + ":" + membership + ":" + keySetHash(keys);
+            Long epoch = CURRENT_EPOCH.get();
+            String epochPlanKey = epoch != null ? planKey + ":epoch:" + epoch : null;
+            if (epochPlanKey != null) {
+                Map<String, String> pinned = parsePlanOwners(redisTemplate.opsForValue().get(epochPlanKey));
+                if (pinned != null) {
+                    return pinned;
+                }
+            }
+
+            long ttlSeconds = Math.max(1, taskConfig.getRebalanceIntervalSeconds());
+            Object planValue = redisTemplate.opsForValue().get(planKey);
+            if (planValue == null) {
+                Map<String, Long> costs = estimateShardCosts(shardType, keys);
+                ShardCostBalancer.Plan plan = ShardCostBalancer.balance(costs, ring.getWeights(),
+                        key -> ring.nodeFor(shardType + ":" + key));
+
+                Map<String, Object> newPlan = new LinkedHashMap<>();
+                newPlan.put("createdBy", getServiceUniqueId(currentNodeId));
+                newPlan.put("createdAt", LocalDateTime.now().toString());
+                newPlan.put("makespanMs", plan.getMakespan());
+                newPlan.put("loads", plan.getLoads());
+                newPlan.put("assignment", plan.getAssignment());
+
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(planKey, newPlan, ttlSeconds, TimeUnit.SECONDS))) {
+                    log.info("{} 分片成本均衡方案已更新: 分片键={}, 预计最长耗时={}ms, 节点负载={}",
+                            shardType, costs.size(), plan.getMakespan(), plan.getLoads());
+                    planValue = newPlan;
+                } else {
+                    // 其他节点已先写入方案，使用已写入的方案
+                    planValue = redisTemplate.opsForValue().get(planKey);
+                }
+            }
+            if (planValue == null || epochPlanKey == null) {
+                return parsePlanOwners(planValue);
+            }
+
+            // 按轮次固定方案：同一轮次内先写入的方案生效，轮次结束前不会被替换
+            long epochTtlSeconds = Math.max(ttlSeconds, TimeUnit.MINUTES.toSeconds(taskConfig.getShardResultExpireMinutes()));
+            redisTemplate.opsForValue().setIfAbsent(epochPlanKey, planValue, epochTtlSeconds, TimeUnit.SECONDS);
+            redisTemplate.opsForValue().set(latestKey, planKey, epochTtlSeconds, TimeUnit.SECONDS);
+            return parsePlanOwners(redisTemplate.opsForValue().get(epochPlanKey));
+        } catch (Exception e) {
+            log.warn("获取 {} 分片成本均衡方案失败，按一致性哈希分片: {}", shardType, e.getMessage());
+            return null;
         }
+    }
 
-        // 对服务列表排序，确保所有节点的分片结果一致
-        Collections.sort(onlineServices);
+    /**
+     * 分片键集合的哈希，与顺序无关
+     */
+    private String keySetHash(Collection<String> keys) {
+        List<String> sorted = new ArrayList<>(new TreeSet<>(keys));
+        return Long.toHexString(ConsistentHashRing.hash(String.join("\n", sorted)));
+    }
 
-        int currentNodeIndex = onlineServices.indexOf(currentNodeId);
-        if (currentNodeIndex == -1) {
-            log.warn("当前节点不在在线服务列表中，处理所有告警配置");
-            return alertConfigIds;
+    /**
+     * 解析分片方案中的分配结果
+     */
+    private Map<String, String> parsePlanOwners(Object planValue) {
+        if (!(planValue instanceof Map)) {
+            return null;
+        }
+        Object assignment = ((Map<?, ?>) planValue).get("assignment");
+        if (!(assignment instanceof Map)) {
+            return null;
         }
+        Map<String, String> owners = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) assignment).entrySet()) {
+            if (entry.getValue() instanceof Collection) {
+                for (Object key : (Collection<?>) entry.getValue()) {
+                    owners.put(String.valueOf(key), String.valueOf(entry.getKey()));
+                }
+            }
+        }
+        return owners;
+    }
 
-        // 计算分片
-        List<Long> assignedConfigs = new ArrayList<>();
-        int serviceCount = onlineServices.size();
+    /**
+     * 估算每个分片键的处理成本（毫秒）：
+     * 有上次采集耗时的使用实测耗时；没有的按规模（主题分区数、消费者组成员数）乘以实测的单位规模耗时估算
+     */
+    private Map<String, Long> estimateShardCosts(String shardType, Collection<String> keys) {
+        Map<Object, Object> recorded = redisTemplate.opsForHash().entries(SHARD_COST_KEY + shardType);
 
-        for (int i = 0; i < alertConfigIds.size(); i++) {
-            if (i % serviceCount == currentNodeIndex) {
-                assignedConfigs.add(alertConfigIds.get(i));
+        Map<String, Integer> sizes = new HashMap<>();
+        if (SHARD_TYPE_TOPIC.equals(shardType)) {
+            for (TopicInfo topic : topicMapper.selectTopicPartitionCounts()) {
+                if (topic.getPartitions() != null) {
+                    sizes.put(topic.getClusterId() + ":" + topic.getTopicName(), topic.getPartitions());
+                }
             }
         }
 
-        return assignedConfigs;
+        Map<String, Long> durations = new HashMap<>();
+        long measuredDuration = 0L;
+        long measuredSize = 0L;
+        for (String key : keys) {
+            Object value = recorded.get(key);
+            if (!(value instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> cost = (Map<?, ?>) value;
+            if (!sizes.containsKey(key) && cost.get("size") instanceof Number) {
+                sizes.put(key, ((Number) cost.get("size")).intValue());
+            }
+            if (cost.get("durationMs") instanceof Number) {
+                long duration = ((Number) cost.get("durationMs")).longValue();
+                durations.put(key, duration);
+                measuredDuration += duration;
+                measuredSize += Math.max(1, sizes.getOrDefault(key, 1));
+            }
+        }
+
+        double msPerUnit = measuredSize > 0 ? Math.max(1.0, (double) measuredDuration / measuredSize) : 1.0;
+        Map<String, Long> costs = new HashMap<>();
+        for (String key : keys) {
+            Long duration = durations.get(key);
+            costs.put(key, duration != null
+                    ? Math.max(1L, duration)
+                    : Math.max(1L, Math.round(Math.max(1, sizes.getOrDefault(key, 1)) * msPerUnit)));
+        }
+        return costs;
     }
 
     /**
-     * 对数据表列表进行分片
-     * @param tableNames 所有需要清理的表名列表
-     * @return 分配给当前节点的表名列表
+     * 记录本节点处理的分片键的实测耗时与规模，作为下一次成本均衡分片的依据
+     * @param shardType  分片类型
+     * @param durationMs 分片键 -> 采集耗时（毫秒）
+     * @param sizes      分片键 -> 规模（主题分区数、消费者组成员数）
      */
-    public List<String> shardTables(List<String> tableNames) {
-        if (tableNames == null || tableNames.isEmpty()) {
-            return Collections.emptyList();
+    public void recordShardCosts(String shardType, Map<String, Long> durationMs, Map<String, Integer> sizes) {
+        if (durationMs == null || durationMs.isEmpty()) {
+            return;
         }
+        try {
+            Map<String, Object> entries = new HashMap<>();
+            for (Map.Entry<String, Long> entry : durationMs.entrySet()) {
+                Map<String, Object> cost = new HashMap<>();
+                cost.put("durationMs", entry.getValue());
+                cost.put("size", sizes != null ? sizes.getOrDefault(entry.getKey(), 1) : 1);
+                entries.put(entry.getKey(), cost);
+            }
+            String costKey = SHARD_COST_KEY + shardType;
+            redisTemplate.opsForHash().putAll(costKey, entries);
+            redisTemplate.expire(costKey, SHARD_COST_EXPIRE_HOURS, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("记录 {} 分片成本失败: {}", shardType, e.getMessage());
+        }
+    }
 
+    /**
+     * 查看分片键在一致性哈希环上的归属（调试用）
+     * @param shardType 分片类型（broker、topic、consumer_group、alert_config、table）
+     * @param keys      需要查看的分片键
+     * @return 环上节点信息与分片键归属
+     */
+    public Map<String, Object> describeShardOwnership(String shardType, Collection<String> keys) {
         List<String> onlineServices = getOnlineServices();
-        if (onlineServices.isEmpty()) {
-            log.warn("没有在线服务，当前节点处理所有数据表");
-            return tableNames;
+        ConsistentHashRing ring = getHashRing(onlineServices);
+
+        Map<String, String> serviceNodeIds = new HashMap<>();
+        for (String nodeId : onlineServices) {
+            serviceNodeIds.put(getServiceUniqueId(nodeId), nodeId);
         }
 
-        // 使用唯一在线服务数量判断是否需要分片
-        int uniqueServiceCount = getUniqueOnlineServiceCount();
-        if (uniqueServiceCount == 1) {
-            return tableNames;
+        Map<String, String> plannedOwners = isCostBalanced(shardType) ? getCostPlanOwners(shardType, ring, keys, false) : null;
+
+        Map<String, String> owners = new LinkedHashMap<>();
+        Map<String, Integer> keyCounts = new HashMap<>();
+        for (String key : keys) {
+            String owner = resolveOwner(plannedOwners, ring, shardType, key);
+            owners.put(key, owner);
+            if (owner != null) {
+                keyCounts.merge(owner, 1, Integer::sum);
+            }
         }
 
-        // 对服务列表排序，确保所有节点的分片结果一致
-        Collections.sort(onlineServices);
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : ring.getWeights().entrySet()) {
+            Map<String, Object> node = new LinkedHashMap<>();
+            node.put("serviceId", entry.getKey());
+            node.put("nodeId", serviceNodeIds.get(entry.getKey()));
+            node.put("weight", entry.getValue());
+            node.put("virtualNodes", entry.getValue() * ring.getVirtualNodes());
+            node.put("keyCount", keyCounts.getOrDefault(entry.getKey(), 0));
+            nodes.add(node);
+        }
 
-        int currentNodeIndex = onlineServices.indexOf(currentNodeId);
-        if (currentNodeIndex == -1) {
-            log.warn("当前节点不在在线服务列表中，处理所有数据表");
-            return tableNames;
+        Map<String, Object> ownership = new LinkedHashMap<>();
+        ownership.put("shardType", shardType);
+        ownership.put("strategy", plannedOwners != null ? "cost_balanced" : "consistent_hash");
+        ownership.put("currentServiceId", getServiceUniqueId(currentNodeId));
+        ownership.put("nodes", nodes);
+        ownership.put("owners", owners);
+        return ownership;
+    }
+
+    /**
+     * 获取在线服务对应的一致性哈希环，成员与权重不变时复用已构建的环
+     */
+    private ConsistentHashRing getHashRing(List<String> onlineServices) {
+        Map<String, Integer> weights = new TreeMap<>();
+        List<Object> serviceInfos = null;
+        try {
+            serviceInfos = redisTemplate.opsForHash().multiGet(SERVICE_REGISTRY_KEY, new ArrayList<Object>(onlineServices));
+        } catch (Exception e) {
+            log.warn("读取节点权重失败，按权重 1 分片: {}", e.getMessage());
+        }
+        for (int i = 0; i < onlineServices.size(); i++) {
+            Object serviceInfo = serviceInfos != null && i < serviceInfos.size() ? serviceInfos.get(i) : null;
+            weights.put(getServiceUniqueId(onlineServices.get(i)), parseWeight(serviceInfo));
+        }
+        if (weights.isEmpty()) {
+            weights.put(getServiceUniqueId(currentNodeId), Math.max(1, taskConfig.getNodeWeight()));
         }
 
-        // 计算分片
-        List<String> assignedTables = new ArrayList<>();
-        int serviceCount = onlineServices.size();
+        String signature = weights + "@" + taskConfig.getVirtualNodes();
+        ConsistentHashRing ring = hashRing;
+        if (ring == null || !signature.equals(hashRingSignature)) {
+            ring = new ConsistentHashRing(weights, taskConfig.getVirtualNodes());
+            hashRing = ring;
+            hashRingSignature = signature;
+            log.info("分片哈希环已重建: {}", weights);
+        }
+        return ring;
+    }
 
-        for (int i = 0; i < tableNames.size(); i++) {
-            if (i % serviceCount == currentNodeIndex) {
-                assignedTables.add(tableNames.get(i));
+    /**
+     * 从注册信息中读取节点权重，缺省为 1
+     */
+    private int parseWeight(Object serviceInfo) {
+        if (serviceInfo instanceof Map) {
+            Object weight = ((Map<?, ?>) serviceInfo).get("weight");
+            if (weight instanceof Number) {
+                return Math.max(1, ((Number) weight).intValue());
+            }
+            if (weight != null) {
+                try {
+                    return Math.max(1, Integer.parseInt(weight.toString()));
+                } catch (NumberFormatException e) {
+                    log.warn("节点权重格式错误: {}", weight);
+                }
             }
         }
-
-        return assignedTables;
+        return 1;
     }
 
     /**
@@ -532,62 +718,266 @@ public class DistributedTaskCoordinator {
     }
     
     /**
-     * 保存分片任务结果
+     * 认领任务在某个计划触发时刻的执行权。所有节点按相同的 Cron 在同一时刻触发，
+     * 只有第一个认领成功的节点获得执行权，并分配该任务新的集群级防护令牌（fencing token）
+     * @param taskId 任务ID
+     * @param fireAt 计划触发时刻（毫秒时间戳）
+     * @return 防护令牌，未认领成功时返回 null
+     */
+    public Long claimTaskFire(Long taskId, long fireAt) {
+        try {
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(TASK_FIRE_KEY + taskId + ":" + fireAt,
+                    currentNodeId, TASK_FIRE_CLAIM_MINUTES, TimeUnit.MINUTES);
+            if (claimed == null || !claimed) {
+                return null;
+            }
+            return nextTaskFence(taskId);
+        } catch (Exception e) {
+            log.error("认领任务触发失败: taskId={}, fireAt={}", taskId, fireAt, e);
+            return null;
+        }
+    }
+
+    /**
+     * 为任务分配新的防护令牌，集群内单调递增。计数器先抬升到数据库中的 fence_token 再递增，
+     * Redis 数据清空或过期后令牌仍大于已写入数据库的令牌
+     * @param taskId 任务ID
+     * @return 新的防护令牌
+     */
+    public long nextTaskFence(Long taskId) {
+        Long fence = redisTemplate.execute(TASK_FENCE_SCRIPT, new StringRedisSerializer(),
+                new GenericToStringSerializer<>(Long.class), Collections.singletonList(TASK_FENCE_KEY + taskId),
+                String.valueOf(currentDbFence(taskId)));
+        return fence != null ? fence : 0L;
+    }
+
+    /**
+     * 查询数据库中任务已写入的防护令牌，查询失败时返回 0（仅按 Redis 计数器递增）
+     */
+    private long currentDbFence(Long taskId) {
+        try {
+            Long fence = taskSchedulerMapper.selectFenceToken(taskId);
+            return fence != null ? fence : 0L;
+        } catch (Exception e) {
+            log.warn("查询任务 {} 数据库防护令牌失败，按 Redis 计数器分配: {}", taskId, e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * 判断防护令牌是否仍是任务最新的令牌；之后已有新的触发被认领时返回 false。
+     * 仅用于提前跳过，令牌由数据库按 fence_token 条件更新强制校验；Redis 异常时返回 false
+     */
+    public boolean isCurrentTaskFence(Long taskId, long fence) {
+        try {
+            Object current = redisTemplate.opsForValue().get(TASK_FENCE_KEY + taskId);
+            return !(current instanceof Number) || ((Number) current).longValue() <= fence;
+        } catch (Exception e) {
+            log.warn("获取任务 {} 防护令牌失败，跳过状态更新: {}", taskId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 为任务类型分配新的执行轮次（epoch），集群内单调递增
+     * @param taskType 任务类型
+     * @return 新的轮次
+     */
+    public long nextTaskEpoch(String taskType) {
+        Long epoch = redisTemplate.opsForValue().increment(TASK_EPOCH_SEQ_KEY + taskType);
+        return epoch != null ? epoch : System.currentTimeMillis();
+    }
+
+    /**
+     * 登记一个任务轮次：记录发起节点与期望参与的在线节点
+     * @param taskType      任务类型
+     * @param epoch         轮次
+     * @param expectedNodes 期望参与的节点ID
+     */
+    public void openTaskEpoch(String taskType, long epoch, List<String> expectedNodes) {
+        try {
+            String epochKey = TASK_EPOCH_KEY + taskType + ":" + epoch;
+            Map<String, Object> epochInfo = new HashMap<>();
+            epochInfo.put("leader", currentNodeId);
+            epochInfo.put("issuedAt", LocalDateTime.now().toString());
+            epochInfo.put("expectedNodes", new ArrayList<>(expectedNodes));
+            redisTemplate.opsForHash().putAll(epochKey, epochInfo);
+            redisTemplate.expire(epochKey, taskConfig.getShardResultExpireMinutes(), TimeUnit.MINUTES);
+            redisTemplate.opsForValue().set(TASK_EPOCH_KEY + taskType + ":latest", epoch,
+                    taskConfig.getShardResultExpireMinutes(), TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.error("登记任务轮次失败: taskType={}, epoch={}", taskType, epoch, e);
+        }
+    }
+
+    /**
+     * 记录当前节点完成了某个任务轮次的分片
+     * @param taskType 任务类型
+     * @param epoch    轮次
+     * @param status   完成状态（SUCCESS、FAILED、SKIPPED）
+     */
+    public void completeTaskEpoch(String taskType, long epoch, String status) {
+        try {
+            String doneKey = TASK_EPOCH_KEY + taskType + ":" + epoch + ":done";
+            redisTemplate.opsForHash().put(doneKey, currentNodeId, status);
+            redisTemplate.expire(doneKey, taskConfig.getShardResultExpireMinutes(), TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.error("记录任务轮次完成失败: taskType={}, epoch={}", taskType, epoch, e);
+        }
+    }
+
+    /**
+     * 获取任务类型最近一次登记的轮次，没有时返回 null
+     */
+    public Long getLatestTaskEpoch(String taskType) {
+        try {
+            Object latest = redisTemplate.opsForValue().get(TASK_EPOCH_KEY + taskType + ":latest");
+            return latest instanceof Number ? ((Number) latest).longValue() : null;
+        } catch (Exception e) {
+            log.warn("获取 {} 最近任务轮次失败: {}", taskType, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 获取任务轮次的完成进度
+     * @param taskType 任务类型
+     * @param epoch    轮次，为 null 时取最近一次
+     * @return 期望节点、已完成节点、未完成节点
+     */
+    public Map<String, Object> getTaskEpochProgress(String taskType, Long epoch) {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        try {
+            if (epoch == null) {
+                epoch = getLatestTaskEpoch(taskType);
+                if (epoch == null) {
+                    return progress;
+                }
+            }
+            String epochKey = TASK_EPOCH_KEY + taskType + ":" + epoch;
+            Map<Object, Object> epochInfo = redisTemplate.opsForHash().entries(epochKey);
+            Map<Object, Object> done = redisTemplate.opsForHash().entries(epochKey + ":done");
+
+            List<String> expectedNodes = new ArrayList<>();
+            if (epochInfo.get("expectedNodes") instanceof Collection) {
+                for (Object nodeId : (Collection<?>) epochInfo.get("expectedNodes")) {
+                    expectedNodes.add(String.valueOf(nodeId));
+                }
+            }
+            Map<String, String> completedNodes = new TreeMap<>();
+            done.forEach((nodeId, status) -> completedNodes.put(String.valueOf(nodeId), String.valueOf(status)));
+            List<String> pendingNodes = new ArrayList<>();
+            for (String nodeId : expectedNodes) {
+                if (!completedNodes.containsKey(nodeId)) {
+                    pendingNodes.add(nodeId);
+                }
+            }
+
+            progress.put("taskType", taskType);
+            progress.put("epoch", epoch);
+            progress.put("leader", epochInfo.get("leader"));
+            progress.put("issuedAt", epochInfo.get("issuedAt"));
+            progress.put("expectedNodes", expectedNodes);
+            progress.put("completedNodes", completedNodes);
+            progress.put("pendingNodes", pendingNodes);
+            progress.put("complete", !expectedNodes.isEmpty() && pendingNodes.isEmpty());
+        } catch (Exception e) {
+            log.error("获取任务轮次进度失败: taskType={}, epoch={}", taskType, epoch, e);
+        }
+        return progress;
+    }
+
+    /**
+     * 绑定当前线程正在执行的任务轮次
+     */
+    public void bindTaskEpoch(long epoch) {
+        CURRENT_EPOCH.set(epoch);
+    }
+
+    /**
+     * 解除当前线程绑定的任务轮次
+     */
+    public void clearTaskEpoch() {
+        CURRENT_EPOCH.remove();
+    }
+
+    /**
+     * 保存分片任务结果：同一任务轮次的所有节点结果存放在一个哈希中（节点ID -> 结果）
      * @param taskType 任务类型
      * @param shardResult 分片结果
      */
     public void saveShardResult(String taskType, Map<String, Object> shardResult) {
         try {
-            String resultKey = TASK_SHARD_RESULT_KEY + taskType + ":" + currentNodeId;
-            long expireSeconds = taskConfig.getShardResultExpireMinutes() * 60;
-            redisTemplate.opsForValue().set(resultKey, shardResult, expireSeconds, TimeUnit.SECONDS);
+            Long epoch = CURRENT_EPOCH.get();
+            if (epoch == null) {
+                epoch = getLatestTaskEpoch(taskType);
+            }
+            long resultEpoch = epoch != null ? epoch : 0L;
+            shardResult.put("epoch", resultEpoch);
+
+            String resultKey = shardResultKey(taskType, resultEpoch);
+            redisTemplate.opsForHash().put(resultKey, currentNodeId, shardResult);
+            redisTemplate.expire(resultKey, taskConfig.getShardResultExpireMinutes(), TimeUnit.MINUTES);
         } catch (Exception e) {
             log.error("保存分片任务结果异常: taskType={}", taskType, e);
         }
     }
     
     /**
-     * 获取所有分片任务结果
+     * 获取最近一次任务轮次的所有分片任务结果
      * @param taskType 任务类型
      * @return 所有节点的分片结果
      */
     public Map<String, Object> getAllShardResults(String taskType) {
+        Long epoch = getLatestTaskEpoch(taskType);
+        return getAllShardResults(taskType, epoch != null ? epoch : 0L);
+    }
+
+    /**
+     * 获取指定任务轮次的所有分片任务结果
+     * @param taskType 任务类型
+     * @param epoch 任务轮次
+     * @return 所有节点的分片结果（节点ID -> 结果）
+     */
+    public Map<String, Object> getAllShardResults(String taskType, long epoch) {
         try {
-            String pattern = TASK_SHARD_RESULT_KEY + taskType + ":*";
-            Set<String> keys = redisTemplate.keys(pattern);
-            
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(shardResultKey(taskType, epoch));
             Map<String, Object> allResults = new HashMap<>();
-            if (keys != null) {
-                for (String key : keys) {
-                    Object result = redisTemplate.opsForValue().get(key);
-                    if (result != null) {
-                        String nodeId = key.substring(key.lastIndexOf(":") + 1);
-                        allResults.put(nodeId, result);
-                    }
+            entries.forEach((nodeId, result) -> {
+                if (result != null) {
+                    allResults.put(nodeId.toString(), result);
                 }
-            }
-            
+            });
             return allResults;
         } catch (Exception e) {
-            log.error("获取所有分片任务结果异常: taskType={}", taskType, e);
+            log.error("获取所有分片任务结果异常: taskType={}, epoch={}", taskType, epoch, e);
             return Collections.emptyMap();
         }
     }
     
     /**
-     * 清理指定任务类型的所有分片结果
+     * 清理最近一次任务轮次的分片结果
      * @param taskType 任务类型
      */
     public void clearShardResults(String taskType) {
+        Long epoch = getLatestTaskEpoch(taskType);
+        clearShardResults(taskType, epoch != null ? epoch : 0L);
+    }
+
+    /**
+     * 清理指定任务轮次的分片结果
+     * @param taskType 任务类型
+     * @param epoch 任务轮次
+     */
+    public void clearShardResults(String taskType, long epoch) {
         try {
-            String pattern = TASK_SHARD_RESULT_KEY + taskType + ":*";
-            Set<String> keys = redisTemplate.keys(pattern);
-            
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-            }
+            redisTemplate.delete(shardResultKey(taskType, epoch));
         } catch (Exception e) {
             log.error("清理分片任务结果失败", e);
         }
     }
-}
\ No newline at end of file
+
+    private String shardResultKey(String taskType, long epoch) {
+        return TASK_SHARD_RESULT_KEY + taskType + ":epoch:" + epoch;
+    }
+}
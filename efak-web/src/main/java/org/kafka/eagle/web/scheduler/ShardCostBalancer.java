@@ -0,0 +1,105 @@
+package org.kafka.eagle.web.scheduler;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * 按估算成本分配分片的 LPT（Longest Processing Time first）装箱算法。
+ * 分片键按成本从大到小依次放入当前“负载 / 权重”最小的节点，使各节点的最长执行时间（makespan）尽量小，
+ * 最坏情况不超过最优解的 4/3。负载相同的节点优先选择一致性哈希环上的原归属节点，
+ * 再按节点标识排序，保证相同输入在所有节点上得到相同结果，并尽量保持分片归属稳定。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/18 16:32:08
+ * @version 5.0.0
+ */
+public final class ShardCostBalancer {
+
+    private ShardCostBalancer() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 按成本分配分片键
+     *
+     * @param costs         分片键 -> 估算成本（毫秒）
+     * @param weights       节点标识 -> 权重
+     * @param preferredNode 分片键在一致性哈希环上的归属节点，负载相同时优先选择
+     * @return 分配结果
+     */
+    public static Plan balance(Map<String, Long> costs, Map<String, Integer> weights, Function<String, String> preferredNode) {
+        List<String> nodes = new ArrayList<>(new TreeSet<>(weights.keySet()));
+        Plan plan = new Plan();
+        if (nodes.isEmpty()) {
+            return plan;
+        }
+
+        int[] nodeWeights = new int[nodes.size()];
+        long[] loads = new long[nodes.size()];
+        Map<String, Integer> nodeIndex = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            nodeWeights[i] = Math.max(1, weights.getOrDefault(nodes.get(i), 1));
+            nodeIndex.put(nodes.get(i), i);
+            plan.assignment.put(nodes.get(i), new ArrayList<>());
+        }
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(costs.entrySet());
+        sorted.sort((a, b) -> {
+            int byCost = Long.compare(b.getValue(), a.getValue());
+            return byCost != 0 ? byCost : a.getKey().compareTo(b.getKey());
+        });
+
+        for (Map.Entry<String, Long> entry : sorted) {
+            long cost = Math.max(1L, entry.getValue());
+            Integer preferred = nodeIndex.get(preferredNode.apply(entry.getKey()));
+            int best = -1;
+            double bestFinish = Double.MAX_VALUE;
+            for (int i = 0; i < nodes.size(); i++) {
+                double finish = (double) (loads[i] + cost) / nodeWeights[i];
+                if (finish < bestFinish || (finish == bestFinish && preferred != null && i == preferred)) {
+                    best = i;
+                    bestFinish = finish;
+                }
+            }
+            loads[best] += cost;
+            plan.assignment.get(nodes.get(best)).add(entry.getKey());
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            plan.loads.put(nodes.get(i), loads[i]);
+            plan.makespan = Math.max(plan.makespan, loads[i] / nodeWeights[i]);
+        }
+        return plan;
+    }
+
+    /**
+     * 分配结果
+     */
+    public static final class Plan {
+        private final Map<String, List<String>> assignment = new TreeMap<>();
+        private final Map<String, Long> loads = new TreeMap<>();
+        private long makespan;
+
+        /**
+         * 节点标识 -> 分配到的分片键
+         */
+        public Map<String, List<String>> getAssignment() {
+            return assignment;
+        }
+
+        /**
+         * 节点标识 -> 估算总成本（毫秒）
+         */
+        public Map<String, Long> getLoads() {
+            return loads;
+        }
+
+        /**
+         * 按权重折算后各节点估算耗时的最大值（毫秒）
+         */
+        public long getMakespan() {
+            return makespan;
+        }
+    }
+}
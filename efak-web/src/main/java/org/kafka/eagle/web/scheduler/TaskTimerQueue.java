@@ -0,0 +1,197 @@
+package org.kafka.eagle.web.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ * 按下次触发时刻排序的任务定时队列（最小堆）。每个任务只保留一个待触发时刻，
+ * 单个定时线程休眠到堆顶时刻后取出并回调，回调中再由调用方根据 Cron 计算下一次触发时刻重新入队。
+ * 替换或取消任务时旧的堆节点被标记失效，出堆时丢弃（惰性删除），入队、替换、取消均为 O(log n)。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/20 09:12:37
+ * @version 5.0.0
+ */
+@Slf4j
+public class TaskTimerQueue {
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(
+            Comparator.comparingLong((Entry e) -> e.fireAt).thenComparingLong(e -> e.taskId));
+    private final Map<Long, Entry> pending = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final BiConsumer<Long, Long> onFire;
+    private final Thread timerThread;
+    private volatile boolean running = true;
+
+    /**
+     * @param threadName 定时线程名
+     * @param onFire     到期回调，参数为任务ID与计划触发时刻（毫秒时间戳），在定时线程中执行，应尽快返回
+     */
+    public TaskTimerQueue(String threadName, BiConsumer<Long, Long> onFire) {
+        this.onFire = onFire;
+        this.timerThread = new Thread(this::loop, threadName);
+        this.timerThread.setDaemon(true);
+        this.timerThread.setPriority(Thread.MAX_PRIORITY);
+    }
+
+    /**
+     * 启动定时线程
+     */
+    public void start() {
+        timerThread.start();
+    }
+
+    /**
+     * 停止定时线程并清空队列
+     */
+    public void shutdown() {
+        running = false;
+        clear();
+        timerThread.interrupt();
+    }
+
+    /**
+     * 设置任务的下次触发时刻，已存在的待触发时刻被替换
+     *
+     * @param taskId 任务ID
+     * @param fireAt 触发时刻（毫秒时间戳）
+     */
+    public void schedule(long taskId, long fireAt) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(taskId, fireAt);
+            Entry previous = pending.put(taskId, entry);
+            if (previous != null) {
+                previous.cancelled = true;
+            }
+            heap.add(entry);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取消任务的待触发时刻
+     */
+    public void cancel(long taskId) {
+        lock.lock();
+        try {
+            Entry previous = pending.remove(taskId);
+            if (previous != null) {
+                previous.cancelled = true;
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空所有待触发时刻
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            heap.clear();
+            pending.clear();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取任务ID -> 下次触发时刻（毫秒时间戳），按触发时刻升序
+     */
+    public Map<Long, Long> snapshot() {
+        lock.lock();
+        try {
+            List<Entry> entries = new ArrayList<>(pending.values());
+            entries.sort(heap.comparator());
+            Map<Long, Long> snapshot = new LinkedHashMap<>();
+            for (Entry entry : entries) {
+                snapshot.put(entry.taskId, entry.fireAt);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 待触发的任务数
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void loop() {
+        while (running) {
+            Entry due;
+            lock.lock();
+            try {
+                due = pollDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                onFire.accept(due.taskId, due.fireAt);
+            } catch (Exception e) {
+                log.error("定时任务触发回调失败: taskId={}", due.taskId, e);
+            }
+        }
+    }
+
+    /**
+     * 等待并取出下一个到期的有效节点，调用方需持有锁
+     */
+    private Entry pollDue() throws InterruptedException {
+        while (true) {
+            Entry head = heap.peek();
+            if (head == null) {
+                changed.await();
+                continue;
+            }
+            if (head.cancelled) {
+                heap.poll();
+                continue;
+            }
+            long delay = head.fireAt - System.currentTimeMillis();
+            if (delay > 0) {
+                changed.await(delay, TimeUnit.MILLISECONDS);
+                continue;
+            }
+            heap.poll();
+            pending.remove(head.taskId, head);
+            return head;
+        }
+    }
+
+    private static final class Entry {
+        private final long taskId;
+        private final long fireAt;
+        private boolean cancelled;
+
+        private Entry(long taskId, long fireAt) {
+            this.taskId = taskId;
+            this.fireAt = fireAt;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.kafka.eagle.web.scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 任务执行专用的有界线程池：固定线程数、有界队列，队列满时拒绝提交并计数，
+ * 记录每个任务从提交到开始执行的排队等待时间（按任务类型统计），用于观察执行积压。
+ * 与心跳、任务扫描等控制类调度线程隔离，慢任务不会影响节点心跳。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/19 10:26:41
+ * @version 5.0.0
+ */
+public class TaskWorkerExecutor extends ThreadPoolExecutor {
+
+    private final int queueCapacity;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitMs = new LongAdder();
+    private final AtomicLong maxWaitMs = new AtomicLong();
+    private final ConcurrentHashMap<String, WaitStats> waitByLabel = new ConcurrentHashMap<>();
+
+    /**
+     * @param threadPrefix  线程名前缀
+     * @param threads       工作线程数
+     * @param queueCapacity 等待队列容量
+     */
+    public TaskWorkerExecutor(String threadPrefix, int threads, int queueCapacity) {
+        super(Math.max(1, threads), Math.max(1, threads), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), daemonFactory(threadPrefix), new AbortPolicy());
+        this.queueCapacity = Math.max(1, queueCapacity);
+        allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 提交任务，队列已满时抛出 {@link RejectedExecutionException}
+     *
+     * @param label 任务标签（如任务类型），用于按标签统计等待时间
+     * @param task  任务
+     */
+    public void execute(String label, Runnable task) {
+        submitted.increment();
+        try {
+            super.execute(new Tracked(label, task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        if (r instanceof Tracked) {
+            Tracked tracked = (Tracked) r;
+            long waitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tracked.submittedAt);
+            totalWaitMs.add(waitMs);
+            maxWaitMs.accumulateAndGet(waitMs, Math::max);
+            waitByLabel.computeIfAbsent(tracked.label, k -> new WaitStats()).record(waitMs);
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        completed.increment();
+    }
+
+    /**
+     * 获取线程池指标：队列深度、活跃线程、提交/完成/拒绝次数与排队等待时间
+     */
+    public Map<String, Object> getMetrics() {
+        long started = completed.sum() + getActiveCount();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("poolSize", getPoolSize());
+        metrics.put("maxPoolSize", getMaximumPoolSize());
+        metrics.put("activeCount", getActiveCount());
+        metrics.put("queueDepth", getQueue().size());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("submitted", submitted.sum());
+        metrics.put("completed", completed.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("avgWaitMs", started > 0 ? totalWaitMs.sum() / started : 0L);
+        metrics.put("maxWaitMs", maxWaitMs.get());
+
+        Map<String, Object> byLabel = new TreeMap<>();
+        waitByLabel.forEach((label, stats) -> byLabel.put(label, stats.snapshot()));
+        metrics.put("waitByTask", byLabel);
+        return metrics;
+    }
+
+    private static ThreadFactory daemonFactory(String threadPrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return r -> {
+            Thread t = new Thread(r, threadPrefix + "-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * 携带提交时间与标签的任务
+     */
+    private static final class Tracked implements Runnable {
+        private final String label;
+        private final Runnable task;
+        private final long submittedAt = System.nanoTime();
+
+        private Tracked(String label, Runnable task) {
+            this.label = label != null ? label : "unknown";
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * 单个标签的排队等待统计
+     */
+    private static final class WaitStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final AtomicLong maxMs = new AtomicLong();
+        private volatile long lastMs;
+
+        void record(long waitMs) {
+            count.increment();
+            totalMs.add(waitMs);
+            maxMs.accumulateAndGet(waitMs, Math::max);
+            lastMs = waitMs;
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", n);
+            snapshot.put("lastWaitMs", lastMs);
+            snapshot.put("avgWaitMs", n > 0 ? totalMs.sum() / n : 0L);
+            snapshot.put("maxWaitMs", maxMs.get());
+            return snapshot;
+        }
+    }
+}
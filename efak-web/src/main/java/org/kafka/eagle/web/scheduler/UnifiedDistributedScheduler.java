@@ -1,5 +1,6 @@
 package org.kafka.eagle.web.scheduler;
 
+import com.alibaba.fastjson2.JSON;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
@@ -14,16 +15,18 @@ import org.kafka.eagle.web.service.TaskExecutorManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.ZoneId;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -66,20 +69,33 @@ public class UnifiedDistributedScheduler {
     @Autowired
     private Environment environment;
 
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
     @Value("${server.port:8080}")
     private int serverPort;
 
     // 调度器状态
     private final AtomicBoolean schedulerEnabled = new AtomicBoolean(true);
-    private final ScheduledExecutorService schedulerExecutor = Executors.newScheduledThreadPool(10);
+    // 心跳与任务触发认领使用的控制线程，与任务执行隔离，慢任务不会阻塞心跳
+    private final ScheduledExecutorService schedulerExecutor = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "efak-scheduler-control");
+        t.setDaemon(true);
+        t.setPriority(Thread.MAX_PRIORITY);
+        return t;
+    });
+    // 任务执行线程池（有界队列，队列满时拒绝）
+    private TaskWorkerExecutor taskExecutor;
+    // 按下次触发时刻排序的任务定时队列
+    private TaskTimerQueue taskTimers;
     private final Map<Long, Future<?>> runningTasks = new ConcurrentHashMap<>();
     private final Map<Long, TaskScheduler> registeredTasks = new ConcurrentHashMap<>();
 
     // Redis键前缀
-    private static final String TASK_LOCK_KEY = "efak:unified:scheduler:lock";
     private static final String TASK_STATS_KEY = "efak:unified:scheduler:stats";
     private static final String NODE_REGISTRY_KEY = "efak:unified:nodes";
-    private static final String CRON_UPDATE_NOTIFICATION_KEY = "efak:unified:cron:update:";
+    private static final String CRON_UPDATE_CHANNEL = "efak:unified:cron:update";
+    private static final String TASK_RUN_CHANNEL = "efak:unified:task:run";
 
     // 支持的任务类型
     private static final List<String> SUPPORTED_TASK_TYPES = List.of(
@@ -94,14 +110,25 @@ public class UnifiedDistributedScheduler {
     public void init() {
 
         try {
+            // 初始化任务执行线程池
+            taskExecutor = new TaskWorkerExecutor("efak-task-worker",
+                    taskConfig.getWorkerThreads(), taskConfig.getWorkerQueueCapacity());
+
             // 初始化分布式任务协调器
             taskCoordinator.initializeNode();
 
-            // 启动任务扫描
-            startTaskScanner();
+            // 订阅任务分发频道，执行本节点负责的分片
+            listenerContainer.addMessageListener((message, pattern) -> onTaskRunMessage(message),
+                    new ChannelTopic(TASK_RUN_CHANNEL));
+
+            // 订阅Cron表达式/任务状态变化频道，收到后立即重建该任务的定时
+            listenerContainer.addMessageListener((message, pattern) -> onCronUpdateMessage(message),
+                    new ChannelTopic(CRON_UPDATE_CHANNEL));
 
-            // 启动Cron表达式变化监听器
-            startCronExpressionChangeListener();
+            // 按各任务的Cron构建定时队列，到达触发时刻即执行
+            taskTimers = new TaskTimerQueue("efak-scheduler-timer", this::onTaskTimerFire);
+            taskTimers.start();
+            rebuildTaskTimers();
 
             // 启动节点心跳
             startNodeHeartbeat();
@@ -115,31 +142,13 @@ public class UnifiedDistributedScheduler {
     public void destroy() {
         log.info("销毁统一分布式任务调度器");
         stopScheduler();
+        if (taskTimers != null) {
+            taskTimers.shutdown();
+        }
         schedulerExecutor.shutdown();
-    }
-
-    /**
-     * 启动任务扫描器
-     */
-    private void startTaskScanner() {
-        schedulerExecutor.scheduleAtFixedRate(() -> {
-            if (schedulerEnabled.get()) {
-                scanAndExecuteTasks();
-            }
-        }, 0, 60, TimeUnit.SECONDS);
-    }
-
-    /**
-     * 启动Cron表达式变化监听器
-     */
-    private void startCronExpressionChangeListener() {
-        schedulerExecutor.scheduleAtFixedRate(() -> {
-            try {
-                checkCronExpressionUpdates();
-            } catch (Exception e) {
-                log.error("检查Cron表达式更新失败", e);
-            }
-        }, 0, 30, TimeUnit.SECONDS);
+        if (taskExecutor != null) {
+            taskExecutor.shutdown();
+        }
     }
 
     /**
@@ -164,40 +173,79 @@ public class UnifiedDistributedScheduler {
     }
 
     /**
-     * 扫描并执行任务
+     * 从数据库加载全部启用的任务并重建定时队列，仅在启动时执行，之后按任务变更通知增量更新
      */
-    @Scheduled(fixedRate = 60000) // 每分钟扫描一次
-    public void scanAndExecuteTasks() {
-        if (!schedulerEnabled.get()) {
+    public void rebuildTaskTimers() {
+        List<TaskScheduler> enabledTasks = getEnabledTasksFromDatabase();
+        refreshRegisteredTasks(enabledTasks);
+
+        taskTimers.clear();
+        LocalDateTime now = LocalDateTime.now();
+        for (TaskScheduler task : enabledTasks) {
+            // 错过的触发时刻（如节点全部停机期间）补执行一次，各节点计算出的时刻相同，只会被认领一次
+            LocalDateTime fireTime = task.getLastExecuteTime() != null
+                    ? calculateNextExecuteTime(task.getLastExecuteTime(), task.getCronExpression())
+                    : calculateNextExecuteTime(now, task.getCronExpression());
+            taskTimers.schedule(task.getId(), toEpochMilli(fireTime));
+        }
+        log.info("任务定时队列已重建: 任务数={}", enabledTasks.size());
+    }
+
+    /**
+     * 任务到达触发时刻（定时线程回调）：先按Cron排定下一次触发，再交给控制线程认领并执行
+     */
+    private void onTaskTimerFire(Long taskId, Long fireAt) {
+        TaskScheduler task = registeredTasks.get(taskId);
+        if (task == null) {
             return;
         }
 
-        // 尝试获取分布式锁
-        Boolean lockAcquired = redisTemplate.opsForValue().setIfAbsent(TASK_LOCK_KEY,
-                getCurrentNodeId(), 60, TimeUnit.SECONDS);
+        LocalDateTime base = LocalDateTime.now();
+        LocalDateTime scheduled = toLocalDateTime(fireAt);
+        if (scheduled.isAfter(base)) {
+            base = scheduled;
+        }
+        taskTimers.schedule(taskId, toEpochMilli(calculateNextExecuteTime(base, task.getCronExpression())));
+
+        schedulerExecutor.execute(() -> fireTask(taskId, fireAt));
+    }
 
-        if (lockAcquired == null || !lockAcquired) {
+    /**
+     * 认领本次触发的执行权，获得防护令牌的节点作为发起节点执行任务
+     */
+    private void fireTask(Long taskId, long fireAt) {
+        if (!schedulerEnabled.get()) {
             return;
         }
 
         try {
-
-            // 获取启用的任务
-            List<TaskScheduler> enabledTasks = getEnabledTasksFromDatabase();
-
-            for (TaskScheduler task : enabledTasks) {
-                if (shouldExecuteTask(task)) {
-                    executeTask(task);
-                } else {
-                }
+            Long fence = taskCoordinator.claimTaskFire(taskId, fireAt);
+            if (fence == null) {
+                return; // 其他节点已认领本次触发
             }
 
+            TaskScheduler task = taskSchedulerMapper.selectTaskSchedulerById(taskId);
+            if (task == null || !"enabled".equals(task.getStatus())) {
+                registeredTasks.remove(taskId);
+                taskTimers.cancel(taskId);
+                return;
+            }
+            executeTaskWithTriggerType(task, "SCHEDULED", fence);
         } catch (Exception e) {
-            log.error("扫描任务时发生错误", e);
-        } finally {
-            // 释放分布式锁
-            redisTemplate.delete(TASK_LOCK_KEY);
+            log.error("触发任务失败: taskId={}", taskId, e);
+        }
+    }
+
+    /**
+     * 用最新读取的启用任务刷新本地任务缓存
+     */
+    private void refreshRegisteredTasks(List<TaskScheduler> enabledTasks) {
+        Set<Long> enabledIds = new HashSet<>();
+        for (TaskScheduler task : enabledTasks) {
+            enabledIds.add(task.getId());
+            registeredTasks.put(task.getId(), task);
         }
+        registeredTasks.keySet().retainAll(enabledIds);
     }
 
     /**
@@ -238,20 +286,6 @@ public class UnifiedDistributedScheduler {
         }
     }
 
-    /**
-     * 判断任务是否应该执行
-     */
-    private boolean shouldExecuteTask(TaskScheduler task) {
-        if (task.getLastExecuteTime() == null) {
-            return true; // 首次执行
-        }
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime nextExecuteTime = calculateNextExecuteTime(task.getLastExecuteTime(), task.getCronExpression());
-
-        return now.isAfter(nextExecuteTime) || now.isEqual(nextExecuteTime);
-    }
-
     /**
      * 计算下次执行时间
      */
@@ -267,60 +301,144 @@ public class UnifiedDistributedScheduler {
     }
 
     /**
-     * 执行任务
+     * 手动执行任务
      */
-    private void executeTask(TaskScheduler task) {
-        executeTaskWithTriggerType(task, "SCHEDULED");
+    private void executeTaskManually(TaskScheduler task) {
+        executeTaskWithTriggerType(task, "MANUAL", taskCoordinator.nextTaskFence(task.getId()));
     }
 
     /**
-     * 手动执行任务
+     * 执行任务（通用方法）：为任务分配新的轮次并向所有节点广播执行令牌，
+     * 每个在线节点执行自己负责的分片，当前节点作为发起者负责记录执行历史与汇总结果
+     * @param fence 本次执行的防护令牌，只有令牌仍为最新时发起节点才更新任务状态
      */
-    private void executeTaskManually(TaskScheduler task) {
-        executeTaskWithTriggerType(task, "MANUAL");
+    private void executeTaskWithTriggerType(TaskScheduler task, String triggerType, long fence) {
+        if (runningTasks.containsKey(task.getId())) {
+            log.warn("任务 {} 正在执行中，跳过本次执行", task.getTaskName());
+            return;
+        }
+
+        long epoch = taskCoordinator.nextTaskEpoch(task.getTaskType());
+        List<String> expectedNodes = taskCoordinator.getOnlineServices();
+        if (expectedNodes.isEmpty()) {
+            expectedNodes = List.of(taskCoordinator.getCurrentNodeId());
+        }
+        taskCoordinator.openTaskEpoch(task.getTaskType(), epoch, expectedNodes);
+
+        Map<String, Object> token = new HashMap<>();
+        token.put("taskId", task.getId());
+        token.put("taskType", task.getTaskType());
+        token.put("epoch", epoch);
+        token.put("triggerType", triggerType);
+        token.put("leader", taskCoordinator.getCurrentNodeId());
+        token.put("fence", fence);
+        try {
+            redisTemplate.convertAndSend(TASK_RUN_CHANNEL, token);
+        } catch (Exception e) {
+            log.error("广播任务 {} 执行令牌失败，仅当前节点执行: epoch={}", task.getTaskName(), epoch, e);
+        }
+
+        runShard(task, triggerType, epoch, fence, true);
+    }
+
+    /**
+     * 接收其他节点广播的任务执行令牌，执行本节点负责的分片
+     */
+    private void onTaskRunMessage(Message message) {
+        try {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (!(body instanceof Map)) {
+                return;
+            }
+            Map<?, ?> token = (Map<?, ?>) body;
+            if (taskCoordinator.getCurrentNodeId().equals(token.get("leader"))) {
+                return; // 发起节点已在本地执行
+            }
+
+            String taskType = String.valueOf(token.get("taskType"));
+            long epoch = ((Number) token.get("epoch")).longValue();
+            if (!schedulerEnabled.get()) {
+                taskCoordinator.completeTaskEpoch(taskType, epoch, "SKIPPED");
+                return;
+            }
+
+            TaskScheduler task = taskSchedulerMapper.selectTaskSchedulerById(((Number) token.get("taskId")).longValue());
+            if (task == null) {
+                taskCoordinator.completeTaskEpoch(taskType, epoch, "SKIPPED");
+                return;
+            }
+            long fence = token.get("fence") instanceof Number ? ((Number) token.get("fence")).longValue() : 0L;
+            runShard(task, String.valueOf(token.get("triggerType")), epoch, fence, false);
+        } catch (Exception e) {
+            log.error("处理任务执行令牌失败", e);
+        }
     }
 
     /**
-     * 执行任务（通用方法）
+     * 在本节点执行任务的一个分片
+     * @param leader 是否为发起节点，发起节点负责记录执行历史、汇总分片结果并更新任务状态
      */
-    private void executeTaskWithTriggerType(TaskScheduler task, String triggerType) {
+    private void runShard(TaskScheduler task, String triggerType, long epoch, long fence, boolean leader) {
         if (runningTasks.containsKey(task.getId())) {
-            log.warn("任务 {} 正在执行中，跳过本次执行", task.getTaskName());
+            log.warn("任务 {} 正在执行中，跳过轮次 {}", task.getTaskName(), epoch);
+            taskCoordinator.completeTaskEpoch(task.getTaskType(), epoch, "SKIPPED");
             return;
         }
 
-        Future<?> future = schedulerExecutor.submit(() -> {
+        // 先登记再提交，避免任务在登记前完成导致运行标记残留
+        FutureTask<Void> future = new FutureTask<>(() -> {
             Long executionId = null;
+            String epochStatus = "FAILED";
             try {
+                taskCoordinator.bindTaskEpoch(epoch);
+
                 // 记录任务执行开始
-                executionId = recordTaskExecutionStart(task, triggerType);
+                if (leader) {
+                    executionId = recordTaskExecutionStart(task, triggerType);
+                }
 
                 // 执行任务
                 TaskExecutionResult result = taskExecutorManager.executeTask(task);
+                epochStatus = result.isSuccess() ? "SUCCESS" : "FAILED";
+                taskCoordinator.completeTaskEpoch(task.getTaskType(), epoch, epochStatus);
 
-                // 记录任务执行结束
-                recordTaskExecutionEnd(executionId, result);
+                if (leader) {
+                    // 记录任务执行结束
+                    recordTaskExecutionEnd(executionId, result);
 
-                // 汇总分片结果
-                aggregateShardResults(task, result);
+                    // 所有节点完成本轮次后汇总分片结果（异步，不占用任务执行线程）
+                    aggregateShardResults(task, epoch, executionId);
 
-                // 更新任务状态
-                updateTaskStatus(task, result.isSuccess() ? "SUCCESS" : "FAILED");
+                    // 更新任务状态
+                    updateTaskStatus(task, result.isSuccess() ? "SUCCESS" : "FAILED", fence);
+                }
 
             } catch (Exception e) {
-                log.error("任务 {} 执行异常", task.getTaskName(), e);
+                log.error("任务 {} 执行异常，轮次={}", task.getTaskName(), epoch, e);
+                taskCoordinator.completeTaskEpoch(task.getTaskType(), epoch, epochStatus);
 
-                if (executionId != null) {
-                    recordTaskExecutionEnd(executionId, createErrorResult(e.getMessage()));
-                }
+                if (leader) {
+                    if (executionId != null) {
+                        recordTaskExecutionEnd(executionId, createErrorResult(e.getMessage()));
+                    }
 
-                updateTaskStatus(task, "FAILED");
+                    updateTaskStatus(task, "FAILED", fence);
+                }
             } finally {
+                taskCoordinator.clearTaskEpoch();
                 runningTasks.remove(task.getId());
             }
-        });
+        }, null);
 
         runningTasks.put(task.getId(), future);
+        try {
+            taskExecutor.execute(task.getTaskType(), future);
+        } catch (RejectedExecutionException e) {
+            runningTasks.remove(task.getId());
+            taskCoordinator.completeTaskEpoch(task.getTaskType(), epoch, "REJECTED");
+            log.warn("任务执行队列已满，拒绝任务 {} 轮次 {}: 活跃线程={}, 队列深度={}",
+                    task.getTaskName(), epoch, taskExecutor.getActiveCount(), taskExecutor.getQueue().size());
+        }
     }
 
     /**
@@ -412,50 +530,32 @@ public class UnifiedDistributedScheduler {
     }
 
     /**
-     * 汇总分片结果
+     * 汇总分片结果：本轮次的所有期望节点上报完成后立即汇总（最长等待分片结果等待时间），
+     * 汇总结果写入本次执行历史的输出结果
      */
-    private void aggregateShardResults(TaskScheduler task, TaskExecutionResult result) {
-        try {
-
-            Map<String, Object> aggregatedResult = null;
-            String taskType = task.getTaskType();
-
-            // 等待其他节点完成任务，然后汇总结果
-            int waitTimeSeconds = taskConfig.getShardResultWaitTime();
-
-            switch (taskType) {
-                case "cluster_monitor":
-                    aggregatedResult = shardResultAggregationService.aggregateClusterMonitorResults(waitTimeSeconds);
-                    break;
-                case "topic_monitor":
-                    aggregatedResult = shardResultAggregationService.aggregateTopicMonitorResults(waitTimeSeconds);
-                    break;
-                case "consumer_monitor":
-                    aggregatedResult = shardResultAggregationService.aggregateConsumerMonitorResults(waitTimeSeconds);
-                    break;
-                case "alert_monitor":
-                    aggregatedResult = shardResultAggregationService.aggregateAlertMonitorResults(waitTimeSeconds);
-                    break;
-                case "data_cleanup":
-                    aggregatedResult = shardResultAggregationService.aggregateDataCleanupResults(waitTimeSeconds);
-                    break;
-                case "performance_stats":
-                    aggregatedResult = shardResultAggregationService.aggregatePerformanceStatsResults(waitTimeSeconds);
-                    break;
-                default:
-                    log.warn("不支持的任务类型: {}", taskType);
-                    return;
-            }
-
-            if (aggregatedResult != null) {
+    private void aggregateShardResults(TaskScheduler task, long epoch, Long executionId) {
+        String taskType = task.getTaskType();
+        if (!SUPPORTED_TASK_TYPES.contains(taskType)) {
+            log.warn("不支持的任务类型: {}", taskType);
+            return;
+        }
 
-                // 清理分片结果
-                taskCoordinator.clearShardResults(taskType);
-            }
+        shardResultAggregationService.aggregateEpochResults(taskType, epoch, taskConfig.getShardResultWaitTime())
+                .thenAccept(aggregatedResult -> {
+                    try {
+                        if (executionId != null) {
+                            Map<String, Object> history = new HashMap<>();
+                            history.put("id", executionId);
+                            history.put("outputResult", JSON.toJSONString(aggregatedResult));
+                            taskExecutionHistoryMapper.updateTaskExecutionOutput(history);
+                        }
 
-        } catch (Exception e) {
-            log.error("汇总任务 {} 分片结果失败", task.getTaskName(), e);
-        }
+                        // 清理分片结果
+                        taskCoordinator.clearShardResults(taskType, epoch);
+                    } catch (Exception e) {
+                        log.error("保存任务 {} 轮次 {} 汇总结果失败", task.getTaskName(), epoch, e);
+                    }
+                });
     }
 
     /**
@@ -469,9 +569,15 @@ public class UnifiedDistributedScheduler {
     }
 
     /**
-     * 更新任务状态
+     * 更新任务状态，之后已有新的触发被认领（防护令牌过期）时不再更新，避免旧的执行覆盖新的状态。
+     * 令牌在写库时按 fence_token 条件更新，检查与写入之间被更新的令牌覆盖时同样不会写入
      */
-    private void updateTaskStatus(TaskScheduler task, String status) {
+    private void updateTaskStatus(TaskScheduler task, String status, long fence) {
+        if (!taskCoordinator.isCurrentTaskFence(task.getId(), fence)) {
+            log.warn("任务 {} 的防护令牌 {} 已过期，跳过状态更新", task.getTaskName(), fence);
+            return;
+        }
+
         try {
             LocalDateTime now = LocalDateTime.now();
 
@@ -492,8 +598,8 @@ public class UnifiedDistributedScheduler {
             String lastExecuteResult = "SUCCESS".equals(status) ? "执行成功" : "执行失败";
             String errorMessage = "FAILED".equals(status) ? "任务执行失败" : null;
 
-            // 使用updateTaskExecuteResult方法更新执行统计
-            int updateResult = taskSchedulerMapper.updateTaskExecuteResult(
+            // 按防护令牌条件更新执行统计
+            int updateResult = taskSchedulerMapper.updateTaskExecuteResultFenced(
                     task.getId(),
                     lastExecuteTimeStr,
                     nextExecuteTimeStr,
@@ -501,7 +607,8 @@ public class UnifiedDistributedScheduler {
                     failIncrement,
                     lastExecuteResult,
                     errorMessage,
-                    updateTimeStr);
+                    updateTimeStr,
+                    fence);
 
             if (updateResult > 0) {
                 // 更新本地对象的统计信息
@@ -515,7 +622,8 @@ public class UnifiedDistributedScheduler {
                 }
 
             } else {
-                log.warn("任务 {} 执行统计更新失败，数据库更新返回0行", task.getTaskName());
+                log.warn("任务 {} 执行统计未更新（影响 0 行）：防护令牌 {} 低于数据库中的 fence_token（已被更新的执行取代）或任务不存在",
+                        task.getTaskName(), fence);
             }
         } catch (Exception e) {
             log.error("更新任务状态失败: 任务={}, 状态={}", task.getTaskName(), status, e);
@@ -523,38 +631,57 @@ public class UnifiedDistributedScheduler {
     }
 
     /**
-     * 检查Cron表达式更新
+     * 处理Cron表达式/任务状态变化广播：按通知中的最新Cron与状态重建该任务的定时。
+     * 通知可能早于数据库中Cron字段的更新，因此以通知内容为准；
+     * 此处不能再调用 CronExpressionUpdateService#handleCronExpressionUpdate，否则会再次广播形成循环。
      */
-    private void checkCronExpressionUpdates() {
+    private void onCronUpdateMessage(Message message) {
         try {
-            String notification = (String) redisTemplate.opsForValue().get(CRON_UPDATE_NOTIFICATION_KEY);
-            if (notification != null) {
-                handleCronExpressionUpdate(notification);
-                redisTemplate.delete(CRON_UPDATE_NOTIFICATION_KEY);
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (!(body instanceof Map)) {
+                return;
             }
-        } catch (Exception e) {
-            log.error("检查Cron表达式更新失败", e);
-        }
-    }
+            Map<?, ?> notification = (Map<?, ?>) body;
+            Object taskIdObj = notification.get("taskId");
+            if (!(taskIdObj instanceof Number)) {
+                return;
+            }
+            long taskId = ((Number) taskIdObj).longValue();
+
+            registeredTasks.remove(taskId);
+            taskTimers.cancel(taskId);
 
-    /**
-     * 处理Cron表达式更新
-     */
-    private void handleCronExpressionUpdate(String notification) {
-        try {
-            // 解析通知中的任务ID
-            Long taskId = Long.parseLong(notification);
             TaskScheduler task = taskSchedulerMapper.selectTaskSchedulerById(taskId);
+            if (task == null) {
+                return;
+            }
+            if (notification.get("cronExpression") != null) {
+                task.setCronExpression(String.valueOf(notification.get("cronExpression")));
+            }
+            if (notification.get("status") != null) {
+                task.setStatus(String.valueOf(notification.get("status")));
+            }
 
-            if (task != null) {
-                // 由于没有原始Cron表达式，我们使用当前任务的Cron表达式作为原始值
-                cronExpressionUpdateService.handleCronExpressionUpdate(task, task.getCronExpression());
+            if ("enabled".equals(task.getStatus()) && SUPPORTED_TASK_TYPES.contains(task.getTaskType())) {
+                LocalDateTime fireTime = calculateNextExecuteTime(LocalDateTime.now(), task.getCronExpression());
+                registeredTasks.put(taskId, task);
+                taskTimers.schedule(taskId, toEpochMilli(fireTime));
             }
+            log.info("任务定时已更新: 任务={}, Cron={}, 状态={}",
+                    task.getTaskName(), task.getCronExpression(), task.getStatus());
         } catch (Exception e) {
-            log.error("处理Cron表达式更新失败", e);
+            log.error("处理Cron表达式更新通知失败", e);
         }
     }
 
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
     /**
      * 更新节点心跳
      */
@@ -733,11 +860,35 @@ public class UnifiedDistributedScheduler {
         status.put("enabled", schedulerEnabled.get());
         status.put("runningTasks", runningTasks.size());
         status.put("registeredTasks", registeredTasks.size());
+        if (taskTimers != null) {
+            Map<Long, String> nextFireTimes = new LinkedHashMap<>();
+            taskTimers.snapshot().forEach((taskId, fireAt) -> nextFireTimes.put(taskId, toLocalDateTime(fireAt).toString()));
+            status.put("scheduledTimers", nextFireTimes.size());
+            status.put("nextFireTimes", nextFireTimes);
+        }
         status.put("nodeId", getCurrentNodeId());
         status.put("timestamp", LocalDateTime.now());
         return status;
     }
 
+    /**
+     * 获取调度线程池与任务执行线程池的运行指标
+     */
+    public Map<String, Object> getExecutorStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (schedulerExecutor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor control = (ThreadPoolExecutor) schedulerExecutor;
+            Map<String, Object> controlStats = new LinkedHashMap<>();
+            controlStats.put("poolSize", control.getPoolSize());
+            controlStats.put("activeCount", control.getActiveCount());
+            controlStats.put("queueDepth", control.getQueue().size());
+            stats.put("control", controlStats);
+        }
+        stats.put("worker", taskExecutor != null ? taskExecutor.getMetrics() : Collections.emptyMap());
+        stats.put("runningTasks", runningTasks.size());
+        return stats;
+    }
+
     /**
      * 获取运行中的任务
      */
@@ -0,0 +1,291 @@
+package org.kafka.eagle.web.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * Broker 并发采集执行器。
+ * 集群监控与性能统计需要逐个 Broker 建立 JMX 连接，串行执行时一个不可达的 Broker 会拖住整个分片。
+ * 这里将每个 Broker 的采集提交到有界执行器（Java 21+ 使用虚拟线程，否则使用平台线程池），
+ * 每个 Broker 有独立的超时时间，整个采集周期有总截止时间；超时的 Broker 被取消并单独报告，
+ * 已完成的结果照常返回，调用方可以先持久化部分结果。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/17 16:08:44
+ * @version 5.0.0
+ */
+@Slf4j
+@Service
+public class BrokerCollectExecutor {
+
+    /**
+     * 同时采集的 Broker 数上限
+     */
+    @Value("${efak.monitor.broker-collect.max-concurrency:16}")
+    private int maxConcurrency;
+
+    /**
+     * 单个 Broker 的采集超时时间（秒）
+     */
+    @Value("${efak.monitor.broker-collect.broker-timeout-seconds:15}")
+    private int brokerTimeoutSeconds;
+
+    /**
+     * 单次采集周期的总截止时间（秒）
+     */
+    @Value("${efak.monitor.broker-collect.cycle-timeout-seconds:50}")
+    private int cycleTimeoutSeconds;
+
+    /** 等待结果时的轮询粒度，用于按各 Broker 实际开始时间计算超时 */
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private ExecutorService executor;
+    private Semaphore permits;
+    private boolean virtualThreads;
+
+    @PostConstruct
+    public void init() {
+        int concurrency = Math.max(1, maxConcurrency);
+        permits = new Semaphore(concurrency);
+        executor = createVirtualThreadExecutor();
+        virtualThreads = executor != null;
+        if (executor == null) {
+            AtomicInteger threadNumber = new AtomicInteger(1);
+            executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "efak-broker-collect-" + threadNumber.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            });
+            ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+        }
+        log.info("Broker 并发采集执行器已初始化: 并发上限={}, 虚拟线程={}, 单Broker超时={}s, 周期超时={}s",
+                concurrency, virtualThreads, brokerTimeoutSeconds, cycleTimeoutSeconds);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 并发执行每个 Broker 的采集任务，使用配置的单 Broker 超时与周期超时
+     *
+     * @param brokers   待采集的 Broker
+     * @param keyFunc   Broker 标识（用于结果与报告）
+     * @param collector 单个 Broker 的采集逻辑
+     * @return 采集结果（已完成、失败、超时、未开始）
+     */
+    public <B, T> CollectResult<B, T> collect(List<B> brokers, Function<B, String> keyFunc, BrokerTask<B, T> collector) {
+        return collect(brokers, keyFunc, collector,
+                TimeUnit.SECONDS.toMillis(brokerTimeoutSeconds), TimeUnit.SECONDS.toMillis(cycleTimeoutSeconds));
+    }
+
+    /**
+     * 并发执行每个 Broker 的采集任务
+     *
+     * @param brokers         待采集的 Broker
+     * @param keyFunc         Broker 标识（用于结果与报告）
+     * @param collector       单个 Broker 的采集逻辑
+     * @param brokerTimeoutMs 单个 Broker 从开始执行起的超时时间（毫秒）
+     * @param cycleTimeoutMs  整个采集周期的截止时间（毫秒）
+     * @return 采集结果（已完成、失败、超时、未开始）
+     */
+    public <B, T> CollectResult<B, T> collect(List<B> brokers, Function<B, String> keyFunc, BrokerTask<B, T> collector,
+                                              long brokerTimeoutMs, long cycleTimeoutMs) {
+        CollectResult<B, T> result = new CollectResult<>();
+        if (brokers == null || brokers.isEmpty()) {
+            return result;
+        }
+
+        long begin = System.nanoTime();
+        long cycleDeadline = begin + TimeUnit.MILLISECONDS.toNanos(cycleTimeoutMs);
+        long brokerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(brokerTimeoutMs);
+
+        List<Submitted<B, T>> submitted = new ArrayList<>(brokers.size());
+        for (B broker : brokers) {
+            Submitted<B, T> task = new Submitted<>(broker, keyFunc.apply(broker));
+            task.future = executor.submit(() -> {
+                permits.acquire();
+                try {
+                    task.startedAt = System.nanoTime();
+                    return collector.collect(broker);
+                } finally {
+                    permits.release();
+                }
+            });
+            submitted.add(task);
+        }
+
+        for (Submitted<B, T> task : submitted) {
+            try {
+                result.results.put(task.key, await(task, brokerTimeoutNanos, cycleDeadline));
+                result.completed.add(task.broker);
+            } catch (TimeoutException e) {
+                task.future.cancel(true);
+                if (task.startedAt == 0L) {
+                    result.notStarted.put(task.key, task.broker);
+                } else {
+                    result.timedOut.put(task.key, task.broker);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                task.future.cancel(true);
+                result.notStarted.put(task.key, task.broker);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                result.failures.put(task.key, cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName());
+                result.failed.put(task.key, task.broker);
+            }
+        }
+
+        result.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        if (!result.isComplete()) {
+            log.warn("Broker 并发采集未全部完成: 完成={}, 失败={}, 超时={}, 未开始={}, 耗时={}ms",
+                    result.completed.size(), result.failed.keySet(), result.timedOut.keySet(),
+                    result.notStarted.keySet(), result.elapsedMs);
+        }
+        return result;
+    }
+
+    /**
+     * 获取执行器状态
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtualThreads", virtualThreads);
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("availablePermits", permits != null ? permits.availablePermits() : 0);
+        stats.put("brokerTimeoutSeconds", brokerTimeoutSeconds);
+        stats.put("cycleTimeoutSeconds", cycleTimeoutSeconds);
+        return stats;
+    }
+
+    /**
+     * 等待单个 Broker 的结果：超时从该 Broker 实际开始执行时计算，且不超过周期截止时间
+     */
+    private <B, T> T await(Submitted<B, T> task, long brokerTimeoutNanos, long cycleDeadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        while (true) {
+            long now = System.nanoTime();
+            long deadline = task.startedAt == 0L ? cycleDeadline : Math.min(cycleDeadline, task.startedAt + brokerTimeoutNanos);
+            long remaining = deadline - now;
+            if (remaining <= 0) {
+                if (task.future.isDone()) {
+                    return task.future.get();
+                }
+                throw new TimeoutException();
+            }
+            try {
+                return task.future.get(Math.min(remaining, POLL_INTERVAL_NANOS), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // 继续等待，重新根据开始时间计算截止时间
+            }
+        }
+    }
+
+    /**
+     * Java 21+ 运行时创建虚拟线程执行器，Java 17 返回 null
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个 Broker 的采集逻辑
+     */
+    @FunctionalInterface
+    public interface BrokerTask<B, T> {
+        T collect(B broker) throws Exception;
+    }
+
+    /**
+     * 已提交的采集任务
+     */
+    private static final class Submitted<B, T> {
+        private final B broker;
+        private final String key;
+        private volatile long startedAt;
+        private Future<T> future;
+
+        private Submitted(B broker, String key) {
+            this.broker = broker;
+            this.key = key;
+        }
+    }
+
+    /**
+     * 并发采集结果
+     */
+    public static final class CollectResult<B, T> {
+        private final Map<String, T> results = new LinkedHashMap<>();
+        private final List<B> completed = new ArrayList<>();
+        private final Map<String, B> failed = new LinkedHashMap<>();
+        private final Map<String, String> failures = new LinkedHashMap<>();
+        private final Map<String, B> timedOut = new LinkedHashMap<>();
+        private final Map<String, B> notStarted = new LinkedHashMap<>();
+        private long elapsedMs;
+
+        /**
+         * 已完成的结果：Broker 标识 -> 结果（结果可能为 null）
+         */
+        public Map<String, T> getResults() {
+            return results;
+        }
+
+        public List<B> getCompleted() {
+            return completed;
+        }
+
+        /**
+         * 采集逻辑抛出异常的 Broker
+         */
+        public Map<String, B> getFailed() {
+            return failed;
+        }
+
+        /**
+         * 失败原因：Broker 标识 -> 异常信息
+         */
+        public Map<String, String> getFailures() {
+            return failures;
+        }
+
+        /**
+         * 已开始但超过单 Broker 超时或周期截止时间的 Broker
+         */
+        public Map<String, B> getTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * 周期截止时仍未开始执行的 Broker
+         */
+        public Map<String, B> getNotStarted() {
+            return notStarted;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public boolean isComplete() {
+            return failed.isEmpty() && timedOut.isEmpty() && notStarted.isEmpty();
+        }
+    }
+}
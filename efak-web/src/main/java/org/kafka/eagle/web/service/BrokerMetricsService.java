@@ -95,9 +95,10 @@ public interface BrokerMetricsService {
          * @param metricType 指标类型: "cpu" 或 "memory"
          * @param timeRange  时间范围代码
          * @param clusterId  集群ID，为null时查询所有集群
+         * @param maxPoints  每个Broker最多返回的点数，为null时按时间维度默认的聚合方式查询
          * @return 趋势数据，格式化为前端图表所需的格式
          */
-        Map<String, Object> getTrendData(String metricType, String timeRange, String clusterId);
+        Map<String, Object> getTrendData(String metricType, String timeRange, String clusterId, Integer maxPoints);
 
         /**
          * 查询指定时间范围内的Broker性能指标数据
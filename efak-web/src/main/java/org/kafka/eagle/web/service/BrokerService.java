@@ -71,4 +71,9 @@ public interface BrokerService {
      * 根据集群ID获取所有Broker信息
      */
     List<BrokerInfo> getBrokersByClusterId(String clusterId);
+
+    /**
+     * 获取Broker JMX 熔断状态（可按集群过滤）
+     */
+    List<java.util.Map<String, Object>> getJmxBreakerStates(String clusterId);
 }
\ No newline at end of file
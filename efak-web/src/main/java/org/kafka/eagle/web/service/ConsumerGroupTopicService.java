@@ -2,6 +2,7 @@ package org.kafka.eagle.web.service;
 
 import org.kafka.eagle.dto.consumer.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -32,10 +33,10 @@ public interface ConsumerGroupTopicService {
     boolean insertConsumerGroupTopic(ConsumerGroupTopicInsertRequest request);
 
     /**
-     * 批量插入消费者组主题数据
+     * 批量插入消费者组主题数据，并在同一事务内更新最新状态表；数据库异常时回滚并抛出
      *
      * @param requests 插入请求列表
-     * @return 插入结果
+     * @return 插入结果，参数无效或未插入任何记录时返回 false
      */
     boolean batchInsertConsumerGroupTopic(List<ConsumerGroupTopicInsertRequest> requests);
 
@@ -76,9 +77,21 @@ public interface ConsumerGroupTopicService {
      *
      * @param clusterId 集群ID
      * @param timeRange 时间范围（如"1d"表示最近24小时）
+     * @param maxPoints 最多返回的点数，为null时使用默认值
+     * @return 趋势数据列表
+     */
+    List<Map<String, Object>> getIdleGroupsTrend(String clusterId, String timeRange, Integer maxPoints);
+
+    /**
+     * 获取时间范围内的空闲消费者组趋势数据
+     *
+     * @param clusterId 集群ID
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param maxPoints 最多返回的点数
      * @return 趋势数据列表
      */
-    List<Map<String, Object>> getIdleGroupsTrend(String clusterId, String timeRange);
+    List<Map<String, Object>> getIdleGroupsTrend(String clusterId, LocalDateTime startTime, LocalDateTime endTime, int maxPoints);
 
     /**
      * 获取消费者组列表（分页）
@@ -101,6 +114,19 @@ public interface ConsumerGroupTopicService {
      */
     Map<String, Object> getConsumerGroupDetail(String clusterId, String groupId, String topic);
 
+    /**
+     * 获取消费者组在时间范围内的详细信息
+     *
+     * @param clusterId 集群ID
+     * @param groupId 消费者组ID
+     * @param topic 主题名称
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 消费者组详细信息
+     */
+    Map<String, Object> getConsumerGroupDetail(String clusterId, String groupId, String topic,
+                                               LocalDateTime startTime, LocalDateTime endTime);
+
     /**
      * 获取消费者组速度数据
      *
@@ -118,9 +144,25 @@ public interface ConsumerGroupTopicService {
      * @param groupId 消费者组ID
      * @param topic 主题名称
      * @param timeRange 时间范围
+     * @param maxPoints 最多返回的点数，为null时使用默认值
+     * @return 延迟趋势数据
+     */
+    List<Map<String, Object>> getConsumerGroupLagTrend(String clusterId, String groupId, String topic, String timeRange,
+                                                       Integer maxPoints);
+
+    /**
+     * 获取消费者组在时间范围内的延迟趋势数据
+     *
+     * @param clusterId 集群ID
+     * @param groupId 消费者组ID
+     * @param topic 主题名称
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param maxPoints 最多返回的点数
      * @return 延迟趋势数据
      */
-    List<Map<String, Object>> getConsumerGroupLagTrend(String clusterId, String groupId, String topic, String timeRange);
+    List<Map<String, Object>> getConsumerGroupLagTrend(String clusterId, String groupId, String topic,
+                                                       LocalDateTime startTime, LocalDateTime endTime, int maxPoints);
 
     /**
      * 重置消费者组偏移量（使用KafkaClientInfo）
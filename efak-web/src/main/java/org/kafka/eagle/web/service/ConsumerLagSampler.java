@@ -0,0 +1,373 @@
+package org.kafka.eagle.web.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.kafka.eagle.core.api.KafkaSchemaFactory;
+import org.kafka.eagle.core.api.KafkaStoragePlugin;
+import org.kafka.eagle.core.dto.ConsumerLagTable;
+import org.kafka.eagle.core.dto.LagRingBuffer;
+import org.kafka.eagle.dto.cluster.KafkaClientInfo;
+import org.kafka.eagle.dto.consumer.ConsumerGroupTopicInfo;
+import org.kafka.eagle.web.util.TrendDownsampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 消费者积压高频采样。
+ * 消费者监控按 cron 周期采集积压并逐条写入 ke_consumer_group_topic，10 秒级分辨率会使写库量成倍增长。
+ * 开启高频采样后，本节点按固定间隔对分配到的消费者组执行一次批量位移查询，
+ * 把每个 消费者组/主题 的积压写入定长的 {@link LagRingBuffer}，内存中保留最近 N 小时的采样；
+ * 消费者详情页与积压告警优先读取缓冲区，消费者监控任务按原周期只把降采样后的点写入数据库。
+ * 末端位移与已提交位移在同一轮查询，覆盖主题的全部分区，采样的 logsize 与消费者监控写库的口径一致。
+ * 超过保留时长未再采样的缓冲区（消费者组不再提交位移或主题已删除）在采样时移除。
+ * 内存占用：每个缓冲区 容量 × 32 字节（时间戳、logsize、offsets、积压各 8 字节），默认 10 秒间隔保留 2 小时为
+ * 720 个槽位约 23KB，缓冲区数由 max-series 限制。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/24 15:52:06
+ * @version 5.0.0
+ */
+@Slf4j
+@Service
+public class ConsumerLagSampler {
+
+    /**
+     * 是否开启高频采样
+     */
+    @Value("${efak.monitor.lag-sampling.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 采样间隔（秒）
+     */
+    @Value("${efak.monitor.lag-sampling.interval-seconds:10}")
+    private int intervalSeconds;
+
+    /**
+     * 内存中保留的采样时长（小时）
+     */
+    @Value("${efak.monitor.lag-sampling.retention-hours:2}")
+    private int retentionHours;
+
+    /**
+     * 每个消费监控周期每个 消费者组/主题 写库的点数，1 表示只写积压最大的采样（另加最新采样）
+     */
+    @Value("${efak.monitor.lag-sampling.flush-points:1}")
+    private int flushPoints;
+
+    /**
+     * 缓冲区（消费者组/主题）数量上限，达到上限后新的 消费者组/主题 不再采样，按消费者监控周期写库
+     */
+    @Value("${efak.monitor.lag-sampling.max-series:5000}")
+    private int maxSeries;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile Map<String, Assignment> assignments = Collections.emptyMap();
+    private final Map<List<String>, Series> series = new ConcurrentHashMap<>();
+
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder rejectedSamples = new LongAdder();
+    private volatile long lastRoundMillis;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "efak-lag-sampler");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, intervalSeconds);
+        scheduler.scheduleWithFixedDelay(this::sampleOnce, interval, interval, TimeUnit.SECONDS);
+        log.info("消费者积压高频采样已开启: 间隔={}秒, 保留={}小时, 每个缓冲区容量={}, 缓冲区上限={}（约 {}MB）, 每周期写库点数={}",
+                interval, retentionHours, capacity(), maxSeries, (long) maxSeries * capacity() * 4 * Long.BYTES >> 20, flushPoints);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 更新本节点分配到的消费者组，由消费者监控任务在每个周期分片后调用；不再分配给本节点的消费者组的缓冲区被移除
+     *
+     * @param clients       集群ID -> Kafka 客户端配置
+     * @param clusterGroups 集群ID -> 本节点分配到的消费者组
+     */
+    public void updateAssignments(Map<String, KafkaClientInfo> clients, Map<String, List<String>> clusterGroups) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Assignment> updated = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : clusterGroups.entrySet()) {
+            KafkaClientInfo clientInfo = clients.get(entry.getKey());
+            if (clientInfo != null && !entry.getValue().isEmpty()) {
+                updated.put(entry.getKey(), new Assignment(clientInfo, new HashSet<>(entry.getValue())));
+            }
+        }
+        assignments = updated;
+        series.keySet().removeIf(key -> {
+            Assignment assignment = updated.get(key.get(0));
+            return assignment == null || !assignment.groupIds.contains(key.get(1));
+        });
+    }
+
+    /**
+     * 执行一轮采样：每个集群一次批量已提交位移查询与一次全部分区的末端位移查询，之后移除过期的缓冲区
+     */
+    void sampleOnce() {
+        for (Map.Entry<String, Assignment> entry : assignments.entrySet()) {
+            String clusterId = entry.getKey();
+            try {
+                KafkaSchemaFactory ksf = new KafkaSchemaFactory(new KafkaStoragePlugin());
+                ConsumerLagTable lagTable = ksf.getConsumerLagTable(entry.getValue().clientInfo, entry.getValue().groupIds, null);
+                long now = System.currentTimeMillis();
+                for (String groupId : lagTable.groups()) {
+                    for (String topic : lagTable.topics(groupId)) {
+                        if (!lagTable.isLogEndComplete(topic)) {
+                            // 部分分区末端位移查询失败，跳过本次采样，避免写入部分分区之和的 logsize
+                            continue;
+                        }
+                        Series s = seriesFor(List.of(clusterId, groupId, topic));
+                        if (s == null) {
+                            rejectedSamples.increment();
+                            continue;
+                        }
+                        if (s.buffer.add(now, lagTable.logEndSum(topic), lagTable.committedSum(groupId, topic),
+                                lagTable.topicLag(groupId, topic))) {
+                            samples.increment();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("集群 {} 消费者积压采样失败: {}", clusterId, e.getMessage());
+            }
+        }
+        rounds.increment();
+        lastRoundMillis = System.currentTimeMillis();
+        pruneExpired(lastRoundMillis - TimeUnit.HOURS.toMillis(Math.max(1, retentionHours)));
+    }
+
+    /**
+     * 获取或创建缓冲区，缓冲区数达到上限时不再创建，返回 null
+     */
+    private Series seriesFor(List<String> key) {
+        Series s = series.get(key);
+        if (s == null && series.size() < Math.max(1, maxSeries)) {
+            s = series.computeIfAbsent(key, k -> new Series(capacity()));
+        }
+        return s;
+    }
+
+    /**
+     * 移除最新采样早于 cutoffMillis 的缓冲区
+     */
+    private void pruneExpired(long cutoffMillis) {
+        series.values().removeIf(s -> s.buffer.latestTimestamp() < cutoffMillis);
+    }
+
+    /**
+     * 获取 消费者组/主题 的采样缓冲区，未开启或没有采样时返回 null
+     */
+    public LagRingBuffer buffer(String clusterId, String groupId, String topic) {
+        if (!enabled) {
+            return null;
+        }
+        Series s = series.get(List.of(clusterId, groupId, topic));
+        return s == null || s.buffer.size() == 0 ? null : s.buffer;
+    }
+
+    /**
+     * 获取最新采样的积压，采样超过三个采样间隔未更新时返回 null
+     */
+    public Long latestLag(String clusterId, String groupId, String topic) {
+        LagRingBuffer buffer = buffer(clusterId, groupId, topic);
+        if (buffer == null) {
+            return null;
+        }
+        LagRingBuffer.Window latest = buffer.latest(1);
+        if (latest.isEmpty() || System.currentTimeMillis() - latest.timestamp(0) > maxAgeMillis()) {
+            return null;
+        }
+        return latest.lag(0);
+    }
+
+    /**
+     * 判断缓冲区是否覆盖从 startMillis 开始的时间范围
+     */
+    public boolean covers(String clusterId, String groupId, String topic, long startMillis) {
+        LagRingBuffer buffer = buffer(clusterId, groupId, topic);
+        return buffer != null && buffer.oldestTimestamp() <= startMillis + TimeUnit.SECONDS.toMillis(Math.max(1, intervalSeconds));
+    }
+
+    /**
+     * 将上次写库以来的采样降采样为写库记录，状态沿用本周期消费者监控采集的记录；
+     * 没有新采样时返回本周期采集的记录。写库位置不在此处推进，写库成功后由 {@link #commitFlushed(Collection)} 提交，
+     * 写库失败时下个周期重新写入这些采样
+     */
+    public List<ConsumerGroupTopicInfo> flushRecords(ConsumerGroupTopicInfo current) {
+        Series s = enabled ? series.get(List.of(current.getClusterId(), current.getGroupId(), current.getTopicName())) : null;
+        if (s == null) {
+            return Collections.singletonList(current);
+        }
+        LagRingBuffer.Window window;
+        synchronized (s) {
+            window = s.buffer.window(s.lastFlushed, Long.MAX_VALUE);
+            if (window.isEmpty()) {
+                return Collections.singletonList(current);
+            }
+            s.pendingFlushed = window.timestamp(window.size() - 1);
+        }
+
+        LagRingBuffer.Window points = downsample(window);
+        List<ConsumerGroupTopicInfo> records = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            LocalDateTime collectTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(points.timestamp(i)), ZoneId.systemDefault());
+            ConsumerGroupTopicInfo record = new ConsumerGroupTopicInfo();
+            record.setClusterId(current.getClusterId());
+            record.setGroupId(current.getGroupId());
+            record.setTopicName(current.getTopicName());
+            record.setState(current.getState());
+            record.setLogsize(points.logsize(i));
+            record.setOffsets(points.offset(i));
+            record.setLags(points.lag(i));
+            record.setCollectTime(collectTime);
+            record.setCollectDate(collectTime.toLocalDate());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * 写库成功后提交写库位置：把 flushRecords 返回记录对应缓冲区的写库位置推进到本次写入的最新采样
+     *
+     * @param records 已成功写库的记录
+     */
+    public void commitFlushed(Collection<ConsumerGroupTopicInfo> records) {
+        if (!enabled || records == null) {
+            return;
+        }
+        Set<List<String>> keys = new HashSet<>();
+        for (ConsumerGroupTopicInfo record : records) {
+            keys.add(List.of(record.getClusterId(), record.getGroupId(), record.getTopicName()));
+        }
+        for (List<String> key : keys) {
+            Series s = series.get(key);
+            if (s == null) {
+                continue;
+            }
+            synchronized (s) {
+                if (s.pendingFlushed > s.lastFlushed) {
+                    s.lastFlushed = s.pendingFlushed;
+                }
+            }
+        }
+        flushed.add(records.size());
+    }
+
+    /**
+     * 写库降采样：1 个点时保留积压最大的采样，否则按积压曲线执行 LTTB。
+     * 最新状态表按写库顺序更新，因此最后一个点始终是最新采样
+     */
+    private LagRingBuffer.Window downsample(LagRingBuffer.Window window) {
+        int points = Math.max(1, flushPoints);
+        if (window.size() <= points) {
+            return window;
+        }
+        if (points == 1) {
+            long[] lags = window.lags();
+            int peak = 0;
+            for (int i = 1; i < lags.length; i++) {
+                if (lags[i] >= lags[peak]) {
+                    peak = i;
+                }
+            }
+            int last = lags.length - 1;
+            return window.select(peak == last ? new int[]{last} : new int[]{peak, last});
+        }
+        long[] lags = window.lags();
+        double[] values = new double[lags.length];
+        for (int i = 0; i < lags.length; i++) {
+            values[i] = lags[i];
+        }
+        return window.select(TrendDownsampler.lttb(window.timestamps(), values, lags.length,
+                Math.max(TrendDownsampler.MIN_POINTS, points)));
+    }
+
+    /**
+     * 获取采样统计：缓冲区数、采样轮次、采样点数、失败次数与写库点数
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("intervalSeconds", intervalSeconds);
+        stats.put("retentionHours", retentionHours);
+        stats.put("bufferCapacity", capacity());
+        stats.put("buffers", series.size());
+        stats.put("maxBuffers", maxSeries);
+        stats.put("rejectedSamples", rejectedSamples.sum());
+        stats.put("bufferBytes", (long) series.size() * capacity() * 4 * Long.BYTES);
+        stats.put("rounds", rounds.sum());
+        stats.put("samples", samples.sum());
+        stats.put("failures", failures.sum());
+        stats.put("flushed", flushed.sum());
+        stats.put("lastRoundMillis", lastRoundMillis);
+        return stats;
+    }
+
+    private int capacity() {
+        long slots = TimeUnit.HOURS.toSeconds(Math.max(1, retentionHours)) / Math.max(1, intervalSeconds);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, slots));
+    }
+
+    private long maxAgeMillis() {
+        return TimeUnit.SECONDS.toMillis(Math.max(1, intervalSeconds) * 3L);
+    }
+
+    private static final class Assignment {
+        private final KafkaClientInfo clientInfo;
+        private final Set<String> groupIds;
+
+        private Assignment(KafkaClientInfo clientInfo, Set<String> groupIds) {
+            this.clientInfo = clientInfo;
+            this.groupIds = groupIds;
+        }
+    }
+
+    private static final class Series {
+        private final LagRingBuffer buffer;
+        /** 最近一次写库成功的采样时间 */
+        private long lastFlushed = Long.MIN_VALUE;
+        /** 最近一次生成写库记录的采样时间，写库成功后提交为 lastFlushed */
+        private long pendingFlushed = Long.MIN_VALUE;
+
+        private Series(int capacity) {
+            this.buffer = new LagRingBuffer(capacity);
+        }
+    }
+}
@@ -30,9 +30,10 @@ public interface DashboardService {
      *
      * @param clusterId cluster ID
      * @param period time period (1h, 24h, 3d, 7d)
+     * @param maxPoints max points to return, default is used when null
      * @return performance trend data
      */
-    Object getPerformanceTrend(String clusterId, String period);
+    Object getPerformanceTrend(String clusterId, String period, Integer maxPoints);
 
     /**
      * Get topic analysis data by cluster ID
@@ -0,0 +1,182 @@
+package org.kafka.eagle.web.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kafka.eagle.core.dto.PartitionOffsetTable;
+import org.kafka.eagle.core.dto.TopicCapacityTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * 监控周期内的位移与容量快照缓存。
+ * 按 集群ID + 时间桶（采集时间 / TTL）组织，同一时间桶内主题监控与消费者监控共享同一份
+ * ListOffsets 结果和主题容量（整个集群一次 DescribeLogDirs），避免同一周期内对 Kafka/JMX 重复查询。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/16 17:32:08
+ * @version 5.0.0
+ */
+@Slf4j
+@Service
+public class MonitorSnapshotCache {
+
+    /**
+     * 快照有效期（秒），同一时间桶内的请求复用同一份快照
+     */
+    @Value("${efak.monitor.snapshot-ttl-seconds:60}")
+    private int snapshotTtlSeconds;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 获取指定主题的位移快照，缺失或位移不完整（有分区查询失败）的主题通过 loader 一次性批量加载；
+     * 加载后仍不完整的主题不记为已加载，下次请求重新查询
+     *
+     * @param clusterId 集群ID
+     * @param topics    需要的主题集合
+     * @param loader    批量加载缺失主题位移的函数
+     * @return 覆盖请求主题的位移表
+     */
+    public PartitionOffsetTable getTopicOffsets(String clusterId, Collection<String> topics,
+                                                Function<Set<String>, PartitionOffsetTable> loader) {
+        Snapshot snapshot = currentSnapshot(clusterId);
+        synchronized (snapshot) {
+            Set<String> missing = new HashSet<>();
+            for (String topic : topics) {
+                if (!snapshot.offsets.isComplete(topic) && !snapshot.loadedTopics.contains(topic)) {
+                    missing.add(topic);
+                }
+            }
+            if (missing.isEmpty()) {
+                hits.increment();
+            } else {
+                misses.increment();
+                PartitionOffsetTable loaded = loader.apply(missing);
+                snapshot.offsets.merge(loaded);
+                for (String topic : missing) {
+                    // 不存在的主题（加载结果中没有）记为已加载，避免同一时间桶内重复查询
+                    if (loaded == null || !loaded.contains(topic) || loaded.isComplete(topic)) {
+                        snapshot.loadedTopics.add(topic);
+                    }
+                }
+            }
+            // 返回浅拷贝，避免调用方与后续合并并发读写同一个 Map
+            PartitionOffsetTable view = new PartitionOffsetTable();
+            view.merge(snapshot.offsets);
+            return view;
+        }
+    }
+
+    /**
+     * 用实时查询的位移刷新快照。积压计算需要已提交位移之后读取的末端位移，
+     * 不能复用快照中较早的末端位移（否则积压被低估），由调用方实时查询后写回快照供同一时间桶内的其它监控复用
+     *
+     * @param clusterId 集群ID
+     * @param offsets   实时查询的位移表
+     * @return 传入的位移表
+     */
+    public PartitionOffsetTable refreshTopicOffsets(String clusterId, PartitionOffsetTable offsets) {
+        if (offsets == null) {
+            return null;
+        }
+        Snapshot snapshot = currentSnapshot(clusterId);
+        synchronized (snapshot) {
+            snapshot.offsets.merge(offsets);
+            for (String topic : offsets.topics()) {
+                // 最新位移不完整的主题不记为已加载，主题监控读取时重新查询
+                if (offsets.isLatestComplete(topic)) {
+                    snapshot.loadedTopics.add(topic);
+                }
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * 获取集群全部主题的容量快照，同一时间桶内只加载一次；单个主题的容量从返回的结果表中读取，不再单独查询。
+     * 查询失败或有 Broker 未返回日志目录信息的结果表不缓存，下次请求重新加载
+     *
+     * @param clusterId 集群ID
+     * @param loader    整个集群的容量加载函数（DescribeLogDirs）
+     * @return 容量结果表，通过 {@link TopicCapacityTable#findCapacity(String)} 区分没有数据与容量为 0
+     */
+    public TopicCapacityTable getClusterTopicCapacities(String clusterId, Supplier<TopicCapacityTable> loader) {
+        Snapshot snapshot = currentSnapshot(clusterId);
+        synchronized (snapshot) {
+            if (snapshot.clusterCapacities != null) {
+                hits.increment();
+                return snapshot.clusterCapacities;
+            }
+            misses.increment();
+            TopicCapacityTable table = loader.get();
+            if (table == null) {
+                return new TopicCapacityTable();
+            }
+            if (table.isComplete() && !table.isFailed()) {
+                snapshot.clusterCapacities = table;
+            }
+            return table;
+        }
+    }
+
+    /**
+     * 使指定集群的快照失效
+     */
+    public void invalidate(String clusterId) {
+        snapshots.keySet().removeIf(key -> key.startsWith(clusterId + ":"));
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ttlSeconds", snapshotTtlSeconds);
+        stats.put("snapshots", snapshots.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0
+                : Math.round(hitCount * 10000.0 / (hitCount + missCount)) / 100.0);
+        return stats;
+    }
+
+    /**
+     * 获取当前时间桶的快照，并清理过期时间桶
+     */
+    private Snapshot currentSnapshot(String clusterId) {
+        long ttlMillis = Math.max(1, snapshotTtlSeconds) * 1000L;
+        long bucket = System.currentTimeMillis() / ttlMillis;
+        String key = clusterId + ":" + bucket;
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            snapshot = snapshots.computeIfAbsent(key, k -> new Snapshot(bucket));
+            snapshots.values().removeIf(s -> s.bucket < bucket);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 单个集群单个时间桶的快照
+     */
+    private static final class Snapshot {
+        private final long bucket;
+        private final PartitionOffsetTable offsets = new PartitionOffsetTable();
+        private final Set<String> loadedTopics = new HashSet<>();
+        private TopicCapacityTable clusterCapacities;
+
+        private Snapshot(long bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -65,18 +65,20 @@ public interface PerformanceMonitorService {
      * @param clusterId cluster ID
      * @param startDate start date (yyyy-MM-dd)
      * @param endDate end date (yyyy-MM-dd)
+     * @param maxPoints max points to return, default is used when null
      * @return trend data
      */
-    Map<String, Object> getPerformanceTrendData(String clusterId, String startDate, String endDate);
+    Map<String, Object> getPerformanceTrendData(String clusterId, String startDate, String endDate, Integer maxPoints);
 
     /**
      * Get performance trend data by time range for chart display
      *
      * @param clusterId cluster ID
      * @param timeRange time range (1h, 24h, 7d, 30d)
+     * @param maxPoints max points to return, default is used when null
      * @return trend data
      */
-    Map<String, Object> getPerformanceTrendDataByTimeRange(String clusterId, String timeRange);
+    Map<String, Object> getPerformanceTrendDataByTimeRange(String clusterId, String timeRange, Integer maxPoints);
 
     /**
      * Get real-time performance data for monitoring dashboard
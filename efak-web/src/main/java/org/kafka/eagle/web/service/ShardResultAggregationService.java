@@ -1,12 +1,13 @@
 package org.kafka.eagle.web.service;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.kafka.eagle.web.scheduler.DistributedTaskCoordinator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 
 /**
  * <p>
@@ -23,9 +24,71 @@ public class ShardResultAggregationService {
     @Autowired
     private DistributedTaskCoordinator taskCoordinator;
 
+    /** 轮询任务轮次完成进度的间隔 */
+    private static final long PROGRESS_POLL_INTERVAL_MS = 500L;
+
+    /**
+     * 等待轮次完成的轮询在此单线程上以定时任务方式推进，不占用任务执行线程
+     */
+    private final ScheduledExecutorService aggregationExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "efak-shard-aggregate");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PreDestroy
+    public void destroy() {
+        aggregationExecutor.shutdownNow();
+    }
+
+    /**
+     * 在任务轮次的所有期望节点都上报完成后立即汇总分片结果，到达截止时间仍未全部完成时按已上报的结果汇总。
+     * 等待过程不阻塞调用线程。
+     * @param taskType        任务类型
+     * @param epoch           任务轮次
+     * @param deadlineSeconds 最长等待时间（秒）
+     * @return 汇总结果
+     */
+    public CompletableFuture<Map<String, Object>> aggregateEpochResults(String taskType, long epoch, int deadlineSeconds) {
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(Math.max(0, deadlineSeconds));
+
+        Runnable poll = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Map<String, Object> progress = taskCoordinator.getTaskEpochProgress(taskType, epoch);
+                    boolean complete = Boolean.TRUE.equals(progress.get("complete"));
+                    if (complete || System.nanoTime() >= deadlineNanos) {
+                        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                        if (!complete) {
+                            log.warn("{} 任务轮次 {} 在 {}ms 内未全部完成，按已上报结果汇总，未完成节点: {}",
+                                    taskType, epoch, waitedMs, progress.get("pendingNodes"));
+                        }
+                        Map<String, Object> aggregated = aggregateCollectedResults(taskType, epoch);
+                        aggregated.put("epoch", epoch);
+                        aggregated.put("complete", complete);
+                        aggregated.put("completedNodes", progress.get("completedNodes"));
+                        aggregated.put("pendingNodes", progress.get("pendingNodes"));
+                        aggregated.put("waitedMs", waitedMs);
+                        future.complete(aggregated);
+                    } else {
+                        aggregationExecutor.schedule(this, PROGRESS_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    }
+                } catch (Exception e) {
+                    log.error("汇总{}任务轮次 {} 分片结果失败", taskType, epoch, e);
+                    future.complete(createErrorAggregationResult(taskType, e.getMessage()));
+                }
+            }
+        };
+        aggregationExecutor.execute(poll);
+        return future;
+    }
+
     /**
      * 汇总集群监控任务的分片结果
-     * @param waitTimeSeconds 等待其他节点完成的时间（秒）
+     * @param waitTimeSeconds 等待其他节点完成的最长时间（秒）
      * @return 汇总结果
      */
     public Map<String, Object> aggregateClusterMonitorResults(int waitTimeSeconds) {
@@ -34,7 +97,7 @@ public class ShardResultAggregationService {
 
     /**
      * 汇总主题监控任务的分片结果
-     * @param waitTimeSeconds 等待其他节点完成的时间（秒）
+     * @param waitTimeSeconds 等待其他节点完成的最长时间（秒）
      * @return 汇总结果
      */
     public Map<String, Object> aggregateTopicMonitorResults(int waitTimeSeconds) {
@@ -43,7 +106,7 @@ public class ShardResultAggregationService {
 
     /**
      * 汇总消费者监控任务的分片结果
-     * @param waitTimeSeconds 等待其他节点完成的时间（秒）
+     * @param waitTimeSeconds 等待其他节点完成的最长时间（秒）
      * @return 汇总结果
      */
     public Map<String, Object> aggregateConsumerMonitorResults(int waitTimeSeconds) {
@@ -52,7 +115,7 @@ public class ShardResultAggregationService {
 
     /**
      * 汇总告警监控任务的分片结果
-     * @param waitTimeSeconds 等待其他节点完成的时间（秒）
+     * @param waitTimeSeconds 等待其他节点完成的最长时间（秒）
      * @return 汇总结果
      */
     public Map<String, Object> aggregateAlertMonitorResults(int waitTimeSeconds) {
@@ -61,7 +124,7 @@ public class ShardResultAggregationService {
 
     /**
      * 汇总数据清理任务的分片结果
-     * @param waitTimeSeconds 等待其他节点完成的时间（秒）
+     * @param waitTimeSeconds 等待其他节点完成的最长时间（秒）
      * @return 汇总结果
      */
     public Map<String, Object> aggregateDataCleanupResults(int waitTimeSeconds) {
@@ -70,7 +133,7 @@ public class ShardResultAggregationService {
 
     /**
      * 汇总性能统计任务的分片结果
-     * @param waitTimeSeconds 等待其他节点完成的时间（秒）
+     * @param waitTimeSeconds 等待其他节点完成的最长时间（秒）
      * @return 汇总结果
      */
     public Map<String, Object> aggregatePerformanceStatsResults(int waitTimeSeconds) {
@@ -78,26 +141,41 @@ public class ShardResultAggregationService {
     }
 
     /**
-     * 汇总分片任务结果
+     * 汇总分片任务结果：有最近一次任务轮次时等待该轮次完成（最长 waitTimeSeconds 秒），否则直接汇总
      * @param taskType 任务类型
-     * @param waitTimeSeconds 等待其他节点完成的时间（秒）
+     * @param waitTimeSeconds 等待其他节点完成的最长时间（秒）
      * @return 汇总结果
      */
     private Map<String, Object> aggregateShardResults(String taskType, int waitTimeSeconds) {
         try {
-            
-            // 等待其他节点完成任务
-            if (waitTimeSeconds > 0) {
-                try {
-                    TimeUnit.SECONDS.sleep(waitTimeSeconds);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    log.warn("等待被中断", e);
-                }
+            Object epoch = taskCoordinator.getTaskEpochProgress(taskType, null).get("epoch");
+            if (epoch instanceof Number) {
+                return aggregateEpochResults(taskType, ((Number) epoch).longValue(), waitTimeSeconds)
+                        .get(Math.max(0, waitTimeSeconds) + 10L, TimeUnit.SECONDS);
             }
-            
+            return aggregateCollectedResults(taskType, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("等待被中断", e);
+            return createErrorAggregationResult(taskType, e.getMessage());
+        } catch (Exception e) {
+            log.error("汇总{}任务分片结果失败", taskType, e);
+            return createErrorAggregationResult(taskType, e.getMessage());
+        }
+    }
+
+    /**
+     * 按任务类型汇总已上报的分片结果
+     * @param taskType 任务类型
+     * @param epoch    任务轮次，为 null 时取最近一次轮次
+     * @return 汇总结果
+     */
+    private Map<String, Object> aggregateCollectedResults(String taskType, Long epoch) {
+        try {
             // 获取所有节点的分片结果
-            Map<String, Object> allShardResults = taskCoordinator.getAllShardResults(taskType);
+            Map<String, Object> allShardResults = epoch != null
+                    ? taskCoordinator.getAllShardResults(taskType, epoch)
+                    : taskCoordinator.getAllShardResults(taskType);
             
             if (allShardResults.isEmpty()) {
                 log.warn("没有找到{}任务的分片结果", taskType);
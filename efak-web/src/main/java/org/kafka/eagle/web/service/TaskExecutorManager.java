@@ -8,8 +8,12 @@ import org.kafka.eagle.ai.WeChatWorkAlertSender;
 import org.kafka.eagle.core.api.KafkaClusterFetcher;
 import org.kafka.eagle.core.api.KafkaSchemaFactory;
 import org.kafka.eagle.core.api.KafkaStoragePlugin;
+import org.kafka.eagle.core.api.TopicRateCollector;
 import org.kafka.eagle.core.constant.JmxMetricsConst;
 import org.kafka.eagle.core.constant.MBeanMetricsConst;
+import org.kafka.eagle.core.dto.PartitionOffsetTable;
+import org.kafka.eagle.core.dto.TopicCapacityTable;
+import org.kafka.eagle.core.dto.TopicMetricTable;
 import org.kafka.eagle.dto.alert.AlertChannel;
 import org.kafka.eagle.dto.alert.AlertInfo;
 import org.kafka.eagle.dto.alert.AlertTypeConfig;
@@ -43,6 +47,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -93,9 +99,40 @@ public class TaskExecutorManager {
     @Autowired
     private DataCleanupService dataCleanupService;
 
+    @Autowired
+    private MonitorSnapshotCache monitorSnapshotCache;
+
+    @Autowired
+    private BrokerCollectExecutor brokerCollectExecutor;
+
+    @Autowired
+    private TopicMonitorPipeline topicMonitorPipeline;
+
+    @Autowired
+    private TopicMetadataTracker topicMetadataTracker;
+
+    @Autowired
+    private ConsumerLagSampler consumerLagSampler;
+
+    /**
+     * 性能统计需要的 Broker JMX 指标：对象名 -> 属性
+     */
+    private static final Map<String, String[]> PERFORMANCE_JMX_ATTRIBUTES = Map.of(
+            JmxMetricsConst.Server.MESSAGES_IN_PER_SEC.key(), new String[]{MBeanMetricsConst.Common.ONE_MINUTE_RATE.key()},
+            JmxMetricsConst.Server.BYTES_IN_PER_SEC.key(), new String[]{MBeanMetricsConst.Common.ONE_MINUTE_RATE.key()},
+            JmxMetricsConst.Server.BYTES_OUT_PER_SEC.key(), new String[]{MBeanMetricsConst.Common.ONE_MINUTE_RATE.key()},
+            JmxMetricsConst.Server.REQUEST_TIME_MS_PRODUCE.key(), new String[]{MBeanMetricsConst.Common.MEAN.key()},
+            JmxMetricsConst.Server.REQUEST_TIME_MS_OFFSET_FETCH.key(), new String[]{MBeanMetricsConst.Common.MEAN.key()});
+
     @Value("${efak.data-retention-days:30}")
     private int dataRetentionDays;
 
+    /**
+     * 主题流量采集时单个 Broker 的 JMX 超时时间（秒）
+     */
+    @Value("${efak.monitor.jmx-broker-timeout-seconds:10}")
+    private int jmxBrokerTimeoutSeconds;
+
     /**
      * 执行任务
      */
@@ -157,6 +194,7 @@ public class TaskExecutorManager {
             // 2. 获取所有主题名称（合并所有集群的主题）
             List<String> allTopicNames = new ArrayList<>();
             Map<String, String> topicToClusterMap = new HashMap<>(); // 主题名称到集群ID的映射
+            Map<String, Map<String, String>> clusterFingerprints = new HashMap<>(); // 集群ID到主题元数据指纹的映射
 
             for (KafkaClusterInfo cluster : clusters) {
                 try {
@@ -170,9 +208,11 @@ public class TaskExecutorManager {
                     // 构建KafkaClientInfo，使用KafkaClientUtils工具类
                     KafkaClientInfo kafkaClientInfo = KafkaClientUtils.buildKafkaClientInfo(cluster, brokers);
 
-                    // 使用KafkaSchemaFactory获取主题名称
+                    // 使用KafkaSchemaFactory获取主题名称及元数据指纹，指纹获取失败时回退为只列出主题名称
                     KafkaSchemaFactory ksf = new KafkaSchemaFactory(new KafkaStoragePlugin());
-                    Set<String> clusterTopics = ksf.listTopicNames(kafkaClientInfo);
+                    Map<String, String> fingerprints = ksf.listTopicFingerprints(kafkaClientInfo);
+                    Set<String> clusterTopics = fingerprints != null ? fingerprints.keySet() : ksf.listTopicNames(kafkaClientInfo);
+                    clusterFingerprints.put(cluster.getClusterId(), fingerprints);
 
                     // 将主题添加到总列表，并记录所属集群
                     for (String topicName : clusterTopics) {
@@ -215,10 +255,17 @@ public class TaskExecutorManager {
                 clusterTopicsMap.computeIfAbsent(clusterId, k -> new ArrayList<>()).add(topicName);
             }
 
-            // 按集群批量获取主题元数据
+            // 记录各集群未返回主题流量指标的 Broker
+            Map<String, Map<String, String>> jmxMissingBrokers = new LinkedHashMap<>();
+
+            // 记录每个主题的采集耗时与分区数，作为下一次成本均衡分片的依据
+            Map<String, Long> topicCosts = new HashMap<>();
+            Map<String, Integer> topicSizes = new HashMap<>();
+
+            // 按集群组织采集任务
+            List<TopicClusterJob> jobs = new ArrayList<>();
             for (Map.Entry<String, List<String>> entry : clusterTopicsMap.entrySet()) {
                 String clusterId = entry.getKey();
-                List<String> clusterTopicNames = entry.getValue();
 
                 try {
                     // 获取集群信息
@@ -241,53 +288,101 @@ public class TaskExecutorManager {
 
                     // 构建KafkaClientInfo，使用KafkaClientUtils工具类
                     KafkaClientInfo kafkaClientInfo = KafkaClientUtils.buildKafkaClientInfo(cluster, brokers);
+                    jobs.add(new TopicClusterJob(clusterId, brokers, kafkaClientInfo, entry.getValue(),
+                            clusterFingerprints.get(clusterId)));
+                } catch (Exception e) {
+                    log.error("准备集群 {} 的主题采集失败: {}", clusterId, e.getMessage(), e);
+                }
+            }
 
-                    // 使用批量方法获取该集群所有主题的元数据，传递broker信息用于计算
-                    KafkaSchemaFactory ksf = new KafkaSchemaFactory(new KafkaStoragePlugin());
-                    Set<String> topicsSet = new HashSet<>(clusterTopicNames);
-                    Map<String, TopicDetailedStats> topicMetadataMap = ksf.getTopicMetaData(kafkaClientInfo, topicsSet, brokers);
-
-                    // 处理每个主题的元数据
-                    for (String topicName : clusterTopicNames) {
-                        TopicDetailedStats topicMetadata = topicMetadataMap.get(topicName);
-
-                        if (topicMetadata == null) {
-                            log.warn("未能获取主题 {} 的元数据，跳过", topicName);
-                            continue;
+            // 流水线执行：各集群的 Admin 拉取与 JMX 拉取并发进行，处理阶段逐主题计算指标，
+            // 写库阶段批量写入，前一个集群的写库与后一个集群的拉取重叠
+            Map<String, Object> pipelineMetrics = topicMonitorPipeline.run(jobs,
+                    this::fetchClusterTopicAdminSnapshot,
+                    job -> {
+                        long jmxStart = System.currentTimeMillis();
+                        TopicMetricTable jmxTable = fetchClusterTopicJmxMetrics(job.brokers, job.missingBrokers);
+                        job.jmxMs = System.currentTimeMillis() - jmxStart;
+                        return jmxTable;
+                    },
+                    (TopicClusterJob job, TopicAdminSnapshot snapshot, TopicMetricTable jmxTable, Consumer<TopicMetricsRecord> emit) -> {
+                        String clusterId = job.clusterId;
+                        if (!job.missingBrokers.isEmpty()) {
+                            log.warn("集群 {} 有 {} 个 Broker 未返回主题流量指标，本周期速率可能偏低: {}",
+                                    clusterId, job.missingBrokers.size(), job.missingBrokers);
+                            jmxMissingBrokers.put(clusterId, job.missingBrokers);
+                        }
+                        if (jmxTable == null) {
+                            log.warn("集群 {} 没有 Broker 返回主题流量指标，本周期主题读写速率记为 0", clusterId);
                         }
+                        int clusterPartitions = 0;
 
-                        // 设置额外属性
-                        topicMetadata.setClusterId(clusterId);
+                        // 处理每个主题的元数据
+                        for (String topicName : job.topicNames) {
+                            long topicStart = System.currentTimeMillis();
+                            TopicDetailedStats topicMetadata = snapshot.metadata.get(topicName);
 
-                        // 收集额外的主题指标数据
-                        try {
-                            TopicMetrics topicMetrics = collectTopicMetrics(kafkaClientInfo, brokers, topicName, ksf);
-                            if (topicMetrics != null) {
-                                // 保存主题指标到数据库
-                                saveTopicMetrics(topicMetrics);
+                            if (topicMetadata == null) {
+                                log.warn("未能获取主题 {} 的元数据，跳过", topicName);
+                                continue;
                             }
-                            List<TopicInstantMetrics> topicInstantMetrics = collectTopicInstantMetrics(kafkaClientInfo, brokers, topicName, ksf);
-                            if (topicInstantMetrics.size() > 0) {
-                                // 保存主题即时指标
-                                topicInstantMetricsMapper.batchUpsertMetrics(topicInstantMetrics);
+
+                            // 设置额外属性
+                            topicMetadata.setClusterId(clusterId);
+
+                            // 收集额外的主题指标数据，交给写库阶段批量保存
+                            try {
+                                TopicMetrics topicMetrics = collectTopicMetrics(job.kafkaClientInfo, job.brokers, topicName,
+                                        job.ksf, snapshot.offsetTable, snapshot.capacities, jmxTable,
+                                        snapshot.latestMetrics.get(topicName));
+                                List<TopicInstantMetrics> topicInstantMetrics = collectTopicInstantMetrics(job.kafkaClientInfo,
+                                        job.brokers, topicName, job.ksf, snapshot.offsetTable, snapshot.capacities, jmxTable);
+                                emit.accept(new TopicMetricsRecord(topicMetrics, topicInstantMetrics));
+                            } catch (Exception e) {
+                                log.error("收集主题 {} 指标数据失败: {}", topicName, e.getMessage(), e);
                             }
 
-                        } catch (Exception e) {
-                            log.error("收集主题 {} 指标数据失败: {}", topicName, e.getMessage(), e);
+                            topicStats.add(topicMetadata);
+                            clusterPartitions += topicMetadata.getPartitionCount();
+
+                            String uniqueTopicKey = clusterId + ":" + topicName;
+                            topicCosts.put(uniqueTopicKey, System.currentTimeMillis() - topicStart);
+                            topicSizes.put(uniqueTopicKey, topicMetadata.getPartitionCount());
                         }
 
-                        topicStats.add(topicMetadata);
-                        totalPartitions += topicMetadata.getPartitionCount();
+                        // 集群级批量请求的耗时按分区数分摊到各主题
+                        long clusterBatchMs = job.adminMs + job.jmxMs;
+                        if (clusterPartitions > 0) {
+                            for (String topicName : job.topicNames) {
+                                String uniqueTopicKey = clusterId + ":" + topicName;
+                                Integer partitions = topicSizes.get(uniqueTopicKey);
+                                if (partitions != null) {
+                                    topicCosts.merge(uniqueTopicKey, clusterBatchMs * partitions / clusterPartitions, Long::sum);
+                                }
+                            }
+                        }
+                    },
+                    this::saveTopicMetricsBatch);
 
-                    }
+            for (TopicDetailedStats stats : topicStats) {
+                totalPartitions += stats.getPartitionCount();
+            }
 
-                } catch (Exception e) {
-                    log.error("批量获取集群 {} 的主题详细信息失败: {}", clusterId, e.getMessage(), e);
+            // 增量描述统计：本次重新描述的主题数与全量刷新的集群
+            int describedTopicCount = 0;
+            List<String> fullRefreshClusters = new ArrayList<>();
+            for (TopicClusterJob job : jobs) {
+                if (job.plan != null) {
+                    describedTopicCount += job.plan.getToDescribe().size();
+                    if (job.plan.isFullRefresh()) {
+                        fullRefreshClusters.add(job.clusterId);
+                    }
                 }
             }
 
             // 5. 将统计信息保存到数据库
             int savedCount = saveTopicStatsToDatabase(topicStats);
+            taskCoordinator.recordShardCosts(DistributedTaskCoordinator.SHARD_TYPE_TOPIC, topicCosts, topicSizes);
 
             // 6. 构建返回数据
             Map<String, Object> data = new HashMap<>();
@@ -295,7 +390,11 @@ public class TaskExecutorManager {
             data.put("assignedTopicCount", assignedTopicNames.size());
             data.put("partitionCount", totalPartitions);
             data.put("savedToDatabase", savedCount);
+            data.put("describedTopicCount", describedTopicCount);
+            data.put("fullRefreshClusters", fullRefreshClusters);
             data.put("clusterCount", clusters.size());
+            data.put("jmxMissingBrokers", jmxMissingBrokers);
+            data.put("pipeline", pipelineMetrics);
 
             // 保存分片结果到Redis
             Map<String, Object> shardResult = new HashMap<>();
@@ -304,6 +403,9 @@ public class TaskExecutorManager {
             shardResult.put("partitionCount", totalPartitions);
             shardResult.put("processedTopicNames", assignedTopicNames);
             shardResult.put("savedToDatabase", savedCount);
+            shardResult.put("describedTopicCount", describedTopicCount);
+            shardResult.put("jmxMissingBrokers", jmxMissingBrokers);
+            shardResult.put("pipeline", pipelineMetrics);
             taskCoordinator.saveShardResult("topic_monitor", shardResult);
 
             result.setSuccess(true);
@@ -336,13 +438,17 @@ public class TaskExecutorManager {
     }
 
     /**
-     * 将主题统计信息保存到数据库
+     * 将主题统计信息保存到数据库，与上次写入内容相同的主题跳过（全量刷新周期内会全部重写）
      */
     private int saveTopicStatsToDatabase(List<TopicDetailedStats> topicStats) {
         int savedCount = 0;
 
         try {
             for (TopicDetailedStats stats : topicStats) {
+                if (!topicMetadataTracker.needsSave(stats)) {
+                    continue;
+                }
+
                 TopicInfo topicInfo = convertToTopicInfo(stats);
                 topicInfo.setCreateBy("system");
                 topicInfo.setUpdateBy("system");
@@ -352,6 +458,7 @@ public class TaskExecutorManager {
                     int result = topicInfoMapper.insertOrUpdateByTopicAndCluster(topicInfo);
                     if (result > 0) {
                         savedCount++;
+                        topicMetadataTracker.markSaved(stats);
                     }
                 } catch (Exception e) {
                     log.error("保存主题统计信息失败: {} (集群: {}), 错误: {}",
@@ -473,6 +580,11 @@ public class TaskExecutorManager {
                 clusterConsumerGroupsMap.computeIfAbsent(clusterId, k -> new ArrayList<>()).add(groupId);
             }
 
+            // 记录每个消费者组的采集耗时与成员数，作为下一次成本均衡分片的依据
+            Map<String, Long> groupCosts = new HashMap<>();
+            Map<String, Integer> groupSizes = new HashMap<>();
+            Map<String, KafkaClientInfo> clusterClients = new HashMap<>();
+
             // 按集群批量获取消费者组数据
             for (Map.Entry<String, List<String>> entry : clusterConsumerGroupsMap.entrySet()) {
                 String clusterId = entry.getKey();
@@ -499,8 +611,10 @@ public class TaskExecutorManager {
 
                     // 构建KafkaClientInfo，使用KafkaClientUtils工具类
                     KafkaClientInfo kafkaClientInfo = KafkaClientUtils.buildKafkaClientInfo(cluster, brokers);
+                    clusterClients.put(clusterId, kafkaClientInfo);
 
                     // 使用批量方法获取该集群所有消费者组的主题信息
+                    long clusterStart = System.currentTimeMillis();
                     KafkaSchemaFactory ksf = new KafkaSchemaFactory(new KafkaStoragePlugin());
                     Set<String> groupIdsSet = new HashSet<>(clusterGroupIds);
 
@@ -508,7 +622,10 @@ public class TaskExecutorManager {
                     List<ConsumerGroupDetailInfo> consumerGroupDetails = ksf.getConsumerGroups(kafkaClientInfo, groupIdsSet);
 
                     // 获取消费者组主题信息（用于数据库存储）
-                    List<ConsumerGroupTopicInfo> consumerGroupTopicInfos = ksf.getKafkaConsumerGroupTopic(kafkaClientInfo, groupIdsSet);
+                    // 末端位移在读取已提交位移之后实时查询，不复用快照中较早的末端位移，避免积压被低估；
+                    // 查询结果写回快照，供同一时间桶内的主题监控复用
+                    List<ConsumerGroupTopicInfo> consumerGroupTopicInfos = ksf.getKafkaConsumerGroupTopic(kafkaClientInfo, groupIdsSet,
+                            topics -> monitorSnapshotCache.refreshTopicOffsets(clusterId, ksf.listTopicOffsets(kafkaClientInfo, topics)));
 
                     // 统计活跃消费者和延迟信息
                     for (ConsumerGroupDetailInfo group : consumerGroupDetails) {
@@ -517,10 +634,10 @@ public class TaskExecutorManager {
                         }
                     }
 
-                    // 处理每个消费者组主题的数据，设置集群ID
+                    // 处理每个消费者组主题的数据，设置集群ID；开启高频采样时写库的是缓冲区降采样后的点
                     for (ConsumerGroupTopicInfo cgti : consumerGroupTopicInfos) {
                         cgti.setClusterId(clusterId);
-                        allConsumerGroupTopicInfos.add(cgti);
+                        allConsumerGroupTopicInfos.addAll(consumerLagSampler.flushRecords(cgti));
 
                         // 计算延迟统计
                         if (cgti.getLags() != null && cgti.getLags() > 0) {
@@ -529,13 +646,24 @@ public class TaskExecutorManager {
                         }
                     }
 
+                    estimateConsumerGroupCosts(clusterId, clusterGroupIds, consumerGroupDetails, consumerGroupTopicInfos,
+                            System.currentTimeMillis() - clusterStart, groupCosts, groupSizes);
+
                 } catch (Exception e) {
                     log.error("批量获取集群 {} 的消费者组详细信息失败: {}", clusterId, e.getMessage(), e);
                 }
             }
 
+            // 高频采样只采集本节点分配到的消费者组
+            consumerLagSampler.updateAssignments(clusterClients, clusterConsumerGroupsMap);
+
             // 5. 将消费者组主题信息保存到数据库
             int savedCount = saveConsumerGroupTopicInfosToDatabase(allConsumerGroupTopicInfos);
+            if (savedCount > 0) {
+                // 写库成功后才推进高频采样的写库位置，失败时下个周期重新写入
+                consumerLagSampler.commitFlushed(allConsumerGroupTopicInfos);
+            }
+            taskCoordinator.recordShardCosts(DistributedTaskCoordinator.SHARD_TYPE_CONSUMER_GROUP, groupCosts, groupSizes);
 
             // 6. 构建返回数据
             Map<String, Object> data = new HashMap<>();
@@ -626,7 +754,8 @@ public class TaskExecutorManager {
                     .collect(Collectors.toList());
 
             // 获取分配给当前节点的Broker详细信息
-            List<BrokerDetailedInfo> brokerInfos = fetchBrokerDetailedInfos(assignedBrokers);
+            Map<String, Object> collectReport = new LinkedHashMap<>();
+            List<BrokerDetailedInfo> brokerInfos = fetchBrokerDetailedInfos(assignedBrokers, collectReport);
 
             // 计算统计信息
             int onlineBrokers = 0;
@@ -743,6 +872,7 @@ public class TaskExecutorManager {
             data.put("createdBrokers", createdBrokers);
             data.put("savedMetrics", savedMetrics);
             data.put("nodeId", taskCoordinator.getCurrentNodeId()); // 当前节点ID
+            data.putAll(collectReport);
 
             // 保存分片任务结果到Redis，供其他节点汇总使用
             Map<String, Object> shardResult = new HashMap<>();
@@ -753,6 +883,7 @@ public class TaskExecutorManager {
             shardResult.put("updatedBrokers", updatedBrokers);
             shardResult.put("savedMetrics", savedMetrics);
             shardResult.put("processedBrokerIds", assignedBrokerIds);
+            shardResult.putAll(collectReport);
             taskCoordinator.saveShardResult("cluster_monitor", shardResult);
 
             result.setSuccess(true);
@@ -834,7 +965,10 @@ public class TaskExecutorManager {
                     .filter(config -> assignedConfigIds.contains(config.getId()))
                     .collect(Collectors.toList());
 
-            // 5. 执行告警评估和发送
+            // 5. 批量获取消费者延迟告警涉及的实时积压（每个集群一次批量 ListOffsets）
+            Map<String, Map<String, Map<String, Long>>> liveConsumerLags = collectLiveConsumerLags(assignedConfigs, clusters);
+
+            // 6. 执行告警评估和发送
             int evaluatedCount = 0;
             int triggeredCount = 0;
             int sentCount = 0;
@@ -842,7 +976,7 @@ public class TaskExecutorManager {
             for (AlertTypeConfig config : assignedConfigs) {
                 evaluatedCount++;
                 try {
-                    boolean triggered = evaluateAndProcessAlert(config);
+                    boolean triggered = evaluateAndProcessAlert(config, liveConsumerLags);
                     if (triggered) {
                         triggeredCount++;
                         sentCount++;
@@ -852,7 +986,7 @@ public class TaskExecutorManager {
                 }
             }
 
-            // 6. 构建返回数据
+            // 7. 构建返回数据
             Map<String, Object> data = new HashMap<>();
             data.put("totalConfigCount", allAlertConfigs.size());
             data.put("assignedConfigCount", assignedConfigs.size());
@@ -889,10 +1023,53 @@ public class TaskExecutorManager {
         return result;
     }
 
+    /**
+     * 按集群批量计算消费者延迟告警目标的实时积压（clusterId -> groupId -> topic -> lag）
+     */
+    private Map<String, Map<String, Map<String, Long>>> collectLiveConsumerLags(List<AlertTypeConfig> configs, List<KafkaClusterInfo> clusters) {
+        Map<String, Map<String, Set<String>>> clusterGroupTopics = new HashMap<>();
+        for (AlertTypeConfig config : configs) {
+            if (!"consumer-lag".equals(config.getType()) || config.getTarget() == null) {
+                continue;
+            }
+            String[] parts = config.getTarget().split(",");
+            if (parts.length < 2) {
+                continue;
+            }
+            // 高频采样缓冲区中有最新积压的目标不再单独查询位移
+            if (consumerLagSampler.latestLag(config.getClusterId(), parts[0].trim(), parts[1].trim()) != null) {
+                continue;
+            }
+            clusterGroupTopics.computeIfAbsent(config.getClusterId(), k -> new HashMap<>())
+                    .computeIfAbsent(parts[0].trim(), k -> new HashSet<>())
+                    .add(parts[1].trim());
+        }
+
+        Map<String, Map<String, Map<String, Long>>> liveLags = new HashMap<>();
+        for (Map.Entry<String, Map<String, Set<String>>> entry : clusterGroupTopics.entrySet()) {
+            try {
+                KafkaClusterInfo cluster = clusters.stream()
+                        .filter(c -> c.getClusterId().equals(entry.getKey()))
+                        .findFirst()
+                        .orElse(null);
+                List<BrokerInfo> brokers = brokerMapper.getBrokersByClusterId(entry.getKey());
+                if (cluster == null || brokers.isEmpty()) {
+                    continue;
+                }
+                KafkaClientInfo kafkaClientInfo = KafkaClientUtils.buildKafkaClientInfo(cluster, brokers);
+                KafkaSchemaFactory ksf = new KafkaSchemaFactory(new KafkaStoragePlugin());
+                liveLags.put(entry.getKey(), ksf.getConsumerGroupTopicLags(kafkaClientInfo, entry.getValue()));
+            } catch (Exception e) {
+                log.warn("获取集群 {} 的实时消费积压失败，回退到历史记录: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        return liveLags;
+    }
+
     /**
      * 评估并处理告警
      */
-    private boolean evaluateAndProcessAlert(AlertTypeConfig config) {
+    private boolean evaluateAndProcessAlert(AlertTypeConfig config, Map<String, Map<String, Map<String, Long>>> liveConsumerLags) {
         String type = config.getType();
         String clusterId = config.getClusterId();
 
@@ -901,7 +1078,7 @@ public class TaskExecutorManager {
 
             switch (type) {
                 case "consumer-lag":
-                    triggered = evaluateConsumerLagAlert(config);
+                    triggered = evaluateConsumerLagAlert(config, liveConsumerLags.get(clusterId));
                     break;
                 case "broker-availability":
                     triggered = evaluateBrokerAvailabilityAlert(config);
@@ -929,7 +1106,7 @@ public class TaskExecutorManager {
     /**
      * 评估消费者延迟告警
      */
-    private boolean evaluateConsumerLagAlert(AlertTypeConfig config) {
+    private boolean evaluateConsumerLagAlert(AlertTypeConfig config, Map<String, Map<String, Long>> liveLags) {
         try {
             // 解析target字段（格式为my-group-1,ke28）
             String target = config.getTarget();
@@ -951,22 +1128,26 @@ public class TaskExecutorManager {
                 return false;
             }
 
-            // 查询最近1小时以内的最新记录
-            LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-            List<ConsumerGroupTopicInfo> recentRecords = consumerGroupTopicMapper.selectConsumerGroupTopicPage(
-                    new org.kafka.eagle.dto.consumer.ConsumerGroupTopicQueryRequest() {{
-                        setClusterId(config.getClusterId());
-                        setGroupId(groupId);
-                        setTopicName(topicName);
-                        setStartTime(oneHourAgo);
-                        setEndTime(LocalDateTime.now());
-                    }}, 0, 1);
+            // 优先使用高频采样缓冲区中的最新积压，其次是批量 ListOffsets 计算的实时积压
+            Long liveLag = consumerLagSampler.latestLag(config.getClusterId(), groupId, topicName);
+            if (liveLag == null && liveLags != null && liveLags.containsKey(groupId)) {
+                liveLag = liveLags.get(groupId).get(topicName);
+            }
+            if (liveLag != null) {
+                if (liveLag > threshold.longValue()) {
+                    return processTriggeredAlert(config, "消费者ID: " + groupId + ",主题: " + topicName, liveLag + " " + config.getUnit(), threshold.longValue());
+                }
+                return false;
+            }
 
-            if (recentRecords == null || recentRecords.isEmpty()) {
+            // 查询最新状态表，只使用最近1小时以内采集的记录
+            ConsumerGroupTopicInfo latestRecord = consumerGroupTopicMapper.selectLatestConsumerGroupTopic(
+                    config.getClusterId(), groupId, topicName);
+            if (latestRecord == null || latestRecord.getCollectTime() == null
+                    || latestRecord.getCollectTime().isBefore(LocalDateTime.now().minusHours(1))) {
                 return false;
             }
 
-            ConsumerGroupTopicInfo latestRecord = recentRecords.get(0);
             Long lags = latestRecord.getLags();
 
             if (lags == null || lags <= 0) {
@@ -1471,64 +1652,22 @@ public class TaskExecutorManager {
             int failureCount = 0;
             LocalDateTime collectTime = LocalDateTime.now();
 
+            // 各 Broker 并发采集，超时或失败的 Broker 不影响已完成结果的保存
+            BrokerCollectExecutor.CollectResult<BrokerInfo, PerformanceMonitor> collected =
+                    brokerCollectExecutor.collect(assignedBrokers, this::brokerCollectKey,
+                            broker -> collectBrokerPerformance(broker, collectTime));
             for (BrokerInfo broker : assignedBrokers) {
-                try {
-                    // 检查broker是否有JMX端口配置
-                    if (broker.getJmxPort() == null || broker.getJmxPort() <= 0) {
-                        log.warn("Broker {} 没有配置JMX端口，跳过性能指标收集", broker.getBrokerId());
-                        failureCount++;
-                        continue;
-                    }
-
-                    String brokerHost = broker.getHostIp();
-                    int jmxPort = broker.getJmxPort();
-
-                    // 收集JMX性能指标
-                    BigDecimal messageIn = getBrokerJmxMetric(brokerHost, jmxPort, JmxMetricsConst.Server.MESSAGES_IN_PER_SEC.key(), MBeanMetricsConst.Common.ONE_MINUTE_RATE.key());
-                    BigDecimal byteIn = getBrokerJmxMetric(brokerHost, jmxPort, JmxMetricsConst.Server.BYTES_IN_PER_SEC.key(), MBeanMetricsConst.Common.ONE_MINUTE_RATE.key());
-                    BigDecimal byteOut = getBrokerJmxMetric(brokerHost, jmxPort, JmxMetricsConst.Server.BYTES_OUT_PER_SEC.key(), MBeanMetricsConst.Common.ONE_MINUTE_RATE.key());
-                    BigDecimal timeMsProduce = getBrokerJmxMetric(brokerHost, jmxPort, JmxMetricsConst.Server.REQUEST_TIME_MS_PRODUCE.key(), MBeanMetricsConst.Common.MEAN.key());
-                    BigDecimal timeMsConsumer = getBrokerJmxMetric(brokerHost, jmxPort, JmxMetricsConst.Server.REQUEST_TIME_MS_OFFSET_FETCH.key(), MBeanMetricsConst.Common.MEAN.key());
-
-                    // 获取CPU和内存使用率
-                    BrokerInfo brokerDetails = fetchBrokerResourceUsage(broker);
-
-                    // 创建PerformanceMonitor对象
-                    PerformanceMonitor performanceMonitor = new PerformanceMonitor();
-                    performanceMonitor.setClusterId(broker.getClusterId());
-                    performanceMonitor.setKafkaHost(brokerHost + ":" + broker.getPort());
-
-                    // 直接使用BigDecimal类型（保留精度）
-                    performanceMonitor.setMessageIn(messageIn);
-                    performanceMonitor.setByteIn(byteIn);
-                    performanceMonitor.setByteOut(byteOut);
-                    performanceMonitor.setTimeMsProduce(timeMsProduce);
-                    performanceMonitor.setTimeMsConsumer(timeMsConsumer);
-
-                    // 设置CPU和内存使用率
-                    if (brokerDetails.getMemoryUsage() != null) {
-                        performanceMonitor.setMemoryUsage(brokerDetails.getMemoryUsage());
-                    } else {
-                        performanceMonitor.setMemoryUsage(BigDecimal.ZERO);
-                    }
-
-                    if (brokerDetails.getCpuUsage() != null) {
-                        performanceMonitor.setCpuUsage(brokerDetails.getCpuUsage());
-                    } else {
-                        performanceMonitor.setCpuUsage(BigDecimal.ZERO);
-                    }
-
-                    performanceMonitor.setCollectTime(collectTime);
-                    performanceMonitor.setCollectDate(collectTime.toLocalDate());
-
+                PerformanceMonitor performanceMonitor = collected.getResults().get(brokerCollectKey(broker));
+                if (performanceMonitor != null) {
                     performanceMonitors.add(performanceMonitor);
                     successCount++;
-
-                } catch (Exception e) {
-                    log.error("收集broker {} 性能指标失败: {}", broker.getBrokerId(), e.getMessage(), e);
+                } else {
                     failureCount++;
                 }
             }
+            collected.getFailures().forEach((brokerKey, error) -> log.error("收集broker {} 性能指标失败: {}", brokerKey, error));
+            Map<String, Object> collectReport = new LinkedHashMap<>();
+            fillCollectReport(collectReport, collected);
 
             // 6. 批量保存性能监控数据到数据库
             int savedCount = 0;
@@ -1550,6 +1689,7 @@ public class TaskExecutorManager {
             data.put("savedCount", savedCount); // 保存到数据库的记录数
             data.put("collectTime", collectTime);
             data.put("nodeId", taskCoordinator.getCurrentNodeId()); // 当前节点ID
+            data.putAll(collectReport);
 
             // 保存分片结果到Redis
             Map<String, Object> shardResult = new HashMap<>();
@@ -1559,6 +1699,7 @@ public class TaskExecutorManager {
             shardResult.put("failureCount", failureCount);
             shardResult.put("savedCount", savedCount);
             shardResult.put("processedBrokerIds", assignedBrokerIds);
+            shardResult.putAll(collectReport);
             taskCoordinator.saveShardResult("performance_stats", shardResult);
 
             result.setSuccess(true);
@@ -1577,6 +1718,60 @@ public class TaskExecutorManager {
         return result;
     }
 
+    /**
+     * 收集单个broker的性能指标，未配置JMX端口时返回null
+     */
+    private PerformanceMonitor collectBrokerPerformance(BrokerInfo broker, LocalDateTime collectTime) {
+        // 检查broker是否有JMX端口配置
+        if (broker.getJmxPort() == null || broker.getJmxPort() <= 0) {
+            log.warn("Broker {} 没有配置JMX端口，跳过性能指标收集", broker.getBrokerId());
+            return null;
+        }
+
+        String brokerHost = broker.getHostIp();
+        int jmxPort = broker.getJmxPort();
+
+        // 收集JMX性能指标（同一连接上一次批量读取）
+        Map<String, BigDecimal> jmxMetrics = getBrokerJmxMetrics(brokerHost, jmxPort, PERFORMANCE_JMX_ATTRIBUTES);
+        BigDecimal messageIn = jmxMetrics.getOrDefault(JmxMetricsConst.Server.MESSAGES_IN_PER_SEC.key(), BigDecimal.ZERO);
+        BigDecimal byteIn = jmxMetrics.getOrDefault(JmxMetricsConst.Server.BYTES_IN_PER_SEC.key(), BigDecimal.ZERO);
+        BigDecimal byteOut = jmxMetrics.getOrDefault(JmxMetricsConst.Server.BYTES_OUT_PER_SEC.key(), BigDecimal.ZERO);
+        BigDecimal timeMsProduce = jmxMetrics.getOrDefault(JmxMetricsConst.Server.REQUEST_TIME_MS_PRODUCE.key(), BigDecimal.ZERO);
+        BigDecimal timeMsConsumer = jmxMetrics.getOrDefault(JmxMetricsConst.Server.REQUEST_TIME_MS_OFFSET_FETCH.key(), BigDecimal.ZERO);
+
+        // 获取CPU和内存使用率
+        BrokerInfo brokerDetails = fetchBrokerResourceUsage(broker);
+
+        // 创建PerformanceMonitor对象
+        PerformanceMonitor performanceMonitor = new PerformanceMonitor();
+        performanceMonitor.setClusterId(broker.getClusterId());
+        performanceMonitor.setKafkaHost(brokerHost + ":" + broker.getPort());
+
+        // 直接使用BigDecimal类型（保留精度）
+        performanceMonitor.setMessageIn(messageIn);
+        performanceMonitor.setByteIn(byteIn);
+        performanceMonitor.setByteOut(byteOut);
+        performanceMonitor.setTimeMsProduce(timeMsProduce);
+        performanceMonitor.setTimeMsConsumer(timeMsConsumer);
+
+        // 设置CPU和内存使用率
+        if (brokerDetails.getMemoryUsage() != null) {
+            performanceMonitor.setMemoryUsage(brokerDetails.getMemoryUsage());
+        } else {
+            performanceMonitor.setMemoryUsage(BigDecimal.ZERO);
+        }
+
+        if (brokerDetails.getCpuUsage() != null) {
+            performanceMonitor.setCpuUsage(brokerDetails.getCpuUsage());
+        } else {
+            performanceMonitor.setCpuUsage(BigDecimal.ZERO);
+        }
+
+        performanceMonitor.setCollectTime(collectTime);
+        performanceMonitor.setCollectDate(collectTime.toLocalDate());
+        return performanceMonitor;
+    }
+
     /**
      * 获取broker的资源使用率（CPU和内存）
      */
@@ -1664,42 +1859,77 @@ public class TaskExecutorManager {
 
     /**
      * 获取Broker详细信息（使用真实JMX数据）
+     * 各 Broker 并发采集，失败或超时的 Broker 标记为离线，周期截止前未开始的 Broker 不返回，
+     * 采集情况写入 collectReport
      */
-    private List<BrokerDetailedInfo> fetchBrokerDetailedInfos(List<BrokerInfo> brokerInfos) {
+    private List<BrokerDetailedInfo> fetchBrokerDetailedInfos(List<BrokerInfo> brokerInfos, Map<String, Object> collectReport) {
         List<BrokerDetailedInfo> detailedInfos = new ArrayList<>();
 
         if (brokerInfos == null || brokerInfos.isEmpty()) {
             return detailedInfos;
         }
 
+        BrokerCollectExecutor.CollectResult<BrokerInfo, BrokerDetailedInfo> collected =
+                brokerCollectExecutor.collect(brokerInfos, this::brokerCollectKey, this::fetchSingleBrokerInfo);
+
         for (BrokerInfo brokerInfo : brokerInfos) {
-            try {
-                BrokerDetailedInfo detailedInfo = fetchSingleBrokerInfo(brokerInfo);
+            String key = brokerCollectKey(brokerInfo);
+            if (collected.getResults().containsKey(key)) {
+                BrokerDetailedInfo detailedInfo = collected.getResults().get(key);
                 if (detailedInfo != null) {
                     detailedInfos.add(detailedInfo);
                 }
-            } catch (Exception e) {
-                log.error("获取broker {} 详细信息失败: {}", brokerInfo.getBrokerId(), e.getMessage(), e);
-
-                // 创建一个默认的BrokerDetailedInfo，标记为离线状态
-                BrokerDetailedInfo offlineBroker = new BrokerDetailedInfo();
-                offlineBroker.setBrokerId(brokerInfo.getBrokerId());
-                offlineBroker.setHost(brokerInfo.getHostIp());
-                offlineBroker.setPort(brokerInfo.getPort());
-                offlineBroker.setJmxPort(brokerInfo.getJmxPort() != null ? brokerInfo.getJmxPort() : 0);
-                offlineBroker.setStatus("OFFLINE");
-                offlineBroker.setVersion("Unknown");
-                offlineBroker.setCpuUsagePercent(0.0);
-                offlineBroker.setMemoryUsagePercent(0.0);
-                offlineBroker.setLastUpdateTime(LocalDateTime.now());
-
-                detailedInfos.add(offlineBroker);
+            } else if (collected.getFailed().containsKey(key)) {
+                log.error("获取broker {} 详细信息失败: {}", brokerInfo.getBrokerId(), collected.getFailures().get(key));
+                detailedInfos.add(buildOfflineBrokerInfo(brokerInfo));
+            } else if (collected.getTimedOut().containsKey(key)) {
+                log.error("获取broker {} 详细信息超时", brokerInfo.getBrokerId());
+                detailedInfos.add(buildOfflineBrokerInfo(brokerInfo));
             }
         }
 
+        fillCollectReport(collectReport, collected);
         return detailedInfos;
     }
 
+    /**
+     * 创建一个默认的BrokerDetailedInfo，标记为离线状态
+     */
+    private BrokerDetailedInfo buildOfflineBrokerInfo(BrokerInfo brokerInfo) {
+        BrokerDetailedInfo offlineBroker = new BrokerDetailedInfo();
+        offlineBroker.setBrokerId(brokerInfo.getBrokerId());
+        offlineBroker.setHost(brokerInfo.getHostIp());
+        offlineBroker.setPort(brokerInfo.getPort());
+        offlineBroker.setJmxPort(brokerInfo.getJmxPort() != null ? brokerInfo.getJmxPort() : 0);
+        offlineBroker.setStatus("OFFLINE");
+        offlineBroker.setVersion("Unknown");
+        offlineBroker.setCpuUsagePercent(0.0);
+        offlineBroker.setMemoryUsagePercent(0.0);
+        offlineBroker.setLastUpdateTime(LocalDateTime.now());
+        return offlineBroker;
+    }
+
+    /**
+     * 并发采集时的 Broker 标识（不同集群的 brokerId 可能相同）
+     */
+    private String brokerCollectKey(BrokerInfo broker) {
+        return broker.getClusterId() + ":" + broker.getBrokerId();
+    }
+
+    /**
+     * 将并发采集的完成情况写入任务结果
+     */
+    private void fillCollectReport(Map<String, Object> collectReport, BrokerCollectExecutor.CollectResult<BrokerInfo, ?> collected) {
+        if (collectReport == null) {
+            return;
+        }
+        collectReport.put("collectElapsedMs", collected.getElapsedMs());
+        collectReport.put("failedBrokers", new ArrayList<>(collected.getFailed().keySet()));
+        collectReport.put("timedOutBrokers", new ArrayList<>(collected.getTimedOut().keySet()));
+        collectReport.put("skippedBrokers", new ArrayList<>(collected.getNotStarted().keySet()));
+        collectReport.put("partial", !collected.isComplete());
+    }
+
     /**
      * 获取单个Broker的详细信息
      */
@@ -1779,8 +2009,12 @@ public class TaskExecutorManager {
 
     /**
      * 收集主题指标数据
+     * @param latestMetrics 数据库中该主题的最新记录（Admin 拉取阶段批量查询），用于计算增量，没有记录时为 null
      */
-    private TopicMetrics collectTopicMetrics(KafkaClientInfo kafkaClientInfo, List<BrokerInfo> brokers, String topicName, KafkaSchemaFactory ksf) {
+    private TopicMetrics collectTopicMetrics(KafkaClientInfo kafkaClientInfo, List<BrokerInfo> brokers, String topicName,
+                                             KafkaSchemaFactory ksf, PartitionOffsetTable offsetTable,
+                                             TopicCapacityTable capacities, TopicMetricTable jmxTable,
+                                             TopicMetrics latestMetrics) {
         TopicMetrics metrics = new TopicMetrics();
         metrics.setTopicName(topicName);
         metrics.setClusterId(kafkaClientInfo.getClusterId());
@@ -1789,30 +2023,27 @@ public class TaskExecutorManager {
         metrics.setCreateTime(collectTime);
 
         try {
-            // 1. 获取topic容量（使用已实现的方法）
-            Long capacity = ksf.getTopicRecordCapacityNum(kafkaClientInfo, brokers, topicName);
+            // 1. 获取topic容量（由集群级 DescribeLogDirs 快照提供）；
+            // 快照没有该主题的数据（查询失败或不完整）时沿用数据库中最新的容量，不能按 0 记录，否则容量增量为负的上次容量
+            Long capacity = capacities.findCapacity(topicName);
+            if (capacity == null) {
+                capacity = latestMetrics != null && latestMetrics.getCapacity() != null
+                        ? latestMetrics.getCapacity() : ksf.getTopicRecordCapacityNum(kafkaClientInfo, brokers, topicName);
+            }
             metrics.setCapacity(capacity != null ? capacity : 0L);
 
             // 2. 获取topic消息记录数
-            Long recordCount = ksf.getTotalTopicLogSize(kafkaClientInfo, topicName);
+            // 快照中有分区位移查询失败时部分分区之和不可信，改为逐主题查询
+            Long recordCount = offsetTable.isLatestComplete(topicName)
+                    ? offsetTable.latestSum(topicName) : ksf.getTotalTopicLogSize(kafkaClientInfo, topicName);
             metrics.setRecordCount(recordCount != null ? recordCount : 0L);
 
-            // 3. 计算增量 - 获取数据库中该Topic的最新记录
+            // 3. 计算增量：当前值 - 数据库最新值
             Long recordCountDiff = 0L;
             Long capacityDiff = 0L;
-
-            try {
-                TopicMetrics latestMetrics = topicMetricsMapper.selectLatestTopicMetricsByClusterAndTopic(
-                        kafkaClientInfo.getClusterId(), topicName);
-
-                if (latestMetrics != null) {
-                    // 计算增量：当前值 - 数据库最新值
-                    recordCountDiff = metrics.getRecordCount() - latestMetrics.getRecordCount();
-                    capacityDiff = metrics.getCapacity() - latestMetrics.getCapacity();
-
-                }
-            } catch (Exception e) {
-                log.warn("获取主题 {} 历史指标数据失败，使用当前值作为增量: {}", topicName, e.getMessage());
+            if (latestMetrics != null) {
+                recordCountDiff = metrics.getRecordCount() - latestMetrics.getRecordCount();
+                capacityDiff = metrics.getCapacity() - latestMetrics.getCapacity();
             }
 
             // 设置增量值
@@ -1820,8 +2051,8 @@ public class TaskExecutorManager {
             metrics.setCapacityDiff(capacityDiff);
 
             // 4. 获取写入和读取速度
-            BigDecimal writeSpeed = getTopicJmxMetric(brokers, topicName, JmxMetricsConst.Server.BYTES_IN_PER_SEC_TOPIC.key());
-            BigDecimal readSpeed = getTopicJmxMetric(brokers, topicName, JmxMetricsConst.Server.BYTES_OUT_PER_SEC_TOPIC.key());
+            BigDecimal writeSpeed = getTopicRate(jmxTable, topicName, JmxMetricsConst.Server.BYTES_IN_PER_SEC_TOPIC.key());
+            BigDecimal readSpeed = getTopicRate(jmxTable, topicName, JmxMetricsConst.Server.BYTES_OUT_PER_SEC_TOPIC.key());
 
             metrics.setWriteSpeed(writeSpeed != null ? writeSpeed : BigDecimal.ZERO);
             metrics.setReadSpeed(readSpeed != null ? readSpeed : BigDecimal.ZERO);
@@ -1837,24 +2068,29 @@ public class TaskExecutorManager {
     /**
      * 获取当前 topic 实时指标
      */
-    private List<TopicInstantMetrics> collectTopicInstantMetrics(KafkaClientInfo kafkaClientInfo, List<BrokerInfo> brokers, String topicName, KafkaSchemaFactory ksf) {
+    private List<TopicInstantMetrics> collectTopicInstantMetrics(KafkaClientInfo kafkaClientInfo, List<BrokerInfo> brokers, String topicName,
+                                                                 KafkaSchemaFactory ksf, PartitionOffsetTable offsetTable,
+                                                                 TopicCapacityTable capacities, TopicMetricTable jmxTable) {
         List<TopicInstantMetrics> metricsList = new ArrayList<>();
         LocalDateTime collectTime = LocalDateTime.now();
 
         try {
-            // 1. 获取topic容量
-            Long capacity = ksf.getTopicRecordCapacityNum(kafkaClientInfo, brokers, topicName);
-            TopicInstantMetrics capacityMetrics = new TopicInstantMetrics();
-            capacityMetrics.setTopicName(topicName);
-            capacityMetrics.setClusterId(kafkaClientInfo.getClusterId());
-            capacityMetrics.setMetricType(MBeanMetricsConst.Topic.CAPACITY.key());
-            capacityMetrics.setMetricValue(String.valueOf(capacity != null ? capacity : 0L));
-            capacityMetrics.setLastUpdated(collectTime);
-            capacityMetrics.setCreateTime(collectTime);
-            metricsList.add(capacityMetrics);
+            // 1. 获取topic容量（由集群级 DescribeLogDirs 快照提供）；没有数据时不更新，保留上次的即时容量
+            Long capacity = capacities.findCapacity(topicName);
+            if (capacity != null) {
+                TopicInstantMetrics capacityMetrics = new TopicInstantMetrics();
+                capacityMetrics.setTopicName(topicName);
+                capacityMetrics.setClusterId(kafkaClientInfo.getClusterId());
+                capacityMetrics.setMetricType(MBeanMetricsConst.Topic.CAPACITY.key());
+                capacityMetrics.setMetricValue(String.valueOf(capacity));
+                capacityMetrics.setLastUpdated(collectTime);
+                capacityMetrics.setCreateTime(collectTime);
+                metricsList.add(capacityMetrics);
+            }
 
             // 2. 获取topic消息记录数
-            Long recordCount = ksf.getTotalActualTopicLogSize(kafkaClientInfo, topicName);
+            Long recordCount = offsetTable.isComplete(topicName)
+                    ? offsetTable.logSize(topicName) : ksf.getTotalActualTopicLogSize(kafkaClientInfo, topicName);
             TopicInstantMetrics logsizeMetrics = new TopicInstantMetrics();
             logsizeMetrics.setTopicName(topicName);
             logsizeMetrics.setClusterId(kafkaClientInfo.getClusterId());
@@ -1865,7 +2101,7 @@ public class TaskExecutorManager {
             metricsList.add(logsizeMetrics);
 
             // 3. 获取写入速度
-            BigDecimal writeSpeed = getTopicJmxMetric(brokers, topicName, JmxMetricsConst.Server.BYTES_IN_PER_SEC_TOPIC.key());
+            BigDecimal writeSpeed = getTopicRate(jmxTable, topicName, JmxMetricsConst.Server.BYTES_IN_PER_SEC_TOPIC.key());
             TopicInstantMetrics byteInMetrics = new TopicInstantMetrics();
             byteInMetrics.setTopicName(topicName);
             byteInMetrics.setClusterId(kafkaClientInfo.getClusterId());
@@ -1876,7 +2112,7 @@ public class TaskExecutorManager {
             metricsList.add(byteInMetrics);
 
             // 4. 获取读取速度
-            BigDecimal readSpeed = getTopicJmxMetric(brokers, topicName, JmxMetricsConst.Server.BYTES_OUT_PER_SEC_TOPIC.key());
+            BigDecimal readSpeed = getTopicRate(jmxTable, topicName, JmxMetricsConst.Server.BYTES_OUT_PER_SEC_TOPIC.key());
             TopicInstantMetrics byteOutMetrics = new TopicInstantMetrics();
             byteOutMetrics.setTopicName(topicName);
             byteOutMetrics.setClusterId(kafkaClientInfo.getClusterId());
@@ -1893,139 +2129,238 @@ public class TaskExecutorManager {
     }
 
     /**
-     * 通过JMX获取主题指标
+     * 并发获取集群所有 Broker 的主题级 JMX 流量指标并按主题累加。
+     * 主题流量只记录在其分区 Leader 所在的 Broker 上，因此需要汇总全部 Broker；
+     * 未在超时时间内响应的 Broker 记录到 missingBrokers，全部未响应时返回 null，本周期主题速率记为缺失。
      */
-    private BigDecimal getTopicJmxMetric(List<BrokerInfo> brokers, String topicName, String jmxObjectNameTemplate) {
-        if (brokers == null || brokers.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        // 使用第一个有JMX端口的broker获取指标
+    private TopicMetricTable fetchClusterTopicJmxMetrics(List<BrokerInfo> brokers, Map<String, String> missingBrokers) {
+        List<JMXInitializeInfo> jmxBrokers = new ArrayList<>();
         for (BrokerInfo broker : brokers) {
             if (broker.getJmxPort() == null || broker.getJmxPort() <= 0) {
                 continue;
             }
+            JMXInitializeInfo initializeInfo = new JMXInitializeInfo();
+            initializeInfo.setBrokerId(String.valueOf(broker.getBrokerId()));
+            initializeInfo.setHost(broker.getHostIp());
+            initializeInfo.setPort(broker.getJmxPort());
+            jmxBrokers.add(initializeInfo);
+        }
+        if (jmxBrokers.isEmpty()) {
+            return null;
+        }
 
-            try {
-                JMXInitializeInfo initializeInfo = new JMXInitializeInfo();
-                initializeInfo.setBrokerId(String.valueOf(broker.getBrokerId()));
-                initializeInfo.setHost(broker.getHostIp());
-                initializeInfo.setPort(broker.getJmxPort());
-                initializeInfo.setUri("service:jmx:rmi:///jndi/rmi://%s/jmxrmi");
-
-                String objectName = String.format(jmxObjectNameTemplate, topicName);
-                initializeInfo.setObjectName(objectName);
-
-                // 使用KafkaClusterFetcher执行JMX操作获取OneMinuteRate
-                final BigDecimal[] result = {BigDecimal.ZERO};
-                executeJmxOperation(initializeInfo, mbeanConnection -> {
-                    try {
-                        Object value = mbeanConnection.getAttribute(
-                                new javax.management.ObjectName(objectName),
-                                MBeanMetricsConst.Common.ONE_MINUTE_RATE.key()
-                        );
-                        if (value != null) {
-                            // 保留2位小数
-                            result[0] = new BigDecimal(value.toString()).setScale(2, java.math.RoundingMode.HALF_UP);
-                        }
-                    } catch (Exception e) {
-                        // 当 topic 没有流量读取或者写入的时候，JMX 指标中是不会显示该 topic 名称的
-                    }
-                });
+        TopicRateCollector.Result rates = TopicRateCollector.collect(jmxBrokers,
+                Arrays.asList(TopicMetricTable.metricNameOf(JmxMetricsConst.Server.BYTES_IN_PER_SEC_TOPIC.key()),
+                        TopicMetricTable.metricNameOf(JmxMetricsConst.Server.BYTES_OUT_PER_SEC_TOPIC.key())),
+                jmxBrokerTimeoutSeconds * 1000L,
+                MBeanMetricsConst.Common.ONE_MINUTE_RATE.key());
+        missingBrokers.putAll(rates.getMissingBrokers());
+        return rates.getRespondedBrokers().isEmpty() ? null : rates.getTable();
+    }
 
-                return result[0];
+    /**
+     * 从批量指标表读取主题速率（各 Broker 之和）；没有 Broker 响应时指标表为 null，返回 null 表示本周期速率缺失，
+     * 不回退到单个 Broker 的逐主题查询（只统计了一个 Broker 上的 Leader 分区）
+     */
+    private BigDecimal getTopicRate(TopicMetricTable jmxTable, String topicName, String jmxObjectNameTemplate) {
+        if (jmxTable == null) {
+            return null;
+        }
+        // 当 topic 没有流量读取或者写入的时候，JMX 指标中不会出现该 topic，按 0 处理
+        double value = jmxTable.get(topicName, TopicMetricTable.metricNameOf(jmxObjectNameTemplate),
+                MBeanMetricsConst.Common.ONE_MINUTE_RATE.key());
+        return BigDecimal.valueOf(value).setScale(2, java.math.RoundingMode.HALF_UP);
+    }
 
-            } catch (Exception e) {
+    /**
+     * 批量获取Broker 指标：对象名 -> 数值（保留2位小数），读取失败的对象不包含在结果中
+     */
+    private Map<String, BigDecimal> getBrokerJmxMetrics(String brokerHost, int jmxPort, Map<String, String[]> objectAttributes) {
+        Map<String, BigDecimal> metrics = new HashMap<>();
+        JMXInitializeInfo initializeInfo = new JMXInitializeInfo();
+        initializeInfo.setHost(brokerHost);
+        initializeInfo.setPort(jmxPort);
+
+        Map<String, Map<String, Object>> values = KafkaClusterFetcher.fetchAttributes(initializeInfo, objectAttributes);
+        for (Map.Entry<String, String[]> entry : objectAttributes.entrySet()) {
+            Map<String, Object> attributeValues = values.get(entry.getKey());
+            if (attributeValues == null) {
+                continue;
+            }
+            Object value = attributeValues.get(entry.getValue()[0]);
+            if (value != null) {
+                metrics.put(entry.getKey(), new BigDecimal(value.toString()).setScale(2, java.math.RoundingMode.HALF_UP));
             }
         }
-
-        return BigDecimal.ZERO;
+        return metrics;
     }
 
     /**
-     * 获取Broker 指标
+     * 主题监控流水线的 Admin 拉取阶段：批量获取集群内分配主题的元数据、位移与容量快照
      */
-    private BigDecimal getBrokerJmxMetric(String brokerHost, int jmxPort, String objectName, String attribute) {
-
-        // 使用第一个有JMX端口的broker获取指标
+    private TopicAdminSnapshot fetchClusterTopicAdminSnapshot(TopicClusterJob job) {
+        long adminStart = System.currentTimeMillis();
+        KafkaSchemaFactory ksf = job.ksf;
+        KafkaClientInfo kafkaClientInfo = job.kafkaClientInfo;
+        String clusterId = job.clusterId;
+
+        // 只重新描述新增、元数据指纹变化的主题（到达全量刷新周期时描述全部），其余使用上次的元数据
+        TopicMetadataTracker.Plan plan = topicMetadataTracker.plan(clusterId, job.topicNames, job.fingerprints);
+        Map<String, TopicDetailedStats> describedMap = plan.getToDescribe().isEmpty() ? Collections.emptyMap()
+                : ksf.getTopicMetaData(kafkaClientInfo, plan.getToDescribe(), job.brokers);
+        Map<String, TopicDetailedStats> topicMetadataMap = topicMetadataTracker.update(clusterId, job.topicNames,
+                describedMap, job.fingerprints);
+        job.plan = plan;
+
+        Set<String> topicsSet = new HashSet<>(job.topicNames);
+
+        // 一次批量 ListOffsets 获取该集群所有分配主题的最早/最新位移（同一时间桶内与消费者监控共享）
+        PartitionOffsetTable offsetTable = monitorSnapshotCache.getTopicOffsets(clusterId, topicsSet,
+                missing -> ksf.listTopicOffsets(kafkaClientInfo, missing));
+
+        // 一次 DescribeLogDirs（每个 Broker 一个请求）获取整个集群所有主题的容量
+        TopicCapacityTable capacities = monitorSnapshotCache.getClusterTopicCapacities(clusterId, () -> {
+            TopicCapacityTable capacityTable = ksf.getTopicCapacities(kafkaClientInfo, null);
+            if (capacityTable.isFailed()) {
+                log.warn("集群 {} 没有 Broker 返回日志目录信息，本周期主题容量沿用上次的值", clusterId);
+            } else if (!capacityTable.isComplete()) {
+                log.warn("集群 {} 有 {} 个 Broker 未返回日志目录信息，相关主题容量可能偏低: {}",
+                        clusterId, capacityTable.getFailedBrokers().size(), capacityTable.getFailedBrokers());
+            }
+            return capacityTable;
+        });
 
+        // 一次查询该集群所有分配主题在数据库中的最新指标记录，用于计算记录数与容量增量
+        Map<String, TopicMetrics> latestMetrics = new HashMap<>();
         try {
-            JMXInitializeInfo initializeInfo = new JMXInitializeInfo();
-            initializeInfo.setHost(brokerHost);
-            initializeInfo.setPort(jmxPort);
-            initializeInfo.setUri("service:jmx:rmi:///jndi/rmi://%s/jmxrmi");
-
-            initializeInfo.setObjectName(objectName);
+            for (TopicMetrics metrics : topicMetricsMapper.selectLatestTopicMetricsByClusterAndTopics(clusterId, topicsSet)) {
+                latestMetrics.putIfAbsent(metrics.getTopicName(), metrics);
+            }
+        } catch (Exception e) {
+            log.warn("批量获取集群 {} 主题历史指标数据失败，本周期增量记为 0: {}", clusterId, e.getMessage());
+        }
 
-            // 使用KafkaClusterFetcher执行JMX操作获取OneMinuteRate
-            final BigDecimal[] result = {BigDecimal.ZERO};
-            executeJmxOperation(initializeInfo, mbeanConnection -> {
-                try {
-                    Object value = mbeanConnection.getAttribute(
-                            new javax.management.ObjectName(objectName),
-                            attribute
-                    );
-                    if (value != null) {
-                        // 保留2位小数
-                        result[0] = new BigDecimal(value.toString()).setScale(2, java.math.RoundingMode.HALF_UP);
-                    }
-                } catch (Exception e) {
-                }
-            });
+        job.adminMs = System.currentTimeMillis() - adminStart;
+        return new TopicAdminSnapshot(topicMetadataMap, offsetTable, capacities, latestMetrics);
+    }
 
-            return result[0];
+    /**
+     * 主题监控流水线的写库阶段：批量保存主题指标与即时指标
+     */
+    private void saveTopicMetricsBatch(List<TopicMetricsRecord> records) {
+        List<TopicMetrics> metricsList = new ArrayList<>(records.size());
+        List<TopicInstantMetrics> instantMetrics = new ArrayList<>(records.size() * 4);
+        for (TopicMetricsRecord record : records) {
+            if (record.metrics != null) {
+                metricsList.add(record.metrics);
+            }
+            instantMetrics.addAll(record.instantMetrics);
+        }
 
+        try {
+            if (!metricsList.isEmpty()) {
+                int result = topicMetricsMapper.batchInsert(metricsList);
+                if (result <= 0) {
+                    log.warn("批量保存主题指标数据失败，影响行数为0，记录数: {}", metricsList.size());
+                }
+            }
         } catch (Exception e) {
+            log.error("批量保存主题指标数据到数据库失败，记录数: {}", metricsList.size(), e);
         }
 
-        return BigDecimal.ZERO;
+        try {
+            if (!instantMetrics.isEmpty()) {
+                topicInstantMetricsMapper.batchUpsertMetrics(instantMetrics);
+            }
+        } catch (Exception e) {
+            log.error("批量保存主题即时指标失败，记录数: {}", instantMetrics.size(), e);
+        }
     }
 
     /**
-     * 执行JMX操作的辅助方法
+     * 主题监控流水线中单个集群的采集任务
      */
-    private void executeJmxOperation(JMXInitializeInfo initializeInfo, JMXOperation operation) {
-        javax.management.remote.JMXConnector connector = null;
-        try {
-            javax.management.remote.JMXServiceURL jmxUrl = new javax.management.remote.JMXServiceURL(
-                    String.format(initializeInfo.getUri(), initializeInfo.getHost() + ":" + initializeInfo.getPort()));
-            initializeInfo.setUrl(jmxUrl);
+    private static final class TopicClusterJob {
+        private final String clusterId;
+        private final List<BrokerInfo> brokers;
+        private final KafkaClientInfo kafkaClientInfo;
+        private final List<String> topicNames;
+        private final KafkaSchemaFactory ksf = new KafkaSchemaFactory(new KafkaStoragePlugin());
+        private final Map<String, String> fingerprints;
+        private final Map<String, String> missingBrokers = new ConcurrentHashMap<>();
+        private volatile long adminMs;
+        private volatile long jmxMs;
+        private volatile TopicMetadataTracker.Plan plan;
+
+        private TopicClusterJob(String clusterId, List<BrokerInfo> brokers, KafkaClientInfo kafkaClientInfo,
+                                List<String> topicNames, Map<String, String> fingerprints) {
+            this.clusterId = clusterId;
+            this.brokers = brokers;
+            this.kafkaClientInfo = kafkaClientInfo;
+            this.topicNames = topicNames;
+            this.fingerprints = fingerprints;
+        }
+    }
 
-            // 创建连接
-            connector = javax.management.remote.JMXConnectorFactory.connect(jmxUrl);
-            operation.execute(connector.getMBeanServerConnection());
-        } catch (Exception e) {
-        } finally {
-            if (connector != null) {
-                try {
-                    connector.close();
-                } catch (java.io.IOException e) {
-                    log.error("Failed to close JMX connector: {}", e.getMessage());
-                }
-            }
+    /**
+     * Admin 拉取阶段的结果：主题元数据、位移与容量快照，以及数据库中各主题的最新指标记录
+     */
+    private static final class TopicAdminSnapshot {
+        private final Map<String, TopicDetailedStats> metadata;
+        private final PartitionOffsetTable offsetTable;
+        private final TopicCapacityTable capacities;
+        private final Map<String, TopicMetrics> latestMetrics;
+
+        private TopicAdminSnapshot(Map<String, TopicDetailedStats> metadata, PartitionOffsetTable offsetTable,
+                                   TopicCapacityTable capacities, Map<String, TopicMetrics> latestMetrics) {
+            this.metadata = metadata != null ? metadata : Collections.emptyMap();
+            this.offsetTable = offsetTable;
+            this.capacities = capacities != null ? capacities : new TopicCapacityTable();
+            this.latestMetrics = latestMetrics != null ? latestMetrics : Collections.emptyMap();
         }
     }
 
     /**
-     * 保存主题指标到数据库
+     * 处理阶段输出、等待写库的单个主题指标
      */
-    private void saveTopicMetrics(TopicMetrics metrics) {
-        try {
-            int result = topicMetricsMapper.insert(metrics);
-            if (result <= 0) {
-                log.warn("保存主题指标数据失败，影响行数为0: {}", metrics.getTopicName());
-            }
-        } catch (Exception e) {
-            log.error("保存主题指标数据到数据库失败: {}", metrics.getTopicName(), e);
+    private static final class TopicMetricsRecord {
+        private final TopicMetrics metrics;
+        private final List<TopicInstantMetrics> instantMetrics;
+
+        private TopicMetricsRecord(TopicMetrics metrics, List<TopicInstantMetrics> instantMetrics) {
+            this.metrics = metrics;
+            this.instantMetrics = instantMetrics;
         }
     }
 
     /**
-     * JMX操作接口
+     * 估算消费者组的采集成本：集群级批量请求的耗时按各组的明细行数（成员 × 主题、主题位移）分摊，
+     * 规模记为组内不同成员数
      */
-    @FunctionalInterface
-    private interface JMXOperation {
-        void execute(javax.management.MBeanServerConnection mbeanConnection) throws Exception;
+    private void estimateConsumerGroupCosts(String clusterId, List<String> groupIds,
+                                            List<ConsumerGroupDetailInfo> details, List<ConsumerGroupTopicInfo> topicInfos,
+                                            long clusterElapsedMs, Map<String, Long> groupCosts, Map<String, Integer> groupSizes) {
+        Map<String, Integer> rows = new HashMap<>();
+        Map<String, Set<String>> members = new HashMap<>();
+        for (ConsumerGroupDetailInfo detail : details) {
+            rows.merge(detail.getGroupId(), 1, Integer::sum);
+            if (detail.getOwner() != null) {
+                members.computeIfAbsent(detail.getGroupId(), k -> new HashSet<>()).add(detail.getOwner());
+            }
+        }
+        for (ConsumerGroupTopicInfo topicInfo : topicInfos) {
+            rows.merge(topicInfo.getGroupId(), 1, Integer::sum);
+        }
+
+        long totalRows = 0;
+        for (String groupId : groupIds) {
+            totalRows += Math.max(1, rows.getOrDefault(groupId, 0));
+        }
+        for (String groupId : groupIds) {
+            String uniqueGroupKey = clusterId + ":" + groupId;
+            groupCosts.put(uniqueGroupKey, clusterElapsedMs * Math.max(1, rows.getOrDefault(groupId, 0)) / Math.max(1, totalRows));
+            groupSizes.put(uniqueGroupKey, Math.max(1, members.getOrDefault(groupId, Collections.emptySet()).size()));
+        }
     }
 
     /**
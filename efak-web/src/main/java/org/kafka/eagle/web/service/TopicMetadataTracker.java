@@ -0,0 +1,216 @@
+package org.kafka.eagle.web.service;
+
+import org.kafka.eagle.dto.topic.TopicDetailedStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 主题元数据增量跟踪。
+ * 分区布局与保留时间很少变化，主题监控每次都对全部分配主题执行 DescribeTopics + DescribeConfigs 并逐个写库是浪费。
+ * 这里按集群保存每个主题最近一次的 {@link TopicDetailedStats} 与元数据指纹（主题ID、分区数、Leader/副本分布），
+ * 只有新增、指纹变化或缓存缺失的主题需要重新描述；已删除或不再分配给本节点的主题从缓存移除。
+ * 保留时间等配置变化无法从元数据指纹发现，按较慢的周期对整个集群做一次全量刷新。
+ * 同时记录每个主题最近一次写库的内容摘要，内容未变化的主题不再写库。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/21 10:07:52
+ * @version 5.0.0
+ */
+@Service
+public class TopicMetadataTracker {
+
+    /**
+     * 全量刷新周期（分钟），到期后重新描述集群内全部分配主题并重写数据库
+     */
+    @Value("${efak.monitor.topic-full-refresh-minutes:30}")
+    private int fullRefreshMinutes;
+
+    private final Map<String, ClusterState> clusters = new ConcurrentHashMap<>();
+
+    private final LongAdder described = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+
+    /**
+     * 计算本次需要重新描述的主题，并移除已删除或不再分配给本节点的主题
+     *
+     * @param clusterId    集群ID
+     * @param topics       本节点分配到的主题
+     * @param fingerprints 集群内主题的元数据指纹，为 null 时视为无法判断，全部重新描述
+     * @return 需要重新描述的主题
+     */
+    public Plan plan(String clusterId, Collection<String> topics, Map<String, String> fingerprints) {
+        ClusterState state = clusters.computeIfAbsent(clusterId, k -> new ClusterState());
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            boolean fullRefresh = fingerprints == null
+                    || now - state.lastFullRefresh >= TimeUnit.MINUTES.toMillis(Math.max(1, fullRefreshMinutes));
+
+            Set<String> assigned = new HashSet<>(topics);
+            int removed = 0;
+            Iterator<Map.Entry<String, Entry>> iterator = state.topics.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Entry> cached = iterator.next();
+                if (!assigned.contains(cached.getKey())
+                        || (fingerprints != null && !fingerprints.containsKey(cached.getKey()))) {
+                    iterator.remove();
+                    state.savedSignatures.remove(cached.getKey());
+                    removed++;
+                }
+            }
+
+            Set<String> toDescribe = new HashSet<>();
+            for (String topic : assigned) {
+                Entry cached = state.topics.get(topic);
+                String fingerprint = fingerprints != null ? fingerprints.get(topic) : null;
+                if (fullRefresh || cached == null || fingerprint == null || !fingerprint.equals(cached.fingerprint)) {
+                    toDescribe.add(topic);
+                }
+            }
+
+            if (fullRefresh) {
+                state.lastFullRefresh = now;
+                state.savedSignatures.clear();
+            }
+            described.add(toDescribe.size());
+            reused.add(assigned.size() - toDescribe.size());
+            return new Plan(toDescribe, removed, fullRefresh);
+        }
+    }
+
+    /**
+     * 保存重新描述的主题元数据，并返回分配主题的最新元数据（未变化的主题使用缓存）
+     *
+     * @param clusterId    集群ID
+     * @param topics       本节点分配到的主题
+     * @param describedMap 本次重新描述得到的元数据
+     * @param fingerprints 集群内主题的元数据指纹
+     * @return 主题名称 -> 元数据
+     */
+    public Map<String, TopicDetailedStats> update(String clusterId, Collection<String> topics,
+                                                  Map<String, TopicDetailedStats> describedMap, Map<String, String> fingerprints) {
+        ClusterState state = clusters.computeIfAbsent(clusterId, k -> new ClusterState());
+        synchronized (state) {
+            for (Map.Entry<String, TopicDetailedStats> entry : describedMap.entrySet()) {
+                String fingerprint = fingerprints != null ? fingerprints.get(entry.getKey()) : null;
+                state.topics.put(entry.getKey(), new Entry(fingerprint, entry.getValue()));
+            }
+
+            Map<String, TopicDetailedStats> result = new HashMap<>();
+            for (String topic : topics) {
+                Entry cached = state.topics.get(topic);
+                if (cached != null) {
+                    result.put(topic, cached.stats);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 判断主题元数据与上次写库的内容相比是否有变化
+     */
+    public boolean needsSave(TopicDetailedStats stats) {
+        ClusterState state = clusters.get(stats.getClusterId());
+        if (state == null) {
+            return true;
+        }
+        boolean changed = !signatureOf(stats).equals(state.savedSignatures.get(stats.getTopicName()));
+        if (!changed) {
+            unchanged.increment();
+        }
+        return changed;
+    }
+
+    /**
+     * 记录主题元数据已写库
+     */
+    public void markSaved(TopicDetailedStats stats) {
+        ClusterState state = clusters.computeIfAbsent(stats.getClusterId(), k -> new ClusterState());
+        state.savedSignatures.put(stats.getTopicName(), signatureOf(stats));
+        saved.increment();
+    }
+
+    /**
+     * 获取跟踪统计：缓存主题数、重新描述与复用次数、写库与跳过次数
+     */
+    public Map<String, Object> getStats() {
+        int cachedTopics = 0;
+        for (ClusterState state : clusters.values()) {
+            cachedTopics += state.topics.size();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clusters", clusters.size());
+        stats.put("cachedTopics", cachedTopics);
+        stats.put("described", described.sum());
+        stats.put("reused", reused.sum());
+        stats.put("saved", saved.sum());
+        stats.put("unchanged", unchanged.sum());
+        stats.put("fullRefreshMinutes", fullRefreshMinutes);
+        return stats;
+    }
+
+    private static String signatureOf(TopicDetailedStats stats) {
+        return stats.getPartitionCount() + "|" + stats.getReplicationFactor() + "|" + stats.getBrokerSpread()
+                + "|" + stats.getBrokerSkewed() + "|" + stats.getLeaderSkewed() + "|" + stats.getRetentionMs();
+    }
+
+    /**
+     * 本次增量描述计划
+     */
+    public static final class Plan {
+        private final Set<String> toDescribe;
+        private final int removed;
+        private final boolean fullRefresh;
+
+        private Plan(Set<String> toDescribe, int removed, boolean fullRefresh) {
+            this.toDescribe = toDescribe;
+            this.removed = removed;
+            this.fullRefresh = fullRefresh;
+        }
+
+        /**
+         * 需要重新描述的主题
+         */
+        public Set<String> getToDescribe() {
+            return toDescribe;
+        }
+
+        /**
+         * 从缓存移除的主题数
+         */
+        public int getRemoved() {
+            return removed;
+        }
+
+        /**
+         * 是否为全量刷新
+         */
+        public boolean isFullRefresh() {
+            return fullRefresh;
+        }
+    }
+
+    private static final class ClusterState {
+        private final Map<String, Entry> topics = new HashMap<>();
+        private final Map<String, String> savedSignatures = new ConcurrentHashMap<>();
+        private long lastFullRefresh;
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final TopicDetailedStats stats;
+
+        private Entry(String fingerprint, TopicDetailedStats stats) {
+            this.fingerprint = fingerprint;
+            this.stats = stats;
+        }
+    }
+}
@@ -30,9 +30,11 @@ public interface TopicMetricsService {
      * @param endDate 结束日期 (yyyy-MM-dd)
      * @param topics 主题列表
      * @param clusterId 集群ID
+     * @param maxPoints 最多返回的点数，为null时不限制
      * @return 趋势数据
      */
-    Map<String, Object> getTopicTrendData(String dimension, String startDate, String endDate, List<String> topics, String clusterId);
+    Map<String, Object> getTopicTrendData(String dimension, String startDate, String endDate, List<String> topics, String clusterId,
+                                          Integer maxPoints);
 
     /**
      * Get topic message flow trend data for chart display
@@ -41,7 +43,8 @@ public interface TopicMetricsService {
      * @param clusterId 集群ID
      * @param topicName 主题名称
      * @param timeRange 时间范围 (1h/6h/1d/3d/7d)
+     * @param maxPoints 最多返回的点数，为null时使用默认值
      * @return 消息流量趋势数据列表
      */
-    List<Map<String, Object>> getTopicMessageFlowTrend(String clusterId, String topicName, String timeRange);
+    List<Map<String, Object>> getTopicMessageFlowTrend(String clusterId, String topicName, String timeRange, Integer maxPoints);
 }
\ No newline at end of file
@@ -0,0 +1,338 @@
+package org.kafka.eagle.web.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * 主题监控流水线执行器。
+ * 主题监控按集群依次执行 Admin 元数据拉取、JMX 流量拉取、逐主题计算与写库，串行时 Broker 延迟与数据库延迟相加。
+ * 这里将其拆分为四个阶段：每个集群的 Admin 拉取与 JMX 拉取并发执行，拉取结果进入有界队列由处理阶段逐个计算，
+ * 计算出的写入记录按批进入有界队列，由独立的写库线程批量写入；后一个集群的拉取与前一个集群的写库重叠执行。
+ * 队列满时上游阶段阻塞等待（背压），内存占用不随集群数与主题数增长。每个阶段记录处理数量、耗时与队列深度。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/20 15:41:06
+ * @version 5.0.0
+ */
+@Slf4j
+@Service
+public class TopicMonitorPipeline {
+
+    public static final String STAGE_ADMIN = "admin";
+    public static final String STAGE_JMX = "jmx";
+    public static final String STAGE_PROCESS = "process";
+    public static final String STAGE_WRITE = "write";
+
+    /**
+     * 已拉取、等待处理的集群快照数上限
+     */
+    @Value("${efak.monitor.pipeline.fetch-queue-capacity:2}")
+    private int fetchQueueCapacity;
+
+    /**
+     * 等待写库的批次数上限
+     */
+    @Value("${efak.monitor.pipeline.write-queue-capacity:8}")
+    private int writeQueueCapacity;
+
+    /**
+     * 每批写库的记录数
+     */
+    @Value("${efak.monitor.pipeline.write-batch-size:200}")
+    private int writeBatchSize;
+
+    private ExecutorService executor;
+
+    private final Map<String, StageStats> totalStats = new ConcurrentHashMap<>();
+    private volatile Map<String, Object> lastRunMetrics = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        // 并发拉取数受 fetchQueueCapacity 限制，线程数不会无限增长
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "efak-topic-pipeline-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        log.info("主题监控流水线已初始化: 拉取队列={}, 写库队列={}, 写库批大小={}",
+                fetchQueueCapacity, writeQueueCapacity, writeBatchSize);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 执行一次流水线，调用线程作为处理阶段，所有写入完成后返回
+     *
+     * @param sources     数据源（如待采集的集群）
+     * @param adminFetch  Admin 拉取阶段，抛出异常时跳过该数据源
+     * @param jmxFetch    JMX 拉取阶段，与 Admin 拉取并发执行，抛出异常时以 null 交给处理阶段
+     * @param processor   处理阶段，逐条输出写入记录
+     * @param batchWriter 写库阶段，每次写入一批记录
+     * @return 本次执行各阶段的指标
+     */
+    public <S, A, J, W> Map<String, Object> run(List<S> sources, Function<S, A> adminFetch, Function<S, J> jmxFetch,
+                                               Processor<S, A, J, W> processor, Consumer<List<W>> batchWriter) {
+        Map<String, StageStats> runStats = new LinkedHashMap<>();
+        for (String stage : List.of(STAGE_ADMIN, STAGE_JMX, STAGE_PROCESS, STAGE_WRITE)) {
+            runStats.put(stage, new StageStats());
+        }
+        if (sources == null || sources.isEmpty()) {
+            return snapshot(runStats, 0, 0);
+        }
+
+        int fetchCapacity = Math.max(1, fetchQueueCapacity);
+        // 队列深度由 fetchPermits 限制；队列本身不设上限，拉取线程停止时补发的结束标记总能入队
+        BlockingQueue<Fetched<S, A, J>> fetchedQueue = new LinkedBlockingQueue<>();
+        BlockingQueue<List<W>> writeQueue = new ArrayBlockingQueue<>(Math.max(1, writeQueueCapacity));
+        Semaphore fetchPermits = new Semaphore(fetchCapacity);
+        AtomicLong fetchQueueMax = new AtomicLong();
+        AtomicLong writeQueueMax = new AtomicLong();
+        List<W> endOfStream = new ArrayList<>(0);
+
+        // 写库阶段
+        Future<?> writer;
+        try {
+            writer = executor.submit(() -> {
+                while (true) {
+                    List<W> batch;
+                    try {
+                        batch = writeQueue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (batch == endOfStream) {
+                        return;
+                    }
+                    try {
+                        timed(runStats.get(STAGE_WRITE), batch.size(), () -> {
+                            batchWriter.accept(batch);
+                            return null;
+                        });
+                    } catch (Exception e) {
+                        log.error("主题监控批量写库失败: 批大小={}", batch.size(), e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("主题监控流水线线程池已关闭，跳过本次执行");
+            return snapshot(runStats, 0, 0);
+        }
+
+        // 拉取阶段：已拉取未处理的快照与拉取中的数据源合计不超过队列容量。
+        // 拉取线程提前停止（中断或线程池拒绝）时，为未提交的数据源补发结束标记，处理阶段不会无限等待
+        Runnable fetchStage = () -> {
+            int submitted = 0;
+            try {
+                for (S source : sources) {
+                    fetchPermits.acquire();
+                    CompletableFuture<Fetched<S, A, J>> admin = CompletableFuture.supplyAsync(
+                            () -> timed(runStats.get(STAGE_ADMIN), () -> adminFetch.apply(source)), executor)
+                            .handle((adminResult, adminError) -> new Fetched<>(source, adminResult, null, unwrap(adminError)));
+                    CompletableFuture<J> jmx = CompletableFuture.supplyAsync(
+                            () -> timed(runStats.get(STAGE_JMX), () -> jmxFetch.apply(source)), executor)
+                            .handle((value, error) -> {
+                                if (error != null) {
+                                    log.warn("JMX 拉取失败: {}", error.getMessage());
+                                }
+                                return value;
+                            });
+                    admin.thenCombine(jmx, (fetched, jmxResult) -> new Fetched<>(source, fetched.admin, jmxResult, fetched.adminError))
+                            .thenAccept(fetched -> {
+                                fetchedQueue.offer(fetched);
+                                fetchQueueMax.accumulateAndGet(fetchedQueue.size(), Math::max);
+                            });
+                    submitted++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RejectedExecutionException e) {
+                log.warn("主题监控拉取阶段被拒绝执行: {}", e.getMessage());
+            } finally {
+                for (int i = submitted; i < sources.size(); i++) {
+                    fetchedQueue.offer(new Fetched<>(sources.get(i), null, null,
+                            new CancellationException("拉取阶段已停止，未拉取该数据源")));
+                }
+            }
+        };
+        try {
+            executor.execute(fetchStage);
+        } catch (RejectedExecutionException e) {
+            // 线程池已关闭时在调用线程执行，拉取被拒绝后所有数据源以结束标记返回
+            fetchStage.run();
+        }
+
+        // 处理阶段（调用线程）
+        int batchSize = Math.max(1, writeBatchSize);
+        AtomicReference<List<W>> pending = new AtomicReference<>(new ArrayList<>(batchSize));
+        Consumer<W> emit = record -> {
+            pending.get().add(record);
+            if (pending.get().size() >= batchSize) {
+                putQuietly(writeQueue, pending.getAndSet(new ArrayList<>(batchSize)), writeQueueMax);
+            }
+        };
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                Fetched<S, A, J> fetched = fetchedQueue.take();
+                fetchPermits.release();
+                if (fetched.adminError != null) {
+                    log.error("数据源拉取失败，跳过: {}", fetched.adminError.getMessage(), fetched.adminError);
+                    continue;
+                }
+                try {
+                    timed(runStats.get(STAGE_PROCESS), () -> {
+                        processor.process(fetched.source, fetched.admin, fetched.jmx, emit);
+                        return null;
+                    });
+                } catch (Exception e) {
+                    log.error("主题监控处理阶段失败: {}", e.getMessage(), e);
+                }
+            }
+            if (!pending.get().isEmpty()) {
+                putQuietly(writeQueue, pending.get(), writeQueueMax);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            putQuietly(writeQueue, endOfStream, writeQueueMax);
+        }
+
+        try {
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("主题监控写库阶段异常", e.getCause());
+        }
+
+        runStats.forEach((stage, stats) -> totalStats.computeIfAbsent(stage, k -> new StageStats()).add(stats));
+        Map<String, Object> metrics = snapshot(runStats, fetchQueueMax.get(), writeQueueMax.get());
+        lastRunMetrics = metrics;
+        return metrics;
+    }
+
+    /**
+     * 获取流水线指标：最近一次执行与累计的各阶段处理数量、耗时、吞吐与队列深度
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("lastRun", lastRunMetrics);
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totalStats.forEach((stage, stats) -> totals.put(stage, stats.snapshot()));
+        metrics.put("total", totals);
+        return metrics;
+    }
+
+    private static <T> void putQuietly(BlockingQueue<T> queue, T item, AtomicLong maxDepth) {
+        try {
+            queue.put(item);
+            maxDepth.accumulateAndGet(queue.size(), Math::max);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static <T> T timed(StageStats stats, Callable<T> work) {
+        return timed(stats, 1, work);
+    }
+
+    private static <T> T timed(StageStats stats, int items, Callable<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            stats.record(items, System.nanoTime() - start);
+        }
+    }
+
+    private static Map<String, Object> snapshot(Map<String, StageStats> stages, long fetchQueueMax, long writeQueueMax) {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        stages.forEach((stage, stats) -> metrics.put(stage, stats.snapshot()));
+        metrics.put("fetchQueueMaxDepth", fetchQueueMax);
+        metrics.put("writeQueueMaxDepth", writeQueueMax);
+        return metrics;
+    }
+
+    /**
+     * 处理阶段：根据拉取结果计算写入记录
+     */
+    @FunctionalInterface
+    public interface Processor<S, A, J, W> {
+        void process(S source, A admin, J jmx, Consumer<W> emit) throws Exception;
+    }
+
+    private static final class Fetched<S, A, J> {
+        private final S source;
+        private final A admin;
+        private final J jmx;
+        private final Throwable adminError;
+
+        private Fetched(S source, A admin, J jmx, Throwable adminError) {
+            this.source = source;
+            this.admin = admin;
+            this.jmx = jmx;
+            this.adminError = adminError;
+        }
+    }
+
+    /**
+     * 单个阶段的处理数量与耗时
+     */
+    private static final class StageStats {
+        private final LongAdder items = new LongAdder();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+
+        void record(int count, long nanos) {
+            items.add(count);
+            calls.increment();
+            busyNanos.add(nanos);
+        }
+
+        void add(StageStats other) {
+            items.add(other.items.sum());
+            calls.add(other.calls.sum());
+            busyNanos.add(other.busyNanos.sum());
+        }
+
+        Map<String, Object> snapshot() {
+            long n = items.sum();
+            long c = calls.sum();
+            long busyMs = TimeUnit.NANOSECONDS.toMillis(busyNanos.sum());
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("items", n);
+            snapshot.put("calls", c);
+            snapshot.put("busyMs", busyMs);
+            snapshot.put("avgMs", c > 0 ? busyMs / c : 0L);
+            snapshot.put("throughputPerSec", busyMs > 0 ? n * 1000 / busyMs : n);
+            return snapshot;
+        }
+    }
+}
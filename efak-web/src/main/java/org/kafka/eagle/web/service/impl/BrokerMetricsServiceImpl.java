@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.kafka.eagle.dto.broker.BrokerMetrics;
 import org.kafka.eagle.web.mapper.BrokerMetricsMapper;
 import org.kafka.eagle.web.service.BrokerMetricsService;
+import org.kafka.eagle.web.util.TrendDownsampler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -190,14 +191,23 @@ public class BrokerMetricsServiceImpl implements BrokerMetricsService {
     }
 
     @Override
-    public Map<String, Object> getTrendData(String metricType, String timeRange, String clusterId) {
+    public Map<String, Object> getTrendData(String metricType, String timeRange, String clusterId, Integer maxPoints) {
         try {
             BrokerMetricsService.TimeRange range = BrokerMetricsService.TimeRange.fromCode(timeRange);
             LocalDateTime endTime = LocalDateTime.now();
             LocalDateTime startTime = range.calculateStartTime(endTime);
 
-            List<Map<String, Object>> trendData = queryTrendDataByCluster(
-                    metricType, clusterId, startTime, endTime, range.getAggregationType());
+            List<Map<String, Object>> trendData;
+            if (maxPoints != null) {
+                // 指定点数时在数据库端按时间桶聚合
+                long bucketSeconds = TrendDownsampler.bucketSeconds(startTime, endTime,
+                        TrendDownsampler.resolveMaxPoints(maxPoints, TrendDownsampler.MAX_POINTS));
+                trendData = brokerMetricsMapper.queryTrendDataByBucket(
+                        metricType, clusterId, startTime, endTime, bucketSeconds);
+            } else {
+                trendData = queryTrendDataByCluster(
+                        metricType, clusterId, startTime, endTime, range.getAggregationType());
+            }
 
             return formatChartData(trendData, metricType);
         } catch (Exception e) {
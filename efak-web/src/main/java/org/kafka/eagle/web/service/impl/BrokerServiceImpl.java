@@ -1,5 +1,9 @@
 package org.kafka.eagle.web.service.impl;
 
+import org.kafka.eagle.core.api.JmxCircuitBreaker;
+import org.kafka.eagle.core.api.JmxConnectorPool;
+import org.kafka.eagle.core.api.KafkaAdminClientRegistry;
+import org.kafka.eagle.core.api.KafkaConsumerPool;
 import org.kafka.eagle.web.service.BrokerService;
 import org.kafka.eagle.web.service.BrokerMetricsService;
 import org.kafka.eagle.dto.broker.BrokerInfo;
@@ -96,7 +100,12 @@ public class BrokerServiceImpl implements BrokerService {
         boolean isOnline = checkBrokerConnection(broker.getHostIp(), broker.getPort());
         broker.setStatus(isOnline ? "online" : "offline");
 
-        return brokerMapper.createBroker(broker) > 0;
+        boolean created = brokerMapper.createBroker(broker) > 0;
+        if (created) {
+            KafkaAdminClientRegistry.invalidate(broker.getClusterId());
+            KafkaConsumerPool.invalidate(broker.getClusterId());
+        }
+        return created;
     }
 
     @Override
@@ -111,12 +120,30 @@ public class BrokerServiceImpl implements BrokerService {
         boolean isOnline = checkBrokerConnection(broker.getHostIp(), broker.getPort());
         broker.setStatus(isOnline ? "online" : "offline");
 
-        return brokerMapper.updateBroker(broker) > 0;
+        boolean updated = brokerMapper.updateBroker(broker) > 0;
+        if (updated) {
+            KafkaAdminClientRegistry.invalidate(existingBroker.getClusterId());
+            KafkaConsumerPool.invalidate(existingBroker.getClusterId());
+            if (existingBroker.getJmxPort() != null) {
+                // JMX 地址可能已变更，关闭旧连接并重置熔断状态
+                JmxConnectorPool.invalidate(existingBroker.getHostIp(), existingBroker.getJmxPort());
+            }
+        }
+        return updated;
     }
 
     @Override
     public boolean deleteBroker(Long id) {
-        return brokerMapper.deleteBroker(id) > 0;
+        BrokerInfo existingBroker = brokerMapper.getBrokerById(id);
+        boolean deleted = brokerMapper.deleteBroker(id) > 0;
+        if (deleted && existingBroker != null) {
+            KafkaAdminClientRegistry.invalidate(existingBroker.getClusterId());
+            KafkaConsumerPool.invalidate(existingBroker.getClusterId());
+            if (existingBroker.getJmxPort() != null) {
+                JmxConnectorPool.invalidate(existingBroker.getHostIp(), existingBroker.getJmxPort());
+            }
+        }
+        return deleted;
     }
 
     @Override
@@ -261,5 +288,39 @@ public class BrokerServiceImpl implements BrokerService {
         return brokerMapper.getBrokersByClusterId(clusterId);
     }
 
+    @Override
+    public List<Map<String, Object>> getJmxBreakerStates(String clusterId) {
+        List<BrokerInfo> brokers = clusterId == null || clusterId.trim().isEmpty()
+                ? brokerMapper.queryAllBrokers()
+                : brokerMapper.getBrokersByClusterId(clusterId);
+
+        Map<String, Map<String, Object>> details = new HashMap<>();
+        for (Map<String, Object> state : JmxCircuitBreaker.getStates()) {
+            details.put(String.valueOf(state.get("endpoint")), state);
+        }
+
+        List<Map<String, Object>> states = new ArrayList<>();
+        for (BrokerInfo broker : brokers) {
+            if (broker.getJmxPort() == null || broker.getJmxPort() <= 0) {
+                continue;
+            }
+            Map<String, Object> state = new HashMap<>();
+            state.put("clusterId", broker.getClusterId());
+            state.put("brokerId", broker.getBrokerId());
+            state.put("hostIp", broker.getHostIp());
+            state.put("jmxPort", broker.getJmxPort());
+            state.put("state", JmxCircuitBreaker.stateOf(broker.getHostIp(), broker.getJmxPort()).name());
+            Map<String, Object> detail = details.get(broker.getHostIp() + ":" + broker.getJmxPort());
+            if (detail != null) {
+                state.put("consecutiveFailures", detail.get("consecutiveFailures"));
+                state.put("retryInMs", detail.get("retryInMs"));
+                state.put("lastFailureTime", detail.get("lastFailureTime"));
+                state.put("lastError", detail.get("lastError"));
+            }
+            states.add(state);
+        }
+        return states;
+    }
+
 
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package org.kafka.eagle.web.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.kafka.eagle.core.api.KafkaAdminClientRegistry;
+import org.kafka.eagle.core.api.KafkaConsumerPool;
 import org.kafka.eagle.core.util.NetUtils;
 import org.kafka.eagle.dto.broker.BrokerInfo;
 import org.kafka.eagle.dto.cluster.ClusterPageResponse;
@@ -236,13 +238,22 @@ public class ClusterServiceImpl implements ClusterService {
             }
         }
 
-        // 5) 更新汇总统计
+        // 5) 连接配置可能已变化，使缓存的 AdminClient 与消费者失效
+        KafkaAdminClientRegistry.invalidate(info.getClusterId());
+        KafkaConsumerPool.invalidate(info.getClusterId());
+
+        // 6) 更新汇总统计
         updateSummaryByClusterId(info.getClusterId());
         return updated;
     }
 
     @Override
     public int delete(Long id) {
+        KafkaClusterInfo cluster = clusterMapper.getById(id);
+        if (cluster != null) {
+            KafkaAdminClientRegistry.invalidate(cluster.getClusterId());
+            KafkaConsumerPool.invalidate(cluster.getClusterId());
+        }
         return clusterMapper.deleteCluster(id);
     }
 
@@ -251,6 +262,8 @@ public class ClusterServiceImpl implements ClusterService {
     public int deleteByClusterId(String clusterId) {
         // 先删除该集群下的所有Broker节点
         int deletedBrokers = brokerMapper.deleteBrokersByClusterId(clusterId);
+        KafkaAdminClientRegistry.invalidate(clusterId);
+        KafkaConsumerPool.invalidate(clusterId);
 
         // 再删除集群信息
         KafkaClusterInfo cluster = clusterMapper.findByClusterId(clusterId);
@@ -3,18 +3,23 @@ package org.kafka.eagle.web.service.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.kafka.eagle.core.api.KafkaSchemaFactory;
 import org.kafka.eagle.core.api.KafkaStoragePlugin;
+import org.kafka.eagle.core.dto.LagRingBuffer;
 import org.kafka.eagle.dto.cluster.KafkaClientInfo;
 import org.kafka.eagle.dto.consumer.*;
 import org.kafka.eagle.web.mapper.ConsumerGroupTopicMapper;
 import org.kafka.eagle.web.service.BrokerService;
 import org.kafka.eagle.web.service.ConsumerGroupTopicService;
+import org.kafka.eagle.web.service.ConsumerLagSampler;
+import org.kafka.eagle.web.util.TrendDownsampler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
@@ -37,6 +42,26 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
     @Autowired
     private BrokerService brokerService;
 
+    @Autowired
+    private ConsumerLagSampler consumerLagSampler;
+
+    /**
+     * 最近一次采集窗口（秒）：最新状态表中采集时间距最新采集时间不超过该值的记录视为最近一次采集的结果，
+     * 覆盖采集周期与各节点分片采集的时间差；当天已删除或不再消费的消费者组不会被计入
+     */
+    @Value("${efak.monitor.consumer-latest-window-seconds:90}")
+    private int latestWindowSeconds;
+
+    /**
+     * 消费者组趋势默认最多返回的点数
+     */
+    private static final int IDLE_TREND_MAX_POINTS = 24;
+
+    /**
+     * 消费者组延迟趋势默认最多返回的点数
+     */
+    private static final int LAG_TREND_MAX_POINTS = 120;
+
     @Override
     public ConsumerGroupTopicPageResponse getConsumerGroupTopicPage(ConsumerGroupTopicQueryRequest request) {
         if (request == null) {
@@ -119,6 +144,8 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
 
             int result = consumerGroupTopicMapper.batchInsertConsumerGroupTopic(requests);
             if (result > 0) {
+                // 同一事务内更新最新状态表，列表、统计与告警查询只读最新状态表
+                consumerGroupTopicMapper.batchUpsertConsumerGroupLatest(requests);
                 return true;
             } else {
                 log.error("批量插入消费者组主题数据失败：数据库操作返回0");
@@ -126,8 +153,9 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
             }
 
         } catch (Exception e) {
+            // 重新抛出异常，由事务回滚已写入的历史记录，避免历史表与最新状态表不一致
             log.error("批量插入消费者组主题数据失败：{}", e.getMessage(), e);
-            return false;
+            throw e;
         }
     }
 
@@ -162,6 +190,7 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
             }
 
             int result = consumerGroupTopicMapper.deleteDataBeforeDate(beforeDay);
+            consumerGroupTopicMapper.deleteLatestBeforeDate(beforeDay);
             return true;
 
         } catch (Exception e) {
@@ -180,6 +209,7 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
             }
 
             int result = consumerGroupTopicMapper.deleteByClusterId(clusterId);
+            consumerGroupTopicMapper.deleteLatestByClusterId(clusterId);
             return true;
 
         } catch (Exception e) {
@@ -239,7 +269,7 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
      */
     private String calculateAvgLagRate(String clusterId, String collectDate) {
         try {
-            Map<String, Object> data = consumerGroupTopicMapper.getLatestLagsAndLogsize(clusterId, collectDate);
+            Map<String, Object> data = consumerGroupTopicMapper.getLatestLagsAndLogsize(clusterId, collectDate, latestWindowSeconds);
             if (data != null) {
                 Long totalLags = ((Number) data.get("totalLags")).longValue();
                 Long totalLogsize = ((Number) data.get("totalLogsize")).longValue();
@@ -261,68 +291,31 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
      */
     private String calculateAvgConsumerRate(String clusterId, String collectDate) {
         try {
+            // 最新状态表中每个消费者组主题保留最近两次采集的offset
             List<Map<String, Object>> offsetsData = consumerGroupTopicMapper.getOffsetsForConsumerRate(clusterId, collectDate);
-            if (offsetsData == null || offsetsData.size() < 2) {
+            if (offsetsData == null || offsetsData.isEmpty()) {
                 return "0.00";
             }
 
-            // 找出最近的两个不同的时间点
-            Set<Long> distinctTimes = new LinkedHashSet<>();
-            for (Map<String, Object> record : offsetsData) {
-                long timestamp = getTimestamp(record.get("collect_time"));
-                distinctTimes.add(timestamp);
-                if (distinctTimes.size() >= 2) {
-                    break; // 只需要最近的两个时间点
-                }
-            }
-
-            if (distinctTimes.size() < 2) {
-                return "0.00";
-            }
-
-            // 转换为List以便按索引访问
-            List<Long> timesList = new ArrayList<>(distinctTimes);
-            Long latestTime = timesList.get(0);
-            Long previousTime = timesList.get(1);
+            BigDecimal totalRate = BigDecimal.ZERO;
+            int validGroups = 0;
 
-            // 按 group_id + topic 分组，只保留最近两个时间点的数据
-            Map<String, List<Map<String, Object>>> groupedData = new HashMap<>();
             for (Map<String, Object> record : offsetsData) {
-                long timestamp = getTimestamp(record.get("collect_time"));
-                if (timestamp == latestTime || timestamp == previousTime) {
-                    String key = record.get("group_id") + ":" + record.get("topic");
-                    groupedData.computeIfAbsent(key, k -> new ArrayList<>()).add(record);
+                Object currentOffsets = record.get("offsets");
+                Object previousOffsets = record.get("prev_offsets");
+                if (!(currentOffsets instanceof Number) || !(previousOffsets instanceof Number)) {
+                    continue;
                 }
-            }
-
-            BigDecimal totalRate = BigDecimal.ZERO;
-            int validGroups = 0;
 
-            for (List<Map<String, Object>> records : groupedData.values()) {
-                if (records.size() >= 2) {
-                    // 按时间排序，处理LocalDateTime和Date两种类型
-                    records.sort((a, b) -> {
-                        long timeA = getTimestamp(a.get("collect_time"));
-                        long timeB = getTimestamp(b.get("collect_time"));
-                        return Long.compare(timeB, timeA); // 降序排列，最新的在前
-                    });
-
-                    Map<String, Object> current = records.get(0); // 最新的数据
-                    Map<String, Object> previous = records.get(1); // 前一个时间点的数据
-
-                    Long currentOffsets = ((Number) current.get("offsets")).longValue();
-                    Long previousOffsets = ((Number) previous.get("offsets")).longValue();
-
-                    long timeDiffMs = getTimestamp(current.get("collect_time")) - getTimestamp(previous.get("collect_time"));
-                    if (timeDiffMs > 0) {
-                        long offsetDiff = currentOffsets - previousOffsets;
-                        // 转换为每分钟的速率
-                        BigDecimal rate = BigDecimal.valueOf(offsetDiff)
-                                .multiply(BigDecimal.valueOf(60000))
-                                .divide(BigDecimal.valueOf(timeDiffMs), 2, RoundingMode.HALF_UP);
-                        totalRate = totalRate.add(rate.max(BigDecimal.ZERO));
-                        validGroups++;
-                    }
+                long timeDiffMs = getTimestamp(record.get("collect_time")) - getTimestamp(record.get("prev_collect_time"));
+                if (timeDiffMs > 0) {
+                    long offsetDiff = ((Number) currentOffsets).longValue() - ((Number) previousOffsets).longValue();
+                    // 转换为每分钟的速率
+                    BigDecimal rate = BigDecimal.valueOf(offsetDiff)
+                            .multiply(BigDecimal.valueOf(60000))
+                            .divide(BigDecimal.valueOf(timeDiffMs), 2, RoundingMode.HALF_UP);
+                    totalRate = totalRate.add(rate.max(BigDecimal.ZERO));
+                    validGroups++;
                 }
             }
 
@@ -359,7 +352,7 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
         result.put("laggingGroups", 0);
 
         try {
-            List<Map<String, Object>> lagRates = consumerGroupTopicMapper.getGroupTopicLagRates(clusterId, collectDate);
+            List<Map<String, Object>> lagRates = consumerGroupTopicMapper.getGroupTopicLagRates(clusterId, collectDate, latestWindowSeconds);
             if (lagRates != null && !lagRates.isEmpty()) {
                 Set<String> slowGroupSet = new HashSet<>();
                 Set<String> laggingGroupSet = new HashSet<>();
@@ -396,40 +389,35 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
     }
 
     @Override
-    public List<Map<String, Object>> getIdleGroupsTrend(String clusterId, String timeRange) {
+    public List<Map<String, Object>> getIdleGroupsTrend(String clusterId, String timeRange, Integer maxPoints) {
+        // 解析时间范围，默认为24小时
+        LocalDateTime endTime = LocalDateTime.now();
+        LocalDateTime startTime = endTime.minusHours(parseTimeRange(timeRange));
+        return getIdleGroupsTrend(clusterId, startTime, endTime,
+                TrendDownsampler.resolveMaxPoints(maxPoints, IDLE_TREND_MAX_POINTS));
+    }
+
+    @Override
+    public List<Map<String, Object>> getIdleGroupsTrend(String clusterId, LocalDateTime startTime, LocalDateTime endTime, int maxPoints) {
         List<Map<String, Object>> trendData = new ArrayList<>();
 
         try {
-            // 解析时间范围，默认为24小时
-            int hours = parseTimeRange(timeRange);
-
-            // 查询数据库获取趋势数据
-            List<Map<String, Object>> rawData = consumerGroupTopicMapper.getIdleGroupsTrend(clusterId, hours);
+            // 在数据库端按时间桶聚合，避免X轴过于密集
+            List<Map<String, Object>> rawData = consumerGroupTopicMapper.getIdleGroupsTrend(
+                    clusterId, startTime, endTime, TrendDownsampler.bucketSeconds(startTime, endTime, maxPoints));
 
             if (rawData != null && !rawData.isEmpty()) {
-                // 对数据进行采样处理，避免X轴过于密集
-                List<Map<String, Object>> sampledData = sampleTrendData(rawData, 24); // 最多显示24个点
-
-                for (Map<String, Object> record : sampledData) {
-                    Map<String, Object> point = new HashMap<>();
-
-                    // 处理时间字段，支持LocalDateTime和Date两种类型
-                    Object collectTimeObj = record.get("collect_time");
-                    long timestamp;
-
-                    if (collectTimeObj instanceof LocalDateTime) {
-                        LocalDateTime localDateTime = (LocalDateTime) collectTimeObj;
-                        timestamp = localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-                    } else if (collectTimeObj instanceof Date) {
-                        timestamp = ((Date) collectTimeObj).getTime();
-                    } else {
-                        // 如果时间字段为空或类型不匹配，使用当前时间
-                        timestamp = System.currentTimeMillis();
-                        log.warn("无法解析时间字段，使用当前时间: {}", collectTimeObj);
+                SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+                for (Map<String, Object> record : rawData) {
+                    Object bucketTime = record.get("bucket_time");
+                    if (bucketTime == null) {
+                        continue;
                     }
+                    long timestamp = getTimestamp(bucketTime);
 
+                    Map<String, Object> point = new HashMap<>();
                     point.put("timestamp", timestamp);
-                    point.put("timePoint", (String) record.get("time_point"));
+                    point.put("timePoint", formatter.format(new Date(timestamp)));
                     point.put("activeGroups", ((Number) record.getOrDefault("active_groups", 0)).intValue());
                     point.put("idleGroups", ((Number) record.getOrDefault("idle_groups", 0)).intValue());
                     trendData.add(point);
@@ -472,29 +460,6 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
         }
     }
 
-    /**
-     * 对趋势数据进行采样，避免X轴过于密集
-     */
-    private List<Map<String, Object>> sampleTrendData(List<Map<String, Object>> rawData, int maxPoints) {
-        if (rawData.size() <= maxPoints) {
-            return rawData;
-        }
-
-        List<Map<String, Object>> sampledData = new ArrayList<>();
-        int step = rawData.size() / maxPoints;
-
-        for (int i = 0; i < rawData.size(); i += step) {
-            sampledData.add(rawData.get(i));
-        }
-
-        // 确保包含最后一个数据点
-        if (!sampledData.isEmpty() && !sampledData.get(sampledData.size() - 1).equals(rawData.get(rawData.size() - 1))) {
-            sampledData.add(rawData.get(rawData.size() - 1));
-        }
-
-        return sampledData;
-    }
-
     @Override
     public ConsumerGroupPageResponse getConsumerGroupsList(String clusterId, String search, int page, int pageSize) {
         try {
@@ -583,14 +548,19 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
 
     @Override
     public Map<String, Object> getConsumerGroupDetail(String clusterId, String groupId, String topic) {
+        // 默认统计当天
+        LocalDateTime endTime = LocalDateTime.now();
+        return getConsumerGroupDetail(clusterId, groupId, topic, endTime.toLocalDate().atStartOfDay(), endTime);
+    }
+
+    @Override
+    public Map<String, Object> getConsumerGroupDetail(String clusterId, String groupId, String topic,
+                                                      LocalDateTime startTime, LocalDateTime endTime) {
         Map<String, Object> detailInfo = new HashMap<>();
 
         try {
-            // 获取当天日期
-            String collectDate = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-
-            // 获取当天的所有记录用于计算详细指标
-            List<Map<String, Object>> todayRecords = consumerGroupTopicMapper.getTodayRecordsForDetail(clusterId, groupId, topic, collectDate);
+            // 获取时间范围内的记录用于计算详细指标
+            List<Map<String, Object>> todayRecords = consumerGroupTopicMapper.getRecordsForDetail(clusterId, groupId, topic, startTime, endTime);
 
             // 获取最新状态
             Map<String, Object> latestStateRecord = consumerGroupTopicMapper.getLatestStateForDetail(clusterId, groupId, topic);
@@ -608,7 +578,27 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
                 String avgConsumptionRate = calculateAverageConsumptionRate(todayRecords);
 
                 // 4. 获取最新的总延迟
-                long totalLag = getTotalLagFromLatestRecord(todayRecords);
+                Object latestLag = latestStateRecord.get("lags");
+                long totalLag = latestLag instanceof Number ? ((Number) latestLag).longValue() : getTotalLagFromLatestRecord(todayRecords);
+
+                // 本节点有高频采样时，最新积压与覆盖范围内的平均值取自采样缓冲区
+                LagRingBuffer buffer = consumerLagSampler.buffer(clusterId, groupId, topic);
+                if (buffer != null) {
+                    LagRingBuffer.Window latest = buffer.latest(1);
+                    if (!latest.isEmpty()) {
+                        totalLag = latest.lag(0);
+                        lastUpdated = toLocalDateTime(latest.timestamp(0));
+                    }
+                    long startMillis = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    if (consumerLagSampler.covers(clusterId, groupId, topic, startMillis)) {
+                        LagRingBuffer.Window window = buffer.window(startMillis - 1,
+                                endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                        if (!window.isEmpty()) {
+                            avgLagRate = calculateAverageLagRate(window);
+                            avgConsumptionRate = calculateAverageConsumptionRate(window);
+                        }
+                    }
+                }
 
                 // 设置详细信息
                 detailInfo.put("state", getStateDisplayText(state));
@@ -624,7 +614,7 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
                 detailInfo.put("avgLagRate", "0.00%");
                 detailInfo.put("lastUpdated", null);
 
-                log.warn("消费者组 {} 当天无数据，返回默认值", groupId);
+                log.warn("消费者组 {} 在 {} ~ {} 内无数据，返回默认值", groupId, startTime, endTime);
             }
 
         } catch (Exception e) {
@@ -722,6 +712,49 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
         return String.format("%.2f", Math.max(0, avgRate));
     }
 
+    /**
+     * 按采样缓冲区计算平均延迟率
+     */
+    private String calculateAverageLagRate(LagRingBuffer.Window window) {
+        long totalLags = 0;
+        long totalLogsize = 0;
+        for (int i = 0; i < window.size(); i++) {
+            if (window.logsize(i) > 0) {
+                totalLags += window.lag(i);
+                totalLogsize += window.logsize(i);
+            }
+        }
+        if (totalLogsize == 0) {
+            return "0.00%";
+        }
+        double avgLagRate = (double) totalLags / totalLogsize * 100;
+        return String.format("%.2f%%", Math.max(0, avgLagRate));
+    }
+
+    /**
+     * 按采样缓冲区计算平均消费速率
+     */
+    private String calculateAverageConsumptionRate(LagRingBuffer.Window window) {
+        double totalRate = 0;
+        int validCalculations = 0;
+        for (int i = 1; i < window.size(); i++) {
+            long timeDiffSeconds = (window.timestamp(i) - window.timestamp(i - 1)) / 1000;
+            long offsetsDiff = window.offset(i) - window.offset(i - 1);
+            if (timeDiffSeconds > 0 && offsetsDiff >= 0) {
+                totalRate += (double) offsetsDiff / timeDiffSeconds;
+                validCalculations++;
+            }
+        }
+        if (validCalculations == 0) {
+            return "0.00";
+        }
+        return String.format("%.2f", Math.max(0, totalRate / validCalculations));
+    }
+
+    private LocalDateTime toLocalDateTime(long timestamp) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
+    }
+
     /**
      * 从时间对象获取时间戳
      */
@@ -777,26 +810,44 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
         Map<String, Object> speedData = new HashMap<>();
 
         try {
-            // 获取最新的2条记录用于计算速度
-            List<Map<String, Object>> records = consumerGroupTopicMapper.getLatestTwoRecordsForSpeed(clusterId, groupId, topic);
+            // 本节点有高频采样时，按最近一分钟的采样计算速度
+            LagRingBuffer buffer = consumerLagSampler.buffer(clusterId, groupId, topic);
+            if (buffer != null && buffer.size() >= 2) {
+                long latestTimestamp = buffer.latestTimestamp();
+                LagRingBuffer.Window window = buffer.window(latestTimestamp - 60_000L - 1, latestTimestamp);
+                if (window.size() < 2) {
+                    window = buffer.latest(2);
+                }
+                int last = window.size() - 1;
+                double intervalSeconds = (window.timestamp(last) - window.timestamp(0)) / 1000.0;
+                if (intervalSeconds > 0) {
+                    double writeSpeed = Math.max(0, (window.logsize(last) - window.logsize(0)) / intervalSeconds);
+                    double readSpeed = Math.max(0, (window.offset(last) - window.offset(0)) / intervalSeconds);
+                    speedData.put("writeSpeed", String.format("%.2f", writeSpeed));
+                    speedData.put("readSpeed", String.format("%.2f", readSpeed));
+                    return speedData;
+                }
+            }
 
-            if (records.size() >= 2) {
-                Map<String, Object> latest = records.get(0);  // 最新第1条记录
-                Map<String, Object> previous = records.get(1); // 最新第2条记录
+            // 最新状态表的一行同时保存最近一次与上一次采集的数据
+            Map<String, Object> record = consumerGroupTopicMapper.getLatestSpeedWindow(clusterId, groupId, topic);
 
+            if (record != null && record.get("prev_collect_time") != null) {
                 // 获取logsize和offsets值
-                Long latestLogsize = ((Number) latest.getOrDefault("logsize", 0L)).longValue();
-                Long previousLogsize = ((Number) previous.getOrDefault("logsize", 0L)).longValue();
-                Long latestOffsets = ((Number) latest.getOrDefault("offsets", 0L)).longValue();
-                Long previousOffsets = ((Number) previous.getOrDefault("offsets", 0L)).longValue();
+                long latestLogsize = ((Number) record.getOrDefault("logsize", 0L)).longValue();
+                long previousLogsize = ((Number) record.getOrDefault("prev_logsize", 0L)).longValue();
+                long latestOffsets = ((Number) record.getOrDefault("offsets", 0L)).longValue();
+                long previousOffsets = ((Number) record.getOrDefault("prev_offsets", 0L)).longValue();
 
                 // 计算差值
                 long logsizeDiff = latestLogsize - previousLogsize;
                 long offsetsDiff = latestOffsets - previousOffsets;
 
-                // 计算速度（差值/60秒）
-                double writeSpeed = logsizeDiff / 60.0;  // 写入速度：logsize差值/60s
-                double readSpeed = offsetsDiff / 60.0;   // 读取速度：offsets差值/60s
+                // 按两次采集的实际间隔计算速度，间隔未知时按60秒计算
+                long intervalMs = getTimestamp(record.get("collect_time")) - getTimestamp(record.get("prev_collect_time"));
+                double intervalSeconds = intervalMs > 0 ? intervalMs / 1000.0 : 60.0;
+                double writeSpeed = logsizeDiff / intervalSeconds;  // 写入速度：logsize差值/间隔
+                double readSpeed = offsetsDiff / intervalSeconds;   // 读取速度：offsets差值/间隔
 
                 // 确保速度不为负数
                 writeSpeed = Math.max(0, writeSpeed);
@@ -809,7 +860,7 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
                 speedData.put("writeSpeed", 0L);
                 speedData.put("readSpeed", 0L);
 
-                log.warn("消费者组 {} 数据不足，无法计算速度，记录数量: {}", groupId, records.size());
+                log.warn("消费者组 {} 数据不足，无法计算速度", groupId);
             }
 
         } catch (Exception e) {
@@ -822,37 +873,58 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
     }
 
     @Override
-    public List<Map<String, Object>> getConsumerGroupLagTrend(String clusterId, String groupId, String topic, String timeRange) {
+    public List<Map<String, Object>> getConsumerGroupLagTrend(String clusterId, String groupId, String topic, String timeRange,
+                                                              Integer maxPoints) {
+        LocalDateTime endTime = LocalDateTime.now();
+        LocalDateTime startTime = endTime.minusHours(parseTimeRange(timeRange));
+        return getConsumerGroupLagTrend(clusterId, groupId, topic, startTime, endTime,
+                TrendDownsampler.resolveMaxPoints(maxPoints, LAG_TREND_MAX_POINTS));
+    }
+
+    @Override
+    public List<Map<String, Object>> getConsumerGroupLagTrend(String clusterId, String groupId, String topic,
+                                                              LocalDateTime startTime, LocalDateTime endTime, int maxPoints) {
         List<Map<String, Object>> trendData = new ArrayList<>();
 
         try {
-            // 解析时间范围并转换为时间戳
-            long[] timeRangeTimestamps = parseTimeRangeToTimestamps(timeRange);
-            long startTimestamp = timeRangeTimestamps[0];
-            long endTimestamp = timeRangeTimestamps[1];
+            // 本节点的采样缓冲区覆盖查询范围时直接读取内存，按 LTTB 降采样
+            long startMillis = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            LagRingBuffer buffer = consumerLagSampler.buffer(clusterId, groupId, topic);
+            if (buffer != null && consumerLagSampler.covers(clusterId, groupId, topic, startMillis)) {
+                LagRingBuffer.Window window = buffer.window(startMillis - 1,
+                        endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                long[] lags = window.lags();
+                double[] values = new double[lags.length];
+                for (int i = 0; i < lags.length; i++) {
+                    values[i] = lags[i];
+                }
+                LagRingBuffer.Window points = window.select(
+                        TrendDownsampler.lttb(window.timestamps(), values, lags.length, maxPoints));
+                SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                for (int i = 0; i < points.size(); i++) {
+                    Map<String, Object> trendPoint = new HashMap<>();
+                    trendPoint.put("timePoint", formatter.format(new Date(points.timestamp(i))));
+                    trendPoint.put("timestamp", points.timestamp(i));
+                    trendPoint.put("totalLag", points.lag(i));
+                    trendData.add(trendPoint);
+                }
+                return trendData;
+            }
 
-            // 调用Mapper获取趋势数据
+            // 按采集时间范围查询，在数据库端按时间桶聚合，返回点数不超过 maxPoints
             List<Map<String, Object>> rawData = consumerGroupTopicMapper.getConsumerGroupLagTrend(
-                clusterId, groupId, topic, startTimestamp, endTimestamp);
+                clusterId, groupId, topic, startTime, endTime, TrendDownsampler.bucketSeconds(startTime, endTime, maxPoints));
 
-            // 转换数据格式
+            SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm");
             for (Map<String, Object> record : rawData) {
                 Map<String, Object> trendPoint = new HashMap<>();
 
                 // 处理时间点
-                Object collectTime = record.get("collect_time");
-                if (collectTime != null) {
-                    if (collectTime instanceof LocalDateTime) {
-                        LocalDateTime localDateTime = (LocalDateTime) collectTime;
-                        trendPoint.put("timePoint", localDateTime.format(
-                            java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-                        trendPoint.put("timestamp", localDateTime.atZone(ZoneId.systemDefault()).toEpochSecond() * 1000);
-                    } else if (collectTime instanceof Date) {
-                        Date date = (Date) collectTime;
-                        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-                        trendPoint.put("timePoint", formatter.format(date));
-                        trendPoint.put("timestamp", date.getTime());
-                    }
+                Object bucketTime = record.get("bucket_time");
+                if (bucketTime != null) {
+                    long timestamp = getTimestamp(bucketTime);
+                    trendPoint.put("timePoint", formatter.format(new Date(timestamp)));
+                    trendPoint.put("timestamp", timestamp);
                 }
 
                 // 处理延迟值
@@ -869,41 +941,6 @@ public class ConsumerGroupTopicServiceImpl implements ConsumerGroupTopicService
         return trendData;
     }
 
-    /**
-     * 解析时间范围字符串并返回开始和结束时间戳
-     *
-     * @param timeRange 时间范围字符串 (如 "1h", "6h", "1d", "3d", "7d")
-     * @return 长度为2的数组，[开始时间戳, 结束时间戳]（毫秒）
-     */
-    private long[] parseTimeRangeToTimestamps(String timeRange) {
-        long endTime = System.currentTimeMillis();
-        long startTime;
-
-        switch (timeRange.toLowerCase()) {
-            case "1h":
-                startTime = endTime - (1 * 60 * 60 * 1000L); // 1小时
-                break;
-            case "6h":
-                startTime = endTime - (6 * 60 * 60 * 1000L); // 6小时
-                break;
-            case "1d":
-                startTime = endTime - (24 * 60 * 60 * 1000L); // 24小时
-                break;
-            case "3d":
-                startTime = endTime - (3 * 24 * 60 * 60 * 1000L); // 3天
-                break;
-            case "7d":
-                startTime = endTime - (7 * 24 * 60 * 60 * 1000L); // 7天
-                break;
-            default:
-                // 默认为24小时
-                startTime = endTime - (24 * 60 * 60 * 1000L);
-                break;
-        }
-
-        return new long[]{startTime, endTime};
-    }
-
     @Override
     public boolean resetConsumerGroupOffsetWithClientInfo(KafkaClientInfo kafkaClientInfo, String groupId, String topic, String resetType, Long resetValue) {
         try {
@@ -7,6 +7,7 @@ import org.kafka.eagle.web.service.CronExpressionUpdateService;
 import org.kafka.eagle.web.util.TaskUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -32,7 +33,7 @@ public class CronExpressionUpdateServiceImpl implements CronExpressionUpdateServ
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
-    private static final String CRON_UPDATE_NOTIFICATION_KEY = "efak:cron:update:notification:";
+    private static final String CRON_UPDATE_CHANNEL = "efak:unified:cron:update";
 
     @Override
     public boolean handleCronExpressionUpdate(TaskScheduler taskScheduler, String originalCronExpression) {
@@ -93,6 +94,12 @@ public class CronExpressionUpdateServiceImpl implements CronExpressionUpdateServ
 
             LocalDateTime now = LocalDateTime.now();
 
+            LocalDateTime exactTime = nextCronTime(cronExpression, now);
+            if (exactTime != null) {
+                taskScheduler.setNextExecuteTime(exactTime);
+                return true;
+            }
+
             // 简化的Cron解析实现
             int minutes = parseCronField(cronFields[1], 0, 59);
             int hours = parseCronField(cronFields[2], 0, 23);
@@ -162,6 +169,12 @@ public class CronExpressionUpdateServiceImpl implements CronExpressionUpdateServ
 
             LocalDateTime baseTime = lastExecuteTime != null ? lastExecuteTime : LocalDateTime.now();
 
+            // 优先使用完整的Cron解析，支持秒级字段（如 */15 * * * * ?）
+            LocalDateTime exactTime = nextCronTime(cronExpression, baseTime);
+            if (exactTime != null) {
+                return exactTime;
+            }
+
             // 简化的Cron解析实现
             int minutes = parseCronField(cronFields[1], 0, 59);
             int hours = parseCronField(cronFields[2], 0, 23);
@@ -226,6 +239,7 @@ public class CronExpressionUpdateServiceImpl implements CronExpressionUpdateServ
             notification.put("taskName", taskScheduler.getTaskName());
             notification.put("taskType", taskScheduler.getTaskType());
             notification.put("cronExpression", taskScheduler.getCronExpression());
+            notification.put("status", taskScheduler.getStatus());
             notification.put("nextExecuteTime", taskScheduler.getNextExecuteTime() != null
                     ? taskScheduler.getNextExecuteTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
                     : null);
@@ -233,15 +247,26 @@ public class CronExpressionUpdateServiceImpl implements CronExpressionUpdateServ
                     LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
             notification.put("notificationType", "CRON_EXPRESSION_UPDATED");
 
-            // 发送Redis消息通知分布式调度器
-            String notificationKey = CRON_UPDATE_NOTIFICATION_KEY + taskScheduler.getId();
-            redisTemplate.opsForValue().set(notificationKey, notification, 24, java.util.concurrent.TimeUnit.HOURS);
+            // 通过Redis发布/订阅广播给所有节点的分布式调度器
+            redisTemplate.convertAndSend(CRON_UPDATE_CHANNEL, notification);
 
         } catch (Exception e) {
             log.error("通知分布式调度器失败: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * 按完整的Cron语义计算严格晚于基准时间的下一个触发时刻，表达式无法解析时返回 null
+     */
+    private LocalDateTime nextCronTime(String cronExpression, LocalDateTime baseTime) {
+        try {
+            return CronExpression.parse(cronExpression.trim()).next(baseTime);
+        } catch (IllegalArgumentException e) {
+            log.warn("Cron表达式 {} 无法完整解析，使用简化计算: {}", cronExpression, e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * 解析Cron字段
      */
@@ -9,6 +9,7 @@ import org.kafka.eagle.dto.dashboard.MetricsTableData;
 import org.kafka.eagle.dto.dashboard.TopicAnalysisData;
 import org.kafka.eagle.web.mapper.*;
 import org.kafka.eagle.web.service.DashboardService;
+import org.kafka.eagle.web.util.TrendDownsampler;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -36,6 +37,11 @@ public class DashboardServiceImpl implements DashboardService {
     private final PerformanceMonitorMapper performanceMonitorMapper;
     private final TopicInstantMetricsMapper topicInstantMetricsMapper;
 
+    /**
+     * Default max points of the performance trend chart
+     */
+    private static final int PERFORMANCE_TREND_MAX_POINTS = 360;
+
     @Override
     public DashboardStats getDashboardStats(String clusterId) {
         try {
@@ -114,15 +120,17 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
-    public Object getPerformanceTrend(String clusterId, String period) {
+    public Object getPerformanceTrend(String clusterId, String period, Integer maxPoints) {
         try {
             // Calculate time range based on period
             LocalDateTime endTime = LocalDateTime.now();
             LocalDateTime startTime = calculateStartTime(endTime, period);
 
-            // Get performance trend data from database
+            // Get performance trend data from database, aggregated by minute or by a wider bucket to honor maxPoints
+            long bucketSeconds = Math.max(60L, TrendDownsampler.bucketSeconds(startTime, endTime,
+                    TrendDownsampler.resolveMaxPoints(maxPoints, PERFORMANCE_TREND_MAX_POINTS)));
             List<Map<String, Object>> trendData = performanceMonitorMapper.getPerformanceTrendDataByTime(
-                    clusterId, startTime, endTime);
+                    clusterId, startTime, endTime, bucketSeconds);
 
             // Transform data for chart display
             Map<String, Object> result = new HashMap<>();
@@ -6,6 +6,7 @@ import org.kafka.eagle.dto.performance.PerformanceQueryRequest;
 import org.kafka.eagle.dto.performance.PerformancePageResponse;
 import org.kafka.eagle.web.mapper.PerformanceMonitorMapper;
 import org.kafka.eagle.web.service.PerformanceMonitorService;
+import org.kafka.eagle.web.util.TrendDownsampler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -29,6 +30,11 @@ public class PerformanceMonitorServiceImpl implements PerformanceMonitorService
     @Autowired
     private PerformanceMonitorMapper performanceMonitorMapper;
 
+    /**
+     * 性能趋势默认最多返回的点数
+     */
+    private static final int TREND_MAX_POINTS = 500;
+
     @Override
     public int insertPerformanceMonitor(PerformanceMonitor performanceMonitor) {
         try {
@@ -135,12 +141,16 @@ public class PerformanceMonitorServiceImpl implements PerformanceMonitorService
     }
 
     @Override
-    public Map<String, Object> getPerformanceTrendData(String clusterId, String startDate, String endDate) {
+    public Map<String, Object> getPerformanceTrendData(String clusterId, String startDate, String endDate, Integer maxPoints) {
         try {
             LocalDate start = LocalDate.parse(startDate, DateTimeFormatter.ISO_LOCAL_DATE);
             LocalDate end = LocalDate.parse(endDate, DateTimeFormatter.ISO_LOCAL_DATE);
 
-            List<Map<String, Object>> trendData = performanceMonitorMapper.getPerformanceTrendData(clusterId, start, end);
+            // 按天聚合后超过 maxPoints 时，使用 LTTB 保留吞吐曲线的形状
+            List<Map<String, Object>> trendData = TrendDownsampler.lttb(
+                    performanceMonitorMapper.getPerformanceTrendData(clusterId, start, end),
+                    data -> getDoubleValue(data.get("avgMessageIn")),
+                    TrendDownsampler.resolveMaxPoints(maxPoints, TREND_MAX_POINTS));
 
             Map<String, Object> result = new HashMap<>();
             result.put("trendData", trendData);
@@ -291,7 +301,7 @@ public class PerformanceMonitorServiceImpl implements PerformanceMonitorService
     }
 
     @Override
-    public Map<String, Object> getPerformanceTrendDataByTimeRange(String clusterId, String timeRange) {
+    public Map<String, Object> getPerformanceTrendDataByTimeRange(String clusterId, String timeRange, Integer maxPoints) {
         try {
             LocalDateTime endTime = LocalDateTime.now();
             LocalDateTime startTime;
@@ -317,8 +327,11 @@ public class PerformanceMonitorServiceImpl implements PerformanceMonitorService
                     startTime = endTime.minusDays(1); // 默认24小时
             }
 
-            // 使用新的基于时间的趋势数据查询方法
-            List<Map<String, Object>> trendData = performanceMonitorMapper.getPerformanceTrendDataByTime(clusterId, startTime, endTime);
+            // 数据库端按分钟聚合，时间范围按分钟超过 maxPoints 时放宽时间桶，所有指标按同一时间桶聚合
+            long bucketSeconds = Math.max(60L, TrendDownsampler.bucketSeconds(startTime, endTime,
+                    TrendDownsampler.resolveMaxPoints(maxPoints, TREND_MAX_POINTS)));
+            List<Map<String, Object>> trendData = performanceMonitorMapper.getPerformanceTrendDataByTime(
+                    clusterId, startTime, endTime, bucketSeconds);
 
             // 处理趋势数据，计算集群级别的吞吐量汇总
             List<Map<String, Object>> processedData = processTrendDataForCluster(trendData, timeRange);
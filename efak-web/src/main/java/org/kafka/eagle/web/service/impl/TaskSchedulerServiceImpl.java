@@ -118,6 +118,9 @@ public class TaskSchedulerServiceImpl implements TaskSchedulerService {
         try {
             String updateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
             int result = taskSchedulerMapper.updateTaskStatus(id, "enabled", updateTime);
+            if (result > 0) {
+                notifyTaskChanged(id);
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("启用任务失败: {}", e.getMessage(), e);
@@ -130,6 +133,9 @@ public class TaskSchedulerServiceImpl implements TaskSchedulerService {
         try {
             String updateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
             int result = taskSchedulerMapper.updateTaskStatus(id, "disabled", updateTime);
+            if (result > 0) {
+                notifyTaskChanged(id);
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("禁用任务失败: {}", e.getMessage(), e);
@@ -137,6 +143,16 @@ public class TaskSchedulerServiceImpl implements TaskSchedulerService {
         }
     }
 
+    /**
+     * 任务状态变化后广播给所有节点，使其本地任务缓存立即失效
+     */
+    private void notifyTaskChanged(Long id) {
+        TaskScheduler task = taskSchedulerMapper.selectTaskSchedulerById(id);
+        if (task != null) {
+            cronExpressionUpdateService.notifyDistributedScheduler(task);
+        }
+    }
+
     @Override
     public boolean executeTaskNow(Long id) {
         try {
@@ -5,11 +5,13 @@ import org.kafka.eagle.dto.topic.TopicStatisticsDTO;
 import org.kafka.eagle.web.mapper.TopicMetricsMapper;
 import org.kafka.eagle.web.mapper.TopicInstantMetricsMapper;
 import org.kafka.eagle.web.service.TopicMetricsService;
+import org.kafka.eagle.web.util.TrendDownsampler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
 import java.util.*;
 
 /**
@@ -30,6 +32,11 @@ public class TopicMetricsServiceImpl implements TopicMetricsService {
     @Autowired
     private TopicInstantMetricsMapper topicInstantMetricsMapper;
 
+    /**
+     * 消息流量趋势默认最多返回的点数
+     */
+    private static final int FLOW_TREND_MAX_POINTS = 288;
+
     @Override
     public TopicStatisticsDTO getTopicStatistics(String clusterId) {
         TopicStatisticsDTO statistics = new TopicStatisticsDTO();
@@ -66,7 +73,8 @@ public class TopicMetricsServiceImpl implements TopicMetricsService {
     }
 
     @Override
-    public Map<String, Object> getTopicTrendData(String dimension, String startDate, String endDate, List<String> topics, String clusterId) {
+    public Map<String, Object> getTopicTrendData(String dimension, String startDate, String endDate, List<String> topics, String clusterId,
+                                                 Integer maxPoints) {
         Map<String, Object> result = new HashMap<>();
 
         try {
@@ -103,6 +111,18 @@ public class TopicMetricsServiceImpl implements TopicMetricsService {
                 datasets = buildTopicDatasets(trendDataList, labels, dimension, topics);
             }
 
+            // 天数超过 maxPoints 时，将相邻日期合并为一个点，增量按组求和
+            int groupSize = TrendDownsampler.groupSize(labels.size(),
+                    TrendDownsampler.resolveMaxPoints(maxPoints, TrendDownsampler.MAX_POINTS));
+            if (groupSize > 1) {
+                for (Map<String, Object> dataset : datasets) {
+                    @SuppressWarnings("unchecked")
+                    List<Double> data = (List<Double>) dataset.get("data");
+                    dataset.put("data", TrendDownsampler.sumGroups(data, groupSize));
+                }
+                labels = TrendDownsampler.firstOfGroups(labels, groupSize);
+            }
+
             result.put("labels", labels);
             result.put("datasets", datasets);
 
@@ -326,7 +346,7 @@ public class TopicMetricsServiceImpl implements TopicMetricsService {
     }
 
     @Override
-    public List<Map<String, Object>> getTopicMessageFlowTrend(String clusterId, String topicName, String timeRange) {
+    public List<Map<String, Object>> getTopicMessageFlowTrend(String clusterId, String topicName, String timeRange, Integer maxPoints) {
         try {
             // 参数验证
             if (topicName == null || topicName.trim().isEmpty()) {
@@ -334,14 +354,16 @@ public class TopicMetricsServiceImpl implements TopicMetricsService {
                 return new ArrayList<>();
             }
 
-            // 计算时间范围的开始和结束时间戳
-            Long[] timeRangeMillis = calculateTimeRange(timeRange);
-            Long startTime = timeRangeMillis[0];
-            Long endTime = timeRangeMillis[1];
+            // 计算时间范围的开始和结束时间
+            LocalDateTime[] timeRangeBounds = calculateTimeRange(timeRange);
+            LocalDateTime startTime = timeRangeBounds[0];
+            LocalDateTime endTime = timeRangeBounds[1];
 
-            // 查询数据库
+            // 查询数据库，按时间桶汇总，返回点数不超过 maxPoints
+            long bucketSeconds = TrendDownsampler.bucketSeconds(startTime, endTime,
+                    TrendDownsampler.resolveMaxPoints(maxPoints, FLOW_TREND_MAX_POINTS));
             List<Map<String, Object>> flowData = topicMetricsMapper.getTopicMessageFlowTrend(
-                    clusterId, topicName, startTime, endTime);
+                    clusterId, topicName, startTime, endTime, bucketSeconds);
 
             return flowData != null ? flowData : new ArrayList<>();
 
@@ -353,34 +375,34 @@ public class TopicMetricsServiceImpl implements TopicMetricsService {
     }
 
     /**
-     * 计算时间范围的开始和结束时间戳（毫秒）
+     * 计算时间范围的开始和结束时间
      */
-    private Long[] calculateTimeRange(String timeRange) {
-        long currentTime = System.currentTimeMillis();
-        long startTime;
+    private LocalDateTime[] calculateTimeRange(String timeRange) {
+        LocalDateTime endTime = LocalDateTime.now();
+        LocalDateTime startTime;
 
         switch (timeRange) {
             case "1h":
-                startTime = currentTime - (60 * 60 * 1000L); // 1小时前
+                startTime = endTime.minusHours(1); // 1小时前
                 break;
             case "6h":
-                startTime = currentTime - (6 * 60 * 60 * 1000L); // 6小时前
+                startTime = endTime.minusHours(6); // 6小时前
                 break;
             case "1d":
-                startTime = currentTime - (24 * 60 * 60 * 1000L); // 1天前
+                startTime = endTime.minusDays(1); // 1天前
                 break;
             case "3d":
-                startTime = currentTime - (3 * 24 * 60 * 60 * 1000L); // 3天前
+                startTime = endTime.minusDays(3); // 3天前
                 break;
             case "7d":
-                startTime = currentTime - (7 * 24 * 60 * 60 * 1000L); // 7天前
+                startTime = endTime.minusDays(7); // 7天前
                 break;
             default:
                 // 默认1天
-                startTime = currentTime - (24 * 60 * 60 * 1000L);
+                startTime = endTime.minusDays(1);
                 break;
         }
 
-        return new Long[]{startTime, currentTime};
+        return new LocalDateTime[]{startTime, endTime};
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.kafka.eagle.web.service.impl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.kafka.eagle.core.api.JmxConnectorPool;
 import org.kafka.eagle.core.api.KafkaSchemaFactory;
 import org.kafka.eagle.core.api.KafkaStoragePlugin;
 import org.kafka.eagle.core.constant.JmxMetricsConst;
@@ -14,16 +15,13 @@ import org.kafka.eagle.web.mapper.ConsumerGroupTopicMapper;
 import org.kafka.eagle.web.mapper.TopicInstantMetricsMapper;
 import org.kafka.eagle.web.mapper.TopicMapper;
 import org.kafka.eagle.web.mapper.TopicMetricsMapper;
+import org.kafka.eagle.web.service.MonitorSnapshotCache;
 import org.kafka.eagle.web.service.TopicService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import javax.management.MBeanServerConnection;
-import javax.management.remote.JMXConnector;
-import javax.management.remote.JMXConnectorFactory;
-import javax.management.remote.JMXServiceURL;
 import java.math.BigDecimal;
 import java.util.*;
 
@@ -54,6 +52,9 @@ public class TopicServiceImpl implements TopicService {
     @Autowired
     private ConsumerGroupTopicMapper consumerGroupTopicMapper;
 
+    @Autowired
+    private MonitorSnapshotCache monitorSnapshotCache;
+
     @Override
     public TopicPageResponse getTopicPage(TopicQueryRequest request) {
         if (request == null) {
@@ -489,9 +490,14 @@ public class TopicServiceImpl implements TopicService {
 
             KafkaSchemaFactory ksf = new KafkaSchemaFactory(new KafkaStoragePlugin());
 
-            // 获取主题记录数
+            // 获取主题容量：读取集群级 DescribeLogDirs 快照（同一时间桶内与主题监控共享），不单独查询单个主题
             try {
-                Long capacity = ksf.getTopicRecordCapacityNum(kafkaClientInfo, brokerInfos, topicName);
+                Long capacity = monitorSnapshotCache.getClusterTopicCapacities(clusterId,
+                        () -> ksf.getTopicCapacities(kafkaClientInfo, null)).findCapacity(topicName);
+                if (capacity == null) {
+                    // DescribeLogDirs 没有该主题的数据时回退到 JMX 读取单个主题的容量
+                    capacity = ksf.getTopicRecordCapacityNum(kafkaClientInfo, brokerInfos, topicName);
+                }
                 stats.put("totalSize", capacity != null ? capacity : 0L);
             } catch (Exception e) {
                 log.warn("获取主题 {} 记录数失败：{}", topicName, e.getMessage());
@@ -705,27 +711,15 @@ public class TopicServiceImpl implements TopicService {
      * 执行JMX操作
      */
     private BigDecimal executeJmxOperation(JMXInitializeInfo jmxInfo, String objectName, String attribute) {
-        JMXConnector connector = null;
         try {
-            String jmxUrl = String.format("service:jmx:rmi:///jndi/rmi://%s:%d/jmxrmi", jmxInfo.getHost(), jmxInfo.getPort());
-            JMXServiceURL serviceURL = new JMXServiceURL(jmxUrl);
-            connector = JMXConnectorFactory.connect(serviceURL);
-            MBeanServerConnection connection = connector.getMBeanServerConnection();
-
-            Object value = connection.getAttribute(new javax.management.ObjectName(objectName), attribute);
+            // 复用按 Broker 缓存的 JMX 连接
+            Object value = JmxConnectorPool.execute(jmxInfo,
+                    connection -> connection.getAttribute(new javax.management.ObjectName(objectName), attribute));
             if (value instanceof Number) {
                 return new BigDecimal(value.toString());
             }
         } catch (Exception e) {
             log.warn("执行JMX操作失败：{}", e.getMessage());
-        } finally {
-            if (connector != null) {
-                try {
-                    connector.close();
-                } catch (Exception e) {
-                    log.warn("关闭JMX连接失败：{}", e.getMessage());
-                }
-            }
         }
         return null;
     }
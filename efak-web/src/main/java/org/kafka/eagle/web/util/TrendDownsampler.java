@@ -0,0 +1,202 @@
+package org.kafka.eagle.web.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * 趋势数据降采样工具类。
+ * 趋势接口统一通过 maxPoints 控制返回点数：能在数据库端聚合的查询按 {@link #bucketSeconds} 计算的时间桶 GROUP BY，
+ * 只把每个桶的聚合值传给前端；已在内存中的序列使用 LTTB（Largest-Triangle-Three-Buckets）在一次遍历中选出
+ * 保留形状的代表点，按天累计的增量序列按相邻分组求和。
+ * </p>
+ * @author Mr.SmartLoli
+ * @since 2025/10/24 09:42:15
+ * @version 5.0.0
+ */
+public class TrendDownsampler {
+
+    /**
+     * 允许的最小点数（LTTB 固定保留首尾两点）
+     */
+    public static final int MIN_POINTS = 3;
+
+    /**
+     * 允许的最大点数
+     */
+    public static final int MAX_POINTS = 2000;
+
+    private TrendDownsampler() {
+    }
+
+    /**
+     * 解析请求的最大点数，未指定或非法时使用默认值，并限制在 [{@link #MIN_POINTS}, {@link #MAX_POINTS}] 内
+     */
+    public static int resolveMaxPoints(Integer requested, int defaultPoints) {
+        int points = requested != null && requested > 0 ? requested : defaultPoints;
+        return Math.max(MIN_POINTS, Math.min(MAX_POINTS, points));
+    }
+
+    /**
+     * 计算时间桶长度（秒），使时间范围内按桶对齐后的点数不超过 maxPoints
+     */
+    public static long bucketSeconds(LocalDateTime startTime, LocalDateTime endTime, int maxPoints) {
+        long rangeSeconds = Math.max(1, Duration.between(startTime, endTime).getSeconds());
+        long intervals = Math.max(1, maxPoints - 1);
+        return Math.max(1, (rangeSeconds + intervals - 1) / intervals);
+    }
+
+    /**
+     * LTTB 降采样，返回保留点的下标（升序）
+     *
+     * @param x         横坐标（升序，如时间戳）
+     * @param y         纵坐标
+     * @param size      有效点数
+     * @param threshold 最多保留的点数
+     * @return 保留点的下标
+     */
+    public static int[] lttb(long[] x, double[] y, int size, int threshold) {
+        if (threshold >= size || threshold < MIN_POINTS) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] sampled = new int[threshold];
+        int sampledIndex = 0;
+        // 首尾之外的点均分到 threshold - 2 个桶中
+        double every = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        sampled[sampledIndex++] = a;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一个桶的平均点，作为三角形的第三个顶点
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int avgLength = Math.max(1, avgEnd - avgStart);
+            avgX /= avgLength;
+            avgY /= avgLength;
+
+            // 当前桶中与上一个保留点、下一个桶平均点围成三角形面积最大的点
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled[sampledIndex++] = next;
+            a = next;
+        }
+
+        sampled[sampledIndex] = size - 1;
+        return sampled;
+    }
+
+    /**
+     * 对已按横坐标升序排列的记录执行 LTTB 降采样，返回保留的记录
+     *
+     * @param rows      记录
+     * @param x         横坐标提取函数
+     * @param y         纵坐标提取函数
+     * @param threshold 最多保留的点数
+     * @return 保留的记录
+     */
+    public static <T> List<T> lttb(List<T> rows, ToLongFunction<T> x, ToDoubleFunction<T> y, int threshold) {
+        if (rows == null || rows.size() <= threshold) {
+            return rows;
+        }
+        long[] xs = new long[rows.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = x.applyAsLong(rows.get(i));
+        }
+        return select(rows, xs, y, threshold);
+    }
+
+    /**
+     * 对等间隔的记录执行 LTTB 降采样（以下标作为横坐标），返回保留的记录
+     */
+    public static <T> List<T> lttb(List<T> rows, ToDoubleFunction<T> y, int threshold) {
+        if (rows == null || rows.size() <= threshold) {
+            return rows;
+        }
+        long[] xs = new long[rows.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = i;
+        }
+        return select(rows, xs, y, threshold);
+    }
+
+    private static <T> List<T> select(List<T> rows, long[] xs, ToDoubleFunction<T> y, int threshold) {
+        int size = rows.size();
+        double[] ys = new double[size];
+        for (int i = 0; i < size; i++) {
+            ys[i] = y.applyAsDouble(rows.get(i));
+        }
+        int[] indexes = lttb(xs, ys, size, threshold);
+        List<T> sampled = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            sampled.add(rows.get(index));
+        }
+        return sampled;
+    }
+
+    /**
+     * 计算相邻分组大小，使分组后的点数不超过 maxPoints
+     */
+    public static int groupSize(int size, int maxPoints) {
+        if (size <= maxPoints) {
+            return 1;
+        }
+        return (size + maxPoints - 1) / maxPoints;
+    }
+
+    /**
+     * 按相邻分组对增量序列求和
+     */
+    public static List<Double> sumGroups(List<Double> values, int groupSize) {
+        if (groupSize <= 1) {
+            return values;
+        }
+        List<Double> grouped = new ArrayList<>((values.size() + groupSize - 1) / groupSize);
+        for (int i = 0; i < values.size(); i += groupSize) {
+            double sum = 0;
+            for (int j = i; j < Math.min(i + groupSize, values.size()); j++) {
+                Double value = values.get(j);
+                sum += value != null ? value : 0.0;
+            }
+            grouped.add(sum);
+        }
+        return grouped;
+    }
+
+    /**
+     * 取每个分组的第一个标签
+     */
+    public static <T> List<T> firstOfGroups(List<T> labels, int groupSize) {
+        if (groupSize <= 1) {
+            return labels;
+        }
+        List<T> grouped = new ArrayList<>((labels.size() + groupSize - 1) / groupSize);
+        for (int i = 0; i < labels.size(); i += groupSize) {
+            grouped.add(labels.get(i));
+        }
+        return grouped;
+    }
+}
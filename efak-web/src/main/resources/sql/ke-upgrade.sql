@@ -0,0 +1,43 @@
+-- 已有库升级脚本：使用 ke.sql 初始化过的数据库执行本脚本补齐新增的表结构，每条语句只需执行一次
+
+-- 任务调度表增加防护令牌，执行结果只允许持有不小于当前令牌的执行写入
+ALTER TABLE `ke_task_scheduler`
+  ADD COLUMN `fence_token` bigint NOT NULL DEFAULT '0' COMMENT '最近一次写入执行结果的防护令牌' AFTER `cluster_name`;
+
+-- 消费者组主题最新状态表，每个集群/消费者组/主题一行，由消费者组监控任务按采集结果更新
+CREATE TABLE IF NOT EXISTS `ke_consumer_group_latest` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键ID',
+  `cluster_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '集群ID',
+  `group_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '消费者组ID',
+  `topic_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '主题名称',
+  `state` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL DEFAULT 'UNKNOWN' COMMENT '消费者组状态',
+  `logsize` bigint DEFAULT '0' COMMENT '主题日志总大小',
+  `offsets` bigint DEFAULT '0' COMMENT '消费者组当前偏移量',
+  `lags` bigint DEFAULT '0' COMMENT '消费延迟数量',
+  `collect_time` datetime NOT NULL COMMENT '最近一次采集时间',
+  `collect_date` date NOT NULL COMMENT '最近一次采集日期(格式:YYYY-MM-DD)',
+  `prev_logsize` bigint DEFAULT NULL COMMENT '上一次采集的主题日志总大小',
+  `prev_offsets` bigint DEFAULT NULL COMMENT '上一次采集的消费者组偏移量',
+  `prev_collect_time` datetime DEFAULT NULL COMMENT '上一次采集时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_cluster_group_topic` (`cluster_id`,`group_id`,`topic_name`),
+  KEY `idx_cluster_date_time` (`cluster_id`,`collect_date`,`collect_time`),
+  KEY `idx_cluster_topic` (`cluster_id`,`topic_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='消费者组主题最新状态表(每个集群/消费者组/主题一行)';
+
+-- 用当天历史记录中每个集群/消费者组/主题最新的一条初始化最新状态表，之后由消费者组监控任务持续更新
+INSERT IGNORE INTO `ke_consumer_group_latest` (`cluster_id`, `group_id`, `topic_name`, `state`, `logsize`, `offsets`, `lags`, `collect_time`, `collect_date`)
+SELECT t.`cluster_id`, t.`group_id`, t.`topic_name`, t.`state`, t.`logsize`, t.`offsets`, t.`lags`, t.`collect_time`, t.`collect_date`
+FROM `ke_consumer_group_topic` t
+INNER JOIN (
+  SELECT `cluster_id`, `group_id`, `topic_name`, MAX(`collect_time`) AS `max_time`
+  FROM `ke_consumer_group_topic`
+  WHERE `collect_date` = CURDATE()
+  GROUP BY `cluster_id`, `group_id`, `topic_name`
+) m ON t.`cluster_id` = m.`cluster_id` AND t.`group_id` = m.`group_id` AND t.`topic_name` = m.`topic_name` AND t.`collect_time` = m.`max_time`
+WHERE t.`collect_date` = CURDATE();
+
+-- 消费者组历史表增加按采集时间范围查询的索引，供延迟趋势与详情按 collect_time 区间扫描
+ALTER TABLE `ke_consumer_group_topic`
+  ADD KEY `idx_cluster_group_topic_time` (`cluster_id`,`group_id`,`topic_name`,`collect_time`);
+
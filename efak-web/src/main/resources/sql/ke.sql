@@ -183,12 +183,34 @@ CREATE TABLE `ke_consumer_group_topic` (
   KEY `idx_cluster_topic_date` (`cluster_id`,`topic_name`,`collect_date`),
   KEY `idx_cluster_state_date` (`cluster_id`,`state`,`collect_date`),
   KEY `idx_cluster_group_topic_date` (`cluster_id`,`group_id`,`topic_name`,`collect_date`),
+  KEY `idx_cluster_group_topic_time` (`cluster_id`,`group_id`,`topic_name`,`collect_time`),
   KEY `idx_cluster_time_covering` (`cluster_id`,`collect_time`,`group_id`,`topic_name`),
   KEY `idx_date_time_covering` (`collect_date`,`collect_time`,`cluster_id`,`group_id`),
   KEY `idx_lags_analysis` (`cluster_id`,`lags`,`collect_date`),
   KEY `idx_state_analysis` (`state`,`cluster_id`,`collect_date`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='消费者组主题延迟数据采集表';
 
+-- 消费者组主题最新状态表
+CREATE TABLE `ke_consumer_group_latest` (
+  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '自增主键ID',
+  `cluster_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '集群ID',
+  `group_id` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '消费者组ID',
+  `topic_name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL COMMENT '主题名称',
+  `state` varchar(32) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NOT NULL DEFAULT 'UNKNOWN' COMMENT '消费者组状态',
+  `logsize` bigint DEFAULT '0' COMMENT '主题日志总大小',
+  `offsets` bigint DEFAULT '0' COMMENT '消费者组当前偏移量',
+  `lags` bigint DEFAULT '0' COMMENT '消费延迟数量',
+  `collect_time` datetime NOT NULL COMMENT '最近一次采集时间',
+  `collect_date` date NOT NULL COMMENT '最近一次采集日期(格式:YYYY-MM-DD)',
+  `prev_logsize` bigint DEFAULT NULL COMMENT '上一次采集的主题日志总大小',
+  `prev_offsets` bigint DEFAULT NULL COMMENT '上一次采集的消费者组偏移量',
+  `prev_collect_time` datetime DEFAULT NULL COMMENT '上一次采集时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_cluster_group_topic` (`cluster_id`,`group_id`,`topic_name`),
+  KEY `idx_cluster_date_time` (`cluster_id`,`collect_date`,`collect_time`),
+  KEY `idx_cluster_topic` (`cluster_id`,`topic_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='消费者组主题最新状态表(每个集群/消费者组/主题一行)';
+
 -- 大模型配置表
 CREATE TABLE `ke_model_config` (
   `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键ID',
@@ -283,6 +305,7 @@ CREATE TABLE `ke_task_scheduler` (
   `timeout` int DEFAULT '300' COMMENT '超时时间(秒)',
   `node_id` varchar(100) DEFAULT NULL COMMENT '执行节点ID',
   `cluster_name` varchar(100) DEFAULT NULL COMMENT '集群名称',
+  `fence_token` bigint NOT NULL DEFAULT '0' COMMENT '最近一次写入执行结果的防护令牌',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_task_name` (`task_name`),
   KEY `idx_task_type` (`task_type`),
@@ -11,6 +11,9 @@ window.ClusterModule = {
     searchKeyword: '',
     statusFilter: '',
 
+    // JMX 熔断状态（host:jmxPort -> 状态）
+    jmxBreakerStates: {},
+
     // 自动刷新配置
     autoRefreshInterval: null,
     refreshCountdown: 60,
@@ -588,6 +591,7 @@ window.ClusterModule = {
 
             const data = await response.json();
 
+            await this.loadJmxBreakerStates();
             this.pagination.total = data.total || 0;
             this.renderBrokerTable(data.brokers || []);
             this.updatePaginationInfo();
@@ -614,6 +618,49 @@ window.ClusterModule = {
         }
     },
 
+    // 加载Broker JMX 熔断状态
+    async loadJmxBreakerStates() {
+        try {
+            const url = this.clusterId
+                ? `/api/brokers/jmx-breakers?clusterId=${encodeURIComponent(this.clusterId)}`
+                : '/api/brokers/jmx-breakers';
+            const response = await fetch(url);
+            if (!response.ok) {
+                return;
+            }
+            const states = await response.json();
+            this.jmxBreakerStates = {};
+            (states || []).forEach(state => {
+                this.jmxBreakerStates[`${state.hostIp}:${state.jmxPort}`] = state;
+            });
+        } catch (error) {
+            console.error('加载JMX熔断状态失败:', error);
+        }
+    },
+
+    // 渲染JMX熔断状态
+    renderJmxBreakerState(broker) {
+        if (!broker.jmxPort) {
+            return '<span class="text-xs">N/A</span>';
+        }
+        const state = this.jmxBreakerStates[`${broker.hostIp}:${broker.jmxPort}`];
+        const breakerState = state ? state.state : 'CLOSED';
+        const classes = { CLOSED: 'online', HALF_OPEN: 'warning', OPEN: 'offline' };
+        const texts = { CLOSED: '正常', HALF_OPEN: '半开', OPEN: '熔断' };
+        let title = `JMX ${broker.hostIp}:${broker.jmxPort}`;
+        if (state && state.lastError) {
+            title += ` 最近错误: ${state.lastError}`;
+        }
+        if (state && state.retryInMs > 0) {
+            title += ` (${Math.ceil(state.retryInMs / 1000)}s 后重试)`;
+        }
+        return `
+                <span class="node-status ${classes[breakerState] || 'online'}" title="${title}">
+                    <i class="fa fa-plug"></i>
+                    ${texts[breakerState] || '正常'}
+                </span>`;
+    },
+
     // 加载集群统计数据
     async loadClusterStats() {
         try {
@@ -751,6 +798,7 @@ window.ClusterModule = {
                     ${statusText}
                 </span>
             </td>
+            <td>${this.renderJmxBreakerState(broker)}</td>
             <td>
                 <div class="flex items-center gap-2">
                     <div class="usage-bar">
@@ -0,0 +1,72 @@
+package org.kafka.eagle.web.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ConsistentHashRing测试类
+ */
+public class ConsistentHashRingTest {
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add("topic:topic-" + i);
+        }
+        return keys;
+    }
+
+    private static Map<String, Integer> nodes(String... nodeIds) {
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        for (String nodeId : nodeIds) {
+            nodes.put(nodeId, 1);
+        }
+        return nodes;
+    }
+
+    @Test
+    public void testNodeJoinMovesAboutOneNthOfKeys() {
+        List<String> keys = keys(10000);
+        ConsistentHashRing before = new ConsistentHashRing(nodes("10.0.0.1:8080", "10.0.0.2:8080", "10.0.0.3:8080"), 160);
+        ConsistentHashRing after = new ConsistentHashRing(nodes("10.0.0.1:8080", "10.0.0.2:8080", "10.0.0.3:8080", "10.0.0.4:8080"), 160);
+
+        int moved = 0;
+        for (String key : keys) {
+            String oldOwner = before.nodeFor(key);
+            String newOwner = after.nodeFor(key);
+            if (!oldOwner.equals(newOwner)) {
+                moved++;
+                // 只会迁移到新加入的节点
+                assertEquals("10.0.0.4:8080", newOwner);
+            }
+        }
+        // 期望约 1/4 的键迁移
+        assertTrue(moved > 1500 && moved < 3500, "moved=" + moved);
+    }
+
+    @Test
+    public void testWeightedNodeGetsMoreKeys() {
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        nodes.put("10.0.0.1:8080", 1);
+        nodes.put("10.0.0.2:8080", 3);
+        ConsistentHashRing ring = new ConsistentHashRing(nodes, 160);
+
+        Map<String, List<String>> assignment = ring.assign(keys(10000));
+        int light = assignment.get("10.0.0.1:8080").size();
+        int heavy = assignment.get("10.0.0.2:8080").size();
+        assertEquals(10000, light + heavy);
+        assertTrue(heavy > light * 2, "light=" + light + ", heavy=" + heavy);
+    }
+
+    @Test
+    public void testAssignmentIsDeterministic() {
+        ConsistentHashRing first = new ConsistentHashRing(nodes("b:8080", "a:8080", "c:8080"), 64);
+        ConsistentHashRing second = new ConsistentHashRing(nodes("c:8080", "a:8080", "b:8080"), 64);
+        for (String key : keys(1000)) {
+            assertEquals(first.nodeFor(key), second.nodeFor(key));
+        }
+    }
+}
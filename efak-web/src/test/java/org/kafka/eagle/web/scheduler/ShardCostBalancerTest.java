@@ -0,0 +1,109 @@
+package org.kafka.eagle.web.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ShardCostBalancer测试类
+ */
+public class ShardCostBalancerTest {
+
+    private static Map<String, Long> costs(long... values) {
+        Map<String, Long> costs = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            costs.put("topic:topic-" + i, values[i]);
+        }
+        return costs;
+    }
+
+    @Test
+    public void testUnevenCostsAreSpreadByLoad() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("10.0.0.1:8080", 1);
+        weights.put("10.0.0.2:8080", 1);
+
+        // 总成本 400，两个节点的最优最大负载为 200
+        ShardCostBalancer.Plan plan = ShardCostBalancer.balance(costs(100, 90, 60, 50, 40, 30, 20, 10),
+                weights, key -> "10.0.0.1:8080");
+
+        assertEquals(200L, plan.getMakespan());
+        assertEquals(200L, plan.getLoads().get("10.0.0.1:8080").longValue());
+        assertEquals(200L, plan.getLoads().get("10.0.0.2:8080").longValue());
+        // 最大的分片键独占一个节点，不与第二大的分在一起
+        assertFalse(plan.getAssignment().get("10.0.0.1:8080").contains("topic:topic-1")
+                && plan.getAssignment().get("10.0.0.1:8080").contains("topic:topic-0"));
+    }
+
+    @Test
+    public void testUnevenWeightsBoundMaxLoadPerWeight() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("10.0.0.1:8080", 1);
+        weights.put("10.0.0.2:8080", 3);
+
+        // 总成本 380，按权重折算的下界为 95
+        Map<String, Long> costs = costs(100, 60, 60, 40, 40, 20, 20, 20, 20);
+        ShardCostBalancer.Plan plan = ShardCostBalancer.balance(costs, weights, key -> "10.0.0.1:8080");
+
+        assertEquals(100L, plan.getLoads().get("10.0.0.1:8080").longValue());
+        assertEquals(280L, plan.getLoads().get("10.0.0.2:8080").longValue());
+        assertEquals(100L, plan.getMakespan());
+        // 权重 3 的节点承担大部分成本
+        assertTrue(plan.getAssignment().get("10.0.0.2:8080").size() > plan.getAssignment().get("10.0.0.1:8080").size());
+    }
+
+    @Test
+    public void testEveryKeyAssignedOnceAndDeterministic() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("10.0.0.3:8080", 2);
+        weights.put("10.0.0.1:8080", 1);
+        weights.put("10.0.0.2:8080", 1);
+
+        Random random = new Random(42);
+        long[] values = new long[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1 + random.nextInt(5000);
+        }
+        Map<String, Long> costs = costs(values);
+        ShardCostBalancer.Plan plan = ShardCostBalancer.balance(costs, weights, key -> null);
+
+        Set<String> assigned = new HashSet<>();
+        long total = 0;
+        for (Map.Entry<String, List<String>> entry : plan.getAssignment().entrySet()) {
+            for (String key : entry.getValue()) {
+                assertTrue(assigned.add(key), "重复分配: " + key);
+            }
+            total += plan.getLoads().get(entry.getKey());
+        }
+        assertEquals(costs.keySet(), assigned);
+        assertEquals(costs.values().stream().mapToLong(Long::longValue).sum(), total);
+
+        // LPT 的最大负载不超过 平均负载 + 最大单键成本
+        long maxCost = Arrays.stream(values).max().getAsLong();
+        assertTrue(plan.getMakespan() <= total / 4 + maxCost, "makespan=" + plan.getMakespan());
+
+        // 节点顺序不同、输入相同时结果一致
+        Map<String, Integer> reordered = new TreeMap<>(weights);
+        assertEquals(plan.getAssignment(), ShardCostBalancer.balance(new TreeMap<>(costs), reordered, key -> null).getAssignment());
+    }
+
+    @Test
+    public void testTieGoesToPreferredNode() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("10.0.0.1:8080", 1);
+        weights.put("10.0.0.2:8080", 1);
+
+        ShardCostBalancer.Plan plan = ShardCostBalancer.balance(costs(10), weights, key -> "10.0.0.2:8080");
+        assertEquals(List.of("topic:topic-0"), plan.getAssignment().get("10.0.0.2:8080"));
+        assertTrue(plan.getAssignment().get("10.0.0.1:8080").isEmpty());
+    }
+
+    @Test
+    public void testNoNodesReturnsEmptyPlan() {
+        ShardCostBalancer.Plan plan = ShardCostBalancer.balance(costs(10, 20), Collections.emptyMap(), key -> null);
+        assertTrue(plan.getAssignment().isEmpty());
+        assertEquals(0L, plan.getMakespan());
+    }
+}
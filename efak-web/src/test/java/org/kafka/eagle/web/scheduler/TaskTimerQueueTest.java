@@ -0,0 +1,124 @@
+package org.kafka.eagle.web.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TaskTimerQueue测试类
+ */
+public class TaskTimerQueueTest {
+
+    private final BlockingQueue<long[]> fired = new LinkedBlockingQueue<>();
+    private final TaskTimerQueue queue = new TaskTimerQueue("task-timer-test",
+            (taskId, fireAt) -> fired.add(new long[]{taskId, fireAt}));
+
+    @AfterEach
+    public void tearDown() {
+        queue.shutdown();
+    }
+
+    private long[] nextFired() throws InterruptedException {
+        long[] next = fired.poll(5, TimeUnit.SECONDS);
+        assertNotNull(next, "到期任务未在 5 秒内触发");
+        return next;
+    }
+
+    @Test
+    public void testSnapshotIsOrderedByFireTime() {
+        long now = System.currentTimeMillis();
+        queue.schedule(3L, now + 30_000);
+        queue.schedule(1L, now + 10_000);
+        queue.schedule(2L, now + 20_000);
+        queue.schedule(4L, now + 10_000);
+
+        // 触发时刻相同时按任务ID排序
+        assertEquals(Arrays.asList(1L, 4L, 2L, 3L), new ArrayList<>(queue.snapshot().keySet()));
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    public void testDueEntriesFireInFireTimeOrder() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        queue.schedule(1L, now - 1_000);
+        queue.schedule(2L, now - 3_000);
+        queue.schedule(3L, now - 2_000);
+        queue.start();
+
+        assertArrayEquals(new long[]{2L, now - 3_000}, nextFired());
+        assertArrayEquals(new long[]{3L, now - 2_000}, nextFired());
+        assertArrayEquals(new long[]{1L, now - 1_000}, nextFired());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testFutureEntryIsNotPolledBeforeDue() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        queue.schedule(1L, now + 60_000);
+        queue.schedule(2L, now - 1);
+        queue.start();
+
+        assertEquals(2L, nextFired()[0]);
+        assertNull(fired.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(Collections.singletonMap(1L, now + 60_000), queue.snapshot());
+
+        // 新入队的到期节点唤醒正在等待堆顶的定时线程
+        queue.schedule(3L, System.currentTimeMillis());
+        assertEquals(3L, nextFired()[0]);
+    }
+
+    @Test
+    public void testRescheduleReplacesPendingFireTime() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        queue.schedule(1L, now + 60_000);
+        queue.schedule(1L, now - 1);
+        assertEquals(1, queue.size());
+        queue.start();
+
+        assertArrayEquals(new long[]{1L, now - 1}, nextFired());
+        assertNull(fired.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testCancelledEntryNeverFires() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        queue.schedule(1L, now - 2_000);
+        queue.schedule(2L, now - 1_000);
+        queue.cancel(1L);
+        queue.cancel(99L);
+        assertEquals(1, queue.size());
+        queue.start();
+
+        assertEquals(2L, nextFired()[0]);
+        assertNull(fired.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCallbackFailureDoesNotStopTimer() throws InterruptedException {
+        BlockingQueue<Long> seen = new LinkedBlockingQueue<>();
+        TaskTimerQueue failing = new TaskTimerQueue("task-timer-failing", (taskId, fireAt) -> {
+            seen.add(taskId);
+            if (taskId == 1L) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        try {
+            long now = System.currentTimeMillis();
+            failing.schedule(1L, now - 2_000);
+            failing.schedule(2L, now - 1_000);
+            failing.start();
+
+            assertEquals(1L, seen.poll(5, TimeUnit.SECONDS).longValue());
+            assertEquals(2L, seen.poll(5, TimeUnit.SECONDS).longValue());
+        } finally {
+            failing.shutdown();
+        }
+    }
+}
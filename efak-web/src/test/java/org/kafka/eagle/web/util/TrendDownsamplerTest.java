@@ -0,0 +1,83 @@
+package org.kafka.eagle.web.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TrendDownsampler测试类
+ */
+public class TrendDownsamplerTest {
+
+    @Test
+    public void testResolveMaxPoints() {
+        assertEquals(120, TrendDownsampler.resolveMaxPoints(null, 120));
+        assertEquals(120, TrendDownsampler.resolveMaxPoints(0, 120));
+        assertEquals(50, TrendDownsampler.resolveMaxPoints(50, 120));
+        assertEquals(TrendDownsampler.MIN_POINTS, TrendDownsampler.resolveMaxPoints(1, 120));
+        assertEquals(TrendDownsampler.MAX_POINTS, TrendDownsampler.resolveMaxPoints(1000000, 120));
+    }
+
+    @Test
+    public void testBucketSeconds() {
+        LocalDateTime end = LocalDateTime.of(2025, 10, 24, 12, 0);
+        // 24小时 / (25 - 1) = 1小时一个桶
+        assertEquals(3600, TrendDownsampler.bucketSeconds(end.minusHours(24), end, 25));
+        // 30天按120个点取整后的桶长度，点数不超过120
+        long bucket = TrendDownsampler.bucketSeconds(end.minusDays(30), end, 120);
+        assertTrue(30L * 24 * 3600 / bucket + 1 <= 120);
+        assertEquals(1, TrendDownsampler.bucketSeconds(end, end, 10));
+    }
+
+    @Test
+    public void testLttbKeepsEndpointsAndPeaks() {
+        int size = 1000;
+        long[] x = new long[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i * 60_000L;
+            y[i] = 10;
+        }
+        y[500] = 1000; // 尖峰
+        y[700] = -1000; // 低谷
+
+        int[] indexes = TrendDownsampler.lttb(x, y, size, 50);
+        assertEquals(50, indexes.length);
+        assertEquals(0, indexes[0]);
+        assertEquals(size - 1, indexes[indexes.length - 1]);
+        for (int i = 1; i < indexes.length; i++) {
+            assertTrue(indexes[i] > indexes[i - 1]);
+        }
+        assertTrue(Arrays.stream(indexes).anyMatch(i -> i == 500));
+        assertTrue(Arrays.stream(indexes).anyMatch(i -> i == 700));
+    }
+
+    @Test
+    public void testLttbReturnsRowsUnderThreshold() {
+        List<Double> rows = Arrays.asList(1.0, 2.0, 3.0);
+        assertSame(rows, TrendDownsampler.lttb(rows, Double::doubleValue, 10));
+
+        List<Double> many = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            many.add((double) (i % 7));
+        }
+        List<Double> sampled = TrendDownsampler.lttb(many, Double::doubleValue, 10);
+        assertEquals(10, sampled.size());
+    }
+
+    @Test
+    public void testSumGroups() {
+        List<Double> values = Arrays.asList(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0);
+        int groupSize = TrendDownsampler.groupSize(values.size(), 3);
+        assertEquals(3, groupSize);
+        assertEquals(Arrays.asList(6.0, 15.0, 7.0), TrendDownsampler.sumGroups(values, groupSize));
+        assertEquals(Arrays.asList("a", "d", "g"),
+                TrendDownsampler.firstOfGroups(Arrays.asList("a", "b", "c", "d", "e", "f", "g"), groupSize));
+        assertEquals(1, TrendDownsampler.groupSize(3, 10));
+    }
+}